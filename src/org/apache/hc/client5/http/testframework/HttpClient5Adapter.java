@@ -28,18 +28,36 @@
 /**
  * OCT 13, 2017 (Lei Wang) Added code to handle SSO authentication.
  * FEB 26, 2018 (Lei Wang) Modified execute(): Use EntityBuilder to handle body of more formats (than String).
+ * OCT 19, 2026 Reuse one pooled, keep-alive client per adapter. Close each response to release
+ *                           its connection. Added connect timeouts, content compression control, and streaming
+ *                           of large response bodies to a File.
+ * OCT 19, 2026 Delete a temporary response body File as soon as a read fails.  The caller deletes it otherwise.
  */
 package org.apache.hc.client5.http.testframework;
 
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.reflect.Method;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
 
+import org.apache.hc.client5.http.ConnectionKeepAliveStrategy;
 import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.entity.DecompressingEntity;
+import org.apache.hc.client5.http.entity.DeflateDecompressingEntity;
 import org.apache.hc.client5.http.entity.EntityBuilder;
+import org.apache.hc.client5.http.entity.GzipDecompressingEntity;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
 import org.apache.hc.client5.http.impl.routing.DefaultProxyRoutePlanner;
 import org.apache.hc.client5.http.impl.sync.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.sync.CloseableHttpResponse;
@@ -47,12 +65,16 @@ import org.apache.hc.client5.http.impl.sync.HttpClientBuilder;
 import org.apache.hc.client5.http.impl.sync.HttpClients;
 import org.apache.hc.client5.http.methods.RequestBuilder;
 import org.apache.hc.client5.http.routing.HttpRoutePlanner;
+import org.apache.hc.core5.http.ConnectionReuseStrategy;
 import org.apache.hc.core5.http.ContentType;
 import org.apache.hc.core5.http.Header;
 import org.apache.hc.core5.http.HttpEntity;
 import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.HttpResponse;
 import org.apache.hc.core5.http.ProtocolVersion;
 import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.protocol.HttpContext;
 import org.safs.IndependantLog;
 import org.safs.auth.SSOAuth;
 import org.safs.auth.SSOAuthentication;
@@ -60,10 +82,123 @@ import org.safs.auth.SSOAuthentication;
 // TODO: can this be moved beside HttpClient?  If so, throw a better exception than HttpServerTestingFrameworkException.
 /**
  * Implementation of {@link HttpClientPOJOAdapter} for Apache HttpClient5.
+ * <p>
+ * Each adapter keeps one client and connection pool, so consecutive requests through the same 
+ * adapter reuse kept-alive connections.  Call {@link #close()} when the adapter is no longer needed.
  *
  * @since 5.0
  */
-public class HttpClient5Adapter extends HttpClientPOJOAdapter {
+public class HttpClient5Adapter extends HttpClientPOJOAdapter implements Closeable {
+
+	/** 20, default maximum pooled connections. */
+	public static final int DEFAULT_MAX_CONNECTIONS = 20;
+	/** 10, default maximum pooled connections to one host. */
+	public static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 10;
+	/** 60000, default milliseconds an idle connection is kept alive when the server does not say. */
+	public static final long DEFAULT_KEEP_ALIVE = 60000;
+
+	private int maxConnections = DEFAULT_MAX_CONNECTIONS;
+	private int maxConnectionsPerRoute = DEFAULT_MAX_CONNECTIONS_PER_ROUTE;
+	private long keepAliveMillis = DEFAULT_KEEP_ALIVE;
+	private boolean contentCompression = true;
+
+	private PoolingHttpClientConnectionManager connectionManager = null;
+	private CloseableHttpClient httpclient = null;
+
+	/**
+	 * @param maxConnections maximum pooled connections, at least 1.
+	 * @param maxConnectionsPerRoute maximum pooled connections to one host, at least 1.
+	 */
+	public synchronized void setConnectionPool(int maxConnections, int maxConnectionsPerRoute){
+		this.maxConnections = Math.max(1, maxConnections);
+		this.maxConnectionsPerRoute = Math.max(1, Math.min(this.maxConnections, maxConnectionsPerRoute));
+		if(connectionManager != null){
+			connectionManager.setMaxTotal(this.maxConnections);
+			connectionManager.setDefaultMaxPerRoute(this.maxConnectionsPerRoute);
+		}
+	}
+
+	/**
+	 * @param keepAliveMillis the longest an idle connection is kept for reuse.  
+	 * 0 closes connections after each request.  Servers may specify a shorter time.
+	 */
+	public synchronized void setKeepAliveMillis(long keepAliveMillis){
+		if(this.keepAliveMillis != keepAliveMillis) close();
+		this.keepAliveMillis = keepAliveMillis;
+	}
+
+	/**
+	 * @param contentCompression true (default) to request gzip/deflate responses and decompress them transparently.
+	 */
+	public synchronized void setContentCompression(boolean contentCompression){
+		if(this.contentCompression != contentCompression) close();
+		this.contentCompression = contentCompression;
+	}
+
+	@Override
+	public synchronized void setAuth(org.safs.auth.Auth auth){
+		if(this.auth != auth) close();
+		super.setAuth(auth);
+	}
+
+	@Override
+	public synchronized void setProxyServerURL(String proxyServerURL){
+		if(this.proxyServerURL == null ? proxyServerURL != null : ! this.proxyServerURL.equals(proxyServerURL)) close();
+		super.setProxyServerURL(proxyServerURL);
+	}
+
+	/**
+	 * @return the pooled client, built on first use.
+	 */
+	protected synchronized CloseableHttpClient getHttpClient(){
+		if(httpclient != null) return httpclient;
+		connectionManager = new PoolingHttpClientConnectionManager();
+		connectionManager.setMaxTotal(maxConnections);
+		connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+
+		HttpClientBuilder clientBuilder = HttpClients.custom().setConnectionManager(connectionManager);
+		HttpRoutePlanner proxy = getProxyPlanner();
+		if(proxy!=null){
+			clientBuilder.setRoutePlanner(proxy);
+		}
+		if(auth instanceof SSOAuth){
+			SSOAuthentication ssoAuth = SSOAuthentication.getInstance().init((SSOAuth) auth);
+			ssoAuth.addCookies(clientBuilder);
+		}
+		final long keepAlive = keepAliveMillis;
+		clientBuilder.setKeepAliveStrategy(new ConnectionKeepAliveStrategy(){
+			@Override
+			public long getKeepAliveDuration(HttpResponse response, HttpContext context){
+				long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+				return duration < 0 || duration > keepAlive ? keepAlive : duration;
+			}
+		});
+		if(keepAlive > 0) clientBuilder.evictIdleConnections(keepAlive, TimeUnit.MILLISECONDS);
+		else clientBuilder.setConnectionReuseStrategy(new ConnectionReuseStrategy(){
+			@Override
+			public boolean keepAlive(HttpRequest request, HttpResponse response, HttpContext context){
+				return false;
+			}
+		});
+		if(!contentCompression) clientBuilder.disableContentCompression();
+		httpclient = clientBuilder.build();
+		return httpclient;
+	}
+
+	/**
+	 * Close the client and its pooled connections.  The next request builds a new client.
+	 */
+	@Override
+	public synchronized void close(){
+		if(httpclient != null){
+			try{ httpclient.close(); }catch(IOException x){
+				IndependantLog.debug("HttpClient5Adapter.close(): "+ x.getMessage());
+			}
+		}
+		if(connectionManager != null) connectionManager.close();
+		httpclient = null;
+		connectionManager = null;
+	}
 
     /**
      * {@inheritDoc}
@@ -107,11 +242,13 @@ public class HttpClient5Adapter extends HttpClientPOJOAdapter {
             builder = builder.setVersion((ProtocolVersion) request.get("protocolVersion"));
         }
 
-        // timeout
-        if (request.containsKey("timeout")) {
-            final long timeout = (long) request.get("timeout");
+        // timeouts
+        if (request.containsKey(TIMEOUT) || request.containsKey(CONNECT_TIMEOUT) || request.containsKey(CONNECTION_REQUEST_TIMEOUT)) {
             RequestConfig.Builder requestConfigBuilder = RequestConfig.custom();
-            requestConfigBuilder.setSocketTimeout((int) timeout);
+            if (request.containsKey(TIMEOUT)) requestConfigBuilder.setSocketTimeout(toMillis(request.get(TIMEOUT)));
+            if (request.containsKey(CONNECT_TIMEOUT)) requestConfigBuilder.setConnectTimeout(toMillis(request.get(CONNECT_TIMEOUT)));
+            if (request.containsKey(CONNECTION_REQUEST_TIMEOUT)) requestConfigBuilder.setConnectionRequestTimeout(toMillis(request.get(CONNECTION_REQUEST_TIMEOUT)));
+            requestConfigBuilder.setContentCompressionEnabled(contentCompression);
             builder.setConfig(requestConfigBuilder.build());
         }
 
@@ -162,40 +299,116 @@ public class HttpClient5Adapter extends HttpClientPOJOAdapter {
             builder = builder.setEntity(entity);
         }
 
-         // Now execute the request.
-        HttpRoutePlanner proxy = getProxyPlanner();
-        CloseableHttpClient httpclient = null;
-        HttpClientBuilder clientBuilder = HttpClients.custom();
+         // Now execute the request on the pooled client.
+        final Map<String, Object> ret = new HashMap<String, Object>();
+        final CloseableHttpResponse response = getHttpClient().execute(builder.build());
+        try{
+            // Prepare the response.  It will contain status, body, headers, and contentType.
+            final HttpEntity entity = decompress(response.getEntity());
+            final String contentType = entity == null ? null : entity.getContentType();
+            Object body = null;
+            long[] length = new long[1];
+            if(entity != null){
+                File responseFile = (File) request.get(RESPONSE_FILE);
+                long limit = request.containsKey(RESPONSE_BUFFER_LIMIT) ? ((Number) request.get(RESPONSE_BUFFER_LIMIT)).longValue() : -1;
+                body = readBody(entity, responseFile, limit, length);
+            }
 
-        if(proxy!=null){
-        	clientBuilder = HttpClients.custom().setRoutePlanner(proxy);
-        }
-        if(auth instanceof SSOAuth){
-        	SSOAuthentication ssoAuth = SSOAuthentication.getInstance().init((SSOAuth) auth);
-        	ssoAuth.addCookies(clientBuilder);
+            ret.put("status", response.getCode());
+
+            // convert the headers to a Map
+            final Map<String, Object> headerMap = new HashMap<String, Object>();
+            for (Header header : response.getAllHeaders()) {
+                headerMap.put(header.getName(), header.getValue());
+            }
+            ret.put("headers", headerMap);
+            ret.put("body", body);
+            ret.put(BODY_LENGTH, length[0]);
+            ret.put(BODY_TEMPORARY, Boolean.valueOf(body instanceof File && ! body.equals(request.get(RESPONSE_FILE))));
+            ret.put("contentType", contentType);
+        }finally{
+            // releases the connection back to the pool
+            response.close();
         }
+        return ret ;
+    }
 
-        httpclient = clientBuilder.build();
-        final CloseableHttpResponse response = httpclient.execute(builder.build());
+    /**
+     * Wrap a gzip or deflate encoded entity not already decompressed by the client.
+     * @return the decompressing entity, or the original entity.
+     */
+    protected HttpEntity decompress(HttpEntity entity){
+        if(!contentCompression || entity == null || entity instanceof DecompressingEntity) return entity;
+        String encoding = entity.getContentEncoding();
+        if(encoding == null) return entity;
+        encoding = encoding.trim().toLowerCase();
+        if(encoding.equals("gzip") || encoding.equals("x-gzip")) return new GzipDecompressingEntity(entity);
+        if(encoding.equals("deflate")) return new DeflateDecompressingEntity(entity);
+        return entity;
+    }
 
-        // Prepare the response.  It will contain status, body, headers, and contentType.
-        final HttpEntity entity = response.getEntity();
-        final String body = entity == null ? null : EntityUtils.toString(entity);
-        final String contentType = entity == null ? null : entity.getContentType();
+    /** @return the charset EntityUtils.toString would use to decode the entity. */
+    private static Charset getCharset(HttpEntity entity){
+        ContentType type = EntityUtils.getContentTypeLenient(entity);
+        Charset charset = type == null ? null : type.getCharset();
+        if(charset == null && type != null){
+            ContentType known = ContentType.getByMimeType(type.getMimeType());
+            if(known != null) charset = known.getCharset();
+        }
+        return charset == null ? StandardCharsets.ISO_8859_1 : charset;
+    }
 
-        final Map<String, Object> ret = new HashMap<String, Object>();
-        ret.put("status", response.getCode());
+    private static int toMillis(Object value){
+        long millis = ((Number) value).longValue();
+        return millis > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) millis;
+    }
 
-        // convert the headers to a Map
-        final Map<String, Object> headerMap = new HashMap<String, Object>();
-        for (Header header : response.getAllHeaders()) {
-            headerMap.put(header.getName(), header.getValue());
+    /**
+     * Read the response body without holding more than the buffer limit in memory.
+     * @param entity the response entity.
+     * @param responseFile if not null, the body is written to this File.
+     * @param limit if responseFile is null, bodies longer than limit bytes are written to a 
+     * temporary File.  A negative limit keeps all bodies in memory.
+     * @param length length[0] receives the number of body bytes read.
+     * @return the body String, or the File holding the body.  A temporary File belongs to the 
+     * caller, which must delete it once the body is no longer needed, as Response.release() does.
+     * It is not registered for deletion on exit, so long runs do not accumulate exit hooks.
+     */
+    protected Object readBody(HttpEntity entity, File responseFile, long limit, long[] length) throws IOException{
+        if(limit < 0) limit = Long.MAX_VALUE;
+        InputStream in = entity.getContent();
+        if(in == null) return null;
+        OutputStream out = null;
+        File temporary = null;
+        boolean complete = false;
+        try{
+            byte[] buffer = new byte[8192];
+            ByteArrayOutputStream memory = null;
+            if(responseFile == null) memory = new ByteArrayOutputStream((int)Math.min(limit, buffer.length));
+            else out = new FileOutputStream(responseFile);
+            int read;
+            while((read = in.read(buffer)) > -1){
+                length[0] += read;
+                if(memory != null && length[0] > limit){
+                    temporary = File.createTempFile("safsrest", ".body");
+                    responseFile = temporary;
+                    out = new FileOutputStream(responseFile);
+                    memory.writeTo(out);
+                    memory = null;
+                }
+                if(memory != null) memory.write(buffer, 0, read);
+                else out.write(buffer, 0, read);
+            }
+            complete = true;
+            if(memory != null){
+                return new String(memory.toByteArray(), getCharset(entity));
+            }
+            return responseFile;
+        }finally{
+            try{ in.close(); }catch(IOException ignore){}
+            if(out != null) out.close();
+            if(! complete && temporary != null) temporary.delete();
         }
-        ret.put("headers", headerMap);
-        ret.put("body", body);
-        ret.put("contentType", contentType);
-
-        return ret ;
     }
 
     /**
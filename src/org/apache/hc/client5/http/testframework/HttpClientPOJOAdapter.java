@@ -28,6 +28,7 @@ package org.apache.hc.client5.http.testframework;
 /**
  * History:
  * OCT 13, 2017 (Lei Wang) Add a field of type Auth.
+ * OCT 19, 2026 Add request keys for connection timeouts and streamed response bodies.
  */
 import java.util.Map;
 
@@ -36,6 +37,14 @@ import org.safs.auth.Auth;
 //TODO:  can this class be moved beside HttpClient? (in org.apache.hc.client5.http.sync)
 public abstract class HttpClientPOJOAdapter {
     public static final String BODY = "body";
+    /** response: Long, bytes read from the response body. */
+    public static final String BODY_LENGTH = "bodyLength";
+    /** response: Boolean, true if the body is a temporary File owned by the caller, which should delete it. */
+    public static final String BODY_TEMPORARY = "bodyTemporary";
+    /** request: Long, milliseconds to establish a connection. */
+    public static final String CONNECT_TIMEOUT = "connectTimeout";
+    /** request: Long, milliseconds to wait for a pooled connection. */
+    public static final String CONNECTION_REQUEST_TIMEOUT = "connectionRequestTimeout";
     public static final String CONTENT_TYPE = "contentType";
     public static final String HEADERS = "headers";
     public static final String METHOD = "method";
@@ -47,6 +56,10 @@ public abstract class HttpClientPOJOAdapter {
     public static final String QUERY = "query";
     public static final String REQUEST = "request";
     public static final String RESPONSE = "response";
+    /** request: Long, response bodies longer than this many bytes are returned as a File instead of a String. */
+    public static final String RESPONSE_BUFFER_LIMIT = "responseBufferLimit";
+    /** request: File, the response body is streamed to this File, which is returned as the body. */
+    public static final String RESPONSE_FILE = "responseFile";
     public static final String STATUS = "status";
     public static final String TIMEOUT = "timeout";
     public static final String USERID = "userid";
@@ -17,11 +17,14 @@
 **/
 package org.safs;
 
+import java.awt.Rectangle;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 
 import org.safs.jvmagent.STAFLocalServer;
+import org.safs.jvmagent.SubtreeSnapshot;
 import org.safs.tools.drivers.DriverConstant;
 
 /**
@@ -43,6 +46,7 @@ import org.safs.tools.drivers.DriverConstant;
  * <br>    DharmeshPatel FEB 11,2011 Added an engine command, 'isTopLevelPopupContainer'.    
  * <br>    Dharmesh4	May 25, 2011 Added an engine command, 'getDomainName' and 'getClassIndex' 
  * <br>    JunwuMa MAR 16, 2012 Adding engine command, 'getObjectRecognitionAtScreenCoords'.          
+ * <br>    OCT 19, 2026 Adding engine command, 'getSubtreeSnapshot'.
  * @see #setGuiObjectVector(GuiObjectVector)
  */
 public class EngineCommandProcessor extends Processor {
@@ -101,6 +105,9 @@ public class EngineCommandProcessor extends Processor {
 	/** 'getSuperClassNames' */
 	public static final String COMMAND_GET_SUPER_CLASSNAMES = "getSuperClassNames";
 
+	/** 'getSubtreeSnapshot' */
+	public static final String COMMAND_GET_SUBTREE_SNAPSHOT = "getSubtreeSnapshot";
+
 	/** 'getText' */
 	public static final String COMMAND_GET_TEXT = "getText";
 
@@ -201,6 +208,8 @@ public class EngineCommandProcessor extends Processor {
 				_getStringData();
 			}else if (command.equalsIgnoreCase(COMMAND_GET_SUPER_CLASSNAMES)){
 				_getSuperClassNames();
+			}else if (command.equalsIgnoreCase(COMMAND_GET_SUBTREE_SNAPSHOT)){
+				_getSubtreeSnapshot();
 			}else if (command.equalsIgnoreCase(COMMAND_GET_TEXT)){
 				_getText();
 			}else if (command.equalsIgnoreCase(COMMAND_GET_TOPLEVEL_COUNT)){
@@ -683,7 +692,18 @@ public class EngineCommandProcessor extends Processor {
 	    Iterator iterator = params.iterator();
 	    String _comp = (String) iterator.next();
 		Log.info("ECP."+ command +" processing "+ _comp.getClass().getName()+":"+_comp.toString());
-		Object[] kids = gov.getChildObjects(_comp);
+		String[] keys = cacheChildKeys(gov.getChildObjects(_comp));
+		testRecordData.setStatusInfo(convertToDelimitedString(keys));
+		testRecordData.setStatusCode(StatusCodes.NO_SCRIPT_FAILURE);
+		//logging?				
+	}
+
+	/**
+	 * Cache the child objects (if not already keys) and return their unique cache keys.
+	 * @param kids child objects or keys as returned by GuiObjectVector.getChildObjects.
+	 * @return String[] of cache keys in the same order as the children.
+	 */
+	private String[] cacheChildKeys(Object[] kids){
 	    String[] keys = new String[kids.length];
     	for(int i=0;i<kids.length;i++){
     		if(kids[i] instanceof String){
@@ -694,9 +714,123 @@ public class EngineCommandProcessor extends Processor {
     		}
     		Log.info("ECP."+ command +" item cached = "+ gov.getCachedItem(keys[i]).getClass().getName());
     	}
-		testRecordData.setStatusInfo(convertToDelimitedString(keys));
+    	return keys;
+	}
+
+	/**
+	 * Capture the component and its descendants in a single response so the STAFProcessContainer 
+	 * does not have to issue one engine command per node and per field.
+	 * <p>
+	 * params[0] = component key<br>
+	 * params[1] = depth limit (-1 for the full subtree, 0 for the component only)<br>
+	 * params[2-N] = (optional) property names to capture, or "*" for all properties
+	 * 
+	 * @see SubtreeSnapshot
+	 */
+	private void _getSubtreeSnapshot() {
+		Log.info("ECP."+ command +" processing...");
+		if(! validateParamSize(2)) return;
+	    Iterator iterator = params.iterator();
+	    String _comp = (String) iterator.next();
+	    String _depth = (String) iterator.next();
+	    int maxDepth = SubtreeSnapshot.UNLIMITED_DEPTH;
+	    try{ maxDepth = Integer.parseInt(_depth);}
+	    catch(NumberFormatException nfe){
+	    	Log.debug("ECP."+ command +" ignoring invalid depth '"+ _depth +"', using full subtree.");
+	    }
+	    boolean allProperties = false;
+	    List<String> properties = new ArrayList<String>();
+	    while(iterator.hasNext()){
+	    	String prop = (String) iterator.next();
+	    	if(SubtreeSnapshot.ALL_PROPERTIES.equals(prop)) allProperties = true;
+	    	else if(prop.length()>0) properties.add(prop);
+	    }
+	    SubtreeSnapshot snapshot = new SubtreeSnapshot(
+	    	snapshotNode(_comp, 0, maxDepth, allProperties, properties));
+		Log.info("ECP."+ command +" captured "+ snapshot.size() +" components.");
+		testRecordData.setStatusInfo(snapshot.encode());
 		testRecordData.setStatusCode(StatusCodes.NO_SCRIPT_FAILURE);
-		//logging?				
+	}
+
+	/**
+	 * Capture one component and, depth permitting, its descendants.
+	 * Values are normalized the same way the individual engine commands normalize them.
+	 * @param key component cache key.
+	 * @param depth depth of this component relative to the snapshot root.
+	 * @param maxDepth depth limit, or a negative value for no limit.
+	 * @param allProperties true to capture every available property.
+	 * @param properties specific property names to capture when allProperties is false.
+	 * @return the captured Node.
+	 */
+	protected SubtreeSnapshot.Node snapshotNode(String key, int depth, int maxDepth, boolean allProperties, List<String> properties){
+		SubtreeSnapshot.Node node = new SubtreeSnapshot.Node();
+		node.depth = depth;
+		node.key = key;
+	    GuiObjectRecognition rec = gov.createGuiObjectRecognition(key, -1);
+	    Object item = gov.getCachedItem(key);
+	    node.className = nullIfBlank(rec.getObjectClassName(item));
+	    node.domainName = nullIfBlank(rec.getObjectDomain(item));
+	    node.accessibleName = nullIfBlank(rec.getObjectAccessibleName(item));
+	    node.nonAccessibleName = nullIfBlank(rec.getObjectName(item));
+	    node.caption = nullIfBlank(rec.getObjectCaption(item));
+	    node.text = nullIfBlank(rec.getObjectText(item));
+	    node.id = nullIfBlank(rec.getObjectID(item));
+	    node.classIndex = nullIfBlank(rec.getObjectClassIndex(item));
+	    node.showing = rec.isObjectShowing(item);
+	    node.superClassNames = rec.getObjectSuperClassNames(item);
+	    node.bounds = getObjectScreenBounds(item);
+
+	    if(allProperties){
+	    	String[] names = rec.getObjectPropertyNames(item);
+	    	node.propertyNames = (names == null) ? new String[0] : names;
+	    	for(String name: node.propertyNames){
+	    		if(name.endsWith("()")){
+	    			// same first 5 values of any indexed property the container will show
+	    			String base = name.substring(0, name.length()-2);
+	    			for(int k=0;k<5;k++){
+	    				String iname = base +"("+ k +")";
+	    				try{ node.properties.put(iname, rec.getObjectProperty(item, iname));}
+	    				catch(Exception x){ break; }
+	    			}
+	    		}else{
+	    			snapshotProperty(node, rec, item, name);
+	    		}
+	    	}
+	    }else{
+	    	for(String name: properties) snapshotProperty(node, rec, item, name);
+	    }
+
+	    Object[] kids = gov.getChildObjects(key);
+	    node.childCount = kids.length;
+	    if(maxDepth < 0 || depth < maxDepth){
+	    	node.expanded = true;
+	    	String[] keys = cacheChildKeys(kids);
+	    	for(int i=0;i<keys.length;i++){
+	    		node.children.add(snapshotNode(keys[i], depth+1, maxDepth, allProperties, properties));
+	    	}
+	    }
+		return node;
+	}
+
+	private void snapshotProperty(SubtreeSnapshot.Node node, GuiObjectRecognition rec, Object item, String name){
+		try{ node.properties.put(name, rec.getObjectProperty(item, name));}
+		catch(Exception x){
+			Log.debug("ECP."+ command +" property '"+ name +"' not captured: "+ x.getClass().getSimpleName());
+		}
+	}
+
+	private String nullIfBlank(String value){
+		return ((value==null)||(value.trim().length()==0)) ? null : value;
+	}
+
+	/**
+	 * Engines able to provide component screen bounds cheaply should override this so that 
+	 * subtree snapshots carry the bounds used by the container's "Map JPG" output.
+	 * @param item the engine-specific component object.
+	 * @return the component's screen bounds, or null if not available.  This default returns null.
+	 */
+	protected Rectangle getObjectScreenBounds(Object item){
+		return null;
 	}
 
 	/**
@@ -18,6 +18,12 @@
 package org.safs;
 
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
 /**
  * @author Carl Nagle, SEP 02, 2004
  *         modified processChildren to skip checking children of Comboboxes
@@ -27,6 +33,13 @@ import java.util.*;
  *         Initial mods to support new (quicker?) FULLPATH_SEARCH_MODE.
  * @author Carl Nagle, MAY 01, 2009
  *         Complete FULLPATH_SEARCH_MODE implementation.
+ * OCT 19, 2026
+ *         Search results and flags moved into a per-search {@link SearchState} so concurrent 
+ *         searches on different threads no longer share static storage.  The absolute index 
+ *         store is now kept per thread.
+ * OCT 19, 2026
+ *         Added opt-in, bounded parallel prefetch of the children of sibling subtrees, 
+ *         see {@link #setParallelTraversal(int)}.
  */
 public class GuiChildIterator {
 
@@ -78,31 +91,39 @@ public class GuiChildIterator {
 	protected static int SEARCH_MODE = CLASSIC_SEARCH_MODE;
 	
 	/**
-	 * @return the SEARCH_MODE
+	 * @return the SEARCH_MODE of the last search started on the calling thread, 
+	 * or the default SEARCH_MODE if no search has been started on this thread.
 	 */
 	public static int getSearchMode() {
-		return SEARCH_MODE;
+		SearchState last = lastSearch.get();
+		return last == null ? SEARCH_MODE : last.searchMode;
 	}
 
 	/**
+	 * Sets the default SEARCH_MODE.  Each search still sets its own mode from 
+	 * {@link GuiObjectVector#isFullPathSearchMode()}.
 	 * @param search_mode the SEARCH_MODE to set
 	 */
 	public static void setSearchMode(int search_mode) {
 		SEARCH_MODE = search_mode;
 	}
 
-
-	/** Stores object references that match pieces of our recognition strings. **/
-	protected static Vector matches = null;	
+	/** Absolute indices are stored per thread so concurrent searches do not share counts. */
+	private static final ThreadLocal<Hashtable<String,Integer>> threadAbsIndices = new ThreadLocal<Hashtable<String,Integer>>(){
+		protected Hashtable<String,Integer> initialValue(){ return new Hashtable<String,Integer>(38); }
+	};
+	
+	/** The SearchState of the last search started on each thread. */
+	private static final ThreadLocal<SearchState> lastSearch = new ThreadLocal<SearchState>();
 	
-	/** Flag indicating whether object searches should continue to iterate. **/
-	protected static boolean notFound = true;
+	/** Number of worker threads prefetching child objects. 0 (the default) disables prefetch. */
+	private static int parallelTraversal = 0;
 	
-	/** Flag indicating a final match was achieved for the object vector. **/
-	protected static boolean hasFinalMatch = false;
+	/** Shared worker pool used for prefetch when parallelTraversal is greater than 0. */
+	private static ExecutorService prefetchWorkers = null;
 	
-	/** Stores object references at absolute indices. */
-    protected static Hashtable absindices = new Hashtable(38);
+	/** State of the search this iterator belongs to.  Shared by all iterators of one search. */
+	protected SearchState state = null;
 	
 	/** Stores list of matching named items. */
     protected  List gather = null;
@@ -110,19 +131,67 @@ public class GuiChildIterator {
     /** Returns are stored List. */
     public List getGather () {return gather;}
 
-	/** Returns stored absolute indices Hashtable. */
-	public static Hashtable getAbsoluteIndexStore() { return absindices; }
+	/** 
+	 * Returns stored absolute indices Hashtable for the calling thread. 
+	 * The store is shared by all searches on the thread until it is reset. */
+	public static Hashtable getAbsoluteIndexStore() { return threadAbsIndices.get(); }
 
-	/** Reset\Clear stored absolute indices. */
-	public static void resetAbsoluteIndexStore() { absindices.clear(); }
+	/** Reset\Clear stored absolute indices for the calling thread. */
+	public static void resetAbsoluteIndexStore() { threadAbsIndices.get().clear(); }
 
 	/**
-	 * Retrieves the final list of possible child matches.
+	 * Retrieves the final list of possible child matches of the last search 
+	 * started on the calling thread.
 	 * Each item in the Vector is an object of type MatchData.
 	 * 
 	 * @return the never-null Vector list of matched objects (if any).
+	 * @see #getSearchState()
+	 */
+	public static Vector getMatches(){ 
+		SearchState last = lastSearch.get();
+		return last == null ? new Vector<MatchData>() : last.matches;
+	}
+	
+	/** @return the SearchState of the search this iterator belongs to. */
+	public SearchState getSearchState(){ return state; }
+	
+	/**
+	 * Enable parallel prefetch of child objects during searches.
+	 * <p>
+	 * When enabled, and the GuiObjectVector reports {@link GuiObjectVector#isConcurrentTraversalSupported()}, 
+	 * the children of the next sibling subtrees are retrieved by a shared pool of worker threads 
+	 * while the search thread evaluates the current sibling.  At most 'workers' siblings are 
+	 * retrieved ahead of the search thread.  Matching and all index counting remain on the search 
+	 * thread in the original order, so results are the same as a sequential search.
+	 * <p>
+	 * This pays off when retrieving the children of an object is slow, as with remote or 
+	 * out-of-process toolkits.  For in-process toolkits it only adds overhead.
+	 * @param workers number of worker threads.  0 disables prefetch (the default).
 	 */
-	public static Vector getMatches(){ return matches; }
+	public static synchronized void setParallelTraversal(int workers){
+		if(workers < 0) workers = 0;
+		if(workers == parallelTraversal) return;
+		if(prefetchWorkers != null){
+			prefetchWorkers.shutdown();
+			prefetchWorkers = null;
+		}
+		parallelTraversal = workers;
+		if(workers > 0){
+			prefetchWorkers = Executors.newFixedThreadPool(workers, new ThreadFactory(){
+				int count = 0;
+				public synchronized Thread newThread(Runnable r){
+					Thread t = new Thread(r, "GCI.prefetch-"+ (++count));
+					t.setDaemon(true);
+					return t;
+				}
+			});
+		}
+	}
+	
+	/** @return number of worker threads used for child prefetch.  0 if disabled. */
+	public static synchronized int getParallelTraversal(){ return parallelTraversal; }
+	
+	private static synchronized ExecutorService getPrefetchWorkers(){ return prefetchWorkers; }
 	
 	  
 	/**
@@ -135,6 +204,16 @@ public class GuiChildIterator {
         this.gather = gather;
     }
 
+	/**
+	 * Create the iterator for the next level of the current search. 
+	 * The new iterator shares this iterator's SearchState.
+	 */
+	protected GuiChildIterator createChildIterator(GuiObjectVector agovVector){
+		GuiChildIterator it = agovVector.createGuiChildIterator(gather);
+		it.state = state;
+		return it;
+	}
+
 	/**
 	 * Called only once by some external routine kicking off a TestObject search.
 	 * The govLevel and objLevel in the ObjectVector will be assumed to be 0.
@@ -159,16 +238,14 @@ public class GuiChildIterator {
 	public GuiChildIterator (Object aparent, GuiObjectVector agovVector,
                                   java.util.List gather) {
         this(gather);
-        if(agovVector.isFullPathSearchMode()) {
-        	setSearchMode(FULLPATH_SEARCH_MODE);
-        }else{
-        	setSearchMode(CLASSIC_SEARCH_MODE);
+        state = new SearchState(agovVector.isFullPathSearchMode() ? FULLPATH_SEARCH_MODE : CLASSIC_SEARCH_MODE,
+        		                threadAbsIndices.get());
+        if(getParallelTraversal() > 0 && agovVector.isConcurrentTraversalSupported()){
+        	state.prefetch = new IdentityHashMap<Object,Future<Object[]>>();
         }
+        lastSearch.set(state);
 		Hashtable classindices = new Hashtable(8);
 		Hashtable typeindices = new Hashtable(8);
-		matches = new Vector(10, 3);
-		notFound = true;
-		hasFinalMatch = false;
 		
 		// class (ex: JFrame) and Type (ex: Window) counters are complimentary
 		// for each class that is a known type BOTH counters get incremented.
@@ -221,25 +298,29 @@ public class GuiChildIterator {
 		Hashtable save_classindices = (Hashtable) classindices.clone();
 		Hashtable save_typeindices = (Hashtable) typeindices.clone();
 		
-		processParent(aparent, agovVector, startlevel, 1, classindices, typeindices, typeclass);
-		Object matchedObject = this.getMatchedGuiObject();
-		
-		if(matchedObject==null){
-			if(SEARCH_MODE != FULLPATH_SEARCH_MODE){
-				Log.info("GCI: CLASSIC_SEARCH_MODE calling processChildren...");
-				processChildren(aparent, agovVector, startlevel, 1, classindices, typeindices, typeclass);
-			}else{
-				Log.info("GCI: FULLPATH_SEARCH_MODE calling processChildren...");
-				processChildren(aparent, agovVector, startlevel, 1, save_classindices, save_typeindices, typeclass);
+		try{
+			processParent(aparent, agovVector, startlevel, 1, classindices, typeindices, typeclass);
+			Object matchedObject = this.getMatchedGuiObject();
+			
+			if(matchedObject==null){
+				if(state.searchMode != FULLPATH_SEARCH_MODE){
+					Log.info("GCI: CLASSIC_SEARCH_MODE calling processChildren...");
+					processChildren(aparent, agovVector, startlevel, 1, classindices, typeindices, typeclass);
+				}else{
+					Log.info("GCI: FULLPATH_SEARCH_MODE calling processChildren...");
+					processChildren(aparent, agovVector, startlevel, 1, save_classindices, save_typeindices, typeclass);
+				}
 			}
+		}finally{
+			state.cancelPrefetch();
 		}
 	}
 
 	/**
 	 * See if the provided object reference has any children that may help satisfy the 
 	 * recognition string.  This is essentially how this Iterator is "reentrant".  
-	 * Objects matching pieces of our ObjectVector are added to the statically shared 
-	 * matches collection until the final Object satisfying the entire ObjectVector 
+	 * Objects matching pieces of our ObjectVector are added to the matches collection 
+	 * of the shared SearchState until the final Object satisfying the entire ObjectVector 
 	 * is found.
 	 * <p>
 	 * Throughout the process we must maintain an accurate count of each class and its 
@@ -293,14 +374,14 @@ public class GuiChildIterator {
           }catch(Exception x){;}                            	
 
           //may be cached keys to proxies during EXTERNAL_PROCESSING
-          Object[] childsChildren = agovVector.getChildObjects(achild);
+          Object[] childsChildren = getChildObjects(agovVector, achild);
           
           if ( (childsChildren instanceof Object) &&
                (childsChildren.length > 0) ){
 
             Log.info("GCI: "+childsChildren.length +" children in "+ classname);
             Log.info("..........Child:"+ classname +", typeclass: "+typeclass);
-            GuiChildIterator it = agovVector.createGuiChildIterator(gather);
+            GuiChildIterator it = createChildIterator(agovVector);
             
             boolean isTab = (GuiClassData.classtypeContainsClassType(typeclass,"TabControl"))||
             				(GuiClassData.classtypeContainsClassType(classname,"Html.HtmlBrowser"));
@@ -323,7 +404,7 @@ public class GuiChildIterator {
 		Log.debug("GCI popup class name is "+classname);
 		// may be cached keys to proxies during EXTERNAL_PROCESSING
 		Object[] childsChildren = {parent};
-		GuiChildIterator it = agovVector.createGuiChildIterator(gather);
+		GuiChildIterator it = createChildIterator(agovVector);
 
 		it.processNextLevel(childsChildren, agovVector, agovLevel,
 					aobjLevel, classindices, typeindices, false);
@@ -367,7 +448,7 @@ public class GuiChildIterator {
 		    try{
 		    	Log.info("GCI.incrementClassTypeIndices evaluating possible TOOLTIP container...");
 		    	if(classdata.isToolTipContainerType(cti.typeclass)){
-		    		Object[] childsChildren = govVector.getChildObjects(child);
+		    		Object[] childsChildren = getChildObjects(govVector, child);
 	            	if(childsChildren!=null && childsChildren.length > 0){
 	            		tooltip = childsChildren[0];
 	            		tooltipclass = cti.gorInfo.getObjectClassName(tooltip);
@@ -399,6 +480,7 @@ public class GuiChildIterator {
 	    cti.classindex = classindex.intValue();	    
 	    Log.info("GCI: classindices.put("+classname+", "+classindex+")");
 	
+	    Hashtable<String,Integer> absindices = state.absindices;
 	    Integer absclassindex = (Integer) absindices.get(classname);
 	    absclassindex = (absclassindex == null) ? new Integer(1) : new Integer(absclassindex.intValue() +1);
 	    absindices.put(classname, absclassindex);
@@ -481,19 +563,25 @@ public class GuiChildIterator {
           Hashtable typeindices = entry_typeindices;
           Hashtable save_classindices = (Hashtable) entry_classindices.clone();
           Hashtable save_typeindices = (Hashtable) entry_typeindices.clone();
+          Object previous = null;
           
-          for (int i = 0; ((notFound)&&(notDone)&&(i < children.length)); i++){
+          for (int i = 0; ((state.notFound)&&(notDone)&&(i < children.length)); i++){
 
           	Object _child = null;
             Object child = null;
             Object[] childsChildren = new Object[0];
+            
+            // the previous sibling's subtree is complete
+            if(previous != null) state.releasePrefetch(previous);
+            previous = null;
+            prefetchSiblings(children, i, govVector);
 
             // reset indices for all but the last level of searching:
             // when dealing with things like TabControls with non-visible panels 
             // and in CLASSIC_SEARCH_MODE.
             // In FULLPATH_SEARCH_MODE these hidden panels get unique indices
             if( (govLevel  < govVector.getRecognitionDepth() -1 && onlyOneChildVisible) &&
-            	(SEARCH_MODE != FULLPATH_SEARCH_MODE)){ 
+            	(state.searchMode != FULLPATH_SEARCH_MODE)){ 
               if (i>0) {
                 Log.info(".....class/type indices reset for all but the last level of searching");
                 classindices = (Hashtable) save_classindices.clone();
@@ -515,6 +603,7 @@ public class GuiChildIterator {
             if(govVector.getProcessMode()==GuiObjectVector.MODE_EXTERNAL_PROCESSING){
 				try{child = govVector.getCachedItem(_child);}catch(Exception e){}
 			}
+			previous = child;
 			GuiObjectRecognition gor = govVector.getParentGuiObjectRecognition();
 			String classname = gor.getObjectClassName(child);
 			ClassTypeInfo typeinfo = null;
@@ -589,7 +678,7 @@ public class GuiChildIterator {
                     // a given type.  For example, all HTMLLinks on a page.
 	                Object matchObject = gorInfo.getMatchingObject(child);
 	                MatchData adata = new MatchData(govVector, govLevel, objLevel, matchObject);
-	                matches.addElement(adata);
+	                state.matches.addElement(adata);
                 }
                 classMatch = false;
               }
@@ -608,10 +697,10 @@ public class GuiChildIterator {
                 try{
                   int lenchildren = (typeinfo.childsChildren!=null) ? 
                 		typeinfo.childsChildren.length :
-                		govVector.getChildObjects(child).length;
+                		getChildObjects(govVector, child).length;
                   if (lenchildren > 0) {
                     //Log.index("notDone: processChildren: "+(objLevel+1));
-                	  if(SEARCH_MODE == FULLPATH_SEARCH_MODE){
+                	  if(state.searchMode == FULLPATH_SEARCH_MODE){
                 		  processChildren(child, govVector, govLevel + 1,
                                   objLevel + 1, save_classindices, save_typeindices, typeclass);
                 	  }
@@ -639,8 +728,8 @@ public class GuiChildIterator {
               // **** see if this is THEE child that completes our search! ****
               // **************************************************************
               else{
-                hasFinalMatch = gorInfo.isFinalMatch(child);
-                notFound = ! hasFinalMatch;
+                state.hasFinalMatch = gorInfo.isFinalMatch(child);
+                state.notFound = ! state.hasFinalMatch;
                 // for recognitions with Path=, we must get that object
                 Object matchObject = gorInfo.getMatchingObject(child);
                 // removing this unregister because currently unregistering any one reference 
@@ -653,7 +742,7 @@ public class GuiChildIterator {
                 // }
                 //
                 MatchData adata = new MatchData(govVector, govLevel, objLevel, matchObject);
-                matches.addElement(adata);
+                state.matches.addElement(adata);
               }
             }
             // not a class match for this object
@@ -661,15 +750,66 @@ public class GuiChildIterator {
             // if not complete match, see if the match is farther down the hierarchy
             // but only for the CLASSIC_SEARCH_MODE.
             // We do not go down hierarchy paths for FULLPATH_SEARCH_MODE if the parent did not match
-            else if(SEARCH_MODE!=FULLPATH_SEARCH_MODE){ // will be CLASSIC_SEARCH_MODE (or anything else) by default
+            else if(state.searchMode!=FULLPATH_SEARCH_MODE){ // will be CLASSIC_SEARCH_MODE (or anything else) by default
               //Log.index("processChildren: "+(objLevel+1));
               processChildren(child, govVector, govLevel, objLevel + 1,
                               classindices, typeindices, typeclass);
             }
           }// end FOR LOOP
+          if(previous != null) state.releasePrefetch(previous);
+	}
+
+	/**
+	 * Retrieve the children of an object, using a prefetched result when one is available.
+	 * @param govVector the currently active GuiObjectVector.
+	 * @param child the (non-key) object whose children are sought.
+	 * @return the children as returned by {@link GuiObjectVector#getChildObjects(Object)}.
+	 */
+	protected Object[] getChildObjects(GuiObjectVector govVector, Object child){
+		Future<Object[]> pending = state.getPrefetch(child);
+		if(pending != null){
+			try{
+				Object[] prefetched = pending.get();
+				if(prefetched != null) return prefetched;
+			}catch(Exception x){
+				Log.debug("GCI: prefetch IGNORING "+ x.getClass().getSimpleName());
+			}
+		}
+		return govVector.getChildObjects(child);
+	}
+
+	/**
+	 * Queue child retrieval for the siblings following index on the prefetch workers.
+	 * At most getParallelTraversal() siblings are queued ahead of the search thread.
+	 * Does nothing unless prefetch is enabled for this search.
+	 */
+	protected void prefetchSiblings(Object[] children, int index, final GuiObjectVector govVector){
+		if(state.prefetch == null) return;
+		ExecutorService workers = getPrefetchWorkers();
+		if(workers == null) return;
+		int last = Math.min(children.length, index + getParallelTraversal());
+		for(int i=index; i < last; i++){
+			Object _sibling = children[i];
+			if(_sibling == null) continue;
+			if(govVector.getProcessMode()==GuiObjectVector.MODE_EXTERNAL_PROCESSING){
+				try{_sibling = govVector.getCachedItem(_sibling);}catch(Exception e){continue;}
+				if(_sibling == null) continue;
+			}
+			if(state.prefetch.containsKey(_sibling)) continue;
+			final Object sibling = _sibling;
+			try{
+				state.prefetch.put(sibling, workers.submit(new Callable<Object[]>(){
+					public Object[] call(){
+						try{ return govVector.getChildObjects(sibling); }
+						catch(Throwable t){ return null; }
+					}
+				}));
+			}catch(RejectedExecutionException x){
+				return; // pool was reconfigured, continue sequentially
+			}
+		}
 	}
 
-	
 	/**
 	 * Retrieves the final Object that satisfies the entire GuiObjectVector recognition string.
 	 * 
@@ -678,9 +818,10 @@ public class GuiChildIterator {
 	 */
 	public Object getMatchedGuiObject(){
 		
+		Vector<MatchData> matches = state.matches;
 		int matchCount = matches.size();
 		
-		if (! hasFinalMatch){
+		if (! state.hasFinalMatch){
 			 // we will need to add code to resolve when multiple possible matches 
 			 // exist but none were found to be "showing".  This is usually only 
 			 // the case for items found by Index.
@@ -711,5 +852,61 @@ public class GuiChildIterator {
 		int absolutetypeindex = 0;
 		Object[] childsChildren = null;
 	}
+	
+	/**
+	 * The results and control flags of one search.  A SearchState is created by the 
+	 * GuiChildIterator that starts a search and is shared with the iterators it creates 
+	 * for each hierarchy level.  It is only modified by the thread running the search.
+	 */
+	public static class SearchState{
+		/** CLASSIC_SEARCH_MODE or FULLPATH_SEARCH_MODE. */
+		protected int searchMode = CLASSIC_SEARCH_MODE;
+		
+		/** Stores object references that match pieces of our recognition strings. **/
+		protected Vector<MatchData> matches = new Vector<MatchData>(10, 3);
+		
+		/** Flag indicating whether object searches should continue to iterate. **/
+		protected boolean notFound = true;
+		
+		/** Flag indicating a final match was achieved for the object vector. **/
+		protected boolean hasFinalMatch = false;
+		
+		/** Stores object references at absolute indices. */
+		protected Hashtable<String,Integer> absindices = null;
+		
+		/** Pending child retrievals keyed by object identity.  null if prefetch is disabled. */
+		protected Map<Object,Future<Object[]>> prefetch = null;
+		
+		public SearchState(int searchMode, Hashtable<String,Integer> absindices){
+			this.searchMode = searchMode;
+			this.absindices = absindices;
+		}
+		
+		public int getSearchMode(){ return searchMode; }
+		
+		/** @return the never-null Vector of MatchData for this search. */
+		public Vector<MatchData> getMatches(){ return matches; }
+		
+		public boolean hasFinalMatch(){ return hasFinalMatch; }
+		
+		public boolean isNotFound(){ return notFound; }
+		
+		public Hashtable<String,Integer> getAbsoluteIndexStore(){ return absindices; }
+		
+		Future<Object[]> getPrefetch(Object child){
+			return prefetch == null ? null : prefetch.get(child);
+		}
+		
+		void releasePrefetch(Object child){
+			if(prefetch == null) return;
+			Future<Object[]> pending = prefetch.remove(child);
+			if(pending != null) pending.cancel(false);
+		}
+		
+		void cancelPrefetch(){
+			if(prefetch == null) return;
+			for(Future<Object[]> pending: prefetch.values()) pending.cancel(false);
+			prefetch.clear();
+		}
+	}
 }
-
@@ -140,6 +140,7 @@ import org.safs.tools.stringutils.StringUtilities;
  * <br>		Carl Nagle	    Oct 26, 2009	Enhanced isMatchingText to check for undesirable mnemonic '&' chars.
  * <br>		Carl Nagle	    FEB 02, 2010	Qualifier HTMLTitle=text allows for matching isMatchingCaption OR isMatchingText
  * <br>		Carl Nagle	    JUN 15, 2010	Allow NBSP to be replaced with SPACE in HTML domain comparisons.
+ * <br>		OCT 19, 2026	Use RecognitionCache for parsed qualifiers, wildcard conversions and compiled Patterns.
  * 
  * Copyright (C) (SAS) All rights reserved.
  * GNU General Public License: http://www.opensource.org/licenses/gpl-license.php
@@ -992,6 +993,17 @@ public abstract class GuiObjectRecognition {
 		// if the value returned from getQualifierRecognition is null;
 		if (qualifierInfo == null)  return; 
 
+		// reuse qualifiers already parsed for this recognition string
+		String cacheKey = RecognitionCache.qualifierKey(qualifierInfo, qualifierSeparator, assignSeparator);
+		RecognitionCache.Qualifier[] parsed = RecognitionCache.getQualifiers(cacheKey);
+		if (parsed != null){
+			gorInfos = new GORInfo[parsed.length];
+			for(int i=0; i < parsed.length; i++){
+				if (parsed[i] != null) gorInfos[i] = new GORInfo(parsed[i].info, parsed[i].category, parsed[i].id, parsed[i].value);
+			}
+			return;
+		}
+
 		// check for multiple qualifiers
 		StringTokenizer toker = new StringTokenizer(qualifierInfo, qualifierSeparator);
 		int qualifiers = toker.countTokens();
@@ -1092,7 +1104,12 @@ public abstract class GuiObjectRecognition {
 				id = QUALIFIER_UNKNOWN_ID;
 			}
 			gorInfos[i++] = new GORInfo(qualifier, category, id, value);
-		}		
+		}
+		parsed = new RecognitionCache.Qualifier[gorInfos.length];
+		for(i=0; i < gorInfos.length; i++){
+			if (gorInfos[i] != null) parsed[i] = new RecognitionCache.Qualifier(gorInfos[i].itemInfo, gorInfos[i].itemName, gorInfos[i].itemID, gorInfos[i].itemValue);
+		}
+		RecognitionCache.putQualifiers(cacheKey, parsed);
 		return;
 	}
 	
@@ -1188,7 +1205,7 @@ public abstract class GuiObjectRecognition {
 
 			// no closing brace, take all remaining string chars (this is really invalid)
 			if (exclose < 1) {
-				expression = StringUtils.convertWildcardsToRegularExpression(expression.substring(1));
+				expression = RecognitionCache.getWildcardRegex(expression.substring(1));
 			}
 			// empty braces may mean any caption (this is really invalid)
 			else if (exclose < 2) {
@@ -1196,7 +1213,7 @@ public abstract class GuiObjectRecognition {
 			}
 			// seems OK, parse into regex
 			else{
-				expression = StringUtils.convertWildcardsToRegularExpression(expression.substring(1, exclose));
+				expression = RecognitionCache.getWildcardRegex(expression.substring(1, exclose));
 			}
 		}
 		return expression;
@@ -1781,7 +1798,7 @@ public abstract class GuiObjectRecognition {
             if(!blnExact){   
                 theValue="*" + theValue + "*";
                 try{
-                    String expression = StringUtils.convertWildcardsToRegularExpression(theValue);
+                    String expression = RecognitionCache.getWildcardRegex(theValue);
                     Log.info(" ... expression:" + expression);
                     Log.info(" ... value: " + matchValue);
                     rtnMatch = StringUtils.matchRegex(expression,matchValue);                    
@@ -1824,7 +1841,7 @@ public abstract class GuiObjectRecognition {
 		if (! blnExact) {
             theName="*" + theName + "*";
             try {
-	            String expression = StringUtils.convertWildcardsToRegularExpression(theName);
+	            String expression = RecognitionCache.getWildcardRegex(theName);
 	            Log.info(" ... expression:"+expression);
 	            Log.info(" ... value:"+matchName);
 	            match = StringUtils.matchRegex(expression, matchName);
@@ -1843,7 +1860,7 @@ public abstract class GuiObjectRecognition {
 	        if (! blnExact) {
 	            theName="*" + theName + "*";
 	            try {
-		            String expression = StringUtils.convertWildcardsToRegularExpression(theName);
+		            String expression = RecognitionCache.getWildcardRegex(theName);
 		            Log.info(" ... expression:"+expression);
 		            Log.info(" ... value:"+matchName);
 		            match = StringUtils.matchRegex(expression, matchName);
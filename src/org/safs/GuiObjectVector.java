@@ -43,6 +43,7 @@ import java.util.StringTokenizer;
  * <br>     DEC 09, 2009 (Carl Nagle) Fixed case-sensitive comparison error in isSeekingPopupMenu. Added "PopupMenu" support in isTopLevelPopupWindowType().
  * <br>     APR 23, 2010 (Carl Nagle) Mode convertToKeys handling case of individual null items in arrays.
  * <br>     MAR 09,2011 (DharmeshPatel) Added RFT Find Search Mode (:RFSM:) implementation.
+ * <br>     OCT 19, 2026 Added isConcurrentTraversalSupported for GuiChildIterator prefetch.
  */
 public abstract class GuiObjectVector {
 
@@ -627,7 +628,7 @@ public abstract class GuiObjectVector {
 		GuiChildIterator iterator = createGuiChildIterator(aparent, this, gather);
         Log.info("GOV: iterator: "+iterator);
 		// might be null if no match found
-        Vector matches = iterator.getMatches();
+        Vector matches = iterator.getSearchState().getMatches();
         if (matches.size()==0) return matches;
 		if(getProcessMode()==MODE_EXTERNAL_PROCESSING){
 			MatchData match;
@@ -874,6 +875,15 @@ public abstract class GuiObjectVector {
      **/
     protected abstract boolean isValidGuiContainer(Object object);
     
+    /**
+     * Return true if getChildObjects may be called concurrently from worker threads 
+     * while a search is running.  GuiChildIterator only prefetches child objects in 
+     * parallel for vectors returning true and when prefetch has been enabled.
+     * The default is false.
+     * @see GuiChildIterator#setParallelTraversal(int)
+     **/
+    public boolean isConcurrentTraversalSupported(){ return false; }
+    
 	/** Return a GuiObjectRecognition subclass instance.*/
 	protected abstract GuiObjectRecognition createGuiObjectRecognition(String subpath, int govLevel);		
 
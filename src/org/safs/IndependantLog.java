@@ -18,13 +18,18 @@
 /**
  * JUL 05, 2018 (Lei Wang) Use Map to manage the Methods got from class org.safs.Log
  * JUL 27, 2018 (Lei Wang) Modified method log(): invoke method with correct arguments.
+ * OCT 19, 2026 Replaced per-call Method.invoke with a pluggable Logger bound once to org.safs.Log
+ *                           through cached MethodHandles. Added setLevel so disabled levels cost one field read.
+ * OCT 19, 2026 MethodHandleLogger checks Log.isDeliverable instead of Log.isLoggable, so a registered debug Log
+ *                           receives messages below the log level as it does through MethodLogger.
  */
 package org.safs;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
-import java.util.HashMap;
-import java.util.Map;
 
 import org.safs.Constants.LogConstants;
 import org.safs.sockets.DebugListener;
@@ -40,6 +45,11 @@ import org.safs.sockets.DebugListener;
  * But our Droid-Engine needs some classes extending the
  * existing SAFS class who uses org.safs.Log
  * We can replace Log.XXX() by IndependantLog.XXX() in the SAFS class.
+ * <p>
+ * The org.safs.Log methods are resolved once, when this class loads, into a {@link Logger} 
+ * calling them through cached MethodHandles (or resolved Methods where MethodHandles are not 
+ * available).  Another backend can be plugged in with {@link #setLogger(Logger)}.
+ * Messages below {@link #setLevel(int)} are discarded after a single field read.
  *
  */
 public class IndependantLog {
@@ -47,6 +57,26 @@ public class IndependantLog {
 	private static Class<?> logClass = null;
 	private static boolean suspended = false;
 
+	/** Messages below this level are discarded without calling the logger. Default DEBUG (all). */
+	private static int threshold = LogConstants.DEBUG;
+
+	/**
+	 * A logging backend.  Implementations are called directly for every message that passes 
+	 * {@link IndependantLog#setLevel(int)}, so they should bind whatever they need once, up front.
+	 */
+	public static interface Logger {
+		/**
+		 * @param level int, one of the {@link LogConstants} levels DEBUG through ERROR.
+		 * @param message String, the message to log.
+		 * @param th Throwable, may be null.
+		 * @return false if the message could not be logged and should go to the console instead.
+		 */
+		public boolean log(int level, String message, Throwable th);
+	}
+
+	/** The bound backend, null if org.safs.Log is not available. */
+	private static Logger logger = null;
+
 	/**
 	 * If you set this listener, org.safs.Log will not try to log message.
 	 */
@@ -54,6 +84,31 @@ public class IndependantLog {
 
 	static{
 		getLogClass();
+		logger = createSAFSLogger(logClass);
+	}
+
+	/**
+	 * Discard messages below the given level with a single field read.
+	 * @param level int, one of the {@link LogConstants} levels DEBUG through ERROR.
+	 */
+	public static void setLevel(int level){
+		threshold = level;
+	}
+	/** @return the level below which messages are discarded. */
+	public static int getLevel(){
+		return threshold;
+	}
+
+	/**
+	 * Replace the logging backend.
+	 * @param logger Logger, the new backend. null restores the org.safs.Log backend, if available.
+	 */
+	public static void setLogger(Logger logger){
+		IndependantLog.logger = (logger==null) ? createSAFSLogger(logClass) : logger;
+	}
+	/** @return the current logging backend, null if there is none. */
+	public static Logger getLogger(){
+		return logger;
 	}
 
 	public static void suspendLogging(){
@@ -90,11 +145,107 @@ public class IndependantLog {
 	}
 
 	/**
-	 * The cache to store Method of Log class.<br>
-	 * The map's key is the Method name, such as "debug", "warn", "debugThrowable", "warnThrowable" etc.<br>
-	 * The map's value is the Method.<br>
+	 * Create the backend for the static logging methods of the given class, org.safs.Log.
+	 * MethodHandles are preferred, resolved Methods are used where MethodHandles are not available.
+	 * @param logClass Class, org.safs.Log, or null.
+	 * @return Logger, or null if logClass is null or does not provide the logging methods.
+	 */
+	static Logger createSAFSLogger(Class<?> logClass){
+		if(logClass==null) return null;
+		try{
+			return new MethodHandleLogger(logClass);
+		}catch(Throwable mhx){
+			try{
+				return new MethodLogger(logClass);
+			}catch(Throwable ignore){}
+		}
+		return null;
+	}
+
+	/** The name of the static logging method in org.safs.Log for the level, like "debug" or "warn". */
+	private static String methodName(int level){
+		return LogConstants.getLogLevelName(level).toLowerCase();
+	}
+
+	/**
+	 * Calls the static logging methods of org.safs.Log through MethodHandles bound once, per level.
+	 * Messages rejected by Log.isDeliverable, when it exists, do not build a stack trace.
+	 * Like the Log methods themselves, it lets through messages a registered debug Log may record.
+	 */
+	static class MethodHandleLogger implements Logger{
+		private final MethodHandle[] plain = new MethodHandle[LogConstants.ERROR+1];
+		private final MethodHandle[] throwable = new MethodHandle[LogConstants.ERROR+1];
+		private final MethodHandle loggable;
+
+		MethodHandleLogger(Class<?> logClass) throws Exception{
+			MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+			MethodType one = MethodType.methodType(void.class, Object.class);
+			MethodType two = MethodType.methodType(void.class, Object.class, Throwable.class);
+			for(int level=LogConstants.DEBUG;level<=LogConstants.ERROR;level++){
+				plain[level] = lookup.findStatic(logClass, methodName(level), one);
+				try{ throwable[level] = lookup.findStatic(logClass, methodName(level), two); }
+				catch(NoSuchMethodException x){ throwable[level] = plain[level]; }
+			}
+			MethodHandle check = null;
+			try{ check = lookup.findStatic(logClass, "isDeliverable", MethodType.methodType(boolean.class, int.class)); }
+			catch(NoSuchMethodException x){}
+			loggable = check;
+		}
+
+		@Override
+		public boolean log(int level, String message, Throwable th){
+			try{
+				if(loggable!=null && !(boolean) loggable.invokeExact(level)) return true;
+				if(th==null){
+					plain[level].invokeExact((Object) message);
+				}else if(throwable[level]==plain[level]){
+					plain[level].invokeExact((Object) (message + getStackTrace(th)));
+				}else{
+					throwable[level].invokeExact((Object) message, th);
+				}
+				return true;
+			}catch(Throwable e){
+				System.err.println("IndependantLog Error:");
+				e.printStackTrace();
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Calls the static logging methods of org.safs.Log through Methods resolved once, per level.
+	 * Used where MethodHandles are not available.
 	 */
-	private static Map<String, Method> loggers = new HashMap<String, Method>();
+	static class MethodLogger implements Logger{
+		private final Method[] plain = new Method[LogConstants.ERROR+1];
+		private final Method[] throwable = new Method[LogConstants.ERROR+1];
+
+		MethodLogger(Class<?> logClass) throws Exception{
+			for(int level=LogConstants.DEBUG;level<=LogConstants.ERROR;level++){
+				plain[level] = logClass.getMethod(methodName(level), Object.class);
+				try{ throwable[level] = logClass.getMethod(methodName(level), Object.class, Throwable.class); }
+				catch(NoSuchMethodException x){ throwable[level] = null; }
+			}
+		}
+
+		@Override
+		public boolean log(int level, String message, Throwable th){
+			try{
+				if(th==null){
+					plain[level].invoke(null, message);
+				}else if(throwable[level]==null){
+					plain[level].invoke(null, message + getStackTrace(th));
+				}else{
+					throwable[level].invoke(null, message, th);
+				}
+				return true;
+			}catch(Throwable e){
+				System.err.println("IndependantLog Error:");
+				e.printStackTrace();
+				return false;
+			}
+		}
+	}
 
 	/**
 	 * @param message String, the message to write into debug log.
@@ -128,52 +279,27 @@ public class IndependantLog {
 	 * @param th Throwable, to write into log
 	 */
 	private static void log(String message, int level, Throwable th){
-		if(!suspended){
-			//level is also the method name of Log class
-			String method = LogConstants.getLogLevelName(level).toLowerCase();
-			String key = method;
-			if(th!=null){
-				key += "Throwable";
-			}
-
-			try {
-				if(debugListener!=null){
-					debugListener.onReceiveDebug(message + getStackTrace(th));
-					return;
-				}
+		if(suspended || level < threshold) return;
 
-				Method logger = loggers.get(key);
-				if(logClass!=null && logger==null){
-					if(th==null){
-						logger = logClass.getMethod(method, Object.class);
-					}else{
-						logger = logClass.getMethod(method, Object.class, Throwable.class);
-					}
-					loggers.put(key, logger);
-				}
-
-				if(logger!=null){
-					if(th==null){
-						logger.invoke(null, message);
-					}else{
-						logger.invoke(null, message, th);
-					}
-					return;
-				}else{
-					//Comment this out, it is annoying if we don't have the org.safs.Log on the classpath,
-					//for example safsinstall.jar doesn't include org.safs.Log
-					//System.err.println("IndependantLog Error: could not get logger method for '"+key+"'.");
-				}
-			} catch (Throwable e) {
+		if(debugListener!=null){
+			try{
+				debugListener.onReceiveDebug(message + getStackTrace(th));
+				return;
+			}catch(Throwable e){
 				System.err.println("IndependantLog Error:");
 				e.printStackTrace();
 			}
+		}else{
+			//a null logger is normal if we don't have the org.safs.Log on the classpath,
+			//for example safsinstall.jar doesn't include org.safs.Log
+			Logger backend = logger;
+			if(backend!=null && backend.log(level, message, th)) return;
+		}
 
-			if(LogConstants.ERROR == level){
-				System.err.println(message + getStackTrace(th));
-			}else{
-				System.out.println(message + getStackTrace(th));
-			}
+		if(LogConstants.ERROR == level){
+			System.err.println(message + getStackTrace(th));
+		}else{
+			System.out.println(message + getStackTrace(th));
 		}
 	}
 
@@ -234,11 +360,66 @@ public class IndependantLog {
 	}
 
 	/**
-	 * Used to test methods in this class.
+	 * Microbenchmark of the per-call overhead of reaching org.safs.Log, with org.safs.Log disabled 
+	 * so only the dispatch is measured: the former Map lookup plus Method.invoke, resolved Methods, 
+	 * MethodHandles, and a level disabled by {@link #setLevel(int)}.
+	 * @param calls int, the number of calls timed for each case.
+	 */
+	static void benchmark(int calls) throws Throwable{
+		logClass.getField("ENABLED").setBoolean(null, false);
+		java.util.Map<String, Method> legacy = new java.util.HashMap<String, Method>();
+		Logger methods = new MethodLogger(logClass);
+		Logger handles = new MethodHandleLogger(logClass);
+		String message = "benchmark message";
+		for(int round=0;round<2;round++){ //first round warms up
+			long start = System.nanoTime();
+			for(int i=0;i<calls;i++){
+				String key = LogConstants.getLogLevelName(LogConstants.DEBUG).toLowerCase();
+				Method m = legacy.get(key);
+				if(m==null){
+					m = logClass.getMethod(key, Object.class);
+					legacy.put(key, m);
+				}
+				m.invoke(null, message);
+			}
+			long mapInvoke = System.nanoTime()-start;
+
+			start = System.nanoTime();
+			for(int i=0;i<calls;i++) methods.log(LogConstants.DEBUG, message, null);
+			long resolved = System.nanoTime()-start;
+
+			start = System.nanoTime();
+			for(int i=0;i<calls;i++) handles.log(LogConstants.DEBUG, message, null);
+			long bound = System.nanoTime()-start;
+
+			int level = threshold;
+			setLevel(LogConstants.INFO);
+			start = System.nanoTime();
+			for(int i=0;i<calls;i++) debug(message);
+			long disabled = System.nanoTime()-start;
+			setLevel(level);
+
+			if(round>0){
+				System.out.println("IndependantLog dispatch, "+ calls +" calls, ns/call:");
+				System.out.println("  Map + Method.invoke:  "+ (double) mapInvoke/calls);
+				System.out.println("  resolved Method:      "+ (double) resolved/calls);
+				System.out.println("  MethodHandle:         "+ (double) bound/calls);
+				System.out.println("  disabled level:       "+ (double) disabled/calls);
+			}
+		}
+	}
+
+	/**
+	 * Used to test methods in this class.<br>
+	 * With argument "-bench" [calls], runs {@link #benchmark(int)} instead.
 	 * @param args
 	 */
 	public static void main(String[] args){
 		try {
+			if(args.length>0 && "-bench".equalsIgnoreCase(args[0])){
+				benchmark(args.length>1 ? Integer.parseInt(args[1]) : 5000000);
+				return;
+			}
 			//Enable org.safs.Log
 			logClass.getField("ENABLED").setBoolean(null, true);
 			//Set the log level to Log.DEBUG
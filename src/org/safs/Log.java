@@ -31,6 +31,11 @@
  *   <br>   MAY 12, 2014 (Carl Nagle) Added support for SUSPEND and RESUME of debug logging.
  *   <br>   APR 27, 2017 (Lei Wang) Moved/rewrote log-level-constants and methods to Constants.LogConstants.
  *                               Gave meaningful name to some variables.
+ *   <br>   OCT 19, 2026 Added asynchronous, batching dispatch of debug messages.
+ *                               Level and monitor checks now happen before any message is formatted.
+ *                               Added isLoggable, formatted debug/info/index/generic/pass/warn/error, and flush.
+ *   <br>   OCT 19, 2026 Made isDeliverable public for IndependantLog.
+ *   <br>   OCT 19, 2026 error/info/debug(Object, Throwable) also send messages below the log level to a registered debug Log.
  */
 package org.safs;
 
@@ -44,7 +49,12 @@ import java.io.OutputStreamWriter;
 import java.io.PrintStream;
 import java.nio.charset.Charset;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import org.safs.Constants.LogConstants;
 import org.safs.tools.CaseInsensitiveFile;
@@ -121,9 +131,19 @@ import com.ibm.staf.STAFResult;
  * <li>6 = ERROR
  * </ul>
  * <p>
+ * Asynchronous Java clients may batch messages.  Several messages may arrive in one QUEUE message 
+ * formatted as "BATCH" followed by each "n|message", with every one preceded by the ASCII record 
+ * separator character (0x1E).  Clients only send BATCH messages to a debug Log that has set the 
+ * SAFS/TESTLOG/BATCH variable, which this debug Log does when it starts.
+ * <p>
  * <li>
  * </ol>
  * <p>
+ * By default, Java clients log on the calling thread.  Call {@link #setAsynchronous(boolean)} with 
+ * true to hand messages to a background dispatcher thread instead.  The dispatcher formats them, 
+ * sends them to the debug Log (in batches if the debug Log supports them), and drops them cheaply 
+ * while no debug Log is registered.  Call {@link #flush()} to wait for messages already queued.
+ * <p>
  * The debug Log has some special reserved messages:
  * <ul>
  * <br> SHUTDOWN: used to shutdown this static main log
@@ -207,6 +227,15 @@ public class Log {
   /** "HELP" -- Command to show the Help info in the debug console.*/
   public static final String SAFS_TESTLOG_HELP     = "HELP";
 
+  /** "BATCH" -- prefix of a QUEUE message carrying several record-separated "n|message" records.*/
+  public static final String SAFS_TESTLOG_BATCH    = "BATCH";
+
+  /** "SAFS/TESTLOG/BATCH" -- SAFSVARS variable set to "TRUE" while a debug Log accepting BATCH messages runs. */
+  public static final String SAFS_TESTLOG_BATCH_VARIABLE = "SAFS/TESTLOG/BATCH";
+
+  /** ASCII record separator (0x1E) preceding each message of a BATCH. */
+  public static final char SAFS_TESTLOG_BATCH_SEPARATOR = '\u001E';
+
   /** "-file:" -- Command-line prefix to enable output to file.*/
   public static final String SAFS_TESTLOG_FILE     = "-file:";
 
@@ -278,6 +307,64 @@ public class Log {
 
   private static SimpleDateFormat time = new SimpleDateFormat("HH:mm:ss.SSS");
 
+  /** true to hand messages to the background dispatcher.  false (default) logs on the calling thread. */
+  private static volatile boolean asynchronous = false;
+
+  /** Set true while the debug Log monitor appears to be missing. */
+  private static volatile boolean monitorMissing = false;
+
+  /** Time after which a missing monitor is checked again. */
+  private static volatile long monitorRecheck = 0;
+
+  /** Milliseconds between checks for a missing monitor: 5000. */
+  private static final long MONITOR_RECHECK_MILLIS = 5000;
+
+  /**
+   * Enable or disable the background dispatcher.
+   * When disabled, messages are formatted and sent on the calling thread.
+   * Messages already queued are flushed before switching to synchronous logging.
+   */
+  public static void setAsynchronous(boolean async){
+	  if(!async) flush();
+	  asynchronous = async;
+  }
+
+  /** @return true if messages are handed to the background dispatcher.  false by default. */
+  public static boolean isAsynchronous(){ return asynchronous; }
+
+  /**
+   * Check, before building any message, whether a message at the given level is enabled 
+   * by the log level of this JVM, see {@link #setLogLevel(int)}.  Callers with expensive 
+   * messages can use this to skip building them.
+   * <p>
+   * Messages below the log level are still sent to a registered debug Log, which applies 
+   * its own level, so this check is for callers that only want messages at this JVM's level.
+   * @param logLevel DEBUG through ERROR.
+   * @return true if logLevel is at or above the log level, or the message would also 
+   * be recorded in the SAFS/TESTLOG/MSG variable.
+   */
+  public static boolean isLoggable(int logLevel){
+	  if (!ENABLED) return false;
+	  boolean shown = logLevel >= level;
+	  if (isEmbedded) shown = shown && !isSuspended;
+	  // the SAFS/TESTLOG/MSG variable still receives GENERIC and above
+	  return shown || (helper != null && (logLevel >= GENERIC || doLogMsg));
+  }
+
+  /**
+   * Check, before building any message, whether a message at the given level would be delivered 
+   * anywhere: the console or variable per {@link #isLoggable(int)}, or a registered debug Log, 
+   * which applies its own log level.
+   * @param logLevel DEBUG through ERROR.
+   * @return false if a message at the given level would go nowhere: no debug Log, variable, or console.
+   */
+  public static boolean isDeliverable(int logLevel){
+	  if (!ENABLED) return false;
+	  if (isLoggable(logLevel)) return true;
+	  // a registered debug Log applies its own log level
+	  return !isEmbedded && helper != null && !monitorMissing;
+  }
+
   /** <br><em>Purpose:</em> logs using 'logmsg' if that fails, then does console.
    ** the format is [LEVEL: message], where LEVEL is one of DEBUG, INFO, INDEX, GENERIC, PASS, WARN, or ERROR.
    * @param                     logLevel int
@@ -285,7 +372,10 @@ public class Log {
    * @param                     msg Object, message to send (.toString() is used)
    **/
   static void message(int logLevel, String levelMsg, Object msg) {
-    String fullmsg = "["+levelMsg+" "+ time.format(new Date())+":"+log_processname+": "+(msg==null?(String)msg:msg.toString())+" ]";
+    if (!isDeliverable(logLevel)) return;
+    String text = (msg==null?(String)msg:msg.toString());
+    if (asynchronous && Dispatcher.enqueue(new Record(logLevel, levelMsg, log_processname, text))) return;
+    String fullmsg = format(levelMsg, System.currentTimeMillis(), log_processname, text);
     if (!logmsg(logLevel, fullmsg)) {
       if (logLevel >= level) {
        console(fullmsg);
@@ -293,6 +383,47 @@ public class Log {
     }
   }
 
+  /** @return the formatted message "[LEVEL HH:mm:ss.SSS:process: text ]" */
+  private static String format(String levelMsg, long millis, String process, String text){
+	String stamp;
+	synchronized(time){ stamp = time.format(new Date(millis)); }
+	StringBuilder buf = new StringBuilder(levelMsg.length() + process.length() + (text == null ? 4 : text.length()) + 24);
+	buf.append('[').append(levelMsg).append(' ').append(stamp).append(':').append(process).append(": ").append(text).append(" ]");
+	return buf.toString();
+  }
+
+  /** Formats and logs the message only if the log level would be logged. */
+  private static void formatted(int logLevel, String format, Object... args){
+	if (!isDeliverable(logLevel)) return;
+	String text;
+	try{ text = String.format(format, args); }
+	catch(Exception x){ text = String.valueOf(format); }
+	message(logLevel, strlevel[logLevel], text);
+  }
+
+  /** DEBUG message formatted with String.format only if it will be logged. */
+  static public void debug(String format, Object... args){ formatted(DEBUG, format, args); }
+  /** INFO message formatted with String.format only if it will be logged. */
+  static public void info(String format, Object... args){ formatted(INFO, format, args); }
+  /** INDEX message formatted with String.format only if it will be logged. */
+  static public void index(String format, Object... args){ formatted(INDEX, format, args); }
+  /** GENERIC message formatted with String.format only if it will be logged. */
+  static public void generic(String format, Object... args){ formatted(GENERIC, format, args); }
+  /** PASS message formatted with String.format only if it will be logged. */
+  static public void pass(String format, Object... args){ formatted(PASS, format, args); }
+  /** WARN message formatted with String.format only if it will be logged. */
+  static public void warn(String format, Object... args){ formatted(WARN, format, args); }
+  /** ERROR message formatted with String.format only if it will be logged. */
+  static public void error(String format, Object... args){ formatted(ERROR, format, args); }
+
+  /**
+   * Wait, up to 5 seconds, for messages already handed to the background dispatcher 
+   * to be delivered.
+   */
+  public static void flush(){
+	  Dispatcher.flush(5000);
+  }
+
 
   /** <br><em>Purpose:</em> logs using 'logmsg' if that fails, then does console.
    ** the format is [LEVEL: message], where LEVEL is one of DEBUG, INFO, INDEX, GENERIC, PASS, WARN, or ERROR.
@@ -329,6 +460,7 @@ public class Log {
   }
 
   static public boolean suspend(){
+	  flush();
 	  ENABLED = false;
 	  if(isEmbedded) {
 		  doSuspend();
@@ -350,6 +482,7 @@ public class Log {
   }
 
   static public boolean resume(){
+	  flush();
 	  if(isEmbedded) {
 		  doResume();
 		  ENABLED = !isSuspended;
@@ -407,7 +540,7 @@ public class Log {
 
 
   static public void error(Object msg, Throwable ex) {
-  	if (!ENABLED) return;
+  	if (!isDeliverable(ERROR)) return;
     OutputStream os = new ByteArrayOutputStream();
     ex.printStackTrace(new PrintStream(os));
     error(""+msg+",\n"+os.toString());
@@ -415,7 +548,7 @@ public class Log {
   }
 
   static public void info(Object msg, Throwable ex) {
-  	if (!ENABLED) return;
+  	if (!isDeliverable(INFO)) return;
     OutputStream os = new ByteArrayOutputStream();
     ex.printStackTrace(new PrintStream(os));
     info(""+msg+",\n"+os.toString());
@@ -423,7 +556,7 @@ public class Log {
   }
 
   static public void debug(Object msg, Throwable ex) {
-  	if (!ENABLED) return;
+  	if (!isDeliverable(DEBUG)) return;
     OutputStream os = new ByteArrayOutputStream();
     ex.printStackTrace(new PrintStream(os));
     debug(""+msg+",\n"+os.toString());
@@ -433,6 +566,7 @@ public class Log {
   /** Doesn't do anything unless we are running Embedded.
    * Otherwise, will shutdown the embedded debug log. */
   static public void close(){
+	  flush();
 	  if(isEmbedded) closeDebugLog();
   ;}
 
@@ -450,6 +584,7 @@ public class Log {
   	       "    4 = PASS\n"+
   	       "    5 = WARNING\n"+
   	       "    6 = ERROR\n"+
+  	       "\"BATCH\"     followed by record-separated n|message records\n"+
   	       "\"SHUTDOWN\"  terminate this logging process.\n"+
   	       "\"CLS\"       clear lines to show new activity\n"+
   	       "\"LEVEL0\" - \"LEVEL6\"   set the logging level\n"+
@@ -562,18 +697,40 @@ public class Log {
         }
         testrecord = testrecord.substring(i+1, testrecord.length());
       }
+      writeMessage(logLevel, testrecord, true);
+  }
+  private static void writeMessage(int logLevel, String msg, boolean flush){
       if ((logLevel >= level) && !isSuspended) {
-        console(testrecord);
+        console(msg);
         if (writer != null) {
         	try{
-        		writer.write(testrecord);
+        		writer.write(msg);
         		writer.newLine();
-        		writer.flush();
+        		if(flush) writer.flush();
         	}
         	catch(IOException iox){;}
         }
       }
   }
+  private static void flushWriter(){
+	  if (writer != null) try{ writer.flush(); }catch(IOException iox){;}
+  }
+  private static void doBatch(String testrecord){
+	  int start = testrecord.indexOf(SAFS_TESTLOG_BATCH_SEPARATOR);
+	  while(start > -1){
+		  int end = testrecord.indexOf(SAFS_TESTLOG_BATCH_SEPARATOR, start+1);
+		  String record = (end < 0) ? testrecord.substring(start+1) : testrecord.substring(start+1, end);
+		  int i = record.indexOf('|');
+		  int logLevel = DEBUG;
+		  if (i > 0){
+			  try{ logLevel = Integer.parseInt(record.substring(0, i)); }catch(NumberFormatException x){;}
+			  record = record.substring(i+1);
+		  }
+		  writeMessage(logLevel, record, false);
+		  start = end;
+	  }
+	  flushWriter();
+  }
 
   /**
    * Run standalone to activate the debug console.
@@ -611,6 +768,7 @@ public class Log {
       final STAFHelper helper =  SingletonSTAFHelper.getHelper(); // get Singleton
       helper.initialize(SAFS_TESTLOG_PROCESS);
       setHelper(helper);
+      try{ helper.setVariable(SAFS_TESTLOG_BATCH_VARIABLE, "TRUE"); }catch(Throwable t){;}
       console("\n"+ getHelp() +"\n");
       console(SAFS_TESTLOG_PROCESS +" handle: " + helper.getHandleNumber());
       console("Current Log  Level: "+level +":"+ strlevel[level]);
@@ -638,10 +796,13 @@ public class Log {
         } else if (testrecord.length()>SAFS_TESTLOG_LEVEL.length() &&
         		   testrecord.substring(0, SAFS_TESTLOG_LEVEL.length()).equalsIgnoreCase(SAFS_TESTLOG_LEVEL)) {
         	  doLogLevel(testrecord.substring(SAFS_TESTLOG_LEVEL.length(), testrecord.length()));
+        } else if (testrecord.startsWith(SAFS_TESTLOG_BATCH + SAFS_TESTLOG_BATCH_SEPARATOR)) {
+        	  doBatch(testrecord);
         } else { // it must be a message
         	  doMessage(testrecord);
         }
       }while(!shutdown);
+      try{ helper.setVariable(SAFS_TESTLOG_BATCH_VARIABLE, ""); }catch(Throwable t){;}
       closeDebugLog();
       // don't unregister someone elses STAFHelper (should't happen here anyway?)
       if (helper.getProcessName()==SAFS_TESTLOG_PROCESS)  helper.unRegister();
@@ -733,12 +894,7 @@ public class Log {
       }
       return false;
     }
-    StringBuffer buf = new StringBuffer();
-    for(int i=0; i<msg.length(); i++) { // convert " to '
-      if (msg.charAt(i) == '\"') buf.append("'");
-      else buf.append(msg.substring(i, i+1));
-    }
-    msg = buf.toString();
+    msg = msg.replace('"', '\''); // convert " to '
     if (logLevel >= GENERIC || doLogMsg) {
       try {
         helper.setVariable(SAFS_TESTLOG_VARIABLE, msg);
@@ -751,4 +907,171 @@ public class Log {
     	return helper.sendQueueMessage(SAFS_TESTLOG_PROCESS, Integer.toString(logLevel) + "|" + msg);
     }
   }
+
+  /** One debug message waiting for the dispatcher.  Formatting is deferred to the dispatcher. */
+  private static final class Record {
+	final int level;
+	final String levelMsg;
+	final String process;
+	final String text;
+	final long millis = System.currentTimeMillis();
+	Record(int level, String levelMsg, String process, String text){
+		this.level = level;
+		this.levelMsg = levelMsg;
+		this.process = process;
+		this.text = text;
+	}
+  }
+
+  /** Deliver a batch of records in order.  Only called on the dispatcher thread. */
+  private static void dispatch(List<Record> batch){
+	String[] msgs = new String[batch.size()];
+	for(int i=0; i < msgs.length; i++){
+		Record r = batch.get(i);
+		msgs[i] = format(r.levelMsg, r.millis, r.process, r.text).replace('"', '\'');
+		// the variable is set for every qualifying message, as in synchronous logging
+		if ((r.level >= GENERIC || doLogMsg) && helper != null) {
+			try { helper.setVariable(SAFS_TESTLOG_VARIABLE, msgs[i]); } catch (Throwable se) {} // ignore
+		}
+	}
+	if (isEmbedded){
+		for(int i=0; i < msgs.length; i++) writeMessage(batch.get(i).level, msgs[i], false);
+		flushWriter();
+		return;
+	}
+	boolean sent = false;
+	if (helper != null && monitorAvailable()){
+		if (msgs.length == 1 || !monitorAcceptsBatch()){
+			sent = true;
+			for(int i=0; sent && i < msgs.length; i++){
+				sent = helper.sendQueueMessage(SAFS_TESTLOG_PROCESS, batch.get(i).level +"|"+ msgs[i]);
+			}
+		}else{
+			StringBuilder buf = new StringBuilder(SAFS_TESTLOG_BATCH);
+			for(int i=0; i < msgs.length; i++) buf.append(SAFS_TESTLOG_BATCH_SEPARATOR).append(batch.get(i).level).append('|').append(msgs[i]);
+			sent = helper.sendQueueMessage(SAFS_TESTLOG_PROCESS, buf.toString());
+		}
+		if (!sent){
+			monitorMissing = true;
+			monitorRecheck = System.currentTimeMillis() + MONITOR_RECHECK_MILLIS;
+			batchRecheck = 0;
+		}
+	}
+	if (!sent){
+		for(int i=0; i < msgs.length; i++) if (batch.get(i).level >= level) console(msgs[i]);
+	}
+  }
+
+  /** Whether the debug Log set SAFS/TESTLOG/BATCH.  Only used on the dispatcher thread. */
+  private static boolean batchAccepted = false;
+
+  /** Time after which SAFS/TESTLOG/BATCH is checked again.  Only used on the dispatcher thread. */
+  private static long batchRecheck = 0;
+
+  /** @return true if the debug Log has advertised support for BATCH messages. */
+  private static boolean monitorAcceptsBatch(){
+	if (System.currentTimeMillis() >= batchRecheck){
+		try{ batchAccepted = "TRUE".equalsIgnoreCase(helper.getVariable(SAFS_TESTLOG_BATCH_VARIABLE)); }
+		catch(Throwable t){ batchAccepted = false; }
+		batchRecheck = System.currentTimeMillis() + MONITOR_RECHECK_MILLIS;
+	}
+	return batchAccepted;
+  }
+
+  /** Last resort for records the dispatcher failed to deliver: the console, as in synchronous logging. */
+  private static void fallback(List<Record> batch){
+	for(Record r: batch){
+		if (r.level >= level) console(format(r.levelMsg, r.millis, r.process, r.text));
+	}
+  }
+
+  /** @return true unless the monitor was recently found missing and is still not registered. */
+  private static boolean monitorAvailable(){
+	if (!monitorMissing) return true;
+	if (System.currentTimeMillis() < monitorRecheck) return false;
+	try{ monitorMissing = !helper.isToolAvailable(SAFS_TESTLOG_PROCESS); }catch(Throwable t){;}
+	monitorRecheck = System.currentTimeMillis() + MONITOR_RECHECK_MILLIS;
+	return !monitorMissing;
+  }
+
+  /**
+   * Background thread delivering queued records in order, in batches.
+   * Started on first use.  A shutdown hook delivers whatever is still queued at JVM exit.
+   */
+  private static final class Dispatcher implements Runnable {
+	/** Maximum records per STAF QUEUE message. */
+	static final int MAX_BATCH = 64;
+	static final int CAPACITY = 8192;
+	/** Milliseconds a producer waits for room in a full queue before logging synchronously. */
+	static final long OFFER_WAIT_MILLIS = 50;
+	static final LinkedBlockingQueue<Object> queue = new LinkedBlockingQueue<Object>(CAPACITY);
+	static volatile Thread thread = null;
+
+	static synchronized void start(){
+		if (thread != null) return;
+		thread = new Thread(new Dispatcher(), "SAFS/TESTLOG dispatcher");
+		thread.setDaemon(true);
+		thread.start();
+		try{
+			Runtime.getRuntime().addShutdownHook(new Thread("SAFS/TESTLOG flush"){
+				public void run(){ Dispatcher.flush(2000); }
+			});
+		}catch(Exception x){;}
+	}
+
+	/**
+	 * Queue a record, waiting at most OFFER_WAIT_MILLIS for room.
+	 * @return false if the record could not be queued and must be logged synchronously. 
+	 */
+	static boolean enqueue(Record record){
+		Thread dispatcher = thread;
+		if (dispatcher == null) { start(); dispatcher = thread; }
+		// never wait on ourselves when logging happens during dispatch
+		if (Thread.currentThread() == dispatcher) return queue.offer(record);
+		try{
+			return queue.offer(record, OFFER_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+		}catch(InterruptedException x){
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	static void flush(long timeoutMillis){
+		Thread dispatcher = thread;
+		if (dispatcher == null || Thread.currentThread() == dispatcher) return;
+		CountDownLatch done = new CountDownLatch(1);
+		try{
+			if (queue.offer(done, timeoutMillis, TimeUnit.MILLISECONDS)) done.await(timeoutMillis, TimeUnit.MILLISECONDS);
+		}catch(InterruptedException x){
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	public void run(){
+		List<Object> drained = new ArrayList<Object>(MAX_BATCH);
+		List<Record> batch = new ArrayList<Record>(MAX_BATCH);
+		while(true){
+			try{
+				drained.add(queue.take());
+				queue.drainTo(drained, MAX_BATCH -1);
+				for(Object item: drained){
+					if (item instanceof Record){
+						batch.add((Record) item);
+					}else{
+						if (!batch.isEmpty()) { dispatch(batch); batch.clear(); }
+						((CountDownLatch) item).countDown();
+					}
+				}
+				if (!batch.isEmpty()) dispatch(batch);
+			}catch(InterruptedException x){
+				return;
+			}catch(Throwable t){
+				try{ fallback(batch); }catch(Throwable ignore){;}
+			}finally{
+				drained.clear();
+				batch.clear();
+			}
+		}
+	}
+  }
 }
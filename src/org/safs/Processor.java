@@ -39,6 +39,7 @@
  * MAR 08, 2011    (DharmeshPatel) Added RFSMOnly support for RFSM search mode.
  * JUL 22, 2013    (Lei Wang) Added methods deducexxxFile().
  * DEC 01, 2016    (Lei Wang) Added methods setAtEndOfProcess() etc.
+ * OCT 19, 2026    getAbsolutFileName() retrieves directories through a cached DirectoryContext.
  **/
 package org.safs;
 
@@ -64,6 +65,7 @@ import java.util.Vector;
 import org.safs.jvmagent.AgentClassLoader;
 import org.safs.logging.AbstractLogFacility;
 import org.safs.logging.LogUtilities;
+import org.safs.text.DirectoryContext;
 import org.safs.text.FAILStrings;
 import org.safs.text.FileUtilities;
 import org.safs.text.GENStrings;
@@ -907,9 +909,10 @@ public String getAppMapItem(String appMapID, String section, String item) {
 	  File fn = new CaseInsensitiveFile(filename).toFile();
 
 	  if (!fn.isAbsolute()) {
+		  DirectoryContext dirs = DirectoryContext.get(this);
 		  String pdir = null;
 		  try {
-			  pdir = getVariable(directory);
+			  pdir = dirs.getDirectory(directory);
 		  } catch (SAFSException e) {
 			  Log.error("Fail to get directory value by variable '"+directory+"'");
 		  }
@@ -922,7 +925,7 @@ public String getAppMapItem(String appMapID, String section, String item) {
 			  if( (!parent.isDirectory() || !parent.exists()) || !fn.isAbsolute()){
 				  try {
 					  //relative to project directory
-					  pdir = getVariable(STAFHelper.SAFS_VAR_PROJECTDIRECTORY);
+					  pdir = dirs.getProjectDirectory();
 				  } catch (SAFSException e) {
 					  Log.error("Fail to get directory value by variable '"+STAFHelper.SAFS_VAR_PROJECTDIRECTORY+"'");
 				  }
@@ -0,0 +1,181 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package org.safs;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Process-wide cache of compiled regular expressions, converted SAFS wildcard expressions, 
+ * and parsed recognition string qualifiers.
+ * <p>
+ * Object searches evaluate the same few recognition strings against every candidate object 
+ * in a hierarchy.  Without a cache every comparison converts and compiles the same expression 
+ * again, and every new GuiObjectRecognition re-parses the same qualifiers.  All entries are 
+ * immutable and keyed by the raw expression (and case mode for Patterns), so they can be 
+ * shared by every engine and thread.
+ * <p>
+ * Each cache is bounded by {@link #getMaxEntries()}.  A cache that reaches the limit is 
+ * simply cleared and refilled, which keeps the common case lock-free.
+ * <p>
+ * History:<br>
+ *
+ *  <br>   OCT 19, 2026    Initial release.
+ *
+ * @see StringUtils#matchRegex(String, String)
+ * @see GuiObjectRecognition#makeRegexReadyWildcards(String)
+ */
+public abstract class RecognitionCache {
+
+	/** Default maximum number of entries held in each cache: 4096 */
+	public static final int DEFAULT_MAX_ENTRIES = 4096;
+
+	private static volatile int maxEntries = DEFAULT_MAX_ENTRIES;
+	private static volatile boolean enabled = true;
+
+	private static final ConcurrentHashMap<String,Pattern> patterns = new ConcurrentHashMap<String,Pattern>();
+	private static final ConcurrentHashMap<String,Pattern> caselessPatterns = new ConcurrentHashMap<String,Pattern>();
+	private static final ConcurrentHashMap<String,String> wildcards = new ConcurrentHashMap<String,String>();
+	private static final ConcurrentHashMap<String,Qualifier[]> qualifiers = new ConcurrentHashMap<String,Qualifier[]>();
+
+	/** @return true if caching is enabled (the default). */
+	public static boolean isEnabled(){ return enabled; }
+
+	/**
+	 * Enable or disable all caching.  Disabling also clears the caches.
+	 * Results are the same either way; only the cost differs.
+	 */
+	public static void setEnabled(boolean enable){
+		enabled = enable;
+		if(!enable) clear();
+	}
+
+	/** @return maximum number of entries held in each cache. */
+	public static int getMaxEntries(){ return maxEntries; }
+
+	/** @param max maximum number of entries held in each cache.  Values less than 1 are ignored. */
+	public static void setMaxEntries(int max){
+		if(max > 0) maxEntries = max;
+	}
+
+	/** Discard all cached entries. */
+	public static void clear(){
+		patterns.clear();
+		caselessPatterns.clear();
+		wildcards.clear();
+		qualifiers.clear();
+	}
+
+	/** @return number of compiled Patterns currently cached, both case modes. */
+	public static int getPatternCount(){ return patterns.size() + caselessPatterns.size(); }
+
+	/** @return number of parsed qualifier sets currently cached. */
+	public static int getRecognitionCount(){ return qualifiers.size(); }
+
+	private static <V> void store(ConcurrentHashMap<String,V> cache, String key, V value){
+		if(cache.size() >= maxEntries) cache.clear();
+		cache.put(key, value);
+	}
+
+	/**
+	 * Retrieve the compiled Pattern for a regular expression.
+	 * @param regex the regular expression, not null.
+	 * @param ignoreCase true to compile with Pattern.CASE_INSENSITIVE.
+	 * @return the shared, compiled Pattern.
+	 * @throws PatternSyntaxException if regex is not a valid expression.  Invalid 
+	 *         expressions are not cached.
+	 */
+	public static Pattern getPattern(String regex, boolean ignoreCase) throws PatternSyntaxException{
+		if(!enabled) return ignoreCase ? Pattern.compile(regex, Pattern.CASE_INSENSITIVE) : Pattern.compile(regex);
+		ConcurrentHashMap<String,Pattern> cache = ignoreCase ? caselessPatterns : patterns;
+		Pattern pattern = cache.get(regex);
+		if(pattern == null){
+			pattern = ignoreCase ? Pattern.compile(regex, Pattern.CASE_INSENSITIVE) : Pattern.compile(regex);
+			store(cache, regex, pattern);
+		}
+		return pattern;
+	}
+
+	/**
+	 * Test a value against a regular expression using the cached Pattern.
+	 * Same as Pattern.matches(regex, value) when ignoreCase is false.
+	 * @throws PatternSyntaxException if regex is not a valid expression.
+	 */
+	public static boolean matches(String regex, CharSequence value, boolean ignoreCase) throws PatternSyntaxException{
+		return getPattern(regex, ignoreCase).matcher(value).matches();
+	}
+
+	/**
+	 * Retrieve the regular expression equivalent of a SAFS ? and * wildcard expression.
+	 * @param wildcard expression using ? and * wildcards.
+	 * @return the same result as {@link StringUtils#convertWildcardsToRegularExpression(String)}.
+	 */
+	public static String getWildcardRegex(String wildcard){
+		if(wildcard == null || !enabled) return StringUtils.convertWildcardsToRegularExpression(wildcard);
+		String regex = wildcards.get(wildcard);
+		if(regex == null){
+			regex = StringUtils.convertWildcardsToRegularExpression(wildcard);
+			store(wildcards, wildcard, regex);
+		}
+		return regex;
+	}
+
+	/**
+	 * Retrieve previously parsed qualifiers of a recognition string.
+	 * @param key identifies the qualifier string and the separators used to parse it.
+	 * @return the parsed qualifiers, or null if not cached.
+	 * @see #qualifierKey(String, String, String)
+	 */
+	public static Qualifier[] getQualifiers(String key){
+		return enabled ? qualifiers.get(key) : null;
+	}
+
+	/**
+	 * Store the parsed qualifiers of a recognition string.
+	 * @param key identifies the qualifier string and the separators used to parse it.
+	 * @param parsed the parsed qualifiers.  Entries may be null for qualifiers that were skipped.
+	 */
+	public static void putQualifiers(String key, Qualifier[] parsed){
+		if(enabled && key != null && parsed != null) store(qualifiers, key, parsed);
+	}
+
+	/** @return the cache key for a qualifier string parsed with the given separators. */
+	public static String qualifierKey(String qualifierInfo, String qualifierSeparator, String assignSeparator){
+		return qualifierSeparator +'\n'+ assignSeparator +'\n'+ qualifierInfo;
+	}
+
+	/** One parsed recognition string qualifier.  Ex: "Index=1" */
+	public static final class Qualifier{
+		/** the qualifier piece of recognition. Ex: "Index=1" **/
+		public final String info;
+		/** the qualifier category substring. Ex: "Index" **/
+		public final String category;
+		/** the qualifier category ID. Ex: GuiObjectRecognition.QUALIFIER_INDEX_ID **/
+		public final int id;
+		/** the qualifier value substring. Ex: "1" **/
+		public final String value;
+
+		public Qualifier(String info, String category, int id, String value){
+			this.info = info;
+			this.category = category;
+			this.id = id;
+			this.value = value;
+		}
+	}
+}
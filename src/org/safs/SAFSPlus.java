@@ -7146,6 +7146,41 @@ public abstract class SAFSPlus {
 			return action(comp, TIDRestFunctions.RESTPUTXML_KEYWORD, params);
 		}
 
+		/**
+		 * Replay a REST request, and optionally a block of requests from a request file, concurrently on a REST service
+		 * and verify the latency percentiles, error rate and throughput against the thresholds in the load settings.
+		 * See <a href="/sqabasic2000/TIDRestFunctionsReference.htm#detail_RestLoadTest">Detailed Reference</a><p>
+		 * @param comp org.safs.model.Component, it does not represent a real GUI component.<br>
+		 *                                       The window's value should always be <b>SAFSREST</b><br>
+		 *                                       The component's value should be the session-id that user assigns<br>
+		 * @param params String[], parameters
+		 * <ul>
+		 * <li><b>params[0] HTTPMethod, required</b>, The HTTP method, it can be one of "GET" "DELETE" "POST" "PUT" "PATCH" "HEAD".<br>
+		 * <li><b>params[1] relativeURI, required</b>, The relative URI combined with a base-URL (stored in a session) to form a REST service URL.<br>
+		 * <li><b>params[2] summaryVar, required</b>, The prefix of the variables holding the summary: summaryVar.count, .errors, .errorrate,
+		 *                                            .throughput, .p50, .p95, .p99, .max, .passed and .report (the JSON report file).
+		 * <li><b>params[3] body, optional</b>, The body to send with this REST request.
+		 * <li><b>params[4] headers , optional</b>, The headers to be included in the REST requests. It can be literal string, map item or file path.
+		 * <li><b>params[5] loadSettings , optional</b>, The load settings such as "Concurrency=10;Duration=30s;Rate=50;P95=200;ErrorRate=1".
+		 * <li><b>params[6] requestFile , optional</b>, The file holding more requests to replay, one "METHOD relativeURI [body]" per line.
+		 * </ul>
+		 * @return - true on success<p>
+		 * Sets prevResults TestRecordHelper to the results received or null if an error occurred.
+		 * @example
+		 * <pre>
+		 * {@code
+		 * Rest.StartServiceSession(Map.BAYERREST.BAYERSERVICE001, "http://www.thomas-bayer.com/sqlrest/");
+		 * Rest.LoadTest(Map.BAYERREST.BAYERSERVICE001, "GET", "CUSTOMER/", "customerLoad", "", "Accept: text/xml", "Concurrency=10;Duration=30s;P95=500");
+		 * Rest.EndServiceSession(Map.BAYERREST.BAYERSERVICE001);
+		 * }
+		 * </pre>
+		 * @see #prevResults
+		 * @see org.safs.rest.service.LoadTest
+		 */
+		public static boolean LoadTest(org.safs.model.Component comp,String... params){
+			return action(comp, TIDRestFunctions.RESTLOADTEST_KEYWORD, params);
+		}
+
 		/**
 		 * Perform an HTTP method with Headers (defined by customer) on a REST service.
 		 * See <a href="/sqabasic2000/TIDRestFunctionsReference.htm#detail_RestRequest">Detailed Reference</a><p>
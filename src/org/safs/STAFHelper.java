@@ -64,6 +64,7 @@ package org.safs;
  * <br> AUG 20, 2015    (Carl Nagle)  Added INI STAF:EmbedDebugMainClass True|False support and
  *                                -Dtestdesigner.debuglogname support for embedded debug log filenames.
  * <br> SEP 22, 2017    (Lei Wang) Added startProcess(): can start process with extra STAF parameters.
+ * <br> OCT 19, 2026    setVariable notifies DirectoryContext of changed directory variables.
  **/
 import java.io.IOException;
 import java.lang.reflect.Field;
@@ -72,15 +73,18 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.StringTokenizer;
 
+import org.safs.logging.AbstractLogFacility;
 import org.safs.staf.AbstractSTAFHelperCompatible;
 import org.safs.staf.STAFHandleInterface;
 import org.safs.staf.STAFHelperCompatibleInterface;
 import org.safs.staf.embedded.EmbeddedHandle;
 import org.safs.staf.embedded.EmbeddedHandles;
+import org.safs.staf.embedded.EmbeddedRequest;
 import org.safs.staf.embedded.HandleInterface;
 import org.safs.staf.service.InfoInterface;
 import org.safs.staf.service.queue.EmbeddedQueueService;
 import org.safs.staf.service.sem.EmbeddedSemService;
+import org.safs.text.DirectoryContext;
 import org.safs.tools.CoreInterface;
 import org.safs.tools.MainClass;
 import org.safs.tools.drivers.ConfigureInterface;
@@ -554,6 +558,25 @@ public boolean isInitialized () {
   }
 
 
+  /** <br><em>Purpose:</em> submit a typed request to a service.
+   * If the service is running Embedded the request is routed directly to the service, bypassing
+   * STAF command string formatting and parsing when the service supports it.  Otherwise, the
+   * request is converted to its equivalent STAF command string and submitted normally.
+   * @param                     name, String service name
+   * @param                     request, EmbeddedRequest
+   * @return                    STAFResult, the same as the equivalent STAF command string
+   * @see EmbeddedRequest
+   **/
+  public STAFResult submitEmbedded (String name, EmbeddedRequest request) {
+	  if(EmbeddedHandles.isServiceRunning(name)){
+		  try{ return EmbeddedHandles.getService(name).acceptEmbeddedRequest(request, handle.getHandle(), process_name);}
+	      catch(Exception x){
+	    	  x.printStackTrace();
+	      }
+	  }
+      return submit2(machine, name, request.toRequestString());
+  }
+
   /** <br><em>Purpose:</em> submit to STAF and record varName.rc and varname.result
    * into variable storage (SAFSVARS).  If an error occurs when trying to write the
    * varName values STAFResult will return with result.rc=47 and result.result=varName.
@@ -767,14 +790,11 @@ public String getLogName () throws SAFSException {
   @Override
 public String getVariable (String var) throws SAFSException {
     String service = SAFS_VARIABLE_SERVICE;
-    String getCommand = "GET " + lentagValue(var);
-    try {
-      String result = submit(machine, service, getCommand);
-      return result;
-    } catch (STAFException e) {
-      throw new SAFSException(getClass().getName(), "getVariable",
-                              "rc: "+e.rc+ ", variable: "+ var+", getCommand: "+getCommand);
-    }
+    EmbeddedRequest.GetVariable request = new EmbeddedRequest.GetVariable(var);
+    STAFResult result = submitEmbedded(service, request);
+    if(result.rc == STAFResult.Ok) return result.result;
+    throw new SAFSException(getClass().getName(), "getVariable",
+                            "rc: "+result.rc+ ", variable: "+ var+", getCommand: "+request.toRequestString());
   }
 
   /**
@@ -795,9 +815,8 @@ public String getVariable (String var) throws SAFSException {
 				  facname = logname.split(";")[1];
 		  }
 		  STAFResult src = null;
-		  src = submit2ForFormatUnchangedService(getMachine(), SAFS_LOGGING_SERVICE,
-				                                 "LOGMESSAGE "+ facname +" MESSAGE "+
-				                                 lentagValue(message));
+		  src = submitEmbedded(SAFS_LOGGING_SERVICE,
+				               new EmbeddedRequest.LogMessage(facname, message, null, AbstractLogFacility.GENERIC_MESSAGE));
 		  if(src.rc != STAFResult.Ok)
 			  throw new SAFSException("SAFSLOGS LOGMESSAGE STAF Error: "+ src.rc +", "+ src.result);
 
@@ -824,15 +843,13 @@ public String getVariable (String var) throws SAFSException {
 public boolean setVariable (String var, String val) throws SAFSException {
     if ((var == null)||(var.length()==0)) throw new SAFSException("setVariable: variable name cannot be empty.");
     String service = SAFS_VARIABLE_SERVICE;
-    String command = " SET " + lentagValue(var)+ " VALUE ";
-    if (!((val == null)||(val.length()==0)))  command += lentagValue(val);
-    try {
-      submit(machine, service, command);
-      return true;
-    } catch (STAFException e) {
-      Log.info("setVariable: error, rc: "+e.rc+", var: "+var+", val: "+val);
-      return false;
+    STAFResult result = submitEmbedded(service, new EmbeddedRequest.SetVariable(var, val));
+    if(result.rc == STAFResult.Ok){
+    	DirectoryContext.variableChanged(var);
+    	return true;
     }
+    Log.info("setVariable: error, rc: "+result.rc+", var: "+var+", val: "+val);
+    return false;
   }
 
   /**
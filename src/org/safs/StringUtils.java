@@ -53,6 +53,7 @@
  * JUN 12, 2019 (Lei Wang) 	Added method processEmbeddedVariables(), stripFromEnv().
  * JUN 26, 2019 (Lei Wang) 	Added method deduceUsedSeparatorString().
  * NOV 19, 2019 (Lei Wang) 	Modified method convertCoords(): allow negative percentage format, such as -50%, -0.75 etc.
+ * OCT 19, 2026 matchRegex() uses compiled Patterns from RecognitionCache. Added matchRegex(String, String, boolean).
  **/
 package org.safs;
 
@@ -938,6 +939,12 @@ public abstract class StringUtils extends StringUtilities{
    * @exception                 SAFSRegExNotFoundException if no RegEx support class can be found.
    **/
   public static boolean matchRegex(String expression, String value) throws SAFSException {
+    // normal case: reuse the compiled Pattern.
+    // invalid or null input falls through to the original handling and its exceptions.
+    if (expression != null && value != null) {
+      try { return RecognitionCache.matches(expression, value, false); }
+      catch (java.util.regex.PatternSyntaxException pse) {}
+    }
     String patternClassName = "java.util.regex.Pattern";
     String patternMethodName = "matches";
     if (patternMethod != null) {
@@ -1066,6 +1073,23 @@ public abstract class StringUtils extends StringUtilities{
               "class 'org.apache.regexp.RE' must be available in the CLASSPATH.");
   }
 
+  /** <br><em>Purpose:</em> match a regular expression to a value, optionally ignoring case.
+   * The compiled Pattern is cached by expression and case mode.
+   * @param                     expression, String
+   * @param                     value, String
+   * @param                     ignoreCase, boolean true for a case-insensitive match.
+   * @return                    boolean, true if match, false otherwise
+   * @exception                 SAFSRegExException if the expression is invalid or either parameter is null.
+   * @see RecognitionCache#getPattern(String, boolean)
+   **/
+  public static boolean matchRegex(String expression, String value, boolean ignoreCase) throws SAFSException {
+    if (!ignoreCase) return matchRegex(expression, value);
+    try { return RecognitionCache.matches(expression, value, true); }
+    catch (Exception x) {
+      throw new SAFSRegExException("StringUtilities.matchRegex: "+ expression +" :"+ x.toString());
+    }
+  }
+
 	/**
 	 * match a text(provided as fullstring, substing, regex, wildcard) against<br>
 	 * the actual text got from application component(list, menu, tree, tab etc.)<br>
@@ -19,6 +19,7 @@ package org.safs;
 
 import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.StringTokenizer;
 
 import org.safs.tools.drivers.DriverConstant;
@@ -55,6 +56,7 @@ import org.safs.tools.engines.EngineInterface;
  * <br>     APR 12, 2004    (Carl Nagle) Added unique fileID field.
  * <br>     JUN 28, 2004    (Carl Nagle) Added setShutdownData.
  * <br>     NOV 15, 2005    (Bob Lawler) Added support for new TRD statusinfo field (RJL).
+ * <br>     OCT 19, 2026    Added setInputRecordTokens for records built from typed fields.
  **/
 public abstract class TestRecordData implements java.io.Serializable {
 
@@ -273,8 +275,52 @@ public abstract class TestRecordData implements java.io.Serializable {
 
   /** <br><em>Purpose:</em> accessor method(s)
    **/
-  public String getInputRecord () {return inputRecord;}
-  public void setInputRecord (String inputRecord) {this.inputRecord = inputRecord;}
+  public String getInputRecord () {
+    if (inputRecord == null && inputRecordTokens != null) inputRecord = joinInputRecordTokens();
+    return inputRecord;
+  }
+  public void setInputRecord (String inputRecord) {
+    if (inputRecord == null ? this.inputRecord != null : !inputRecord.equals(this.inputRecord))
+      inputRecordTokens = null;
+    this.inputRecord = inputRecord;
+  }
+
+  /** <br><em>Purpose:</em> set the {@link #inputRecord} fields directly, as already separated tokens.
+   * <br><em>Side Effects:</em> {@link #inputRecordTokens} set, {@link #inputRecord} cleared.
+   * <br><em>Assumptions:</em>  Field values are taken as-is and may contain the separator.
+   * The inputRecord String is only built from the tokens if it is requested, using the current 
+   * separator or, if a token contains it, the first {@link #POSSIBLE_SEPARATOR} no token contains.
+   * @param tokens List of record fields starting with the record type.
+   **/
+  public void setInputRecordTokens (List<String> tokens) {
+    inputRecord = null;
+    inputRecordTokens = (tokens == null) ? null : new ArrayList(tokens);
+  }
+
+  private boolean tokensContain(String sep){
+    for (int i = 0; i < inputRecordTokens.size(); i++){
+      if (((String) inputRecordTokens.get(i)).indexOf(sep) > -1) return true;
+    }
+    return false;
+  }
+
+  private String joinInputRecordTokens(){
+    if (separator == null || tokensContain(separator)){
+      for (int i = 0; i < POSSIBLE_SEPARATOR.length; i++){
+        if (!tokensContain(POSSIBLE_SEPARATOR[i])){
+          separator = POSSIBLE_SEPARATOR[i];
+          break;
+        }
+      }
+    }
+    String sep = (separator == null) ? POSSIBLE_SEPARATOR[0] : separator;
+    StringBuffer buf = new StringBuffer(128);
+    for (int i = 0; i < inputRecordTokens.size(); i++){
+      if (i > 0) buf.append(sep);
+      buf.append(inputRecordTokens.get(i));
+    }
+    return buf.toString();
+  }
 
   /** <br><em>Purpose:</em> accessor method(s)
    **/
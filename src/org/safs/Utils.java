@@ -44,6 +44,8 @@
  * JUN 20, 2019    (Lei Wang) Modified method getFieldClass(), setField(): if we cannot get a field then we try to get it from its super class.
  * AUG 15, 2019    (Lei Wang) Added getFieldInstanceClass(): Get the class name of the real instance of the field.
  * APR 27, 2021    (Lei Wang) Moved some third-party-jar-independent-methods to 'org.safs.UtilsIndependent'.
+ * OCT 19, 2026    Modified toJsonForSpring() and the xxxRepository() methods to reuse a per-thread Gson instead of building one per call.
+ *                             Added pushToRepository(String, RestModel, int): retry a failed connection or a server error.
  */
 package org.safs;
 
@@ -110,6 +112,7 @@ import org.safs.tools.GenericProcessMonitor.WQLSearchCondition;
 import org.safs.tools.drivers.DriverConstant;
 import org.springframework.http.HttpStatus;
 
+import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonDeserializationContext;
 import com.google.gson.JsonDeserializer;
@@ -886,10 +889,46 @@ public abstract class Utils{
 	 * @return String, the JSON string converted from source object; especially this string should be accepted by Spring.
 	 */
 	public static String toJsonForSpring(Object source){
-		GsonBuilder builder = new GsonBuilder();
-		builder.setDateFormat(DATE_FORMAT_ACCEPTED_BY_SPRING_MVC);
-		//We can still modify the Gson builder to constraint other stuff
-		return toJson(builder, source);
+		Gson gson = springGson.get();
+		if(gson==null || !DATE_FORMAT_ACCEPTED_BY_SPRING_MVC.equals(springGsonDateFormat.get())){
+			GsonBuilder builder = new GsonBuilder();
+			builder.setDateFormat(DATE_FORMAT_ACCEPTED_BY_SPRING_MVC);
+			//We can still modify the Gson builder to constraint other stuff
+			gson = builder.create();
+			springGson.set(gson);
+			springGsonDateFormat.set(DATE_FORMAT_ACCEPTED_BY_SPRING_MVC);
+		}
+		String jsonStr = gson.toJson(source);
+		IndependantLog.info("convert "+source.getClass().getSimpleName()+" object '"+source+"' to json String '"+jsonStr+"'.");
+		return jsonStr;
+	}
+
+	/**
+	 * The Gson used by {@link #toJsonForSpring(Object)}, and the date format it was built with.<br>
+	 * They are kept per thread, as the DateFormat inside Gson is not thread-safe.
+	 */
+	private static final ThreadLocal<Gson> springGson = new ThreadLocal<Gson>();
+	private static final ThreadLocal<String> springGsonDateFormat = new ThreadLocal<String>();
+
+	/**
+	 * The Gson converting the json string returned from safs data service to a RestModel.<br>
+	 * The Date object will be returned as long value from safs-data-service, it has a JsonDeserializer for Date to handle long value.<br>
+	 * It is kept per thread, as the DateFormats of {@link DefaultDateJsonDeserializer} are not thread-safe.
+	 */
+	private static final ThreadLocal<Gson> repositoryGson = new ThreadLocal<Gson>(){
+		@Override
+		protected Gson initialValue(){
+			return new GsonBuilder().registerTypeAdapter(Date.class, new LongDateJsonDeserializer(new DefaultDateJsonDeserializer())).create();
+		}
+	};
+
+	/**
+	 * Convert the json string returned from safs data service to a RestModel.
+	 */
+	private static <T> T fromRepositoryJson(String jsonString, Type type){
+		T result = repositoryGson.get().fromJson(jsonString, type);
+		IndependantLog.info("convert json String '"+jsonString+"' to "+type.getTypeName()+" object '"+result+"'.");
+		return result;
 	}
 
 	/**
@@ -1006,16 +1045,42 @@ public abstract class Utils{
 	 * @throws SAFSModelCreationException if we fail to get rest model (with generated ID) from the http response. But the model has been pushed successfully.
 	 */
 	public static RestModel pushToRepository(String safsdataServiceID, RestModel restModel) throws SAFSDatabaseException, SAFSModelCreationException{
+		return pushToRepository(safsdataServiceID, restModel, 0);
+	}
+
+	/**
+	 * Push a {@link RestModel} to a repository.<br>
+	 * A failed connection or a server error (http status 5xx) will be retried, waiting 100, 200, 400 ... milliseconds between the tries.<br>
+	 * @param safsdataServiceID String, the session ID. REST.StartServiceSession( safsDataServiceID, serverURL) should have been called previously.
+	 * @param restModel RestModel, the model to push to a repository in safs data service.
+	 * @param retries int, the maximum number of retries.
+	 * @return RestModel (with generated ID) got from the successful http response.
+	 * @throws SAFSDatabaseException if we fail to push the rest model to repository.
+	 * @throws SAFSModelCreationException if we fail to get rest model (with generated ID) from the http response. But the model has been pushed successfully.
+	 */
+	public static RestModel pushToRepository(String safsdataServiceID, RestModel restModel, int retries) throws SAFSDatabaseException, SAFSModelCreationException{
 		Response response = null;
 		HttpStatus status = null;
 		String restModelName = restModel.getClass().getSimpleName();
+		String body = Utils.toJsonForSpring(restModel);
 
-		try{
-			response = POST.json(safsdataServiceID, restModel.getRestPath(), Utils.toJsonForSpring(restModel));
-			status = HttpStatus.valueOf(response.get_status_code());
-		}catch(Exception e){
-			String errmsg = "Failed to push '"+restModelName+"' to safs data repository.";
-			throw new SAFSDatabaseException(errmsg, e);
+		for(int attempt=0;;attempt++){
+			try{
+				response = POST.json(safsdataServiceID, restModel.getRestPath(), body);
+				status = HttpStatus.valueOf(response.get_status_code());
+				if(!status.is5xxServerError() || attempt>=retries) break;
+				IndependantLog.warn("Retry to push '"+restModelName+"', met http status code '"+status.value()+":"+status.getReasonPhrase()+"'.");
+			}catch(Exception e){
+				String errmsg = "Failed to push '"+restModelName+"' to safs data repository.";
+				if(attempt>=retries) throw new SAFSDatabaseException(errmsg, e);
+				IndependantLog.warn("Retry to push '"+restModelName+"', due to "+StringUtils.debugmsg(e));
+			}
+			try{
+				Thread.sleep(100L << Math.min(attempt, 6));
+			}catch(InterruptedException e){
+				Thread.currentThread().interrupt();
+				throw new SAFSDatabaseException("Interrupted while retrying to push '"+restModelName+"' to safs data repository.", e);
+			}
 		}
 
 		//Verify that the http status code is 'CREATED' or 'FOUND'
@@ -1027,8 +1092,7 @@ public abstract class Utils{
 				//We will convert it to a Model object, which contains the "ID" generated during insertion to the repository.
 
 				//The Date object will be returned as long value from safs-data-service, create a JsonDeserializer for Date to handle long value.
-				GsonBuilder builder = new GsonBuilder().registerTypeAdapter(Date.class, new LongDateJsonDeserializer(new DefaultDateJsonDeserializer()));
-				RestModel model = Utils.fromJson(builder, modelInJsonString, restModel.getClass());
+				RestModel model = fromRepositoryJson(modelInJsonString, restModel.getClass());
 				//IndependantLog.debug(model.getClass().getSimpleName()+": "+model+" has been saved to repository.");
 				return model;
 			}catch(Exception e){
@@ -1089,8 +1153,7 @@ public abstract class Utils{
 				//We will convert it to a Model object, which contains the "ID" generated during insertion to the repository.
 
 				//The Date object will be returned as long value from safs-data-service, create a JsonDeserializer for Date to handle long value.
-				GsonBuilder builder = new GsonBuilder().registerTypeAdapter(Date.class, new LongDateJsonDeserializer(new DefaultDateJsonDeserializer()));
-				RestModel model = Utils.fromJson(builder, modelInJsonString, restModel.getClass());
+				RestModel model = fromRepositoryJson(modelInJsonString, restModel.getClass());
 				//IndependantLog.debug(model.getClass().getSimpleName()+": "+model+" has been saved to repository.");
 				return model;
 			}catch(Exception e){
@@ -1149,8 +1212,7 @@ public abstract class Utils{
 				//We will convert it to a Model object
 
 				//The Date object will be returned as long value from safs-data-service, create a JsonDeserializer for Date to handle long value.
-				GsonBuilder builder = new GsonBuilder().registerTypeAdapter(Date.class, new LongDateJsonDeserializer(new DefaultDateJsonDeserializer()));
-				RestModel model = Utils.fromJson(builder, modelInJsonString, restModel.getClass());
+				RestModel model = fromRepositoryJson(modelInJsonString, restModel.getClass());
 				return model;
 			}catch(Exception e){
 				String errmsg = "Failed to convert json string to '"+restModelName+"'\nJSON Model String: "+modelInJsonString+"\nDue to "+e.getMessage();
@@ -1192,7 +1254,6 @@ public abstract class Utils{
 				//We will convert it to a List of Model object
 
 				//The Date object will be returned as long value from safs-data-service, create a JsonDeserializer for Date to handle long value.
-				GsonBuilder builder = new GsonBuilder().registerTypeAdapter(Date.class, new LongDateJsonDeserializer(new DefaultDateJsonDeserializer()));
 				Type listType = null;
 				if(model instanceof EkspresoEvent){
 					listType = new TypeToken<List<EkspresoEvent>>(){}.getType();
@@ -1222,7 +1283,7 @@ public abstract class Utils{
 					listType = new TypeToken<List<User>>(){}.getType();
 				}
 
-				List<RestModel> models = Utils.fromJson(builder, modelInJsonString, listType);
+				List<RestModel> models = fromRepositoryJson(modelInJsonString, listType);
 				return models;
 			}catch(Exception e){
 				String errmsg = "Failed to convert json string to a collection of '"+restModelName+"'\nJSON Model String: "+modelInJsonString+"\nDue to "+e.getMessage();
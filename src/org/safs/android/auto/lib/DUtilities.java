@@ -27,7 +27,9 @@ import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Pattern;
 
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -54,6 +56,7 @@ import com.android.ddmlib.RawImage;
  * 
  * @author Carl Nagle
  * <br>(Lei Wang)	AUG 16, 2013	Fix problem of un-installing APK from device/emulator .
+ * <br>OCT 19, 2026	Convert and rotate the device screen in one pass. Added getDeviceScreenCapture() to reuse the frame of each device.
  */
 public class DUtilities {
 
@@ -745,14 +748,12 @@ public class DUtilities {
             rawImage = device.getScreenshot();
             // device/adb not available?
             if (rawImage != null){
-            	image = ImageUtils.convertImage(rawImage);
             	if(rotatable){
-            		//When rotate the image got from ImageUtils.convertImage(), sometimes an ImagingOpException
-            		//will be thrown out. ImagingOpException: Unable to transform src image
-            		//So get a copy of the original image and rotate it.
-            		image = ImageUtils.getCopiedImage(image, image.getWidth(), image.getHeight(), null);
             		//According to the rotation, rotate the image back.
-            		image = ImageUtils.rotateImage(image, (360-rotation)%360);
+            		//The raw image is converted and rotated directly into a new image, which belongs to the caller.
+            		image = new DeviceScreenCapture().update(rawImage, (360-rotation)%360);
+            	}else{
+            		image = ImageUtils.convertImage(rawImage);
             	}
             }else{
             	debug(debugmsg+"Can't get raw image from the device.");
@@ -764,6 +765,35 @@ public class DUtilities {
         
         return image;
     } 
+
+    /** The screen capture of each device, keyed by the device serial number. */
+    private static Map<String, DeviceScreenCapture> screenCaptures = new HashMap<String, DeviceScreenCapture>();
+
+    /**
+     * Get the screen capture service of a device, which reuses one frame for all the captures of that device
+     * and tells if the screen has changed since the last capture.<br>
+     * It is suggested for the callers polling the device screen, such as waiting for an image to appear.
+     * <pre>
+     * DeviceScreenCapture capture = DUtilities.getDeviceScreenCapture(device);
+     * BufferedImage frame = capture.capture(device, rotation, rotatable);
+     * if(frame!=null &amp;&amp; capture.isChanged()){
+     *     //search the image only in capture.getDirtyRegion() ...
+     * }
+     * </pre>
+     * @param device, IDevice: the android device or emulator, it can be got by {@link #getIDevice()}
+     * @return DeviceScreenCapture, the screen capture of the device.
+     * @see #getDeviceScreenImage(IDevice, int, boolean)
+     */
+    public static DeviceScreenCapture getDeviceScreenCapture(IDevice device){
+    	synchronized(screenCaptures){
+    		DeviceScreenCapture capture = screenCaptures.get(device.getSerialNumber());
+    		if(capture==null){
+    			capture = new DeviceScreenCapture();
+    			screenCaptures.put(device.getSerialNumber(), capture);
+    		}
+    		return capture;
+    	}
+    }
 	
 	/**
 	 * Attempt to launch a prestored Emulator -avd and a -no-snapstorage argument.
@@ -0,0 +1,350 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+/**
+ * Logs for developers, not published to API DOC.
+ *
+ * History:
+ * OCT 19, 2026    Initial release.
+ */
+package org.safs.android.auto.lib;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.util.Random;
+
+import com.android.ddmlib.AdbCommandRejectedException;
+import com.android.ddmlib.IDevice;
+import com.android.ddmlib.RawImage;
+import com.android.ddmlib.TimeoutException;
+
+/**
+ * Capture the screen of an Android device into one reusable image.<br>
+ * The RawImage got from the device is converted directly into the int pixels of the frame, and the
+ * rotation is applied by writing each pixel at its rotated position; no intermediate image is created.<br>
+ * While converting, each pixel is compared with the previous frame held in the same buffer, so that
+ * {@link #isChanged()}, {@link #getDirtyRegion()} and {@link #getHash()} tell if and where the screen
+ * has changed since the last capture. Callers polling the screen can then skip unchanged frames.<br>
+ * <p>
+ * <b>Note:</b> the image returned by {@link #update(RawImage, int)} and {@link #capture(IDevice, int, boolean)}
+ * is overwritten by the next capture. Make a copy of it if it needs to be kept.
+ *
+ * @see DUtilities#getDeviceScreenCapture(IDevice)
+ */
+public class DeviceScreenCapture {
+
+	/** The reused frame, it is of type BufferedImage.TYPE_INT_RGB. */
+	private BufferedImage frame = null;
+	/** The pixels of {@link #frame}, 0x00RRGGBB. */
+	private int[] pixels = null;
+	/** The rotation angle of the current frame. */
+	private int angle = 0;
+
+	private boolean changed = false;
+	private long hash = 0;
+	/** The changed area of the last capture, in the coordinates of the rotated frame; null if nothing changed. */
+	private Rectangle dirtyRegion = null;
+
+	/** FNV-1a 64 bits offset basis and prime, used to calculate {@link #hash}. */
+	private static final long HASH_OFFSET = 0xcbf29ce484222325L;
+	private static final long HASH_PRIME  = 0x100000001b3L;
+
+	/**
+	 * Grab the screen image from an ADB-connected device into the reused frame.
+	 * @param device IDevice, the android device or emulator.
+	 * @param rotation int, the device rotation in degree, the image will be rotated with inverse degree (360-rotation).<br>
+	 *                      Only if rotatable is true, rotation will take effects.
+	 * @param rotatable boolean, if the application is rotatable.
+	 * @return BufferedImage, the reused frame; null if the device can't provide the raw image.
+	 * @see DUtilities#getDeviceScreenImage(IDevice, int, boolean)
+	 */
+	public BufferedImage capture(IDevice device, int rotation, boolean rotatable) throws TimeoutException, AdbCommandRejectedException, IOException{
+		RawImage rawImage = device.getScreenshot();
+		if(rawImage==null){
+			return null;
+		}
+		return update(rawImage, rotatable? (360-rotation)%360 : 0);
+	}
+
+	/**
+	 * Convert a RawImage into the reused frame, rotated clockwise with angle.<br>
+	 * The frame is re-created only if its size changes.
+	 * @param rawImage RawImage, the raw image of 16 or 32 bits per pixel.
+	 * @param angle int, the angle to rotate the image clockwise, only 0, 90, 180 or 270 degree are supported.
+	 * @return BufferedImage, the reused frame; null if the bpp or the angle is not supported.
+	 */
+	public synchronized BufferedImage update(RawImage rawImage, int angle){
+		if(rawImage.bpp!=16 && rawImage.bpp!=32){
+			DUtilities.debug("DeviceScreenCapture.update(): bpp '"+rawImage.bpp+"' is not supported.");
+			return null;
+		}
+		if(angle!=0 && angle!=90 && angle!=180 && angle!=270){
+			DUtilities.debug("DeviceScreenCapture.update(): Rotation degree '"+angle+"' is not supported.");
+			return null;
+		}
+
+		int width = rawImage.width;
+		int height = rawImage.height;
+		boolean swap = (angle==90 || angle==270);
+		int frameWidth = swap? height : width;
+		int frameHeight = swap? width : height;
+
+		//The previous frame can be compared only if it has the same size and rotation.
+		boolean compare = frame!=null && frame.getWidth()==frameWidth && frame.getHeight()==frameHeight && this.angle==angle;
+		if(frame==null || frame.getWidth()!=frameWidth || frame.getHeight()!=frameHeight){
+			frame = new BufferedImage(frameWidth, frameHeight, BufferedImage.TYPE_INT_RGB);
+			pixels = ((DataBufferInt) frame.getRaster().getDataBuffer()).getData();
+		}
+		this.angle = angle;
+
+		//The changed area, in the coordinates of the raw image.
+		int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = -1, maxY = -1;
+		long newHash = HASH_OFFSET;
+
+		byte[] data = rawImage.data;
+		int bytes = rawImage.bpp/8;
+		int index = 0;
+		int pixel = 0;
+		int value = 0;
+		int destIndex = 0;
+		int step = 0;
+		int rowChangedMin = 0;
+		int rowChangedMax = 0;
+
+		//The shifts and masks of the 32 bits raw image, same as ThirtyTwoBitColorModel
+		int redOffset = rawImage.red_offset, redMask = ImageUtils.getMask(rawImage.red_length), redShift = 8-rawImage.red_length;
+		int greenOffset = rawImage.green_offset, greenMask = ImageUtils.getMask(rawImage.green_length), greenShift = 8-rawImage.green_length;
+		int blueOffset = rawImage.blue_offset, blueMask = ImageUtils.getMask(rawImage.blue_length), blueShift = 8-rawImage.blue_length;
+
+		for(int y=0;y<height;y++){
+			//where the first pixel of this row goes, and how far is the next one
+			switch(angle){
+			case 90:  destIndex = height-1-y;              step = height; break;
+			case 180: destIndex = (height-1-y)*width+width-1; step = -1; break;
+			case 270: destIndex = (width-1)*height+y;      step = -height; break;
+			default:  destIndex = y*width;                 step = 1;
+			}
+			rowChangedMin = Integer.MAX_VALUE;
+			rowChangedMax = -1;
+
+			for(int x=0;x<width;x++, index+=bytes, destIndex+=step){
+				if(bytes==4){
+					value = (data[index] & 0x00FF) | (data[index+1] & 0x00FF) << 8 | (data[index+2] & 0x00FF) << 16 | (data[index+3] & 0x00FF) << 24;
+					pixel = (((value >>> redOffset) & redMask) << redShift) << 16
+						  | (((value >>> greenOffset) & greenMask) << greenShift) << 8
+						  | (((value >>> blueOffset) & blueMask) << blueShift);
+				}else{
+					value = (data[index] & 0x00FF) | (data[index+1] << 8) & 0x0FF00;
+					pixel = (((value >> 11) & 0x01F) << 3) << 16 | (((value >> 5) & 0x03F) << 2) << 8 | ((value & 0x01F) << 3);
+				}
+
+				if(compare && pixels[destIndex]!=pixel){
+					if(x<rowChangedMin) rowChangedMin = x;
+					rowChangedMax = x;
+				}
+				pixels[destIndex] = pixel;
+				newHash = (newHash ^ pixel) * HASH_PRIME;
+			}
+
+			if(rowChangedMax>=0){
+				if(y<minY) minY = y;
+				maxY = y;
+				if(rowChangedMin<minX) minX = rowChangedMin;
+				if(rowChangedMax>maxX) maxX = rowChangedMax;
+			}
+		}
+		hash = newHash;
+
+		if(!compare){
+			changed = true;
+			dirtyRegion = new Rectangle(0, 0, frameWidth, frameHeight);
+		}else if(maxY<0){
+			changed = false;
+			dirtyRegion = null;
+		}else{
+			changed = true;
+			dirtyRegion = rotate(new Rectangle(minX, minY, maxX-minX+1, maxY-minY+1), width, height, angle);
+		}
+
+		return frame;
+	}
+
+	/**
+	 * Map a rectangle of the raw image into the rotated frame.
+	 * @param rect Rectangle, in the coordinates of the raw image.
+	 * @param width int, the width of the raw image.
+	 * @param height int, the height of the raw image.
+	 * @param angle int, the clockwise rotation, 0, 90, 180 or 270.
+	 * @return Rectangle, in the coordinates of the rotated frame.
+	 */
+	private static Rectangle rotate(Rectangle rect, int width, int height, int angle){
+		switch(angle){
+		case 90:  return new Rectangle(height-rect.y-rect.height, rect.x, rect.height, rect.width);
+		case 180: return new Rectangle(width-rect.x-rect.width, height-rect.y-rect.height, rect.width, rect.height);
+		case 270: return new Rectangle(rect.y, width-rect.x-rect.width, rect.height, rect.width);
+		default:  return rect;
+		}
+	}
+
+	/** @return BufferedImage, the reused frame of the last capture; null if nothing has been captured. */
+	public synchronized BufferedImage getFrame(){
+		return frame;
+	}
+
+	/**
+	 * @return boolean, true if the last capture is different from the previous one.<br>
+	 *                  The first capture, or a capture changing the size or rotation, is always considered as changed.
+	 */
+	public synchronized boolean isChanged(){
+		return changed;
+	}
+
+	/**
+	 * @return Rectangle, the smallest area containing all the pixels changed by the last capture, in the
+	 *                    coordinates of the rotated frame; null if nothing has changed.
+	 */
+	public synchronized Rectangle getDirtyRegion(){
+		return dirtyRegion==null? null : new Rectangle(dirtyRegion);
+	}
+
+	/**
+	 * @return long, the hash of the pixels of the last capture. Two captures with the same hash
+	 *               can be considered as the same screen, without keeping the images to compare.
+	 */
+	public synchronized long getHash(){
+		return hash;
+	}
+
+	/**
+	 * Create a synthetic RawImage for test.
+	 * @param bpp int, 16 or 32 bits per pixel.
+	 */
+	private static RawImage createRawImage(int bpp, int width, int height, Random random){
+		RawImage rawImage = new RawImage();
+		rawImage.version = 1;
+		rawImage.bpp = bpp;
+		rawImage.width = width;
+		rawImage.height = height;
+		rawImage.size = width*height*bpp/8;
+		rawImage.data = new byte[rawImage.size];
+		random.nextBytes(rawImage.data);
+		if(bpp==32){
+			//RGBA_8888, the usual format of the device screen
+			rawImage.red_offset = 0;
+			rawImage.red_length = 8;
+			rawImage.green_offset = 8;
+			rawImage.green_length = 8;
+			rawImage.blue_offset = 16;
+			rawImage.blue_length = 8;
+			rawImage.alpha_offset = 24;
+			rawImage.alpha_length = 8;
+		}else{
+			rawImage.red_offset = 11;
+			rawImage.red_length = 5;
+			rawImage.green_offset = 5;
+			rawImage.green_length = 6;
+			rawImage.blue_offset = 0;
+			rawImage.blue_length = 5;
+		}
+		return rawImage;
+	}
+
+	/**
+	 * Convert and rotate the RawImage in the way used before this class: convert, copy and rotate with an AffineTransformOp.
+	 */
+	private static BufferedImage convertByCopy(RawImage rawImage, int angle){
+		BufferedImage image = ImageUtils.convertImage(rawImage);
+		image = ImageUtils.getCopiedImage(image, image.getWidth(), image.getHeight(), null);
+		return ImageUtils.rotateImage(image, angle);
+	}
+
+	private static void assertSame(BufferedImage expected, BufferedImage actual, String message){
+		if(expected.getWidth()!=actual.getWidth() || expected.getHeight()!=actual.getHeight()){
+			throw new AssertionError(message+": size "+actual.getWidth()+"x"+actual.getHeight()+" != "+expected.getWidth()+"x"+expected.getHeight());
+		}
+		for(int y=0;y<expected.getHeight();y++){
+			for(int x=0;x<expected.getWidth();x++){
+				if(expected.getRGB(x, y)!=actual.getRGB(x, y)){
+					throw new AssertionError(message+": pixel ("+x+","+y+") "+Integer.toHexString(actual.getRGB(x, y))+" != "+Integer.toHexString(expected.getRGB(x, y)));
+				}
+			}
+		}
+	}
+
+	private static void check(boolean condition, String message){
+		if(!condition) throw new AssertionError(message);
+	}
+
+	/**
+	 * Self test with synthetic RawImages, no device is needed.<br>
+	 * <ul>
+	 * <li>The frame is the same as the image converted, copied and rotated as before, for 16 and 32 bpp and each angle.
+	 * <li>An unchanged screen is reported as unchanged, with the same hash.
+	 * <li>A change is reported with its dirty region in the rotated frame.
+	 * <li>The time of polling a 1080x1920 screen is compared with the previous way.
+	 * </ul>
+	 * java org.safs.android.auto.lib.DeviceScreenCapture
+	 */
+	public static void main(String[] args){
+		Random random = new Random(19);
+		int[] angles = {0, 90, 180, 270};
+
+		for(int bpp: new int[]{16, 32}){
+			RawImage rawImage = createRawImage(bpp, 37, 23, random);
+			for(int angle: angles){
+				DeviceScreenCapture capture = new DeviceScreenCapture();
+				BufferedImage frame = capture.update(rawImage, angle);
+				assertSame(convertByCopy(rawImage, angle), frame, bpp+" bpp, angle "+angle);
+				check(capture.isChanged(), "the first capture should be changed.");
+				long firstHash = capture.getHash();
+
+				check(capture.update(rawImage, angle)==frame, "the frame should be reused.");
+				check(!capture.isChanged() && capture.getDirtyRegion()==null, "the same screen should not be changed.");
+				check(capture.getHash()==firstHash, "the same screen should have the same hash.");
+
+				//change the pixels (3,5) and (10,7) of the raw image
+				int bytes = bpp/8;
+				rawImage.data[(5*rawImage.width+3)*bytes] ^= 0x10;
+				rawImage.data[(7*rawImage.width+10)*bytes] ^= 0x10;
+				capture.update(rawImage, angle);
+				assertSame(convertByCopy(rawImage, angle), frame, bpp+" bpp, angle "+angle+" after change");
+				check(capture.isChanged() && capture.getHash()!=firstHash, "the changed screen should be changed.");
+				Rectangle expected = rotate(new Rectangle(3, 5, 8, 3), rawImage.width, rawImage.height, angle);
+				check(expected.equals(capture.getDirtyRegion()), "dirty region "+capture.getDirtyRegion()+" != "+expected+", angle "+angle);
+			}
+		}
+		System.out.println("Frames match the converted, copied and rotated images; changes and dirty regions are detected.");
+
+		RawImage screen = createRawImage(32, 1080, 1920, random);
+		int polls = 20;
+		long start = System.currentTimeMillis();
+		for(int i=0;i<polls;i++){
+			convertByCopy(screen, 90);
+		}
+		long byCopy = System.currentTimeMillis()-start;
+
+		DeviceScreenCapture capture = new DeviceScreenCapture();
+		start = System.currentTimeMillis();
+		for(int i=0;i<polls;i++){
+			capture.update(screen, 90);
+		}
+		long reused = System.currentTimeMillis()-start;
+		System.out.println(polls+" polls of a 1080x1920 screen rotated 90 degree: "+byCopy+" ms by copy, "+reused+" ms with reused frame.");
+	}
+}
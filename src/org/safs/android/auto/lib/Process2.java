@@ -31,11 +31,28 @@ import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.Writer;
 import java.nio.CharBuffer;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
-/** Extends Process by wrapping one. */
+/**
+ * Extends Process by wrapping one.
+ * <p>
+ * The waits block on the wrapped Process until it exits or the timeout expires, and the
+ * streams are pumped by a pool of threads shared by all the Process2 instances.
+ * <br>OCT 19, 2026	Timed blocking waits instead of polling, shared pumper pool, {@link #getCompletion()}.
+ */
 public class Process2 {
 
 	/** 
@@ -58,6 +75,29 @@ public class Process2 {
 	private final static Set<Process2> processes = new HashSet<Process2>();
 	
 	private static boolean _jvmShutdown = false;
+
+	/**
+	 * Pool of daemon threads pumping the streams of all the Process2 instances.
+	 * Idle threads are reused by the next process, so many short-lived commands do not create many threads.
+	 * @see #connect(Readable, Appendable, boolean)
+	 */
+	private final static ExecutorService pumpers = Executors.newCachedThreadPool(new ThreadFactory(){
+		private final AtomicInteger count = new AtomicInteger();
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "Process2-pumper-"+count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+
+	/**
+	 * Maximum milliseconds to wait, after the process has exited, for its stdout/stderr to be pumped into the sinks.
+	 * The output is normally complete within milliseconds; the limit only matters if a child process keeps the stream open.
+	 */
+	public final static long OUTPUT_DRAIN_TIMEOUT = 1000;
+
+	/** The pumps of stdout and stderr, waited by the waitFor methods once the process has exited. */
+	private final List<Future<?>> outputPumps = new ArrayList<Future<?>>();
 	
 	/**
 	 * Set to true to stop the contained process from being destroyed as part of a JVM shutdown.
@@ -82,6 +122,9 @@ public class Process2 {
 	
 	private final Process process;
 
+	/** @see #getCompletion() */
+	private final Completion completion = new Completion();
+
 	/**
 	 * Default constructor allowing process cleanup on JVM Shutdown.
 	 * This is the same as instancing Process2(process, false)
@@ -163,6 +206,7 @@ public class Process2 {
 	 */
 	public Process2 waitFor() throws InterruptedException {
 		process.waitFor();
+		drainOutput();
 		return this;
 	}
 	
@@ -176,17 +220,75 @@ public class Process2 {
 	 * process having exited.
 	 */
 	public Process2 waitFor(int secsTimeout) throws InterruptedException {
-		long timeout = System.currentTimeMillis() + (1000 * secsTimeout);
-		boolean done = false;
-		while(!done){
-			try{
-				exitValue();
-				return this;
-			}catch(IllegalThreadStateException x){}
-			done = timeout < System.currentTimeMillis();
-			if(!done) try{ Thread.sleep(1000);}catch(Exception x){}
+		if(!process.waitFor(secsTimeout, TimeUnit.SECONDS)){
+			throw new IllegalThreadStateException("Process has not completed within specified timeout period.");
+		}
+		drainOutput();
+		return this;
+	}
+
+	/**
+	 * Wait, at most {@link #OUTPUT_DRAIN_TIMEOUT} milliseconds, for the stdout/stderr of the exited process
+	 * to be pumped into their sinks; so that the sinks hold the whole output when a waitFor method returns.
+	 * @throws InterruptedException
+	 */
+	private void drainOutput() throws InterruptedException {
+		long deadline = System.currentTimeMillis() + OUTPUT_DRAIN_TIMEOUT;
+		synchronized(outputPumps){
+			for(Future<?> pump: outputPumps){
+				try{
+					pump.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+				}catch(TimeoutException x){
+					//the stream is still open, maybe held by a child process; don't wait for it any more.
+					break;
+				}catch(ExecutionException x){}
+			}
+		}
+	}
+
+	/**
+	 * Get the completion of the wrapped Process as a Future holding its exitValue.<br>
+	 * No thread is used to watch the process: {@link Future#get(long, TimeUnit)} blocks on the process
+	 * like {@link #waitFor(int)}, and {@link Future#cancel(boolean)} destroys the process.
+	 * <pre>
+	 * Future&lt;Integer&gt; completion = AndroidTools.get().adb("devices").discardStdout().getCompletion();
+	 * int exitValue = completion.get(10, TimeUnit.SECONDS);
+	 * </pre>
+	 * @return Future&lt;Integer&gt;, the completion of the process.
+	 */
+	public Future<Integer> getCompletion(){
+		return completion;
+	}
+
+	/** The completion of the wrapped Process, see {@link Process2#getCompletion()}. */
+	private class Completion implements Future<Integer>{
+		private volatile boolean cancelled = false;
+
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			if(isDone()) return false;
+			cancelled = true;
+			removeJVMShutdownReference();
+			process.destroy();
+			return true;
+		}
+		public boolean isCancelled() {
+			return cancelled;
+		}
+		public boolean isDone() {
+			return cancelled || !process.isAlive();
+		}
+		public Integer get() throws InterruptedException, ExecutionException {
+			if(cancelled) throw new CancellationException("Process has been destroyed.");
+			return waitFor().exitValue();
+		}
+		public Integer get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+			if(cancelled) throw new CancellationException("Process has been destroyed.");
+			if(!process.waitFor(timeout, unit)){
+				throw new TimeoutException("Process has not completed within "+timeout+" "+unit.toString().toLowerCase()+".");
+			}
+			drainOutput();
+			return exitValue();
 		}
-		throw new IllegalThreadStateException("Process has not completed within specified timeout period.");
 	}
 	
 	/**
@@ -260,7 +362,7 @@ public class Process2 {
 	 * Connect an Appendable sink to a Readable source and immediately begin 
 	 * processing the source contents into the sink.
 	 * <p>
-	 * Important: A separate thread is launched to read the source and write to the 
+	 * Important: A separate thread is used to read the source and write to the 
 	 * sink to prevent blocking.  However, the thread only lasts for as long as there 
 	 * are characters to be read.  A long-running process that does not consistently 
 	 * send characters can allow this thread to run to completion and exit before the 
@@ -268,12 +370,16 @@ public class Process2 {
 	 * <p>
 	 * Set persist to true to prevent the IO reading from stopping when it otherwise 
 	 * would stop.  Reset persist to false to allow the thread to terminate.
+	 * <p>
+	 * If persist is false the thread is borrowed from the shared {@link #pumpers} pool; 
+	 * otherwise a dedicated non-daemon thread is launched as it may never end.
 	 * @param source
 	 * @param sink
+	 * @param output boolean, true if the source is the stdout/stderr of the process, which will be drained by the waitFor methods.
 	 * @see #persist
 	 */
-	private void connect(final Readable source, final Appendable sink) {
-		Thread thread = new Thread(new Runnable() {
+	private void connect(final Readable source, final Appendable sink, boolean output) {
+		Runnable pump = new Runnable() {
 			public void run() {
 				CharBuffer cb = CharBuffer.wrap(new char [256]);
 				try {
@@ -296,13 +402,23 @@ public class Process2 {
 					setPersist(false);
 				}
 			}
-		});
-		thread.setDaemon(!persist);
-		thread.start();
+		};
+		if(persist){
+			Thread thread = new Thread(pump);
+			thread.setDaemon(false);
+			thread.start();
+		}else{
+			Future<?> future = pumpers.submit(pump);
+			if(output){
+				synchronized(outputPumps){
+					outputPumps.add(future);
+				}
+			}
+		}
 	}
 	
 	public Process2 connectStdin(Readable source) {
-		connect(source, wrap(getStdin()));
+		connect(source, wrap(getStdin()), false);
 		return this;
 	}
 		
@@ -311,12 +427,12 @@ public class Process2 {
 	}
 	
 	public Process2 connectStdout(Appendable sink) {
-		connect(wrap(getStdout()), sink);
+		connect(wrap(getStdout()), sink, true);
 		return this;
 	}
 	
 	public Process2 connectStderr(Appendable sink) {
-		connect(wrap(getStderr()), sink);
+		connect(wrap(getStderr()), sink, true);
 		return this;
 	}
 
@@ -361,5 +477,85 @@ public class Process2 {
 		connectStderr(System.err);
 		return this;
 	}
-	
+
+	/** Start a short local shell command for the self test. */
+	private static Process2 shell(String command) throws IOException {
+		boolean windows = System.getProperty("os.name").toLowerCase().startsWith("windows");
+		String[] cmdarray = windows? new String[]{"cmd", "/c", command} : new String[]{"sh", "-c", command};
+		return new Process2(Runtime.getRuntime().exec(cmdarray));
+	}
+
+	private static void check(boolean condition, String message){
+		if(!condition) throw new AssertionError(message);
+	}
+
+	/**
+	 * Self test with short local shell commands.
+	 * <ul>
+	 * <li>The output connected to a sink is complete when waitForSuccess returns.
+	 * <li>The time of running short commands, waiting as before (polling exitValue every second) and with the timed blocking wait.
+	 * <li>The pumper threads are reused by the commands.
+	 * <li>The timeout of waitFor(int) and of the completion Future, and the cancel of the completion Future.
+	 * </ul>
+	 * java org.safs.android.auto.lib.Process2
+	 */
+	public static void main(String[] args) throws Exception {
+		int runs = 5;
+
+		StringBuilder output = new StringBuilder();
+		shell("echo hello").connectStdout(output).discardStderr().waitForSuccess(10);
+		check(output.toString().trim().equals("hello"), "Unexpected output '"+output+"'");
+
+		long start = System.currentTimeMillis();
+		for(int i=0;i<runs;i++){
+			Process2 process = shell("echo hello").discardStdout().discardStderr();
+			//the way waitFor(int) used to wait: poll the exitValue every second
+			long timeout = System.currentTimeMillis() + 10000;
+			while(true){
+				try{ process.exitValue(); break; }catch(IllegalThreadStateException x){}
+				if(timeout < System.currentTimeMillis()) throw new IllegalThreadStateException("timeout");
+				Thread.sleep(1000);
+			}
+		}
+		long polled = System.currentTimeMillis() - start;
+
+		start = System.currentTimeMillis();
+		for(int i=0;i<runs;i++){
+			shell("echo hello").discardStdout().discardStderr().waitForSuccess(10);
+		}
+		long blocked = System.currentTimeMillis() - start;
+		System.out.println(runs+" short commands: "+polled+" ms polling every second, "+blocked+" ms with timed blocking wait.");
+
+		for(int i=0;i<20;i++){
+			shell("echo hello").discardStdout().discardStderr().waitForSuccess(10);
+		}
+		int pumperThreads = 0;
+		for(Thread thread: Thread.getAllStackTraces().keySet()){
+			if(thread.getName().startsWith("Process2-pumper-")) pumperThreads++;
+		}
+		System.out.println(pumperThreads+" pumper threads alive after "+(runs*2+21)+" commands.");
+		check(pumperThreads<=4, "pumper threads are not reused.");
+
+		Process2 sleeper = shell("sleep 5").discardStdout().discardStderr();
+		start = System.currentTimeMillis();
+		try{
+			sleeper.waitFor(0);
+			check(false, "waitFor(0) should time out.");
+		}catch(IllegalThreadStateException expected){}
+		Future<Integer> completion = sleeper.getCompletion();
+		try{
+			completion.get(200, TimeUnit.MILLISECONDS);
+			check(false, "completion should time out.");
+		}catch(TimeoutException expected){}
+		check(!completion.isDone(), "completion should not be done.");
+		check(completion.cancel(true) && completion.isCancelled() && completion.isDone(), "completion should be cancelled.");
+		try{
+			completion.get();
+			check(false, "cancelled completion should throw CancellationException.");
+		}catch(CancellationException expected){}
+		System.out.println("Timeout and cancel handled in "+(System.currentTimeMillis() - start)+" ms.");
+
+		check(shell("exit 3").discardStdout().discardStderr().getCompletion().get(10, TimeUnit.SECONDS)==3, "exitValue should be 3.");
+		System.out.println("Process2 self test passed.");
+	}
 }
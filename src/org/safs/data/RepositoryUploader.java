@@ -0,0 +1,425 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+/**
+ * Logs for developers, not published to API DOC.
+ *
+ * History:
+ * @date 2026-10-19    Initial release.
+ */
+package org.safs.data;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.safs.IndependantLog;
+import org.safs.SAFSDatabaseException;
+import org.safs.SAFSModelCreationException;
+import org.safs.StringUtils;
+import org.safs.Utils;
+import org.safs.data.model.RestModel;
+
+/**
+ * Push {@link RestModel}s to the safs data repository in batches, sending the batches concurrently.
+ * <p>
+ * Models submitted by {@link #push(RestModel)} are buffered; every {@link #getBatchSize()} models form a batch
+ * which is sent by one of {@link #getMaxInFlight()} threads, so that at most that many requests are in flight
+ * and a submitter blocks until a thread is free. The models of a batch are sent in order over the kept-alive
+ * connections of the service session, and a failed connection or a server error is retried {@link #getRetries()} times.
+ * <p>
+ * A child model can be linked to its parent by {@link #push(RestModel, Upload, String)}: the ID created for the parent
+ * is set to the child's field before the child is sent. As batches are sent in the order they are formed, a
+ * child never waits for a parent which has not been sent.
+ * <p>
+ * Usage:
+ * <pre>
+ * REST.StartServiceSession(serviceID, safsdataServiceURL);
+ * RepositoryUploader uploader = new RepositoryUploader(serviceID);
+ * try{
+ *   Upload cycle = uploader.push(testcycle);
+ *   Upload suite = uploader.push(testsuite, cycle, "testcycleId");
+ *   uploader.push(testcase, suite, "testsuiteId");
+ *   uploader.flush();
+ * }finally{
+ *   uploader.close();
+ * }
+ * </pre>
+ *
+ * @see Utils#pushToRepository(String, RestModel, int)
+ */
+public class RepositoryUploader implements Closeable{
+	/** 50 models in a batch */
+	public static final int DEFAULT_BATCH_SIZE = 50;
+	/** 4 batches sent at the same time */
+	public static final int DEFAULT_MAX_IN_FLIGHT = 4;
+	/** 2 retries of a failed push */
+	public static final int DEFAULT_RETRIES = 2;
+
+	private final String safsdataServiceID;
+	private final int batchSize;
+	private final int maxInFlight;
+	private final int retries;
+
+	private final ExecutorService executor;
+	private final Semaphore inFlight;
+	/** The uploads not yet sent. */
+	private List<Upload> buffer = new ArrayList<Upload>();
+	/** All the uploads, in the order they were submitted. */
+	private final List<Upload> uploads = new ArrayList<Upload>();
+
+	/**
+	 * Create an uploader with {@link #DEFAULT_BATCH_SIZE}, {@link #DEFAULT_MAX_IN_FLIGHT} and {@link #DEFAULT_RETRIES}.
+	 * @param safsdataServiceID String, the session ID. REST.StartServiceSession( safsDataServiceID, serverURL) should have been called previously.
+	 */
+	public RepositoryUploader(String safsdataServiceID){
+		this(safsdataServiceID, DEFAULT_BATCH_SIZE, DEFAULT_MAX_IN_FLIGHT, DEFAULT_RETRIES);
+	}
+
+	/**
+	 * @param safsdataServiceID String, the session ID. REST.StartServiceSession( safsDataServiceID, serverURL) should have been called previously.
+	 * @param batchSize int, the number of models sent together by one thread.
+	 * @param maxInFlight int, the number of batches sent at the same time.
+	 * @param retries int, the number of retries of a failed push.
+	 */
+	public RepositoryUploader(String safsdataServiceID, int batchSize, int maxInFlight, int retries){
+		this.safsdataServiceID = safsdataServiceID;
+		this.batchSize = Math.max(1, batchSize);
+		this.maxInFlight = Math.max(1, maxInFlight);
+		this.retries = Math.max(0, retries);
+		executor = Executors.newFixedThreadPool(this.maxInFlight);
+		inFlight = new Semaphore(this.maxInFlight);
+	}
+
+	public int getBatchSize(){ return batchSize; }
+	public int getMaxInFlight(){ return maxInFlight; }
+	public int getRetries(){ return retries; }
+
+	/**
+	 * Submit a model to push.
+	 * @param model RestModel, the model to push.
+	 * @return Upload, to get the model with its generated ID.
+	 * @throws SAFSDatabaseException if interrupted while waiting for a free thread.
+	 */
+	public Upload push(RestModel model) throws SAFSDatabaseException{
+		return push(model, null, null);
+	}
+
+	/**
+	 * Submit a model to push, after its parent has been pushed.
+	 * @param model RestModel, the model to push.
+	 * @param parent Upload, the parent's upload. It can be null.
+	 * @param parentIdField String, the model's field to hold the ID generated for the parent, such as "testcycleId".
+	 * @return Upload, to get the model with its generated ID.
+	 * @throws SAFSDatabaseException if interrupted while waiting for a free thread.
+	 */
+	public Upload push(RestModel model, Upload parent, String parentIdField) throws SAFSDatabaseException{
+		Upload upload = new Upload(model, parent, parentIdField);
+		List<Upload> batch = null;
+		synchronized(this){
+			uploads.add(upload);
+			buffer.add(upload);
+			if(buffer.size()>=batchSize) batch = takeBuffer();
+		}
+		if(batch!=null) send(batch);
+		return upload;
+	}
+
+	/**
+	 * Send the buffered models and wait until all the submitted models have been pushed or have failed.
+	 * @throws SAFSDatabaseException if any model failed to push; the first failure is thrown.
+	 * @throws SAFSModelCreationException if the model was pushed but the generated ID could not be got.
+	 */
+	public void flush() throws SAFSDatabaseException, SAFSModelCreationException{
+		sendBuffer();
+		List<Upload> all;
+		synchronized(this){ all = new ArrayList<Upload>(uploads); }
+		Exception failure = null;
+		for(Upload upload: all){
+			try{
+				upload.get();
+			}catch(SAFSDatabaseException | SAFSModelCreationException e){
+				if(failure==null) failure = e;
+			}
+		}
+		if(failure instanceof SAFSDatabaseException) throw (SAFSDatabaseException) failure;
+		if(failure!=null) throw (SAFSModelCreationException) failure;
+	}
+
+	/**
+	 * @return List&lt;RestModel>, the models pushed successfully so far, with their generated IDs, in the order they were submitted.
+	 *                             After a failure, they can be deleted from the repository to roll back;
+	 *                             call {@link #close()} first, so that the batches still in flight are included.
+	 */
+	public synchronized List<RestModel> getPushed(){
+		List<RestModel> pushed = new ArrayList<RestModel>();
+		for(Upload upload: uploads){
+			if(upload.isDone() && upload.pushed!=null) pushed.add(upload.pushed);
+		}
+		return pushed;
+	}
+
+	/**
+	 * Wait for the batches in flight and stop the threads. The buffered models, not yet sent, are discarded.
+	 */
+	@Override
+	public void close(){
+		executor.shutdown();
+		try{
+			executor.awaitTermination(1, TimeUnit.MINUTES);
+		}catch(InterruptedException e){
+			Thread.currentThread().interrupt();
+		}
+		List<Upload> discarded;
+		synchronized(this){ discarded = takeBuffer(); }
+		for(Upload upload: discarded) upload.fail(new SAFSDatabaseException("The uploader was closed before '"+upload.model.getClass().getSimpleName()+"' was pushed."));
+	}
+
+	private List<Upload> takeBuffer(){
+		List<Upload> batch = buffer;
+		buffer = new ArrayList<Upload>();
+		return batch;
+	}
+
+	private void sendBuffer() throws SAFSDatabaseException{
+		List<Upload> batch;
+		synchronized(this){ batch = takeBuffer(); }
+		if(!batch.isEmpty()) send(batch);
+	}
+
+	/** Wait for a free thread, then send the batch on it. */
+	private void send(final List<Upload> batch) throws SAFSDatabaseException{
+		try{
+			inFlight.acquire();
+		}catch(InterruptedException e){
+			Thread.currentThread().interrupt();
+			SAFSDatabaseException se = new SAFSDatabaseException("Interrupted while waiting to push a batch to safs data repository.", e);
+			for(Upload upload: batch) upload.fail(se);
+			throw se;
+		}
+		try{
+			executor.execute(new Runnable(){
+				@Override
+				public void run(){
+					try{
+						for(Upload upload: batch) upload.run();
+					}finally{
+						inFlight.release();
+					}
+				}
+			});
+		}catch(RuntimeException e){
+			inFlight.release();
+			SAFSDatabaseException se = new SAFSDatabaseException("Failed to push a batch to safs data repository.", e);
+			for(Upload upload: batch) upload.fail(se);
+			throw se;
+		}
+	}
+
+
+	/**
+	 * Self-test: push a cycle with suites and cases to an in-process http stub of the safs data service,
+	 * one request after another and by the uploader, and verify the parent IDs and the retries.
+	 */
+	public static void main(String[] args) throws Exception{
+		System.setProperty("sun.net.httpserver.nodelay", "true");
+		final java.util.concurrent.atomic.AtomicLong ids = new java.util.concurrent.atomic.AtomicLong();
+		final java.util.concurrent.atomic.AtomicLong requests = new java.util.concurrent.atomic.AtomicLong();
+		final java.util.Set<String> failedOnce = java.util.Collections.synchronizedSet(new java.util.HashSet<String>());
+		com.sun.net.httpserver.HttpServer server = com.sun.net.httpserver.HttpServer.create(new java.net.InetSocketAddress("127.0.0.1", 0), 0);
+		server.setExecutor(Executors.newCachedThreadPool());
+		server.createContext("/", new com.sun.net.httpserver.HttpHandler(){
+			@Override
+			public void handle(com.sun.net.httpserver.HttpExchange exchange) throws java.io.IOException{
+				java.io.ByteArrayOutputStream in = new java.io.ByteArrayOutputStream();
+				byte[] b = new byte[4096];
+				for(int n; (n = exchange.getRequestBody().read(b))>0;) in.write(b, 0, n);
+				String body = in.toString("UTF-8");
+				requests.incrementAndGet();
+				try{ Thread.sleep(2); }catch(InterruptedException e){}
+				int status = 201;
+				String response;
+				//the first push of each 'case7' fails with 'service unavailable', to be retried
+				if(body.contains("\"name\":\"case7\"") && failedOnce.add(body)){
+					status = 503;
+					response = "{}";
+				}else{
+					response = "{\"id\":"+ids.incrementAndGet()+(body.length()>2? ","+body.substring(1): "}");
+				}
+				byte[] out = response.getBytes("UTF-8");
+				exchange.getResponseHeaders().add("Content-Type", "application/json");
+				exchange.sendResponseHeaders(status, out.length);
+				exchange.getResponseBody().write(out);
+				exchange.close();
+			}
+		});
+		server.start();
+		String url = "http://127.0.0.1:"+server.getAddress().getPort()+"/";
+		String serviceID = "RepositoryUploaderTest";
+		org.safs.rest.REST.StartServiceSession(serviceID, url);
+		int suites = 20, cases = 25;
+		try{
+			//warm up the connection
+			Utils.pushToRepository(serviceID, new org.safs.data.model.Testcycle(null, "warmup", 0, 0, 0, 0, 0, null));
+
+			long start = System.nanoTime();
+			org.safs.data.model.Testcycle cycle = (org.safs.data.model.Testcycle) Utils.pushToRepository(serviceID, new org.safs.data.model.Testcycle(null, "cycle", 0, 0, 0, 0, 0, null), 2);
+			for(int s=0;s<suites;s++){
+				org.safs.data.model.Testsuite suite = (org.safs.data.model.Testsuite) Utils.pushToRepository(serviceID, new org.safs.data.model.Testsuite(cycle.getId(), "suite"+s, 0, 0, 0, 0, 0, null), 2);
+				for(int c=0;c<cases;c++){
+					Utils.pushToRepository(serviceID, new org.safs.data.model.Testcase(suite.getId(), "case"+c, "", 0), 2);
+				}
+			}
+			long sequential = System.nanoTime()-start;
+
+			failedOnce.clear();
+			requests.set(0);
+			start = System.nanoTime();
+			RepositoryUploader uploader = new RepositoryUploader(serviceID, 10, 8, 2);
+			List<Upload> suiteUploads = new ArrayList<Upload>();
+			List<Upload> caseUploads = new ArrayList<Upload>();
+			try{
+				Upload cycleUpload = uploader.push(new org.safs.data.model.Testcycle(null, "cycle", 0, 0, 0, 0, 0, null));
+				for(int s=0;s<suites;s++){
+					Upload suite = uploader.push(new org.safs.data.model.Testsuite(null, "suite"+s, 0, 0, 0, 0, 0, null), cycleUpload, "testcycleId");
+					suiteUploads.add(suite);
+					for(int c=0;c<cases;c++){
+						caseUploads.add(uploader.push(new org.safs.data.model.Testcase(null, "case"+c, "", 0), suite, "testsuiteId"));
+					}
+				}
+				uploader.flush();
+			}finally{
+				uploader.close();
+			}
+			long batched = System.nanoTime()-start;
+
+			long models = 1+suites+suites*cases;
+			if(requests.get()!=models+suites) throw new AssertionError("expected "+(models+suites)+" requests with retries, but got "+requests.get());
+			if(uploader.getPushed().size()!=models) throw new AssertionError("expected "+models+" pushed models, but got "+uploader.getPushed().size());
+			for(int s=0;s<suites;s++){
+				org.safs.data.model.Testsuite suite = (org.safs.data.model.Testsuite) suiteUploads.get(s).get();
+				for(int c=0;c<cases;c++){
+					org.safs.data.model.Testcase testcase = (org.safs.data.model.Testcase) caseUploads.get(s*cases+c).get();
+					if(testcase.getId()==null || !suite.getId().equals(testcase.getTestsuiteId())){
+						throw new AssertionError("case"+c+" of suite"+s+" is linked to suite "+testcase.getTestsuiteId()+" instead of "+suite.getId());
+					}
+				}
+			}
+			System.out.println(models+" models: one after another "+(sequential/1000000)+"ms, batched "+(batched/1000000)+"ms.");
+
+			//a model failing every retry fails its children too
+			server.removeContext("/");
+			RepositoryUploader failing = new RepositoryUploader(serviceID, 10, 2, 0);
+			try{
+				Upload cycleUpload = failing.push(new org.safs.data.model.Testcycle(null, "cycle", 0, 0, 0, 0, 0, null));
+				Upload suiteUpload = failing.push(new org.safs.data.model.Testsuite(null, "suite", 0, 0, 0, 0, 0, null), cycleUpload, "testcycleId");
+				try{
+					failing.flush();
+					throw new AssertionError("flush should fail");
+				}catch(SAFSDatabaseException expected){}
+				if(!suiteUpload.isDone() || !failing.getPushed().isEmpty()) throw new AssertionError("the child of a failed model should fail");
+			}finally{
+				failing.close();
+			}
+			System.out.println("RepositoryUploader self-test passed.");
+		}catch(Throwable t){
+			t.printStackTrace();
+			System.exit(1);
+		}finally{
+			org.safs.rest.REST.EndServiceSession(serviceID);
+			server.stop(0);
+		}
+		System.exit(0);
+	}
+
+	/**
+	 * A model submitted to the {@link RepositoryUploader}.
+	 */
+	public class Upload{
+		private final RestModel model;
+		private final Upload parent;
+		private final String parentIdField;
+		private final CountDownLatch done = new CountDownLatch(1);
+		private volatile RestModel pushed = null;
+		private volatile Exception error = null;
+
+		private Upload(RestModel model, Upload parent, String parentIdField){
+			this.model = model;
+			this.parent = parent;
+			this.parentIdField = parentIdField;
+		}
+
+		private void run(){
+			try{
+				if(parent!=null){
+					RestModel parentModel = parent.get();
+					Utils.setField(model, parentIdField, parentModel.getId());
+				}
+				pushed = Utils.pushToRepository(safsdataServiceID, model, retries);
+			}catch(Exception e){
+				IndependantLog.warn("Failed to push "+model+", due to "+StringUtils.debugmsg(e));
+				error = e;
+			}finally{
+				done.countDown();
+			}
+		}
+
+		private void fail(Exception e){
+			error = e;
+			done.countDown();
+		}
+
+		/** @return boolean, true if the model has been pushed or has failed. */
+		public boolean isDone(){
+			return done.getCount()==0;
+		}
+
+		/**
+		 * Wait until the model has been pushed. If the model is still buffered, the buffer is sent first.
+		 * @return RestModel, the model with the ID generated by the repository.
+		 * @throws SAFSDatabaseException if the model, or its parent, failed to push.
+		 * @throws SAFSModelCreationException if the model was pushed but the generated ID could not be got.
+		 */
+		public RestModel get() throws SAFSDatabaseException, SAFSModelCreationException{
+			if(!isDone()){
+				boolean buffered;
+				synchronized(RepositoryUploader.this){ buffered = buffer.contains(this); }
+				if(buffered) sendBuffer();
+				try{
+					done.await();
+				}catch(InterruptedException e){
+					Thread.currentThread().interrupt();
+					throw new SAFSDatabaseException("Interrupted while waiting to push '"+model.getClass().getSimpleName()+"'.", e);
+				}
+			}
+			if(error instanceof SAFSDatabaseException) throw (SAFSDatabaseException) error;
+			if(error instanceof SAFSModelCreationException) throw (SAFSModelCreationException) error;
+			if(error!=null) throw new SAFSDatabaseException("Failed to push '"+model.getClass().getSimpleName()+"' to safs data repository.", error);
+			return pushed;
+		}
+
+		/** @return RestModel, the model as it was submitted. */
+		public RestModel getModel(){
+			return model;
+		}
+	}
+}
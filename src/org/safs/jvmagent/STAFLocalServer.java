@@ -49,6 +49,8 @@ import org.safs.tools.engines.EngineInterface;
  * FEB 11 2011 Dharmesh4 Added method isTopLevelPopupContainer.
  * MAY 25,2011 Dharmesh4 Added getClassIndex and getDomainName methods. 
  * MAR 16 2012 JunwuMa Add getObjectRecognitionAtScreenCoords(x, y) to call corresponding engine command. 
+ * OCT 19 2026 Add getSubtreeSnapshot and loadSubtreeSnapshot.  While a snapshot is loaded 
+ *                     the per-component queries are answered from it instead of the engine.
  */
 
 public class STAFLocalServer extends DriverConfiguredSTAFInterfaceClass implements LocalServer {
@@ -58,6 +60,11 @@ public class STAFLocalServer extends DriverConfiguredSTAFInterfaceClass implemen
 	
 	STAFProcessContainerHelper trd;
 	
+	/** Snapshot loaded by loadSubtreeSnapshot, or null. */
+	private SubtreeSnapshot snapshot = null;
+	/** The engine that produced the loaded snapshot.  Component keys are only unique per engine. */
+	private EngineInterface snapshotEngine = null;
+	
 	/**
 	 * 
 	 */
@@ -106,6 +113,21 @@ public class STAFLocalServer extends DriverConfiguredSTAFInterfaceClass implemen
 		String sobject = oobject.get_statusInfo();
 		if ((sobject==null)||(sobject.length()==0)||sobject.equalsIgnoreCase(DriverConstant.SAFS_NULL)) return null;
 		
+		SubtreeSnapshot.Node node = getSnapshotNode(oobject);
+		if (node != null){
+			if ("getClassName".equals(command)) return node.className;
+			if ("getDomainName".equals(command)) return node.domainName;
+			if ("getName".equals(command)) return node.getName();
+			if ("getAccessibleName".equals(command)) return node.accessibleName;
+			if ("getNonAccessibleName".equals(command)) return node.nonAccessibleName;
+			if ("getCaption".equals(command)) return node.caption;
+			if ("getText".equals(command)) return node.text;
+			if ("getID".equals(command)) return node.id;
+			if ("getClassIndex".equals(command)) return node.classIndex;
+			if ("isShowing".equals(command)) return String.valueOf(node.showing);
+			if ("getChildCount".equals(command)) return String.valueOf(node.childCount);
+		}
+		
 		String sep = getUniqueSeparator(sobject);
 		if (sep == null) return null;
 		
@@ -117,6 +139,84 @@ public class STAFLocalServer extends DriverConfiguredSTAFInterfaceClass implemen
 		return ((val==null)||(val.equalsIgnoreCase(DriverConstant.SAFS_NULL)))? null : val;
 	}
 	
+	/**
+	 * Capture the parent and its descendants with a single engine command.
+	 * 
+	 * @param parent A STAFProcessContainerResult object from getTopLevelWindows or from a previous call to getChildren.
+	 * @param depth how many levels of descendants to capture. -1 captures the full subtree.
+	 * @param properties property names to capture for each component, or 
+	 * {@link SubtreeSnapshot#ALL_PROPERTIES} for every available property. May be empty.
+	 * @return the decoded SubtreeSnapshot, or null if the parent is invalid or the engine 
+	 * does not support the 'getSubtreeSnapshot' command.
+	 */
+	public SubtreeSnapshot getSubtreeSnapshot(Object parent, int depth, String[] properties){
+		String method = "getSubtreeSnapshot";
+		if (parent == null) return null;
+		STAFProcessContainerResult oparent = null;
+		try{ oparent = (STAFProcessContainerResult) parent;}
+		catch(ClassCastException cce){return null;}
+		String sparent = oparent.get_statusInfo();
+		if ((sparent==null)||(sparent.length()==0)||sparent.equalsIgnoreCase(DriverConstant.SAFS_NULL)) return null;
+
+		StringBuffer fields = new StringBuffer(sparent);
+		if (properties != null) for(int i=0;i<properties.length;i++) fields.append(properties[i]);
+		String sep = getUniqueSeparator(fields.toString());
+		if (sep == null) return null;
+
+		StringBuffer record = new StringBuffer(RTYPE+sep+method+sep+sparent+sep+depth);
+		if (properties != null) for(int i=0;i<properties.length;i++) record.append(sep+properties[i]);
+		trd.setSeparator(sep);
+		trd.setInputRecord(record.toString());
+		long status = oparent.get_engine().processRecord(trd);
+		if (status != DriverConstant.STATUS_NO_SCRIPT_FAILURE) return null;
+		try{
+			return SubtreeSnapshot.decode(trd.getStatusInfo());
+		}catch(IllegalArgumentException x){
+			Log.debug("STAFLocalServer.getSubtreeSnapshot invalid engine response: "+ x.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Capture the parent subtree with {@link #getSubtreeSnapshot(Object, int, String[])} and 
+	 * answer subsequent queries for the captured components from it.  Any component or value 
+	 * not present in the snapshot is still queried from the engine.  
+	 * Any previously loaded snapshot is discarded.
+	 * 
+	 * @return true if a snapshot was loaded, false if the engine could not provide one.
+	 * @see #clearSubtreeSnapshot()
+	 */
+	public boolean loadSubtreeSnapshot(Object parent, int depth, String[] properties){
+		clearSubtreeSnapshot();
+		SubtreeSnapshot loaded = getSubtreeSnapshot(parent, depth, properties);
+		if (loaded == null || loaded.getRoot() == null) return false;
+		snapshotEngine = ((STAFProcessContainerResult)parent).get_engine();
+		snapshot = loaded;
+		Log.info("STAFLocalServer loaded subtree snapshot of "+ loaded.size() +" components.");
+		return true;
+	}
+
+	/**
+	 * Discard any loaded snapshot so that all queries go to the engine.
+	 */
+	public void clearSubtreeSnapshot(){
+		snapshot = null;
+		snapshotEngine = null;
+	}
+
+	/**
+	 * @return the loaded snapshot Node for the object, or null.
+	 */
+	private SubtreeSnapshot.Node getSnapshotNode(Object object){
+		if (snapshot == null || object == null) return null;
+		if (object instanceof STAFProcessContainerResult){
+			STAFProcessContainerResult oobject = (STAFProcessContainerResult) object;
+			if (oobject.get_engine() != snapshotEngine) return null;
+			return snapshot.getNode(oobject.get_statusInfo());
+		}
+		return (object instanceof String) ? snapshot.getNode((String) object) : null;
+	}
+
 	/**
 	 * Return true if the object is PopupWindow Container, 
 	 * Some Java Frames and\or JFrames can contain a JPopup in a child
@@ -254,6 +354,15 @@ public class STAFLocalServer extends DriverConfiguredSTAFInterfaceClass implemen
      * A zero-length Object[] array will be returned if the parent has no children.
 	 */
 	public Object[] getChildren(Object parent) {
+		SubtreeSnapshot.Node node = getSnapshotNode(parent);
+		if (node != null && node.expanded && parent instanceof STAFProcessContainerResult){
+			STAFProcessContainerResult oparent = (STAFProcessContainerResult) parent;
+			Object[] children = new Object[node.children.size()];
+			for(int c=0;c<children.length;c++){
+				children[c] = new STAFProcessContainerResult(oparent.get_engine(),oparent.get_statusCode(),node.children.get(c).key);
+			}
+			return children;
+		}
 		String val = processStringMethod(parent,"getChildren");
 		if ((val==null)||(val.length()==0)) return new Object[0];
 		
@@ -344,6 +453,8 @@ public class STAFLocalServer extends DriverConfiguredSTAFInterfaceClass implemen
      * A zero-length array will be returned if the parent has no children.
      */
 	public String[] getPropertyNames(Object object) {
+		SubtreeSnapshot.Node node = getSnapshotNode(object);
+		if (node != null && node.propertyNames != null) return node.propertyNames.clone();
 		String val = processStringMethod(object,"getPropertyNames");
 		if ((val==null)||(val.length()==0)||val.equalsIgnoreCase(DriverConstant.SAFS_NULL)) return new String[0];		
 		//first char is separator
@@ -390,6 +501,9 @@ public class STAFLocalServer extends DriverConfiguredSTAFInterfaceClass implemen
 		catch(ClassCastException cce){return null;}
 		String sparent = oparent.get_statusInfo();
 		
+		SubtreeSnapshot.Node node = getSnapshotNode(oparent);
+		if (node != null && node.properties.containsKey(property)) return node.properties.get(property);
+		
 		String sep = getUniqueSeparator(sparent + property);
 		if (sep == null) return null;
 		
@@ -463,6 +577,8 @@ public class STAFLocalServer extends DriverConfiguredSTAFInterfaceClass implemen
      * A zero-length array will be returned if the parent has no children.
      */
 	public String[] getSuperClassNames(Object object) {
+		SubtreeSnapshot.Node node = getSnapshotNode(object);
+		if (node != null && node.superClassNames != null) return node.superClassNames.clone();
 		String val = processStringMethod(object,"getSuperClassNames");
 		if ((val==null)||(val.length()==0)) return new String[0];		
 		//first char is separator
@@ -637,6 +753,9 @@ public class STAFLocalServer extends DriverConfiguredSTAFInterfaceClass implemen
 		String method = "getComponentRectangle";
 		String resutlSeparator = ",";
 		
+		SubtreeSnapshot.Node node = getSnapshotNode(winkey);
+		if (node != null && node.bounds != null) return new Rectangle(node.bounds);
+		
 		String sep = getUniqueSeparator(method);
 		if (sep == null) return null;
 		
@@ -0,0 +1,305 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package org.safs.jvmagent;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A bulk capture of a component subtree as produced by the engine command 'getSubtreeSnapshot'.
+ * <p>
+ * Walking a hierarchy one engine command per node and per field costs a STAF round trip for every 
+ * class name, caption, property value, and child list.  A snapshot carries the same information 
+ * for a whole subtree in a single engine response so the STAFProcessContainer can build its 
+ * output locally.
+ * <p>
+ * The wire format is one line per node in preorder.  Each line holds tab-separated fields with 
+ * the node depth first.  Field values are escaped so that tabs, newlines, list separators ('|') 
+ * and property assignments ('=') never appear unescaped within a field.  A null value is encoded 
+ * as the escape sequence "\0".
+ * 
+ * @since  OCT 19, 2026
+ * <br>    OCT 19, 2026 Initial release.
+ * @see org.safs.EngineCommandProcessor
+ * @see STAFLocalServer#loadSubtreeSnapshot(Object, int, String[])
+ */
+public class SubtreeSnapshot {
+
+	/** "SAFSSUBTREE1" first line identifying the wire format version. */
+	public static final String FORMAT_ID = "SAFSSUBTREE1";
+
+	/** "*" property name requesting all available properties of each node. */
+	public static final String ALL_PROPERTIES = "*";
+
+	/** -1 depth value requesting the full subtree. */
+	public static final int UNLIMITED_DEPTH = -1;
+
+	static final char FIELD_SEP = '\t';
+	static final char NODE_SEP  = '\n';
+	static final char LIST_SEP  = '|';
+	static final char PROP_SEP  = '=';
+	static final String NULL_VALUE = "\\0";
+
+	/** Number of fixed fields preceding the property assignments on each line. */
+	static final int FIXED_FIELDS = 16;
+
+	/**
+	 * The data captured for a single component.  
+	 * String fields hold the values the individual engine commands would have returned, 
+	 * with null standing in for DriverConstant.SAFS_NULL.
+	 */
+	public static class Node {
+		public int depth = 0;
+		public String key = null;
+		public String className = null;
+		public String domainName = null;
+		public String accessibleName = null;
+		public String nonAccessibleName = null;
+		public String caption = null;
+		public String text = null;
+		public String id = null;
+		public String classIndex = null;
+		public boolean showing = false;
+		public int childCount = 0;
+		/** true if the children of this node are included in the snapshot. */
+		public boolean expanded = false;
+		/** screen bounds, or null if the engine does not supply them. */
+		public Rectangle bounds = null;
+		public String[] superClassNames = null;
+		/** all property names, or null if properties were not captured. */
+		public String[] propertyNames = null;
+		/** captured property values keyed by property name. Values may be null. */
+		public Map<String,String> properties = new LinkedHashMap<String,String>();
+		public List<Node> children = new ArrayList<Node>();
+
+		/**
+		 * @return the accessible name if available, otherwise the non-accessible name.
+		 * This is the value the engine command 'getName' would return.
+		 */
+		public String getName(){
+			return (accessibleName != null) ? accessibleName : nonAccessibleName;
+		}
+	}
+
+	private Node root = null;
+	private Map<String,Node> index = new HashMap<String,Node>();
+
+	public SubtreeSnapshot(){}
+
+	public SubtreeSnapshot(Node root){
+		setRoot(root);
+	}
+
+	/** @return the root Node of the snapshot, or null if empty. */
+	public Node getRoot(){ return root; }
+
+	/** Set the root Node and (re)index the subtree by component key. */
+	public void setRoot(Node root){
+		this.root = root;
+		index.clear();
+		if(root != null) indexNode(root);
+	}
+
+	private void indexNode(Node node){
+		if(node.key != null) index.put(node.key, node);
+		for(Node child: node.children) indexNode(child);
+	}
+
+	/**
+	 * @param key engine component key.
+	 * @return the Node captured for the key, or null if not part of this snapshot.
+	 */
+	public Node getNode(String key){
+		return key == null ? null : index.get(key);
+	}
+
+	/** @return the number of nodes in the snapshot. */
+	public int size(){ return index.size(); }
+
+	/**
+	 * Encode the snapshot into its single-String wire format.
+	 * @return encoded snapshot. Never null.
+	 */
+	public String encode(){
+		StringBuilder out = new StringBuilder(1024);
+		out.append(FORMAT_ID);
+		if(root != null) encodeNode(out, root);
+		return out.toString();
+	}
+
+	private void encodeNode(StringBuilder out, Node node){
+		out.append(NODE_SEP).append(node.depth);
+		appendField(out, node.key);
+		appendField(out, node.className);
+		appendField(out, node.domainName);
+		appendField(out, node.accessibleName);
+		appendField(out, node.nonAccessibleName);
+		appendField(out, node.caption);
+		appendField(out, node.text);
+		appendField(out, node.id);
+		appendField(out, node.classIndex);
+		appendField(out, String.valueOf(node.showing));
+		appendField(out, String.valueOf(node.childCount));
+		appendField(out, String.valueOf(node.expanded));
+		appendField(out, node.bounds == null ? null :
+			node.bounds.x +","+ node.bounds.y +","+ node.bounds.width +","+ node.bounds.height);
+		appendList(out, node.superClassNames);
+		appendList(out, node.propertyNames);
+		for(Map.Entry<String,String> prop: node.properties.entrySet()){
+			out.append(FIELD_SEP);
+			escape(out, prop.getKey());
+			out.append(PROP_SEP);
+			escape(out, prop.getValue());
+		}
+		for(Node child: node.children) encodeNode(out, child);
+	}
+
+	private static void appendField(StringBuilder out, String value){
+		out.append(FIELD_SEP);
+		escape(out, value);
+	}
+
+	private static void appendList(StringBuilder out, String[] values){
+		out.append(FIELD_SEP);
+		if(values == null){
+			out.append(NULL_VALUE);
+			return;
+		}
+		for(int i=0;i<values.length;i++){
+			if(i > 0) out.append(LIST_SEP);
+			escape(out, values[i]);
+		}
+	}
+
+	private static void escape(StringBuilder out, String value){
+		if(value == null){
+			out.append(NULL_VALUE);
+			return;
+		}
+		for(int i=0;i<value.length();i++){
+			char c = value.charAt(i);
+			switch(c){
+				case '\\': out.append("\\\\"); break;
+				case '\t': out.append("\\t"); break;
+				case '\n': out.append("\\n"); break;
+				case '\r': out.append("\\r"); break;
+				case LIST_SEP: out.append("\\p"); break;
+				case PROP_SEP: out.append("\\e"); break;
+				default: out.append(c);
+			}
+		}
+	}
+
+	private static String unescape(String value){
+		if(NULL_VALUE.equals(value)) return null;
+		if(value.indexOf('\\') < 0) return value;
+		StringBuilder out = new StringBuilder(value.length());
+		for(int i=0;i<value.length();i++){
+			char c = value.charAt(i);
+			if(c != '\\' || i+1 == value.length()){
+				out.append(c);
+				continue;
+			}
+			c = value.charAt(++i);
+			switch(c){
+				case 't': out.append('\t'); break;
+				case 'n': out.append('\n'); break;
+				case 'r': out.append('\r'); break;
+				case 'p': out.append(LIST_SEP); break;
+				case 'e': out.append(PROP_SEP); break;
+				default: out.append(c);
+			}
+		}
+		return out.toString();
+	}
+
+	private static String[] unescapeList(String value){
+		if(NULL_VALUE.equals(value)) return null;
+		if(value.length()==0) return new String[0];
+		String[] items = value.split("\\"+ LIST_SEP, -1);
+		for(int i=0;i<items.length;i++) items[i] = unescape(items[i]);
+		return items;
+	}
+
+	/**
+	 * Decode a snapshot from its wire format.
+	 * @param encoded String as produced by {@link #encode()}.
+	 * @return the decoded snapshot.
+	 * @throws IllegalArgumentException if the String is not a valid encoded snapshot.
+	 */
+	public static SubtreeSnapshot decode(String encoded){
+		if(encoded == null || !encoded.startsWith(FORMAT_ID))
+			throw new IllegalArgumentException("Not a subtree snapshot.");
+		String[] lines = encoded.split(String.valueOf(NODE_SEP));
+		List<Node> path = new ArrayList<Node>();
+		Node root = null;
+		for(int l=1;l<lines.length;l++){
+			String[] fields = lines[l].split(String.valueOf(FIELD_SEP), -1);
+			if(fields.length < FIXED_FIELDS)
+				throw new IllegalArgumentException("Invalid snapshot node at line "+ l);
+			Node node = new Node();
+			try{
+				int f = 0;
+				node.depth = Integer.parseInt(fields[f++]);
+				node.key = unescape(fields[f++]);
+				node.className = unescape(fields[f++]);
+				node.domainName = unescape(fields[f++]);
+				node.accessibleName = unescape(fields[f++]);
+				node.nonAccessibleName = unescape(fields[f++]);
+				node.caption = unescape(fields[f++]);
+				node.text = unescape(fields[f++]);
+				node.id = unescape(fields[f++]);
+				node.classIndex = unescape(fields[f++]);
+				node.showing = Boolean.parseBoolean(fields[f++]);
+				node.childCount = Integer.parseInt(fields[f++]);
+				node.expanded = Boolean.parseBoolean(fields[f++]);
+				String bounds = unescape(fields[f++]);
+				if(bounds != null){
+					String[] xywh = bounds.split(",");
+					node.bounds = new Rectangle(Integer.parseInt(xywh[0]), Integer.parseInt(xywh[1]),
+							                    Integer.parseInt(xywh[2]), Integer.parseInt(xywh[3]));
+				}
+				node.superClassNames = unescapeList(fields[f++]);
+				node.propertyNames = unescapeList(fields[f++]);
+				for(;f<fields.length;f++){
+					int eq = fields[f].indexOf(PROP_SEP);
+					if(eq < 0) continue;
+					node.properties.put(unescape(fields[f].substring(0, eq)), unescape(fields[f].substring(eq+1)));
+				}
+			}catch(RuntimeException x){
+				throw new IllegalArgumentException("Invalid snapshot node at line "+ l +": "+ x.getMessage());
+			}
+			if(root == null){
+				root = node;
+				path.add(node);
+				continue;
+			}
+			int rel = node.depth - root.depth;
+			if(rel < 1 || rel > path.size())
+				throw new IllegalArgumentException("Invalid snapshot depth at line "+ l);
+			while(path.size() > rel) path.remove(path.size()-1);
+			path.get(rel-1).children.add(node);
+			path.add(node);
+		}
+		return new SubtreeSnapshot(root);
+	}
+}
@@ -17,6 +17,8 @@
 **/
 package org.safs.model;
 
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Superclass of all command types of classes (versus test table types of classes).
@@ -83,6 +85,38 @@ public abstract class AbstractCommand extends AbstractTestRecord {
       return sb.toString();
    }
 
+   /**
+    * Export the test record as its individual fields, in the same order as 
+    * {@link #exportTestRecord(String)}, without joining them into a delimited String.  
+    * Field values are not escaped and may contain any character, including the 
+    * characters normally used as field separators.
+    * 
+    * @return List of test record fields, starting with the record type.
+    * @see org.safs.TestRecordData#setInputRecordTokens(List)
+    */
+   public List<String> exportTestRecordFields() {
+      List<String> fields = new ArrayList<String>(4 + _parameters.size());
+      fields.add(getTestRecordID());
+      appendCommandToTestRecordFields(fields);
+      for (int p = 0, pCount = _parameters.size(); p < pCount; p++) {
+         fields.add(String.valueOf(_parameters.get(p)));
+      }
+      return fields;
+   }
+
+   /**
+    * Called by exportTestRecordFields() after the testRecordID() has been added.
+    * The default implementation adds getCommandName() only.  Subclasses overriding 
+    * {@link #appendCommandToTestRecord(StringBuffer, String)} must override this as well.
+    * 
+    * @param fields List to add fields to
+    * @return fields List added to as appropriate.
+    */
+   protected List<String> appendCommandToTestRecordFields(List<String> fields) {
+      fields.add(getCommandName());
+      return fields;
+   }
+
    /**
     * Called by exportTestRecord() after the testRecordID() and a field
     * separator have been appended to the StringBuffer.  The default
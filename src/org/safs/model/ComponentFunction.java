@@ -17,6 +17,8 @@
 **/
 package org.safs.model;
 
+import java.util.List;
+
 /**
  * Represents a ComponentFunction command.
  * These are only allowed in Step tables. 
@@ -79,6 +81,19 @@ public class ComponentFunction extends AbstractCommand {
       return super.appendCommandToTestRecord(sb, fieldSeparator);
    }   
    
+   /**
+    * Overrides superclass to add the windowname and componentname before
+    * invoking super.appendCommandToTestRecordFields to add the actual command.
+    * 
+    * @param fields List to add fields to
+    * @return fields List added to as appropriate.
+    */
+   protected List<String> appendCommandToTestRecordFields(List<String> fields) {
+      fields.add(getWindowName());
+      fields.add(getComponentName());
+      return super.appendCommandToTestRecordFields(fields);
+   }
+
    private boolean _warningOK;
    private boolean _failureOK;
    
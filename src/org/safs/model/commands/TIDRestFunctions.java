@@ -168,6 +168,8 @@ public class TIDRestFunctions {
     static public final String RESTPUTTEXT_KEYWORD = "RestPutText";
     /** "RestPutXML" */
     static public final String RESTPUTXML_KEYWORD = "RestPutXML";
+    /** "RestLoadTest" */
+    static public final String RESTLOADTEST_KEYWORD = "RestLoadTest";
     /** "RestRequest" */
     static public final String RESTREQUEST_KEYWORD = "RestRequest";
     /** "RestStartServiceSession" */
@@ -3409,6 +3411,101 @@ public class TIDRestFunctions {
     }
 
 
+    /*********** <pre>
+                    Replay a REST request, and optionally a block of requests from a request file, concurrently
+                    against a REST service and verify the latency percentiles, error rate and throughput.
+                
+                    The keyword RestStartServiceSession SHOULD be executed before executing this action.
+                    The summary is stored in the variables SummaryVar.count, .errors, .errorrate, .throughput,
+                    .p50, .p95, .p99, .max, .passed and .report; the report is a JSON file in the test directory.
+                    </pre>    Supporting Engines:
+    <P/><UL>
+        <LI>SAFS TIDComponent</LI>
+    </UL>
+
+     @param winname  Optional:NO
+            The name of the window to act upon.
+     @param compname  Optional:NO
+            The name of the component to act upon.
+     @param hTTPMethod  Optional:NOThe HTTP method to execute.
+     @param relativeURI  Optional:NOThe relative URI combined with a base-URL (stored in a session) to form a REST service URL.
+     @param summaryVar  Optional:NO
+                           The prefix of the variables holding the load-test summary.
+                        
+     @param body  Optional:YESThe body to send with this REST request.
+     @param headers  Optional:YES
+                           The custom headers to be included in the REST requests.
+                        
+     @param loadSettings  Optional:YES
+                           The load settings, like "Concurrency=10;Duration=30s;Rate=50;P95=200;ErrorRate=1".
+                        
+     @param requestFile  Optional:YES
+                           The file holding more requests to replay, one "METHOD relativeURI [body]" per line.
+                        
+     **********/
+    static public ComponentFunction restLoadTest (String winname, String compname, String hTTPMethod, String relativeURI, String summaryVar, String body, String headers, String loadSettings, String requestFile) {
+
+        if ( winname == null ) throw new IllegalArgumentException ( "restLoadTest.winname = null");
+        if ( compname == null ) throw new IllegalArgumentException ( "restLoadTest.compname = null");
+
+        if ( hTTPMethod == null ) throw new IllegalArgumentException ( "restLoadTest.hTTPMethod = null");
+        if ( relativeURI == null ) throw new IllegalArgumentException ( "restLoadTest.relativeURI = null");
+        if ( summaryVar == null ) throw new IllegalArgumentException ( "restLoadTest.summaryVar = null");
+        ComponentFunction cf = new ComponentFunction(RESTLOADTEST_KEYWORD, winname, compname);
+        cf.addParameter(hTTPMethod);
+        cf.addParameter(relativeURI);
+        cf.addParameter(summaryVar);
+        cf.addParameter(body);
+        cf.addParameter(headers);
+        cf.addParameter(loadSettings);
+        cf.addParameter(requestFile);
+        return cf;
+    }
+
+
+    /*********** <pre>
+                    Replay a REST request, and optionally a block of requests from a request file, concurrently
+                    against a REST service and verify the latency percentiles, error rate and throughput.
+                
+                    The keyword RestStartServiceSession SHOULD be executed before executing this action.
+                    The summary is stored in the variables SummaryVar.count, .errors, .errorrate, .throughput,
+                    .p50, .p95, .p99, .max, .passed and .report; the report is a JSON file in the test directory.
+                    </pre>    
+    Supporting Engines:
+    <P/><UL>
+        <LI>SAFS TIDComponent</LI>
+    </UL>
+
+     @param winname  Optional:NO
+            The name of the window to act upon.
+     @param compname  Optional:NO
+            The name of the component to act upon.
+     @param parameters  Optional:NO
+            An array containing the following parameters:
+    <UL>
+<BR/>        hTTPMethod -- Optional:NOThe HTTP method to execute.<BR/>        relativeURI -- Optional:NOThe relative URI combined with a base-URL (stored in a session) to form a REST service URL.<BR/>        summaryVar -- Optional:NO
+                           The prefix of the variables holding the load-test summary.
+                        <BR/>        body -- Optional:YESThe body to send with this REST request.<BR/>        headers -- Optional:YES
+                           The custom headers to be included in the REST requests.
+                        <BR/>        loadSettings -- Optional:YES
+                           The load settings, like "Concurrency=10;Duration=30s;Rate=50;P95=200;ErrorRate=1".
+                        <BR/>        requestFile -- Optional:YES
+                           The file holding more requests to replay, one "METHOD relativeURI [body]" per line.
+                        
+    </UL>
+
+     **********/
+    static public ComponentFunction restLoadTest(String winname, String compname, String[] parameters) {
+
+        if ( winname == null ) throw new IllegalArgumentException ( "restLoadTest.winname = null");
+        if ( compname == null ) throw new IllegalArgumentException ( "restLoadTest.compname = null");
+        if ( parameters == null ) throw new IllegalArgumentException ( "restLoadTest.parameters = null");
+        ComponentFunction cf = new ComponentFunction(RESTLOADTEST_KEYWORD, winname, compname);
+        cf.addParameters(parameters);
+        return cf;
+    }
+
+
     /*********** <pre>
                     Perform an HTTP method on a REST service.
                 
@@ -21,6 +21,7 @@ package org.safs.model.tools;
  * History:
  * JUN 11, 2015	(Lei Wang) 	Add method processExpression(): wrap JSAFSDriver.processExpression().
  * JUN 11, 2015	(Lei Wang) 	Modified method processExpression(): take the same strategy as JSAFSDriver.processExpression(String testRecord, String separator)
+ * OCT 19, 2026	Added setStructuredCommands(): route runComponentFunction/runDriverCommand through JSAFSDriver.runStructuredCommand().
  *
  */
 import java.io.File;
@@ -66,6 +67,19 @@ public abstract class AbstractDriver {
 	 */
 	protected static AbstractDriver _instance = null;
 
+	/**
+	 * true to hand commands to {@link JSAFSDriver#runStructuredCommand(org.safs.model.AbstractCommand, boolean)}
+	 * instead of serializing them into separator-delimited test records.
+	 * @see #setStructuredCommands(boolean, boolean)
+	 */
+	protected boolean structuredCommands = false;
+
+	/**
+	 * With {@link #structuredCommands}, true to still resolve SAFS variables and expressions in the command fields.
+	 * @see #setStructuredCommands(boolean, boolean)
+	 */
+	protected boolean expandStructuredVariables = false;
+
 	/**
 	 * Internal Use Only<p>
 	 * Seek an AppMap.order file in the Datapool directory.
@@ -149,6 +163,38 @@ public abstract class AbstractDriver {
 		}
 	}
 
+	/**
+	 * Enable or disable the structured command path used by {@link #runComponentFunction(String, String, String, String...)}
+	 * and {@link #runDriverCommand(String, String...)} when a JSAFSDriver is available.
+	 * <p>
+	 * When enabled, the typed command and parameters are placed directly into the TestRecordData fields.
+	 * There is no separator-delimited record to build and re-tokenize, parameter values may contain
+	 * any separator character, and no expression processing is performed unless expandVariables is true.
+	 * When disabled (the default) commands are processed as before.
+	 *
+	 * @param enabled true to use the structured command path.
+	 * @param expandVariables true to still resolve SAFS variable references (and expressions, if enabled)
+	 * in the command fields.
+	 * @see JSAFSDriver#runStructuredCommand(org.safs.model.AbstractCommand, boolean)
+	 */
+	public void setStructuredCommands(boolean enabled, boolean expandVariables){
+		structuredCommands = enabled;
+		expandStructuredVariables = expandVariables;
+	}
+
+	/** @return true if the structured command path is enabled. */
+	public boolean isStructuredCommands(){
+		return structuredCommands;
+	}
+
+	/**
+	 * A single null String passed as the parameters array means no parameters, as in {@link #processExpressions(String...)}.
+	 */
+	private String[] structuredParameters(String... parameters){
+		if(parameters instanceof String[] && parameters.length == 1 && parameters[0] == null) return null;
+		return parameters;
+	}
+
 	/**
 	 * Used internally to handle the potential that passed parameters may include embedded
 	 * SAFS Expressions or embedded SAFS variable references.  This method is automatically
@@ -263,6 +309,11 @@ public abstract class AbstractDriver {
 	 * @see org.safs.StatusCodes#SCRIPT_NOT_EXECUTED
 	 */
 	public TestRecordHelper runComponentFunction(String command, String child, String parent, String... parameters)throws Throwable{
+		if(structuredCommands && jsafs() != null){
+			ComponentFunction model = new ComponentFunction(command, parent, child);
+			model.addParameters(structuredParameters(parameters));
+			return jsafs().runStructuredCommand(model, expandStructuredVariables);
+		}
 		command = processExpression(command);
 		if(child instanceof String) child =  processExpression(child);
 		if(parent instanceof String) parent =  processExpression(parent);
@@ -282,6 +333,11 @@ public abstract class AbstractDriver {
 	 * @see org.safs.StatusCodes#SCRIPT_NOT_EXECUTED
 	 */
 	public TestRecordHelper runDriverCommand(String command, String... parameters) throws Throwable{
+		if(structuredCommands && jsafs() != null){
+			DriverCommand model = new DriverCommand(command);
+			model.addParameters(structuredParameters(parameters));
+			return jsafs().runStructuredCommand(model, expandStructuredVariables);
+		}
 		command = processExpression(command);
 		return runDriverCommandConverted(command, processExpressions(parameters));
 	}
@@ -21,6 +21,7 @@
  * History:
  * NOV 02, 2016    (Lei Wang) Most codes were moved from org.safs.model.tools.EmbeddedHookDriverRunner
  * SEP 25, 2018    (Lei Wang) Mark the method action() command() with annotation @TestStep.
+ * OCT 19, 2026    Added structuredCommands(): let action() command() skip test record serialization.
  */
 package org.safs.model.tools;
 
@@ -263,6 +264,20 @@ public abstract class AbstractRunner implements JSAFSConfiguredClassStore{
 		}
 	}
 
+	/**
+	 * Let {@link #action(String, String, String, String...)} and {@link #command(String, String...)}
+	 * pass their typed parameters directly into the test record instead of serializing them into a
+	 * separator-delimited record that is then re-tokenized and run through expression resolution.
+	 * Parameter values may then contain any separator character.
+	 * @param enabled true to use the structured command path. The default is false.
+	 * @param expandVariables true to still resolve SAFS variable references (and expressions, if enabled)
+	 * in the parameters.
+	 * @see AbstractDriver#setStructuredCommands(boolean, boolean)
+	 */
+	public void structuredCommands(boolean enabled, boolean expandVariables){
+		getDriver().setStructuredCommands(enabled, expandVariables);
+	}
+
 	@TestStep
 	public TestRecordHelper action(Component comp, String command, String... params) throws Throwable{
 		String parent = comp.getParentName();
@@ -28,18 +28,25 @@
  * APR 14, 2017    (Lei Wang) Added the ability to filter the fields according to their modifiers.
  * OCT 26, 2017	   (Lei Wang) Added the ability to match all bits of modifier or match any bits of modifier to filter a field.
  * NOV 03, 2017    (Lei Wang) Use empty string "" as the field's default value instead of string "UNKNOWN".
+ * OCT 19, 2026    Read and write the fields through MethodHandles cached per class instead of
+ *                            looking up and calling java.lang.reflect.Field for each access.
  *
  */
 package org.safs.persist;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.safs.IndependantLog;
 import org.safs.Printable;
@@ -96,6 +103,100 @@ public abstract class PersistableDefault implements Persistable, Printable{
 	 */
 	protected boolean matchAllFieldModifiers = DEFAULT_MATCH_ALL_FIELD_MODIFIERS;
 
+	/**
+	 * Cache holding the accessors of the fields declared by each class, shared by all the instances.<br>
+	 * Looking up a Field and calling it reflectively for each get/set is slow when persisting or
+	 * verifying big objects, the accessors are resolved only once per class.
+	 */
+	private static final Map<Class<?>, Map<String/*fieldName*/, FieldAccessor>> declaredAccessors = new ConcurrentHashMap<Class<?>, Map<String, FieldAccessor>>();
+
+	/**
+	 * Get and set the value of one declared field through MethodHandles.<br>
+	 * The handles are adapted to the signature (Object)Object and (Object,Object)void, so that
+	 * static and instance fields are used in the same way. If a handle can not be created, such as
+	 * the setter of a 'final' field, the accessible Field itself is used.
+	 */
+	private static final class FieldAccessor{
+		private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+		private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+		private final Field field;
+		/** null if no MethodHandle can be created to read the field. */
+		private final MethodHandle getter;
+		/** null if no MethodHandle can be created to set the field, such as a 'final' field. */
+		private final MethodHandle setter;
+
+		private FieldAccessor(Field field){
+			this.field = field;
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			boolean isStatic = Modifier.isStatic(field.getModifiers());
+			MethodHandle handle = null;
+
+			try{
+				field.setAccessible(true);
+				handle = lookup.unreflectGetter(field);
+				if(isStatic) handle = MethodHandles.dropArguments(handle, 0, Object.class);
+				handle = handle.asType(GETTER_TYPE);
+			}catch(Exception e){
+				handle = null;
+			}
+			getter = handle;
+
+			try{
+				handle = lookup.unreflectSetter(field);
+				if(isStatic) handle = MethodHandles.dropArguments(handle, 0, Object.class);
+				handle = handle.asType(SETTER_TYPE);
+			}catch(Exception e){
+				handle = null;
+			}
+			setter = handle;
+		}
+
+		private Object get(Object target) throws Exception{
+			if(getter==null){
+				return field.get(target);
+			}
+			try{
+				return getter.invokeExact(target);
+			}catch(Exception | Error e){
+				throw e;
+			}catch(Throwable t){
+				throw new Exception(t);
+			}
+		}
+
+		private void set(Object target, Object value) throws Exception{
+			if(setter==null){
+				field.set(target, value);
+				return;
+			}
+			try{
+				setter.invokeExact(target, value);
+			}catch(Exception | Error e){
+				throw e;
+			}catch(Throwable t){
+				throw new Exception(t);
+			}
+		}
+	}
+
+	/**
+	 * @param clazz Class, the class declaring the fields.
+	 * @return Map<String, FieldAccessor>, the cached accessors of the fields declared by the class.
+	 */
+	private static Map<String, FieldAccessor> getDeclaredAccessors(Class<?> clazz){
+		Map<String, FieldAccessor> accessors = declaredAccessors.get(clazz);
+		if(accessors==null){
+			accessors = new HashMap<String, FieldAccessor>();
+			for(Field field: clazz.getDeclaredFields()){
+				accessors.put(field.getName(), new FieldAccessor(field));
+			}
+			accessors = Collections.unmodifiableMap(accessors);
+			declaredAccessors.put(clazz, accessors);
+		}
+		return accessors;
+	}
+
 	public PersistableDefault(){}
 
 	/**
@@ -150,13 +251,13 @@ public abstract class PersistableDefault implements Persistable, Printable{
 	@Override
 	public Map<String, String> getPersitableFields(){
 		if(fieldNameToPersistKeyMap==null){
-			Field[] fields = getClass().getDeclaredFields();
+			Map<String, FieldAccessor> accessors = getDeclaredAccessors(getClass());
 			fieldNameToPersistKeyMap = new HashMap<String, String>();
-			for(Field field:fields){
-				if(ignoreFieldForPersist(field)){
+			for(FieldAccessor accessor:accessors.values()){
+				if(ignoreFieldForPersist(accessor.field)){
 					continue;
 				}
-				fieldNameToPersistKeyMap.put(field.getName(), field.getName());
+				fieldNameToPersistKeyMap.put(accessor.field.getName(), accessor.field.getName());
 			}
 		}
 
@@ -183,7 +284,7 @@ public abstract class PersistableDefault implements Persistable, Printable{
 	}
 
 	/**
-	 * This method use Java reflection to get the value of the field defined in {@link #getPersitableFields()}.
+	 * This method uses the accessors cached for this class to get the value of the field defined in {@link #getPersitableFields()}.
 	 */
 	@Override
 	public Map<String, Object> getContents() {
@@ -197,20 +298,22 @@ public abstract class PersistableDefault implements Persistable, Printable{
 			persistKeyToFieldValueMap = new TreeMap<String, Object>();
 		}
 
-		String debugmsg = StringUtils.debugmsg(false);
+		String debugmsg = StringUtils.debugmsg(PersistableDefault.class, "getContents");
 
 		Map<String, String> fieldToPersistKeyMap = getPersitableFields();
 
-		Class<?> clazz = getClass();
+		Map<String, FieldAccessor> accessors = getDeclaredAccessors(getClass());
 		Set<String> fieldNames = fieldToPersistKeyMap.keySet();
 
-		Field field = null;
+		FieldAccessor accessor = null;
 		Object value = null;
 		for(String fieldName: fieldNames){
 			try{
-				field = clazz.getDeclaredField(fieldName);
-				field.setAccessible(true);
-				value = field.get(this);
+				accessor = accessors.get(fieldName);
+				if(accessor==null){
+					throw new NoSuchFieldException(fieldName);
+				}
+				value = accessor.get(this);
 			}catch(Exception e){
 				IndependantLog.warn(debugmsg+" can NOT get value for field '"+fieldName+"', met "+StringUtils.debugmsg(e)+"\nset "+FAILED_RETRIEVE_VALUE+" as its value.");
 				value = FAILED_RETRIEVE_VALUE;
@@ -228,12 +331,12 @@ public abstract class PersistableDefault implements Persistable, Printable{
 	}
 
 	private Object _set_getField(String persistKey, Object value, boolean setter){
-		String debugmsg = StringUtils.debugmsg(false);
+		String debugmsg = StringUtils.debugmsg(PersistableDefault.class, setter?"setField":"getField");
 
 		Class<?> clazz = getClass();
 		String clazzName = clazz.getName();
 		String fieldName = null;
-		Field field = null;
+		FieldAccessor accessor = null;
 		Object result = null;
 
 		fieldName = getFieldName(persistKey);
@@ -242,13 +345,15 @@ public abstract class PersistableDefault implements Persistable, Printable{
 			while(clazz!=null){
 				clazzName = clazz.getName();
 				try {
-					field = clazz.getDeclaredField(fieldName);
-					field.setAccessible(true);
+					accessor = getDeclaredAccessors(clazz).get(fieldName);
+					if(accessor==null){
+						throw new NoSuchFieldException(fieldName);
+					}
 					if(setter){
-						field.set(this, Utils.parseValue(field.getType(),value));
+						accessor.set(this, Utils.parseValue(accessor.field.getType(),value));
 						result = new Boolean(true);
 					}else{
-						result = field.get(this);
+						result = accessor.get(this);
 					}
 					break;
 				}catch(NoSuchFieldException nfe){
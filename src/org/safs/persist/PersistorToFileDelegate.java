@@ -20,6 +20,7 @@
  *
  * History:
  * OCT 24, 2017    (Lei Wang) Initial release.
+ * OCT 19, 2026    Modified write(): stream the Persistable object into the file.
  */
 package org.safs.persist;
 
@@ -81,7 +82,8 @@ public abstract class PersistorToFileDelegate extends PersistorToFile{
 
 	@Override
 	protected final void write(Persistable persistable)  throws SAFSException, IOException{
-		writer.write(delegatePersistor.parse(persistable, true));
+		//write directly to the file, without holding the whole string in memory
+		delegatePersistor.parse(persistable, true, writer);
 	}
 
 }
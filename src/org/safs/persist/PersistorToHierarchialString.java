@@ -21,6 +21,8 @@
  * History:
  * OCT 24, 2017    (Lei Wang) Initial release.
  * NOV 03, 2017    (Lei Wang) Modified parseFieldValue(): For a field of type Map, convert it to JSON string for persisting.
+ * OCT 19, 2026    Added parse(Persistable, boolean, Appendable): write the containers and children piece by piece
+ *                            instead of concatenating the string of each child container into its parent.
  */
 package org.safs.persist;
 
@@ -65,6 +67,28 @@ public abstract class PersistorToHierarchialString extends PersistorToString{
 	 */
 	@Override
 	protected final String parse(Persistable persistable, boolean needLeadingNameForContainer)  throws SAFSException{
+		StringBuilder sb = new StringBuilder();
+		try {
+			parse(persistable, needLeadingNameForContainer, sb);
+		} catch (IOException e) {
+			//StringBuilder will not throw IOException
+			throw new SAFSException("Failed to parse Persistable object! Met "+e.toString());
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Write a Persistable Object as a hierarchical string into an Appendable. The concrete format depends on the sub-class.<br/>
+	 * Each container and child is written as soon as it is converted, the string of the whole object is never held in memory.
+	 *
+	 * @param persistable Persistable, the object to write
+	 * @param needLeadingNameForContainer boolean
+	 * @param sb Appendable, where to write the string, such as a Writer or a StringBuilder.
+	 * @throws SAFSException
+	 * @throws IOException if failed to write into 'sb'
+	 */
+	@Override
+	protected final void parse(Persistable persistable, boolean needLeadingNameForContainer, Appendable sb)  throws SAFSException, IOException{
 		validate(persistable);
 
 		Map<String, Object> contents = persistable.getContents();
@@ -75,8 +99,6 @@ public abstract class PersistorToHierarchialString extends PersistorToString{
 			throw new SAFSException("NO contents got from Persistable object!");
 		}
 
-		StringBuffer sb = new StringBuffer();
-
 		sb.append(getContainerBegin(className, needLeadingNameForContainer));
 
 		String[] keys = contents.keySet().toArray(new String[0]);
@@ -91,7 +113,7 @@ public abstract class PersistorToHierarchialString extends PersistorToString{
 			}
 			if(value instanceof Persistable){
 				try{
-					sb.append(parse((Persistable) value, true));
+					parse((Persistable) value, true, sb);
 				}catch(SAFSPersistableNotEnableException pne){
 					//We should not break if some child is not persistable, just log a warning.
 					IndependantLog.warn(pne.getMessage());
@@ -105,8 +127,6 @@ public abstract class PersistorToHierarchialString extends PersistorToString{
 		}
 
 		sb.append(getContainerEnd(className));
-
-		return sb.toString();
 	}
 
 	protected String getTagName(String className){
@@ -179,8 +199,8 @@ public abstract class PersistorToHierarchialString extends PersistorToString{
 			return null;
 		}
 
-		StringBuffer result = new StringBuffer();
-		String debugmsg = StringUtils.debugmsg(false);
+		StringBuilder result = new StringBuilder();
+		String debugmsg = StringUtils.debugmsg(PersistorToHierarchialString.class, "parseFieldValue");
 		Class<?> fieldClass = value.getClass();
 		IndependantLog.debug(debugmsg+" parsing field value of type '"+fieldClass.getName()+"'");
 
@@ -214,7 +234,7 @@ public abstract class PersistorToHierarchialString extends PersistorToString{
 		}
 		//TODO we might need to handle more types
 		else{
-			IndependantLog.warn(StringUtils.debugmsg(false)+" the type '"+value.getClass().getSimpleName()+"' is not supported yet.");
+			IndependantLog.warn(debugmsg+" the type '"+value.getClass().getSimpleName()+"' is not supported yet.");
 			result.append(escape(value.toString()));
 		}
 
@@ -233,7 +253,7 @@ public abstract class PersistorToHierarchialString extends PersistorToString{
 	 * @return String, the string format of an array object
 	 */
 	protected String parseArrayField(Object arrayFieldObject){
-		StringBuffer result = new StringBuffer();
+		StringBuilder result = new StringBuilder();
 		//By default, we use the JSON way to keep the array or List
 		//[item1, item2, item3, item4, item5]
 		int length = Array.getLength(arrayFieldObject);
@@ -23,6 +23,8 @@
  * MAR 15, 2017    (Lei Wang) Supported the unpickle functionality.
  * OCT 18, 2017    (Lei Wang) Modified unpickleParse(): Convert the each JSONObject (item in JSONArray) to Persistable.
  * NOV 03, 2017    (Lei Wang) Modified unpickleParse(): If a field is a Persistable object, then set the current Persistable object as its parent.
+ * OCT 19, 2026    Modified unpickleParse(): use the cached constructor to create the Persistable object.
+ *                            Modified escape(): compile the new line pattern only once.
  */
 package org.safs.persist;
 
@@ -132,7 +134,7 @@ public class PersistorToJSONString extends PersistorToHierarchialString{
 
 		try {
 			String className = body.getString(JSONConstants.PROPERTY_CLASSNAME);
-			Object object = Class.forName(className).newInstance();
+			Object object = newInstance(className);
 			Persistable child = null;
 			if(object instanceof Persistable){
 				persistable = (Persistable) object;
@@ -178,13 +180,16 @@ public class PersistorToJSONString extends PersistorToHierarchialString{
 			}else{
 				throw new SAFSException(className+" is not a Persistable!");
 			}
-		} catch (ClassNotFoundException|JSONException | InstantiationException | IllegalAccessException e) {
+		} catch (ReflectiveOperationException | JSONException e) {
 			throw new SAFSException(e.toString());
 		}
 
 		return persistable;
 	}
 
+	/** The new line characters to escape in a JSON string value. */
+	private static final Pattern NEW_LINE = Pattern.compile("(\\n|\\r|\\r\\n)");
+
 	@Override
 	protected boolean stringNeedQuoted(){
 		return true;
@@ -202,8 +207,7 @@ public class PersistorToJSONString extends PersistorToHierarchialString{
 	protected String escape(String value){
 		String result = null;
 		//escape new line
-		Pattern pattern = Pattern.compile("(\\n|\\r|\\r\\n)");
-		Matcher m = pattern.matcher(value);
+		Matcher m = NEW_LINE.matcher(value);
 		StringBuffer sb = new StringBuffer();
 		String nl = null;
 		String escapedNL = null;
@@ -20,14 +20,21 @@
  *
  * History:
  * OCT 24, 2017    (Lei Wang) Initial release.
+ * OCT 19, 2026    Added parse(Persistable, boolean, Appendable): write the Persistable object directly into 'stringFormat'.
+ *                            Added newInstance(): cache the constructor of each class to unpickle.
  */
 package org.safs.persist;
 
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.safs.IndependantLog;
 import org.safs.SAFSException;
@@ -141,7 +148,11 @@ public abstract class PersistorToString extends AbstractPersistor{
 	 * {@link #writeTailer(Persistable)} is called after<br/>
 	 */
 	protected final void write(Persistable persistable)  throws SAFSException{
-		stringFormat.append((parse(persistable, true)));
+		try {
+			parse(persistable, true, stringFormat);
+		} catch (IOException e) {
+			throw new SAFSException("Failed to write Persistable object! Met "+e.toString());
+		}
 	}
 	/** This is called after {@link #write(Persistable)}. */
 	protected void writeTailer(Persistable persistable)  throws SAFSException{}
@@ -223,6 +234,21 @@ public abstract class PersistorToString extends AbstractPersistor{
 	 */
 	protected abstract String parse(Persistable persistable, boolean needLeadingNameForContainer)  throws SAFSException;
 
+	/**
+	 * Convert a Persistable Object to a string and write it into an Appendable, such as a Writer or a StringBuilder.<br/>
+	 * This default implementation appends the result of {@link #parse(Persistable, boolean)}, sub-class can
+	 * override it to write the string piece by piece without holding the whole string in memory.
+	 *
+	 * @param persistable Persistable, the object to convert
+	 * @param needLeadingNameForContainer boolean
+	 * @param out Appendable, where to write the string
+	 * @throws SAFSException
+	 * @throws IOException if failed to write into 'out'
+	 */
+	protected void parse(Persistable persistable, boolean needLeadingNameForContainer, Appendable out)  throws SAFSException, IOException{
+		out.append(parse(persistable, needLeadingNameForContainer));
+	}
+
 	/**
 	 * Check if the field is being ignored at the moment for un-pickle.<br/>
 	 * @param className String, the className to check
@@ -245,6 +271,38 @@ public abstract class PersistorToString extends AbstractPersistor{
 		return false;
 	}
 
+	/**
+	 * Cache holding the no-argument constructor of each class that has been unpickled.<br>
+	 * Unpickling creates one object per container, so the class lookup is done only once per class name.
+	 */
+	private static final Map<String/*className*/, MethodHandle> constructors = new ConcurrentHashMap<String, MethodHandle>();
+
+	/**
+	 * Create an instance of a class by its no-argument constructor, the constructor is cached
+	 * for the next instantiation of the same class.<br/>
+	 * @param className String, the full qualified class name.
+	 * @return Object, the new instance of the class.
+	 * @throws ReflectiveOperationException if the class can not be found or instantiated.
+	 */
+	protected static Object newInstance(String className) throws ReflectiveOperationException{
+		MethodHandle constructor = constructors.get(className);
+		if(constructor==null){
+			Constructor<?> noArgConstructor = Class.forName(className).getDeclaredConstructor();
+			noArgConstructor.setAccessible(true);
+			constructor = MethodHandles.lookup().unreflectConstructor(noArgConstructor).asType(MethodType.methodType(Object.class));
+			constructors.put(className, constructor);
+		}
+		try{
+			return constructor.invokeExact();
+		}catch(RuntimeException | Error e){
+			throw e;
+		}catch(Throwable t){
+			InstantiationException ie = new InstantiationException(className+": "+t.toString());
+			ie.initCause(t);
+			throw ie;
+		}
+	}
+
 	@Override
 	public PersistenceType getType(){
 		return PersistenceType.STRING;
@@ -23,6 +23,8 @@
  *                           Modified needEscape(): if the value has already been escaped (wrapped in <![CDATA[...]]>), don't escape again.
  * NOV 03, 2017    (Lei Wang) Modified UnpickleHandler.endElement(): If a tag represents a Persistable object, then set the parent tag (a Persistable object) as its parent.
  * JUN 13, 2018    (Lei Wang) Moved needEscape() to XMLConstants. Modified escape().
+ * OCT 19, 2026    Modified UnpickleHandler.startElement(): use the cached constructor to create the Persistable object.
+ *                            Modified beforeUnpickle(): share one SAXParserFactory and reuse the SAXParser of this persistor.
  */
 package org.safs.persist;
 
@@ -76,6 +78,9 @@ public class PersistorToXMLString extends PersistorToHierarchialString{
 	protected SAXParser saxParser = null;
 	protected InputSource inputSource = null;
 
+	/** Shared to avoid looking up the parser implementation for each unpickle; synchronized on it to create a parser. */
+	private static final SAXParserFactory saxParserFactory = SAXParserFactory.newInstance();
+
 	public PersistorToXMLString(){
 		super();
 	}
@@ -122,8 +127,13 @@ public class PersistorToXMLString extends PersistorToHierarchialString{
 		super.beforeUnpickle();
 
 		try {
-			SAXParserFactory factory = SAXParserFactory.newInstance();
-			saxParser = factory.newSAXParser();
+			if(saxParser==null){
+				synchronized(saxParserFactory){
+					saxParser = saxParserFactory.newSAXParser();
+				}
+			}else{
+				saxParser.reset();
+			}
 			inputSource = new InputSource(getStringFormatReader());
 
 		} catch (ParserConfigurationException | SAXException e) {
@@ -205,7 +215,7 @@ public class PersistorToXMLString extends PersistorToHierarchialString{
 				if(!tag.ignored){
 					if(tag.classname!=null){
 						try {
-							Object object = Class.forName(tag.classname).newInstance();
+							Object object = newInstance(tag.classname);
 							if(object instanceof Persistable){
 								//The first Persistable will be returned as freshFood.
 								if(freshFood==null) freshFood = (Persistable) object;
@@ -215,7 +225,7 @@ public class PersistorToXMLString extends PersistorToHierarchialString{
 								warnings.append("\nThis object '"+tag.classname+"' is not a Persistable, it and its children will be ignored.");
 								tag.ignored = true;
 							}
-						} catch (ClassNotFoundException | InstantiationException | IllegalAccessException e) {
+						} catch (ReflectiveOperationException e) {
 							warnings.append("\nMet "+e.toString());
 							tag.ignored = true;
 						}
@@ -26,6 +26,7 @@
  * OCT 27, 2017	(Lei Wang) Removed inner class Pair, use Parameter to test persist/unpickle a list of Persistable objects.
  *                        Added case to test the ability of ignoring a field when its field modifiers match any modifiers user provides.
  * NOV 03, 2017	(Lei Wang) Added codes to test persist/unpickle a Map field of a Persistable object.
+ * OCT 19, 2026	Added testBigPersistable(): persist/unpickle/verify a big Persistable object and print the time spent.
  */
 package org.safs.persist.test;
 
@@ -410,6 +411,60 @@ public class PersistTest {
 		assert !myPersistable.getPersitableFields().containsKey("finalStaticField");
 	}
 
+	/**
+	 * Save a big MyPersistable object (holding a lot of Persistable children) to an XML file and a JSON file.<br>
+	 * Create MyPersistable object from each file and Assert it is the same as the original one.<br>
+	 * Use the Verifier to verify original MyPersistable object against each file.<br/>
+	 * The time spent by each step is printed out.<br/>
+	 *
+	 * @param size int, the number of Persistable children to hold.
+	 */
+	private static void testBigPersistable(int size){
+		String[] files = {"BigPersistable.xml", "BigPersistable.json"};
+
+		String[] stringArray = new String[size];
+		List<Parameter> listpair = new ArrayList<Parameter>(size);
+		for(int i=0;i<size;i++){
+			stringArray[i] = "item"+i;
+			listpair.add(new Parameter("name"+i, "IDToken"+i, "value"+i));
+		}
+
+		MyPersistable myPersistable = new MyPersistable();
+		myPersistable.setIntField(size);
+		myPersistable.setStringArray(stringArray);
+		myPersistable.setListOfPersistable(listpair);
+
+		Persistor p = null;
+		Verifier v = null;
+		Persistable persist = null;
+		long start = 0;
+
+		for(String file: files){
+			try {
+				start = System.currentTimeMillis();
+				p = PersistorFactory.create(PersistenceType.FILE, null, runtimeData, file);
+				p.persist(myPersistable);
+				System.out.println("Persisted "+size+" children to file '"+file+"' in "+(System.currentTimeMillis()-start)+" milliseconds.");
+
+				start = System.currentTimeMillis();
+				persist = p.unpickle(null);
+				System.out.println("Unpickled "+size+" children from file '"+file+"' in "+(System.currentTimeMillis()-start)+" milliseconds.");
+				assert persist.equals(myPersistable);
+
+				start = System.currentTimeMillis();
+				v = VerifierFactory.create(PersistenceType.FILE, null, runtimeData, file);
+				try{
+					v.verify(myPersistable, true, false, true);
+				}catch(SAFSVerificationException vfe){
+					assert false: vfe.toString();
+				}
+				System.out.println("Verified "+size+" children against file '"+file+"' in "+(System.currentTimeMillis()-start)+" milliseconds.");
+			}catch (SAFSException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
 	public static class MyPersistable extends PersistableDefault{
 		private int intField;
 		private short shortField;
@@ -610,5 +665,6 @@ public class PersistTest {
 		testSimpleAuth();
 		testOAuth2();
 		testMyPersistable();
+		testBigPersistable(5000);
 	}
 }
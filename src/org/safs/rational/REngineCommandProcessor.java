@@ -69,6 +69,7 @@ import com.rational.test.ft.sys.graphical.Mouse;
  * <br>    Lei Wang NOV 02, 2010 Adding method _getComponentRectangle().
  * <br>    JunwuMa MAR 15, 2011 Fixed the issue of highlight not working with RFT8.2 against Flex applications loaded by AutomationModuleRFT.swf.
  * <br>    JunwuMa MAR 16, 2012 Adding support for 'getObjectRecognitionAtScreenCoords' in RFT engine.  
+ * <br>    OCT 19, 2026 Supply component bounds to 'getSubtreeSnapshot'.
  *                                            
  *                            
  */
@@ -325,6 +326,19 @@ public class REngineCommandProcessor extends EngineCommandProcessor {
 	    }
  	}
  	
+	/**
+	 * Provide the clipped screen rectangle of GuiTestObjects for subtree snapshots.
+	 * @see org.safs.EngineCommandProcessor#getObjectScreenBounds(Object)
+	 */
+	protected Rectangle getObjectScreenBounds(Object item){
+		if(!(item instanceof GuiTestObject)) return null;
+		try{ return ((GuiTestObject)item).getClippedScreenRectangle();}
+		catch(Exception x){
+			Log.debug(getClass().getName()+".getObjectScreenBounds(): "+ x.getClass().getSimpleName());
+			return null;
+		}
+	}
+
  	/**
  	 * Return the Windows native handle of the window containing the component
  	 * 
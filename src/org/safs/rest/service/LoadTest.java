@@ -0,0 +1,446 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package org.safs.rest.service;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.safs.IndependantLog;
+import org.safs.tools.drivers.RecordMetrics;
+import org.safs.tools.drivers.RecordMetrics.Histogram;
+
+/**
+ * Replays one REST request, or a block of REST requests, against a {@link Service} at a given 
+ * concurrency or target rate for a duration, and summarizes the latency, error rate, and throughput.
+ * <p>
+ * Each of {@link #getConcurrency()} workers replays the block of {@link Call}s in order until the 
+ * duration expires or the request limit is reached.  With a target rate, requests are started on a 
+ * fixed schedule shared by all workers, and latency is measured from the scheduled start so that a 
+ * slow service is not hidden by fewer requests being sent (coordinated omission).
+ * <p>
+ * Settings are given as a string of name=value pairs separated by semicolons, for example:
+ * <p><pre>
+ * Concurrency=10;Duration=30s;Rate=200;P95=250;P99=500;ErrorRate=1
+ * </pre>
+ * <ul>
+ * <li>Concurrency -- workers sending requests.  Default 1.
+ * <li>Duration -- how long to send requests: milliseconds, or a number followed by ms, s, or m.  Default 10s.
+ * <li>Requests -- stop after this many requests, even if the duration has not expired.  Default 0, no limit.
+ * <li>Rate -- target requests per second across all workers.  Default 0, as fast as the workers can.
+ * <li>P50, P95, P99, Max -- latency thresholds in milliseconds.
+ * <li>ErrorRate -- error rate threshold in percent.
+ * <li>Throughput -- minimum requests per second.
+ * </ul>
+ * A request is an error if it throws an Exception or its status code is not 2xx.
+ * 
+ * @since OCT 19, 2026
+ * <br>	OCT 19, 2026	Initial release.
+ * <br>	OCT 19, 2026	Release each worker Response. Result.format is public.
+ */
+public class LoadTest {
+
+	public static final String SETTING_CONCURRENCY = "Concurrency";
+	public static final String SETTING_DURATION    = "Duration";
+	public static final String SETTING_REQUESTS    = "Requests";
+	public static final String SETTING_RATE        = "Rate";
+	public static final String SETTING_P50         = "P50";
+	public static final String SETTING_P95         = "P95";
+	public static final String SETTING_P99         = "P99";
+	public static final String SETTING_MAX         = "Max";
+	public static final String SETTING_ERROR_RATE  = "ErrorRate";
+	public static final String SETTING_THROUGHPUT  = "Throughput";
+
+	static final long NOT_SET = -1;
+
+	/** One request in the replayed block. */
+	public static class Call {
+		final String method;
+		final String relativeURI;
+		final String headers;
+		final Object body;
+		final String name;
+
+		/**
+		 * @param method HTTP method like "GET".
+		 * @param relativeURI relative to the Service base URL, or a full URL.
+		 * @param headers multi-line headers, or null.
+		 * @param body request body, or null.
+		 */
+		public Call(String method, String relativeURI, String headers, Object body){
+			if(method == null || relativeURI == null) throw new IllegalArgumentException("LoadTest.Call method and relativeURI cannot be null.");
+			this.method = method.trim().toUpperCase();
+			this.relativeURI = relativeURI;
+			this.headers = headers;
+			this.body = body;
+			this.name = this.method +" "+ relativeURI;
+		}
+		public String getName(){ return name; }
+	}
+
+	private int concurrency = 1;
+	private long durationMillis = 10000;
+	private long maxRequests = 0;
+	private double rate = 0;
+	private long maxP50 = NOT_SET, maxP95 = NOT_SET, maxP99 = NOT_SET, maxLatency = NOT_SET;
+	private double maxErrorRate = NOT_SET;
+	private double minThroughput = NOT_SET;
+	private RESTImpl rest = new RESTImpl();
+
+	public LoadTest(){}
+
+	/**
+	 * @param settings name=value pairs separated by semicolons.  Names are not case-sensitive.
+	 * @throws IllegalArgumentException if a setting is unknown or its value is invalid.
+	 */
+	public LoadTest(String settings) throws IllegalArgumentException{
+		if(settings == null) return;
+		for(String setting: settings.split(";")){
+			if(setting.trim().length()==0) continue;
+			int eq = setting.indexOf('=');
+			if(eq < 1) throw new IllegalArgumentException("LoadTest setting '"+ setting +"' is not name=value.");
+			set(setting.substring(0, eq).trim(), setting.substring(eq+1).trim());
+		}
+	}
+
+	/**
+	 * @param name a SETTING_ name, not case-sensitive.
+	 * @param value its value.
+	 * @throws IllegalArgumentException if the setting is unknown or its value is invalid.
+	 */
+	public void set(String name, String value) throws IllegalArgumentException{
+		try{
+			if(SETTING_CONCURRENCY.equalsIgnoreCase(name)) setConcurrency(Integer.parseInt(value));
+			else if(SETTING_DURATION.equalsIgnoreCase(name)) setDurationMillis(parseMillis(value));
+			else if(SETTING_REQUESTS.equalsIgnoreCase(name)) setMaxRequests(Long.parseLong(value));
+			else if(SETTING_RATE.equalsIgnoreCase(name)) setRate(Double.parseDouble(value));
+			else if(SETTING_P50.equalsIgnoreCase(name)) maxP50 = parseMillis(value);
+			else if(SETTING_P95.equalsIgnoreCase(name)) maxP95 = parseMillis(value);
+			else if(SETTING_P99.equalsIgnoreCase(name)) maxP99 = parseMillis(value);
+			else if(SETTING_MAX.equalsIgnoreCase(name)) maxLatency = parseMillis(value);
+			else if(SETTING_ERROR_RATE.equalsIgnoreCase(name)) maxErrorRate = Double.parseDouble(value.replace("%", "").trim());
+			else if(SETTING_THROUGHPUT.equalsIgnoreCase(name)) minThroughput = Double.parseDouble(value);
+			else throw new IllegalArgumentException("LoadTest setting '"+ name +"' is not supported.");
+		}catch(NumberFormatException x){
+			throw new IllegalArgumentException("LoadTest setting '"+ name +"' has invalid value '"+ value +"'.");
+		}
+	}
+
+	/** @return milliseconds for a number optionally followed by ms, s, or m. */
+	static long parseMillis(String value){
+		String v = value.trim().toLowerCase();
+		long scale = 1;
+		if(v.endsWith("ms")) v = v.substring(0, v.length()-2);
+		else if(v.endsWith("s")){ v = v.substring(0, v.length()-1); scale = 1000; }
+		else if(v.endsWith("m")){ v = v.substring(0, v.length()-1); scale = 60000; }
+		long millis = (long)(Double.parseDouble(v.trim()) * scale);
+		if(millis < 0) throw new NumberFormatException(value);
+		return millis;
+	}
+
+	public int getConcurrency(){ return concurrency; }
+	public void setConcurrency(int concurrency){
+		if(concurrency < 1) throw new IllegalArgumentException("LoadTest concurrency must be at least 1.");
+		this.concurrency = concurrency;
+	}
+	public long getDurationMillis(){ return durationMillis; }
+	public void setDurationMillis(long durationMillis){ this.durationMillis = Math.max(0, durationMillis); }
+	public long getMaxRequests(){ return maxRequests; }
+	public void setMaxRequests(long maxRequests){ this.maxRequests = Math.max(0, maxRequests); }
+	public double getRate(){ return rate; }
+	public void setRate(double rate){ this.rate = Math.max(0, rate); }
+
+	/**
+	 * Replay the calls against the Service until the duration expires or the request limit is reached.
+	 * The Service connection pool is enlarged to the concurrency if necessary.
+	 * @param serviceId an existing Service.
+	 * @param calls the block of requests each worker replays in order.
+	 * @return the Result.
+	 * @throws IllegalArgumentException if the Service does not exist or there are no calls.
+	 */
+	public Result run(final String serviceId, final List<Call> calls) throws IllegalArgumentException, InterruptedException{
+		if(calls == null || calls.isEmpty()) throw new IllegalArgumentException("LoadTest requires at least one request.");
+		Service service = Services.getService(serviceId);
+		int maxConnections = service.getMaxConnections();
+		int maxPerRoute = service.getMaxConnectionsPerRoute();
+		if(maxPerRoute < concurrency || maxConnections < concurrency)
+			service.setConnectionPool(Math.max(maxConnections, concurrency), Math.max(maxPerRoute, concurrency));
+
+		final Result result = new Result(this, calls);
+		final AtomicLong sent = new AtomicLong();
+		final long intervalNanos = rate > 0 ? (long)(1000000000L / rate) : 0;
+		final long startNanos = System.nanoTime();
+		final long deadline = startNanos + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+		final AtomicLong schedule = new AtomicLong(startNanos);
+		ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+		try{
+			for(int w=0;w<concurrency;w++){
+				workers.execute(new Runnable(){
+					public void run(){
+						while(true){
+							for(int c=0;c<calls.size();c++){
+								Call call = calls.get(c);
+								if(maxRequests > 0 && sent.incrementAndGet() > maxRequests) return;
+								long begin;
+								if(intervalNanos > 0){
+									begin = schedule.getAndAdd(intervalNanos);
+									if(begin >= deadline) return;
+									long wait = begin - System.nanoTime();
+									if(wait > 0) try{ TimeUnit.NANOSECONDS.sleep(wait); }catch(InterruptedException x){ return; }
+								}else{
+									begin = System.nanoTime();
+									if(begin >= deadline) return;
+								}
+								boolean ok = false;
+								try{
+									Response response = rest.request(serviceId, call.method, call.relativeURI, call.headers, call.body);
+									int status = response.get_status_code();
+									ok = status >= 200 && status < 300;
+									// the body is not read: delete it if it spilled to a temporary file
+									response.release();
+								}catch(Throwable t){
+									IndependantLog.debug("LoadTest "+ call.name +" failed: "+ t);
+								}
+								result.record(c, System.nanoTime() - begin, ok);
+							}
+						}
+					}
+				});
+			}
+			workers.shutdown();
+			long waitMillis = durationMillis + Timeouts.getDefaultTimeouts().getMillisToTimeout();
+			if(! workers.awaitTermination(waitMillis, TimeUnit.MILLISECONDS)){
+				IndependantLog.warn("LoadTest workers did not finish within "+ waitMillis +"ms.");
+			}
+		}finally{
+			workers.shutdownNow();
+			result.elapsedNanos = System.nanoTime() - startNanos;
+			service.setConnectionPool(maxConnections, maxPerRoute);
+		}
+		result.evaluate();
+		return result;
+	}
+
+	/** The outcome of a LoadTest run.  Latencies are nanoseconds, reported values are milliseconds. */
+	public static class Result {
+		final LoadTest test;
+		final List<Call> calls;
+		final Histogram latency = new Histogram();
+		final AtomicLong errors = new AtomicLong();
+		final Histogram[] callLatency;
+		final AtomicLong[] callErrors;
+		long elapsedNanos;
+		final List<String> breaches = new ArrayList<String>();
+
+		Result(LoadTest test, List<Call> calls){
+			this.test = test;
+			this.calls = new ArrayList<Call>(calls);
+			callLatency = new Histogram[calls.size()];
+			callErrors = new AtomicLong[calls.size()];
+			for(int c=0;c<callLatency.length;c++){
+				callLatency[c] = new Histogram();
+				callErrors[c] = new AtomicLong();
+			}
+		}
+
+		void record(int call, long nanos, boolean ok){
+			latency.record(nanos);
+			callLatency[call].record(nanos);
+			if(!ok){
+				errors.incrementAndGet();
+				callErrors[call].incrementAndGet();
+			}
+		}
+
+		void evaluate(){
+			check("p50", getPercentileMillis(50), test.maxP50);
+			check("p95", getPercentileMillis(95), test.maxP95);
+			check("p99", getPercentileMillis(99), test.maxP99);
+			check("max", getMaxMillis(), test.maxLatency);
+			if(test.maxErrorRate >= 0 && getErrorRate() > test.maxErrorRate)
+				breaches.add("error rate "+ format(getErrorRate()) +"% exceeds "+ format(test.maxErrorRate) +"%");
+			if(test.minThroughput >= 0 && getThroughput() < test.minThroughput)
+				breaches.add("throughput "+ format(getThroughput()) +"/s is below "+ format(test.minThroughput) +"/s");
+		}
+
+		private void check(String name, double actual, long threshold){
+			if(threshold >= 0 && actual > threshold)
+				breaches.add(name +" latency "+ format(actual) +"ms exceeds "+ threshold +"ms");
+		}
+
+		public long getCount(){ return latency.getCount(); }
+		public long getErrors(){ return errors.get(); }
+		/** @return errors as a percent of requests. */
+		public double getErrorRate(){ return getCount()==0 ? 0 : 100.0 * getErrors() / getCount(); }
+		/** @return completed requests per second. */
+		public double getThroughput(){ return elapsedNanos==0 ? 0 : getCount() * 1e9 / elapsedNanos; }
+		public double getElapsedMillis(){ return elapsedNanos / 1e6; }
+		public double getPercentileMillis(double percentile){ return latency.getPercentile(percentile) / 1e6; }
+		public double getMaxMillis(){ return latency.getMax() / 1e6; }
+		public double getMeanMillis(){ return latency.getMean() / 1e6; }
+		/** @return latency in nanoseconds of all requests. */
+		public Histogram getLatency(){ return latency; }
+		/** @return latency in nanoseconds of the call at index in the replayed block. */
+		public Histogram getLatency(int index){ return callLatency[index]; }
+		/** @return descriptions of the thresholds breached; empty if none. */
+		public List<String> getBreaches(){ return breaches; }
+		public boolean isPassed(){ return breaches.isEmpty(); }
+
+		/** @return a one-line summary. */
+		public String getSummary(){
+			return getCount() +" requests, "+ getErrors() +" errors ("+ format(getErrorRate()) +"%), "+
+			       format(getThroughput()) +"/s, p50="+ format(getPercentileMillis(50)) +"ms p95="+
+			       format(getPercentileMillis(95)) +"ms p99="+ format(getPercentileMillis(99)) +"ms max="+
+			       format(getMaxMillis()) +"ms";
+		}
+
+		/** Write the Result as JSON, including the latency histogram buckets of each request. */
+		public void writeJSON(PrintWriter out){
+			out.println("{");
+			out.println("  \"settings\": {\"concurrency\": "+ test.concurrency +", \"durationMillis\": "+ test.durationMillis +
+			            ", \"requests\": "+ test.maxRequests +", \"rate\": "+ format(test.rate) +"},");
+			out.println("  \"passed\": "+ isPassed() +",");
+			out.print("  \"breaches\": [");
+			for(int i=0;i<breaches.size();i++) out.print((i==0?"":", ")+ RecordMetrics.quote(breaches.get(i)));
+			out.println("],");
+			out.println("  \"elapsedMillis\": "+ format(getElapsedMillis()) +",");
+			out.println("  \"throughput\": "+ format(getThroughput()) +",");
+			out.println("  \"errorRate\": "+ format(getErrorRate()) +",");
+			out.println("  \"unit\": \"ns\",");
+			out.println("  \"all\": "+ json(null, latency, errors.get()) +",");
+			out.println("  \"requests\": [");
+			for(int c=0;c<calls.size();c++){
+				out.println("    "+ json(calls.get(c).name, callLatency[c], callErrors[c].get()) + (c < calls.size()-1 ? ",":""));
+			}
+			out.println("  ]");
+			out.println("}");
+		}
+
+		private static String json(String request, Histogram h, long errors){
+			StringBuilder sb = new StringBuilder("{");
+			if(request != null) sb.append("\"request\": ").append(RecordMetrics.quote(request)).append(", ");
+			sb.append("\"count\": ").append(h.getCount()).append(", \"errors\": ").append(errors)
+			  .append(", \"min\": ").append(h.getMin()).append(", \"mean\": ").append(h.getMean())
+			  .append(", \"p50\": ").append(h.getPercentile(50)).append(", \"p95\": ").append(h.getPercentile(95))
+			  .append(", \"p99\": ").append(h.getPercentile(99)).append(", \"max\": ").append(h.getMax())
+			  .append(", \"buckets\": [");
+			long[][] buckets = h.getBuckets();
+			for(int b=0;b<buckets.length;b++) sb.append(b==0?"":",").append('[').append(buckets[b][0]).append(',').append(buckets[b][1]).append(']');
+			return sb.append("]}").toString();
+		}
+
+		/**
+		 * Write the Result as JSON to a file.
+		 * @throws IOException if the file cannot be written.
+		 */
+		public void export(File file) throws IOException{
+			File dir = file.getAbsoluteFile().getParentFile();
+			if(dir != null && ! dir.isDirectory()) dir.mkdirs();
+			PrintWriter out = new PrintWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"));
+			try{ writeJSON(out); }finally{ out.close(); }
+			if(out.checkError()) throw new IOException("Unable to write "+ file.getPath());
+		}
+
+		/** @return the value with 2 decimals, formatted for Locale.US so it parses the same everywhere. */
+		public static String format(double value){
+			return String.format(java.util.Locale.US, "%.2f", value);
+		}
+	}
+
+	/**
+	 * Self-test against a local embedded HTTP server: a concurrent run, a rate-limited run, 
+	 * a run breaching its error rate and latency thresholds, and a run with large responses 
+	 * spilled to temporary files, which must all be deleted.
+	 */
+	public static void main(String[] args) throws Exception{
+		System.setProperty("sun.net.httpserver.nodelay", "true");
+		com.sun.net.httpserver.HttpServer server = com.sun.net.httpserver.HttpServer.create(new java.net.InetSocketAddress("127.0.0.1", 0), 0);
+		server.setExecutor(Executors.newFixedThreadPool(8));
+		server.createContext("/", new com.sun.net.httpserver.HttpHandler(){
+			public void handle(com.sun.net.httpserver.HttpExchange exchange) throws IOException{
+				String path = exchange.getRequestURI().getPath();
+				if(path.endsWith("slow")) try{ Thread.sleep(20); }catch(InterruptedException x){}
+				byte[] body = path.endsWith("large") ? new byte[64*1024] : "ok".getBytes("UTF-8");
+				exchange.sendResponseHeaders(path.endsWith("fail") ? 500 : 200, body.length);
+				exchange.getResponseBody().write(body);
+				exchange.close();
+			}
+		});
+		server.start();
+		int failures = 0;
+		String serviceId = "LoadTestSelfTest";
+		try{
+			Services.addService(new Service(serviceId, "http://127.0.0.1:"+ server.getAddress().getPort() +"/"));
+			List<Call> block = new ArrayList<Call>();
+			block.add(new Call("GET", "fast", null, null));
+			block.add(new Call("POST", "slow", null, "data"));
+			// first use of the client loads classes; keep that out of the measured runs
+			new RESTImpl().request(serviceId, "GET", "fast", null, null);
+
+			Result result = new LoadTest("Concurrency=4;Duration=1s;P50=1000;ErrorRate=0").run(serviceId, block);
+			System.out.println("concurrent: "+ result.getSummary());
+			if(!result.isPassed() || result.getCount() == 0 || result.getErrors() != 0){ failures++; System.out.println("FAILED: "+ result.getBreaches()); }
+			if(result.getLatency(1).getPercentile(50) < 20000000L){ failures++; System.out.println("FAILED: slow request latency not recorded."); }
+
+			result = new LoadTest("Concurrency=2;Duration=1s;Rate=50").run(serviceId, block.subList(0, 1));
+			System.out.println("rate 50/s: "+ result.getSummary());
+			if(result.getCount() < 40 || result.getCount() > 51){ failures++; System.out.println("FAILED: rate not honored."); }
+
+			block.add(new Call("GET", "fail", null, null));
+			result = new LoadTest("Concurrency=2;Requests=30;Duration=10s;ErrorRate=5;P99=1ms").run(serviceId, block);
+			System.out.println("breaching: "+ result.getSummary() +" "+ result.getBreaches());
+			if(result.isPassed() || result.getBreaches().size() != 2 || result.getCount() != 30){ failures++; System.out.println("FAILED: thresholds not breached as expected."); }
+			File report = File.createTempFile("LoadTestSelfTest", ".json");
+			result.export(report);
+			if(report.length() == 0){ failures++; System.out.println("FAILED: empty report "+ report); }
+			report.delete();
+			try{
+				new LoadTest("Concurrency=0");
+				failures++; System.out.println("FAILED: invalid concurrency accepted.");
+			}catch(IllegalArgumentException expected){}
+
+			File tmpdir = new File(System.getProperty("java.io.tmpdir"));
+			int bodies = countBodyFiles(tmpdir);
+			Services.getService(serviceId).setResponseBufferLimit(1024);
+			result = new LoadTest("Concurrency=2;Requests=20;Duration=10s").run(serviceId, java.util.Collections.singletonList(new Call("GET", "large", null, null)));
+			System.out.println("large bodies: "+ result.getSummary());
+			if(result.getCount() != 20 || result.getErrors() != 0){ failures++; System.out.println("FAILED: large responses not received."); }
+			if(countBodyFiles(tmpdir) > bodies){ failures++; System.out.println("FAILED: temporary body files were left in "+ tmpdir); }
+		}finally{
+			try{ Services.deleteService(serviceId); }catch(IllegalArgumentException ignore){}
+			server.stop(0);
+			((ExecutorService)server.getExecutor()).shutdownNow();
+		}
+		System.out.println(failures == 0 ? "LoadTest self-test passed." : "LoadTest self-test had "+ failures +" failure(s).");
+	}
+
+	private static int countBodyFiles(File dir){
+		String[] names = dir.list();
+		int count = 0;
+		if(names != null) for(String name: names) if(name.startsWith("safsrest") && name.endsWith(".body")) count++;
+		return count;
+	}
+}
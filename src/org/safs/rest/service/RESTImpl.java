@@ -17,9 +17,16 @@
 **/
 package org.safs.rest.service;
 
+import static org.apache.hc.client5.http.testframework.HttpClientPOJOAdapter.BODY_LENGTH;
+import static org.apache.hc.client5.http.testframework.HttpClientPOJOAdapter.BODY_TEMPORARY;
+import static org.apache.hc.client5.http.testframework.HttpClientPOJOAdapter.CONNECTION_REQUEST_TIMEOUT;
+import static org.apache.hc.client5.http.testframework.HttpClientPOJOAdapter.CONNECT_TIMEOUT;
 import static org.apache.hc.client5.http.testframework.HttpClientPOJOAdapter.PASSWORD;
+import static org.apache.hc.client5.http.testframework.HttpClientPOJOAdapter.RESPONSE_BUFFER_LIMIT;
+import static org.apache.hc.client5.http.testframework.HttpClientPOJOAdapter.RESPONSE_FILE;
 import static org.apache.hc.client5.http.testframework.HttpClientPOJOAdapter.USERID;
 
+import java.io.File;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
@@ -27,15 +34,32 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.hc.client5.http.testframework.HttpClient5Adapter;
 import org.apache.hc.client5.http.testframework.HttpClientPOJOAdapter;
 import org.apache.hc.core5.net.URLEncodedUtils;
 import org.apache.hc.core5.http.NameValuePair;
 import org.apache.hc.core5.http.ProtocolVersion;
 
+/**
+ * History:
+ * <br>	OCT 19, 2026	Pass connect timeouts and the Service response buffer limit to the client adapter.
+ * <br>	OCT 19, 2026	Mark Responses whose body is a temporary File, deleted by Response.release().
+ *                                  Added request() streaming the response body to a File.
+ */
 public class RESTImpl {
 
 	public Response request(String serviceId, String requestMethod, String relativeURI, String headers,
 			Object body) throws Exception {
+		return request(serviceId, requestMethod, relativeURI, headers, body, null);
+	}
+
+	/**
+	 * Same as {@link #request(String, String, String, String, Object)}, with the response body 
+	 * streamed to responseFile instead of held in memory.
+	 * @param responseFile if not null, receives the response body.  The Response entity body is then this File.
+	 */
+	public Response request(String serviceId, String requestMethod, String relativeURI, String headers,
+			Object body, File responseFile) throws Exception {
 
 		Service service = Services.getService(serviceId);
 		ProtocolVersion protVersion = service.getProtocolVersionObject();
@@ -78,8 +102,12 @@ public class RESTImpl {
 
 		headersMap.remove(Headers.CONTENT_TYPE);
 
-		long defaultTimeout = Timeouts.getDefaultTimeouts().getMillisToTimeout();
-		request.put("timeout", defaultTimeout);
+		Timeouts timeouts = Timeouts.getDefaultTimeouts();
+		request.put("timeout", timeouts.getMillisToTimeout());
+		request.put(CONNECT_TIMEOUT, timeouts.getMillisToConnect());
+		request.put(CONNECTION_REQUEST_TIMEOUT, timeouts.getMillisToConnectionRequest());
+		if(responseFile != null) request.put(RESPONSE_FILE, responseFile);
+		if(service.getResponseBufferLimit() > -1) request.put(RESPONSE_BUFFER_LIMIT, service.getResponseBufferLimit());
 
 		HttpClientPOJOAdapter clientAdapter = (HttpClientPOJOAdapter) service.getClientAdapter();
 
@@ -95,6 +123,9 @@ public class RESTImpl {
 		safsResponse.set_headers(respHeaders);
 
 		safsResponse.set_entity_body(response.get("body"));
+		safsResponse.set_entity_temporary(Boolean.TRUE.equals(response.get(BODY_TEMPORARY)));
+		Object length = response.get(BODY_LENGTH);
+		if(length instanceof Number) safsResponse.set_entity_length(((Number)length).longValue());
 		safsResponse.set_content_type((String) response.get("contentType"));
 
 		return safsResponse;
@@ -118,4 +149,96 @@ public class RESTImpl {
 		return ret;
 	}
 
+	/**
+	 * Self-test against a local embedded HTTP server: connection reuse, gzip responses, 
+	 * and large bodies streamed to a File.
+	 */
+	public static void main(String[] args) throws Exception {
+		final java.util.Set<String> connections = java.util.Collections.synchronizedSet(new java.util.HashSet<String>());
+		final String[] acceptEncoding = new String[1];
+		final byte[] big = new byte[1024*1024];
+		java.util.Arrays.fill(big, (byte)'x');
+		// the embedded server otherwise delays each small response for the client's ACK
+		System.setProperty("sun.net.httpserver.nodelay", "true");
+		com.sun.net.httpserver.HttpServer server = com.sun.net.httpserver.HttpServer.create(new java.net.InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", new com.sun.net.httpserver.HttpHandler(){
+			public void handle(com.sun.net.httpserver.HttpExchange exchange) throws java.io.IOException{
+				connections.add(exchange.getRemoteAddress().toString());
+				String path = exchange.getRequestURI().getPath();
+				byte[] body = "hello".getBytes(StandardCharsets.UTF_8);
+				if(path.endsWith("big")) body = big;
+				exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=UTF-8");
+				if(path.endsWith("gzip")){
+					acceptEncoding[0] = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+					java.io.ByteArrayOutputStream zipped = new java.io.ByteArrayOutputStream();
+					java.util.zip.GZIPOutputStream gzip = new java.util.zip.GZIPOutputStream(zipped);
+					gzip.write(big);
+					gzip.close();
+					body = zipped.toByteArray();
+					exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+				}
+				exchange.sendResponseHeaders(200, body.length);
+				exchange.getResponseBody().write(body);
+				exchange.close();
+			}
+		});
+		server.start();
+		int failures = 0;
+		String serviceId = "RESTImplSelfTest";
+		try{
+			Service service = new Service(serviceId, "http://127.0.0.1:"+ server.getAddress().getPort() +"/");
+			Services.addService(service);
+			RESTImpl rest = new RESTImpl();
+			int loops = 200;
+			long[] millis = new long[2];
+			int[] opened = new int[2];
+			long[] keepAlive = { 0, HttpClient5Adapter.DEFAULT_KEEP_ALIVE };
+			for(int k=0;k<keepAlive.length;k++){
+				service.setKeepAliveMillis(keepAlive[k]);
+				connections.clear();
+				long start = System.nanoTime();
+				for(int i=0;i<loops;i++){
+					Response response = rest.request(serviceId, "GET", "small", null, null);
+					if(!"hello".equals(response.get_entity_body())){ failures++; System.out.println("FAILED: unexpected body "+ response.get_entity_body()); break; }
+				}
+				millis[k] = (System.nanoTime() - start)/1000000;
+				opened[k] = connections.size();
+			}
+			System.out.println(loops +" requests without keep-alive: "+ opened[0] +" connections, "+ millis[0] +"ms; with keep-alive: "+ opened[1] +" connections, "+ millis[1] +"ms");
+			if(opened[1] != 1){ failures++; System.out.println("FAILED: kept-alive connection was not reused."); }
+
+			Response response = rest.request(serviceId, "GET", "gzip", null, null);
+			Object body = response.get_entity_body();
+			if(acceptEncoding[0] == null || acceptEncoding[0].indexOf("gzip") < 0 ||
+			   !(body instanceof String) || ((String)body).length() != big.length){
+				failures++; System.out.println("FAILED: gzip response not decompressed, Accept-Encoding: "+ acceptEncoding[0] +", body length: "+ response.get_entity_length());
+			}
+
+			service.setResponseBufferLimit(64*1024);
+			response = rest.request(serviceId, "GET", "big", null, null);
+			body = response.get_entity_body();
+			if(!(body instanceof File) || ((File)body).length() != big.length || response.get_entity_length() != big.length){
+				failures++; System.out.println("FAILED: large body not spilled to a File: "+ (body == null ? null : body.getClass().getName()));
+			}
+			if(!response.is_entity_temporary() || !response.release() || (body instanceof File && ((File)body).exists())){
+				failures++; System.out.println("FAILED: temporary body File not deleted by release().");
+			}
+			response = rest.request(serviceId, "GET", "small", null, null);
+			if(!"hello".equals(response.get_entity_body())){ failures++; System.out.println("FAILED: small body not buffered under the limit."); }
+
+			File responseFile = File.createTempFile("RESTImplSelfTest", ".txt");
+			response = rest.request(serviceId, "GET", "big", null, null, responseFile);
+			if(!responseFile.equals(response.get_entity_body()) || responseFile.length() != big.length){
+				failures++; System.out.println("FAILED: body not streamed to "+ responseFile);
+			}
+			if(response.is_entity_temporary() || response.release() || !responseFile.exists()){
+				failures++; System.out.println("FAILED: release() deleted the requested response File.");
+			}
+			responseFile.delete();
+		}finally{
+			try{ Services.deleteService(serviceId); }catch(IllegalArgumentException ignore){}
+			server.stop(0);
+		}
+		System.out.println(failures == 0 ? "RESTImpl self-test passed." : "RESTImpl self-test had "+ failures +" failure(s).");
+	}
 }
@@ -22,9 +22,11 @@
  * DEC 02, 2016    (Lei Wang) Make this class persistable.
  * NOV 03, 2017    (Lei Wang) Use empty string "" instead of "UNKONWN" as field's default value.
  * FEB 07, 2018    (Lei Wang) Added getHeaders() to return headers as a Map.
+ * OCT 19, 2026    Added release() to delete a temporary File holding the entity body.
  */
 package org.safs.rest.service;
 
+import java.io.File;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -49,6 +51,8 @@ public class Response extends PersistableDefault{
 	String _reason_phrase = DEFAULT_VALUE;
 	int _status_code;
 	String _status_line = DEFAULT_VALUE;
+	/** true if _entity_body is a temporary File owned by this Response. */
+	boolean _entity_temporary = false;
 
 	static{
 		fieldToPersistKeyMap.put("_request", "Request");
@@ -188,6 +192,29 @@ public class Response extends PersistableDefault{
 	public void set_entity_body(Object _entity_body) {
 		this._entity_body = _entity_body;
 	}
+	/**
+	 * @param _entity_temporary true if the entity body is a temporary File owned by this 
+	 * Response, deleted by {@link #release()}.
+	 */
+	public void set_entity_temporary(boolean _entity_temporary) {
+		this._entity_temporary = _entity_temporary;
+	}
+	/**
+	 * @return true if the entity body is a temporary File owned by this Response.
+	 */
+	public boolean is_entity_temporary() {
+		return _entity_temporary;
+	}
+	/**
+	 * Delete the entity body if it is a temporary File owned by this Response.  A File the 
+	 * caller asked the body to be written to is not deleted.
+	 * @return true if a temporary File was deleted.
+	 */
+	public boolean release() {
+		if(!_entity_temporary || !(_entity_body instanceof File)) return false;
+		_entity_temporary = false;
+		return ((File)_entity_body).delete();
+	}
 	/**
 	 * @return the _request
 	 */
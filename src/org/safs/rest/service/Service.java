@@ -19,10 +19,15 @@ package org.safs.rest.service;
 /**
  * History:
  *  OCT 13, 2017 (Lei Wang) Modified getClientAdapter(): Set Auth object to Adapter.
+ *  OCT 19, 2026 Added connection pool, keep-alive, compression, and response buffer settings. Added close().
  */
+import java.io.Closeable;
+import java.io.IOException;
+
 import org.apache.hc.client5.http.testframework.HttpClient5Adapter;
 import org.apache.hc.core5.http.HttpVersion;
 import org.apache.hc.core5.http.ProtocolVersion;
+import org.safs.IndependantLog;
 import org.safs.SAFSRuntimeException;
 import org.safs.auth.Auth;
 import org.safs.auth.OAuth2;
@@ -34,6 +39,9 @@ import org.safs.rest.service.models.consumers.SafsrestAdapter;
  * <p>
  * A test or ongoing interactive session with a specific web service will have a unique service Id
  * and all information associated with that interactive service session will be retained here.
+ * <p>
+ * The default client adapter keeps a pool of kept-alive connections for the Service.  
+ * The pool is released when the Service is deleted from {@link Services}, or by {@link #close()}.
  *
  * @author Carl Nagle
  */
@@ -49,6 +57,11 @@ public class Service{
 	private String clientAdapterClassName;
 	private Object clientAdapter;
 	private Auth auth = null;
+	private int maxConnections = HttpClient5Adapter.DEFAULT_MAX_CONNECTIONS;
+	private int maxConnectionsPerRoute = HttpClient5Adapter.DEFAULT_MAX_CONNECTIONS_PER_ROUTE;
+	private long keepAliveMillis = HttpClient5Adapter.DEFAULT_KEEP_ALIVE;
+	private boolean contentCompression = true;
+	private long responseBufferLimit = -1;
 
 	/**
 	 * Constructor
@@ -218,6 +231,91 @@ public class Service{
 		return auth;
 	}
 
+	/**
+	 * @return the maximum pooled connections for this Service.
+	 */
+	public int getMaxConnections() {
+		return maxConnections;
+	}
+
+	/**
+	 * @return the maximum pooled connections to one host for this Service.
+	 */
+	public int getMaxConnectionsPerRoute() {
+		return maxConnectionsPerRoute;
+	}
+
+	/**
+	 * @param maxConnections the maximum pooled connections for this Service.
+	 * @param maxConnectionsPerRoute the maximum pooled connections to one host for this Service.
+	 */
+	public void setConnectionPool(int maxConnections, int maxConnectionsPerRoute) {
+		this.maxConnections = maxConnections;
+		this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+		if(clientAdapter instanceof HttpClient5Adapter) 
+			((HttpClient5Adapter)clientAdapter).setConnectionPool(maxConnections, maxConnectionsPerRoute);
+	}
+
+	/**
+	 * @return the longest an idle connection is kept for reuse, in milliseconds.
+	 */
+	public long getKeepAliveMillis() {
+		return keepAliveMillis;
+	}
+
+	/**
+	 * @param keepAliveMillis the longest an idle connection is kept for reuse.  0 disables reuse.
+	 */
+	public void setKeepAliveMillis(long keepAliveMillis) {
+		this.keepAliveMillis = keepAliveMillis;
+		if(clientAdapter instanceof HttpClient5Adapter) 
+			((HttpClient5Adapter)clientAdapter).setKeepAliveMillis(keepAliveMillis);
+	}
+
+	/**
+	 * @return true if gzip/deflate responses are requested and decompressed.
+	 */
+	public boolean isContentCompression() {
+		return contentCompression;
+	}
+
+	/**
+	 * @param contentCompression true (default) to request gzip/deflate responses and decompress them.
+	 */
+	public void setContentCompression(boolean contentCompression) {
+		this.contentCompression = contentCompression;
+		if(clientAdapter instanceof HttpClient5Adapter) 
+			((HttpClient5Adapter)clientAdapter).setContentCompression(contentCompression);
+	}
+
+	/**
+	 * @return the largest response body, in bytes, returned as a String.  -1 if not limited.
+	 */
+	public long getResponseBufferLimit() {
+		return responseBufferLimit;
+	}
+
+	/**
+	 * @param responseBufferLimit the largest response body, in bytes, returned as a String.  
+	 * Larger bodies are streamed to a temporary File returned as the Response entity body.  
+	 * -1 (default) does not limit the body held in memory.
+	 */
+	public void setResponseBufferLimit(long responseBufferLimit) {
+		this.responseBufferLimit = responseBufferLimit;
+	}
+
+	/**
+	 * Release the client adapter and any connections it holds.  
+	 * A later request through this Service creates a new client adapter.
+	 */
+	public void close() {
+		if(clientAdapter instanceof Closeable){
+			try{ ((Closeable)clientAdapter).close(); }
+			catch(IOException x){ IndependantLog.debug("Service "+ serviceId +" close: "+ x.getMessage()); }
+		}
+		clientAdapter = null;
+	}
+
 	public void setAuth(Auth auth) {
 		this.auth = auth;
 		if (auth!=null && OAuth2.class.isAssignableFrom(auth.getClass())) {
@@ -251,6 +349,9 @@ public class Service{
 				HttpClient5Adapter adapter = (HttpClient5Adapter) clientAdapter;
 				adapter.setProxyServerURL(getProxyServerURL());
 				adapter.setAuth(auth);
+				adapter.setConnectionPool(maxConnections, maxConnectionsPerRoute);
+				adapter.setKeepAliveMillis(keepAliveMillis);
+				adapter.setContentCompression(contentCompression);
 			} else {
 				Class<?> clazz = Class.forName(clientAdapterClassName);
 				clientAdapter = clazz.newInstance();
@@ -24,6 +24,7 @@ import java.util.Map;
 /**
  * Creates and maintains a set of active Service sessions by serviceId.
  * @author Carl Nagle
+ * <br>	OCT 19, 2026	deleteService closes the Service to release its pooled connections.
  */
 public class Services {
 	
@@ -75,6 +76,7 @@ public class Services {
 	
 	/**
 	 * Delete a Service session matching the provided unique serviceId.
+	 * Connections pooled for the Service are released.
 	 * @param serviceId
 	 * @throws IllegalArgumentException if the provided serviceId is null 
 	 * or if the Collection does NOT contain a Service with the given serviceId.
@@ -82,8 +84,8 @@ public class Services {
 	 */
 	public static void deleteService(String serviceId)throws IllegalArgumentException{
 		if(serviceId == null) throw new IllegalArgumentException("Service name cannot be null for Services.deleteService.");
-		if(services.containsKey(serviceId))
-			services.remove(serviceId);
+		Service service = services.remove(serviceId);
+		if(service != null) service.close();
 		else throw new IllegalArgumentException("Service "+ serviceId+" does NOT exist in Services.");
 	}
 
@@ -96,8 +98,7 @@ public class Services {
 	 */
 	public static void deleteService(Service service) throws IllegalArgumentException{
 		if(service == null) throw new IllegalArgumentException("Service instance cannot be null for Services.deleteService.");
-		if(services.containsKey(service.getServiceId()))
-				services.remove(service.getServiceId());
+		if(services.remove(service.getServiceId()) != null) service.close();
 		else throw new IllegalArgumentException("Service "+ service.getServiceId()+" does NOT exist in Services.");
 	}	
 }
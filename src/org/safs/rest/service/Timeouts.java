@@ -19,15 +19,19 @@ package org.safs.rest.service;
 
 /**
  * Maintains default timeouts used during REST Requests.<br>
- * Currently, there is only 1 type of timeout specified.<br>
- * Future updates may provide for different timeout settings for different parts of the request and response.
+ * The request timeout limits the wait for response data.<br>
+ * The connect timeout limits establishing a new connection, and the connection request timeout limits 
+ * the wait for a free pooled connection.  Both default to the request timeout.
  * @author Carl Nagle
+ * <br>	OCT 19, 2026	Added connect and connection request timeouts.
  */
 public class Timeouts {
 
 	static Timeouts _defaultTimeouts = new Timeouts();
 	
 	long _millisToTimeout = 180000;  // 3 minutes
+	long _millisToConnect = -1;  // same as _millisToTimeout
+	long _millisToConnectionRequest = -1;  // same as _millisToTimeout
 
 	public static Timeouts getDefaultTimeouts(){
 		return _defaultTimeouts;
@@ -51,4 +55,24 @@ public class Timeouts {
 	public long getMillisToTimeout(){
 		return _millisToTimeout;
 	}
+
+	public void setMillisToConnect(long millisToConnect) throws IllegalArgumentException{
+		if(millisToConnect < 0) throw new IllegalArgumentException("Timeouts cannot be set less than 0.");
+		_millisToConnect = millisToConnect;
+	}
+
+	/** @return milliseconds allowed to establish a connection.  Defaults to {@link #getMillisToTimeout()}. */
+	public long getMillisToConnect(){
+		return _millisToConnect < 0 ? _millisToTimeout : _millisToConnect;
+	}
+
+	public void setMillisToConnectionRequest(long millisToConnectionRequest) throws IllegalArgumentException{
+		if(millisToConnectionRequest < 0) throw new IllegalArgumentException("Timeouts cannot be set less than 0.");
+		_millisToConnectionRequest = millisToConnectionRequest;
+	}
+
+	/** @return milliseconds allowed to wait for a pooled connection.  Defaults to {@link #getMillisToTimeout()}. */
+	public long getMillisToConnectionRequest(){
+		return _millisToConnectionRequest < 0 ? _millisToTimeout : _millisToConnectionRequest;
+	}
 }
@@ -56,6 +56,7 @@ import org.safs.TestRecordData;
  * <ul><code>-Dsafs.server.hostname=hostname.company.internal.net</code></ul>
  * </ul>
  * @author Carl Nagle FEB 01, 2005 Original Release
+ * OCT 19, 2026 Added findMatchingObject with a default implementation for Agent-side recognition searches.
  * @see org.safs.jvmagent.Bootstrap
  * @see org.safs.jvmagent.AgentClassLoader
  */
@@ -309,6 +310,33 @@ public interface Agent extends Remote {
 	 **/
 	public boolean isMatchingPath	(Object theObject, String thePath) throws RemoteException, Exception;
 
+	/**
+	 * Locate a window, and optionally a child of that window, with the whole recognition 
+	 * search performed inside the Agent JVM.  Only the matched handles and the requested 
+	 * property values are returned, so a search costs a single RMI call instead of several 
+	 * calls for every object evaluated.
+	 * <p>
+	 * The default implementation performs the search with an AgentGuiObjectVector using this 
+	 * Agent's own getTopLevelWindows, getChildren, and object information methods.
+	 * <p>
+	 * Recognition strings follow the normal SAFS rules.  Index= on the window recognition 
+	 * selects the nth matching top level window in this Agent's JVM.
+	 * 
+	 * @param windowRecognition recognition string of the top level window.
+	 * Ex: "Class=javax.swing.JFrame;Caption={MyApp*}"
+	 * @param childRecognition recognition string of the child relative to the window, 
+	 * or null to seek only the window.
+	 * Ex: "Type=Panel;Index=2;\;Type=PushButton;Caption=OK"
+	 * @param properties names of properties to retrieve from the matched object, or null.
+	 * 
+	 * @return AgentMatch with the handles of the matched window and child and the requested 
+	 * property values of the final match.  null if no match was found.
+	 * @see AgentGuiObjectVector
+	 */
+	public default AgentMatch findMatchingObject(String windowRecognition, String childRecognition, String[] properties) throws RemoteException, Exception{
+		return AgentGuiObjectVector.find(this, windowRecognition, childRecognition, properties);
+	}
+
     /**
      * This is a "do anything" function that the Server and Clients have a private contract 
      * to implement.  It essentially allows a Client/Server implementation to pass anything 
@@ -0,0 +1,280 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package org.safs.rmi.engine;
+
+import java.util.List;
+
+import org.safs.GuiChildIterator;
+import org.safs.GuiClassData;
+import org.safs.GuiObjectRecognition;
+import org.safs.GuiObjectVector;
+import org.safs.Log;
+import org.safs.SAFSObjectRecognitionException;
+import org.safs.jvmagent.SAFSActionUnsupportedRuntimeException;
+
+/**
+ * GuiObjectVector evaluating SAFS recognition strings against the object handles of an Agent.
+ * <p>
+ * Every class name, caption, name, property, and child list is retrieved through the 
+ * fine-grained Agent calls.  Used inside the Agent's own JVM--as the default {@link Agent#findMatchingObject(String, String, String[])} 
+ * does--every one of those calls is local and a whole recognition search costs the Server 
+ * a single RMI call.  Used in the Server JVM on a remote Agent reference, the same search 
+ * costs an RMI round trip per call and serves only as the fallback for Agents that do not 
+ * support the Agent-side search.
+ * <p>
+ * Recognition strings follow the normal SAFS rules.  Index= on the window recognition selects 
+ * the nth matching top level window of the Agent.  Index= on child recognition strings has 
+ * the usual GuiChildIterator semantics.
+ * 
+ * @since OCT 19, 2026
+ * @see Agent#findMatchingObject(String, String, String[])
+ */
+public class AgentGuiObjectVector extends GuiObjectVector {
+
+	protected Agent agent;
+	protected AgentGuiClassData classdata;
+
+	/**
+	 * @param agent providing the object handles and their information.
+	 * @param window name used in debug messages.
+	 * @param child name used in debug messages.
+	 * @param pathString the full window;\;child recognition path.
+	 */
+	public AgentGuiObjectVector(Agent agent, String window, String child, String pathString) {
+		super(window, child, pathString);
+		this.agent = agent;
+		this.classdata = new AgentGuiClassData(agent);
+		initGuiObjectRecognition();
+	}
+
+	/**
+	 * Locate the window and optional child matching the provided recognition strings and 
+	 * retrieve the requested properties of the final match.
+	 * 
+	 * @param agent providing the object handles and their information.
+	 * @param windowRecognition recognition string of the top level window.
+	 * @param childRecognition recognition string of the child relative to the window. 
+	 * null or empty to seek only the window.
+	 * @param properties names of the properties to retrieve from the matched object. May be null.
+	 * @return AgentMatch holding the matched handles and properties, or null if no match was found.
+	 */
+	public static AgentMatch find(Agent agent, String windowRecognition, String childRecognition, String[] properties){
+		if(windowRecognition == null || windowRecognition.length()==0) return null;
+		boolean seekChild = childRecognition != null && childRecognition.length() > 0;
+		String path = windowRecognition;
+		if(seekChild){
+			if(childRecognition.startsWith(FULLPATH_SEARCH_MODE_PREFIX)){
+				path = FULLPATH_SEARCH_MODE_PREFIX + windowRecognition + DEFAULT_CHILD_SEPARATOR + 
+				       childRecognition.substring(FULLPATH_SEARCH_MODE_PREFIX.length());
+			}else{
+				path = windowRecognition + DEFAULT_CHILD_SEPARATOR + childRecognition;
+			}
+		}
+		AgentGuiObjectVector vector = new AgentGuiObjectVector(agent, windowRecognition, 
+				                                               seekChild ? childRecognition : "", path);
+		Object window = vector.getMatchingParentObject();
+		if(window == null) return null;
+		Object child = null;
+		if(seekChild){
+			child = vector.getMatchingChildObject(window, null);
+			if(child == null) return null;
+		}
+		AgentMatch match = new AgentMatch(window, child);
+		if(properties != null){
+			Object object = match.getObject();
+			for(int i=0;i<properties.length;i++){
+				String value = null;
+				try{ value = agent.getProperty(object, properties[i]); }
+				catch(Exception x){ Log.debug("AGOV: property '"+ properties[i] +"' not available: "+ x.getClass().getSimpleName()); }
+				match.setProperty(properties[i], value);
+			}
+		}
+		return match;
+	}
+
+	/**
+	 * Search the top level windows of the Agent.  Unlike the superclass, which ignores the 
+	 * Index of topmost parents and searches by enabled Domains, this honors Index= on the 
+	 * window recognition.
+	 * @return the matching window handle, or null if not found.
+	 */
+	public Object getMatchingParentObject(){
+		AgentGuiObjectRecognition parentInfo = (AgentGuiObjectRecognition) getParentGuiObjectRecognition();
+		if(parentInfo == null) return null;
+		Object[] parents = getParentObjects();
+		int classindex = 0;
+		for(int i=0;i<parents.length;i++){
+			if(! parentInfo.isObjectShowing(parents[i])) continue;
+			if(! parentInfo.isMatchingClass(parents[i])) continue;
+			classindex++;
+			if(parentInfo.isMatchingWindow(parents[i], classindex)) return parents[i];
+		}
+		return null;
+	}
+
+	protected GuiClassData getGuiClassData(){ return classdata; }
+
+	/** @return the Agent's top level window handles, or a 0-length array. */
+	public Object[] getParentObjects(){
+		try{ return agent.getTopLevelWindows(); }
+		catch(SAFSActionUnsupportedRuntimeException x){ throw x; }
+		catch(Exception x){
+			Log.debug("AGOV: getTopLevelWindows "+ x.getClass().getSimpleName()+": "+ x.getMessage());
+			return new Object[0];
+		}
+	}
+
+	/** An Agent represents a single JVM.  All of its windows are returned for any domain. */
+	public Object[] getDomainParentObjects(String domainname){ return getParentObjects(); }
+
+	/** @return the children of the parent handle, or a 0-length array. */
+	public Object[] getChildObjects(Object parent){
+		try{ 
+			Object[] children = agent.getChildren(parent);
+			return children == null ? new Object[0] : children;
+		}
+		catch(Exception x){
+			Log.debug("AGOV: getChildren "+ x.getClass().getSimpleName()+": "+ x.getMessage());
+			return new Object[0];
+		}
+	}
+
+	public boolean isValidGuiObject(Object object){ return object != null; }
+
+	protected boolean isValidGuiContainer(Object object){
+		try{ return agent.getChildCount(object) > 0; }
+		catch(Exception x){ return false; }
+	}
+
+	protected GuiObjectRecognition createGuiObjectRecognition(String subpath, int govLevel){
+		return new AgentGuiObjectRecognition(subpath, govLevel);
+	}
+
+	@SuppressWarnings("rawtypes")
+	protected GuiChildIterator createGuiChildIterator(Object aparent, GuiObjectVector govVector, List gather){
+		return new GuiChildIterator(aparent, govVector, gather);
+	}
+
+	@SuppressWarnings("rawtypes")
+	protected GuiChildIterator createGuiChildIterator(List gather){ return new GuiChildIterator(gather); }
+
+	public void setActiveWindow(Object _comp){
+		try{ agent.setActiveWindow(_comp); }
+		catch(Exception x){ Log.debug("AGOV: setActiveWindow "+ x.getClass().getSimpleName()); }
+	}
+
+	/**
+	 * GuiClassData mapping Agent object handles to class Types using the class names 
+	 * and superclass names provided by the Agent.
+	 */
+	public static class AgentGuiClassData extends GuiClassData {
+		protected Agent agent;
+		public AgentGuiClassData(Agent agent){
+			super();
+			this.agent = agent;
+		}
+		public String getMappedClassType(String classname, Object theObject, boolean recursive, boolean allowGeneric){
+			if(classname == null) return null;
+			String typeclass = classmap().getProperty(classname, null);
+			if(typeclass == null && recursive){
+				try{
+					String[] classes = agent.getSuperClassNames(theObject);
+					for(int i = classes.length-1; i >= 0 && typeclass == null; i--)
+						typeclass = classmap().getProperty(classes[i], null);
+				}catch(Exception x){
+					Log.debug("AGCD: getSuperClassNames "+ x.getClass().getSimpleName());
+				}
+			}
+			if (typeclass == null && allowGeneric) typeclass = DEFAULT_CLASS_TYPE;
+			return typeclass;
+		}
+	}
+
+	/**
+	 * GuiObjectRecognition retrieving object information through the Agent.
+	 * Information the Agent does not provide is treated as absent.
+	 */
+	protected class AgentGuiObjectRecognition extends GuiObjectRecognition {
+
+		public AgentGuiObjectRecognition(String objectInfo, int govLevel){ super(objectInfo, govLevel); }
+
+		/** @return true if the window satisfies the qualifiers as the classindex match of its class. */
+		boolean isMatchingWindow(Object window, int classindex){
+			try{ return isMatchingQualifiers(window, classindex, classindex); }
+			catch(SAFSObjectRecognitionException x){
+				Log.debug("AGOR: "+ x.getMessage());
+				return false;
+			}
+		}
+
+		public String getObjectName(Object theObject){
+			try{ return agent.getName(theObject); }catch(Exception x){ return null; }
+		}
+		public String getObjectClassName(Object theObject){
+			try{ return agent.getClassName(theObject); }catch(Exception x){ return null; }
+		}
+		public String getObjectCaption(Object theObject){
+			try{ return agent.getCaption(theObject); }catch(Exception x){ return null; }
+		}
+		public String getObjectDomain(Object theObject){ return "Java"; }
+		public int getObjectLevel(Object theObject){
+			try{ return agent.getLevel(theObject); }catch(Exception x){ return 0; }
+		}
+		public String getObjectText(Object theObject){
+			try{ return agent.getText(theObject); }catch(Exception x){ return null; }
+		}
+		public String getObjectID(Object theObject){
+			try{ return agent.getID(theObject); }catch(Exception x){ return null; }
+		}
+		public String[] getObjectPropertyNames(Object theObject){
+			try{ return agent.getPropertyNames(theObject); }catch(Exception x){ return new String[0]; }
+		}
+		public String getObjectProperty(Object theObject, String theProperty){
+			try{ return agent.getProperty(theObject, theProperty); }catch(Exception x){ return null; }
+		}
+		public String[] getObjectSuperClassNames(Object theObject){
+			try{ 
+				String[] classes = agent.getSuperClassNames(theObject);
+				return classes == null ? new String[0] : classes;
+			}catch(Exception x){ return new String[0]; }
+		}
+		public Object getMatchingPathObject(Object theObject, String thePath){
+			try{ return agent.getMatchingPathObject(theObject, thePath); }catch(Exception x){ return null; }
+		}
+		public boolean isMatchingPath(Object theObject, String thePath){
+			try{ return agent.isMatchingPath(theObject, thePath); }catch(Exception x){ return false; }
+		}
+		/** Agents that cannot report visibility have all objects treated as showing. */
+		public boolean isObjectShowing(Object theObject){
+			try{ return agent.isShowing(theObject); }
+			catch(SAFSActionUnsupportedRuntimeException x){ return true; }
+			catch(Exception x){ return false; }
+		}
+		/** @return true if theClass is the class or a superclass of the object. */
+		public boolean isMatchingType(Object theObject, String theClass){
+			if(theClass == null) return false;
+			String[] classes = getObjectSuperClassNames(theObject);
+			for(int i=0;i<classes.length;i++) if(theClass.equals(classes[i])) return true;
+			return theClass.equals(getObjectClassName(theObject));
+		}
+		public boolean isMatchingSubClass(Object theObject, String theClass, String parentClass){
+			if(getClassCategoryID() == CATEGORY_CLASS_ID) return isMatchingType(theObject, theClass);
+			return classdata.isMatched(theClass, parentClass, theObject);
+		}
+	}
+}
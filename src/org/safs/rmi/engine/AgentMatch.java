@@ -0,0 +1,79 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package org.safs.rmi.engine;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The result of an Agent-side recognition search: the matched window and child handles 
+ * plus any property values the caller requested for the matched object.
+ * <p>
+ * Handles are the same Agent-specific Objects returned by getTopLevelWindows and getChildren. 
+ * A Server may replace them with AgentWindow objects to tag them with the owning Agent.
+ * 
+ * @since OCT 19, 2026
+ * @see Agent#findMatchingObject(String, String, String[])
+ */
+public class AgentMatch implements Serializable {
+
+	private static final long serialVersionUID = 5163342873625429751L;
+
+	private Object window;
+	private Object child;
+	private HashMap<String,String> properties = new HashMap<String,String>();
+
+	/**
+	 * Constructor for AgentMatch.
+	 */
+	public AgentMatch() {
+		super();
+	}
+
+	/**
+	 * @param theWindow handle of the matched window. Must be Serializable.
+	 * @param theChild handle of the matched child, or null if only a window was sought. 
+	 * Must be Serializable.
+	 */
+	public AgentMatch(Object theWindow, Object theChild){
+		window = theWindow;
+		child  = theChild;
+	}
+
+	/** @return the handle of the matched window. */
+	public Object getWindow(){ return window; }
+	public void setWindow(Object theWindow){ window = theWindow; }
+
+	/** @return the handle of the matched child, or null if only a window was sought. */
+	public Object getChild(){ return child; }
+	public void setChild(Object theChild){ child = theChild; }
+
+	/** @return the matched child if there is one, otherwise the matched window. */
+	public Object getObject(){ return child != null ? child : window; }
+
+	/**
+	 * @return the requested property values of {@link #getObject()} keyed by property name. 
+	 * Properties the object did not provide map to null.
+	 */
+	public Map<String,String> getProperties(){ return properties; }
+
+	/** @return the requested property value, or null if not provided. */
+	public String getProperty(String name){ return properties.get(name); }
+	public void setProperty(String name, String value){ properties.put(name, value); }
+}
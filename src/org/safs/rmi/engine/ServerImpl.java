@@ -85,6 +85,7 @@ import java.io.Serializable;
  * Feb 20, 2006 (Szucs) correcting the getMatchingPathObject( ) method to return
  *                      the correct AgentWindow object
  * @author Carl Nagle  FEB 23, 2015  Updates supporting remote RMI Servers.
+ * OCT 19, 2026  Added findMatchingObject using Agent-side recognition searches.
  */
 public class ServerImpl extends RemoteRoot implements Server, LocalServer, LocalSubItemsAgent {
 
@@ -232,6 +233,48 @@ public class ServerImpl extends RemoteRoot implements Server, LocalServer, Local
     	return roots.toArray(rc);
     }
 
+	/**
+	 * Locate a window, and optionally a child of that window, among all known Agents.
+	 * Each Agent performs the search in its own JVM with a single RMI call.  Agents that 
+	 * do not support the Agent-side search are searched from this JVM with the fine-grained 
+	 * Agent calls.
+	 * 
+	 * @param windowRecognition recognition string of the top level window.
+	 * @param childRecognition recognition string of the child, or null to seek only the window.
+	 * @param properties names of properties to retrieve from the matched object, or null.
+	 * @return AgentMatch holding AgentWindow handles tagged with the owning Agent, 
+	 * or null if no Agent has a match.
+	 * @see org.safs.rmi.engine.Agent#findMatchingObject(String, String, String[])
+	 */
+	public AgentMatch findMatchingObject(String windowRecognition, String childRecognition, String[] properties){
+		Enumeration<?> enumerator = agents.keys();
+		while(enumerator.hasMoreElements()){
+			ObjID agentkey = (ObjID) enumerator.nextElement();
+			Agent aagent = (Agent) agents.get(agentkey);
+			if(aagent == null) continue;
+			AgentMatch match = null;
+			try{
+				try{ match = aagent.findMatchingObject(windowRecognition, childRecognition, properties); }
+				// Agents predating findMatchingObject
+				catch(SAFSActionUnsupportedRuntimeException x){
+					match = AgentGuiObjectVector.find(aagent, windowRecognition, childRecognition, properties);
+				}
+				catch(UnmarshalException x){
+					match = AgentGuiObjectVector.find(aagent, windowRecognition, childRecognition, properties);
+				}
+			}
+			// should we surface issues from individual JVMS?  How?
+			catch(Exception x){
+				Log.debug(remoteType +".findMatchingObject ignoring Agent ID="+ agentkey +" "+ x.getClass().getSimpleName()+": "+ x.getMessage());
+			}
+			if(match == null) continue;
+			match.setWindow(new AgentWindow(agentkey, match.getWindow()));
+			if(match.getChild() != null) match.setChild(new AgentWindow(agentkey, match.getChild()));
+			return match;
+		}
+		return null;
+	}
+
 	/**
 	 * Return the number of children available in the remote parent (AgentWindow).
 	 * @throws SAFSObjectNotFoundRuntimeException("Invalid parent") if the provided parent cannot be located.
@@ -22,6 +22,8 @@ import org.safs.STAFHelper;
 import org.safs.StringUtils;
 import org.safs.staf.service.InfoInterface;
 import org.safs.staf.service.queue.Fifo;
+import org.safs.staf.service.queue.FifoInterface;
+import org.safs.staf.service.queue.RingFifo;
 
 import com.ibm.staf.STAFException;
 import com.ibm.staf.STAFHandle;
@@ -34,9 +36,11 @@ import com.ibm.staf.STAFResult;
  */
 public class EmbeddedHandle implements HandleInterface{
 	public static final String DEFAULT_QUEUE_NAME   = "DEFAULT_QUEUE";
+	/** "safs.embedded.ringfifo" System property: "true" gives new handles a {@link RingFifo} queue instead of a {@link Fifo}. */
+	public static final String PROPERTY_RING_FIFO   = "safs.embedded.ringfifo";
 	
 	protected String handleId;
-	protected Fifo<String> queue = new Fifo<String>();
+	protected FifoInterface<String> queue = createQueue();
 	protected boolean isRegistered = false;
 	protected STAFHandle stafHandle;
 	
@@ -115,6 +119,23 @@ public class EmbeddedHandle implements HandleInterface{
 		}
 	}
 
+	/**
+	 * Send a typed request to a registered (non-STAF) service Handle.
+	 * The request bypasses STAF command string formatting and parsing if the service supports it.
+	 * @return STAFResult service response.
+	 * @throws STAFException if the service is not registered.
+	 * @see EmbeddedServiceHandle#acceptEmbeddedRequest(EmbeddedRequest, int, String)
+	 */
+	public STAFResult submitEmbedded(String handler, EmbeddedRequest request) throws STAFException{
+		register();
+		try{
+			EmbeddedServiceHandle service = EmbeddedHandles.getService(handler);
+			return service.acceptEmbeddedRequest(request, getHandle(), handleId);
+		}catch(IllegalArgumentException x){
+			throw new STAFException(STAFResult.ServiceNotAvailable, x.getMessage());
+		}
+	}
+
 	/**
 	 * Receive a queue message into our (non-STAF) FIFO queue.
 	 * @see org.safs.staf.embedded.HandleInterface#acceptQueueMessage(java.lang.String)
@@ -221,6 +242,11 @@ public class EmbeddedHandle implements HandleInterface{
 		return (stafHandle instanceof STAFHandle) ? stafHandle.getHandle(): -1; 
 	}
 	
+	/** @return a {@link RingFifo} if the System property {@link #PROPERTY_RING_FIFO} is "true", otherwise a {@link Fifo}. */
+	protected static FifoInterface<String> createQueue(){
+		return Boolean.getBoolean(PROPERTY_RING_FIFO) ? new RingFifo<String>() : new Fifo<String>();
+	}
+	
 	public void clearQueue(){
 		queue.clear();
 	}
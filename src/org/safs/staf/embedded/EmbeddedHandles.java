@@ -19,7 +19,7 @@ package org.safs.staf.embedded;
 
 import java.util.Hashtable;
 import java.util.Iterator;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.safs.IndependantLog;
 import org.safs.SAFSException;
@@ -36,6 +36,9 @@ public class EmbeddedHandles {
 	/** map a service name to a handle name */
 	private static Hashtable<String,String> services = new Hashtable<String, String>();
 
+	/** map a service name directly to its service handle for constant-time service lookups */
+	private static ConcurrentHashMap<String,EmbeddedServiceHandle> serviceHandles = new ConcurrentHashMap<String, EmbeddedServiceHandle>();
+
 	private EmbeddedHandles() { }
 	
 	/** normalize the provided id to be case-insensitive */
@@ -64,7 +67,7 @@ public class EmbeddedHandles {
 	public static void registerService(String handleId, String serviceId, EmbeddedServiceHandle ihandle)throws IllegalArgumentException, SAFSException{
 		if(serviceId == null) throw new IllegalArgumentException("Service ID cannot be null.");
 		if(services.containsKey(normId(handleId))) throw new SAFSException("Service with this Handle is already registered: "+ handleId);
-		if(services.contains(normId(serviceId))) throw new SAFSException("Service with this Id is already registered: "+ serviceId);
+		if(serviceHandles.containsKey(normId(serviceId))) throw new SAFSException("Service with this Id is already registered: "+ serviceId);
 		try{ 
 			registerHandle(handleId, ihandle);
 		}
@@ -73,6 +76,9 @@ public class EmbeddedHandles {
 			ignore.printStackTrace();
 		}
 		services.put(normId(handleId), normId(serviceId));
+		EmbeddedHandle registered = handles.get(normId(handleId));
+		if(registered instanceof EmbeddedServiceHandle)
+			serviceHandles.put(normId(serviceId), (EmbeddedServiceHandle) registered);
 	}
 	
 	/**
@@ -83,7 +89,8 @@ public class EmbeddedHandles {
 	public static void unRegister(String handleId){
 		if(handleId == null) return;
 		handles.remove(normId(handleId));
-		services.remove(normId(handleId));
+		String serviceId = services.remove(normId(handleId));
+		if(serviceId != null) serviceHandles.remove(serviceId);
 	}
 	
 	/**
@@ -104,19 +111,10 @@ public class EmbeddedHandles {
 	 */
 	public static EmbeddedServiceHandle getService(String serviceId)throws IllegalArgumentException{
 		if(serviceId == null)throw new IllegalArgumentException("Provided service Id cannot be null.");
-		if(! services.contains(normId(serviceId)))
+		EmbeddedServiceHandle service = serviceHandles.get(normId(serviceId));
+		if(service == null)
 			throw new IllegalArgumentException("Provided service Id is NOT a registered Service: "+ serviceId);
-		Set<String> set = services.keySet();
-		String service = null;
-		try{
-			for(String handle: set){           // already normalized
-				service = services.get(handle);// already normalized
-				if(service.equalsIgnoreCase(serviceId)){
-					return (EmbeddedServiceHandle) getHandle(handle); 
-				}
-			}
-		}catch(ClassCastException cc){}
-		throw new IllegalArgumentException("Provided service Id is NOT a registered Service: "+ serviceId);
+		return service;
 	}
 	
 	/**
@@ -133,7 +131,7 @@ public class EmbeddedHandles {
 	 * @return true if the service is registered.  false if not.
 	 */
 	public static boolean isServiceRunning(String serviceId){
-		try{ return services.contains(normId(serviceId));}catch(NullPointerException x){}
+		try{ return serviceHandles.containsKey(normId(serviceId));}catch(NullPointerException x){}
 		return false;
 	}
 	
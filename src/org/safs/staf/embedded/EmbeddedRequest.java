@@ -0,0 +1,160 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package org.safs.staf.embedded;
+
+import org.safs.STAFHelper;
+
+/**
+ * Typed requests sent to Embedded services running in the same JVM as the client.
+ * <p>
+ * When a service is running Embedded there is no process boundary between the client and the service.
+ * Rather than formatting a STAF command string only to have the service parse it again with a
+ * STAFCommandParser, clients can submit one of these request objects via
+ * {@link EmbeddedHandle#submitEmbedded(String, EmbeddedRequest)} or
+ * {@link STAFHelper#submitEmbedded(String, EmbeddedRequest)}.
+ * <p>
+ * Services supporting typed requests implement {@link EmbeddedRequestHandler}.
+ * For all other services, and for services running as true STAF services, the request is converted
+ * to its equivalent STAF command string via {@link #toRequestString()} and submitted normally.
+ * <p>
+ * The STAFResult returned for a typed request is the same as the STAFResult returned for the
+ * equivalent STAF command string.
+ * @see EmbeddedRequestHandler
+ * @see EmbeddedServiceHandle#acceptEmbeddedRequest(EmbeddedRequest, int, String)
+ */
+public abstract class EmbeddedRequest {
+
+	protected EmbeddedRequest(){}
+
+	/**
+	 * @return the STAF command string equivalent to this request.
+	 * Used when the target service does not support typed requests.
+	 */
+	public abstract String toRequestString();
+
+	@Override
+	public String toString(){
+		return getClass().getSimpleName()+": "+ toRequestString();
+	}
+
+	/** SAFSVARS "GET &lt;name>" */
+	public static class GetVariable extends EmbeddedRequest {
+		public final String name;
+
+		/** @param name of the variable to get. */
+		public GetVariable(String name){
+			this.name = name;
+		}
+		@Override
+		public String toRequestString(){
+			return "GET "+ STAFHelper.lentagValue(name);
+		}
+	}
+
+	/** SAFSVARS "SET &lt;name> VALUE &lt;value>" */
+	public static class SetVariable extends EmbeddedRequest {
+		public final String name;
+		public final String value;
+
+		/**
+		 * @param name of the variable to set.
+		 * @param value to assign the variable. null is treated as an empty value.
+		 */
+		public SetVariable(String name, String value){
+			this.name = name;
+			this.value = value == null ? "" : value;
+		}
+		@Override
+		public String toRequestString(){
+			String command = "SET "+ STAFHelper.lentagValue(name) +" VALUE ";
+			if(value.length() > 0) command += STAFHelper.lentagValue(value);
+			return command;
+		}
+	}
+
+	/**
+	 * SAFSVARS "RESOLVE &lt;record> [SEPARATOR &lt;sep>] [NOEXPRESSIONS]"
+	 * <p>
+	 * Unlike the STAF command string, the record does NOT need to have its DDVariable CARETs (^)
+	 * replaced with "_DDV_" since it is never sent through STAF.
+	 */
+	public static class Resolve extends EmbeddedRequest {
+		public final String record;
+		public final String separator;
+		public final boolean expressions;
+
+		/**
+		 * @param record to resolve for variables and expressions.
+		 * @param separator optional field separator. null or empty if the record is to be resolved as a single field.
+		 * @param expressions true to evaluate expressions, false to only process variables.
+		 */
+		public Resolve(String record, String separator, boolean expressions){
+			this.record = record;
+			this.separator = separator;
+			this.expressions = expressions;
+		}
+		@Override
+		public String toRequestString(){
+			String command = "RESOLVE "+ STAFHelper.lentagValue(record.replace("^", "_DDV_"));
+			if(separator != null && separator.length() > 0) command += " SEPARATOR "+ STAFHelper.lentagValue(separator);
+			if(!expressions) command += " NOEXPRESSIONS";
+			return command;
+		}
+	}
+
+	/** SAFSINPUT "NEXT &lt;fileID>" */
+	public static class NextRecord extends EmbeddedRequest {
+		public final String fileId;
+
+		/** @param fileId of the open input source. */
+		public NextRecord(String fileId){
+			this.fileId = fileId == null ? "" : fileId;
+		}
+		@Override
+		public String toRequestString(){
+			return "NEXT "+ STAFHelper.lentagValue(fileId);
+		}
+	}
+
+	/** SAFSLOGS "LOGMESSAGE &lt;facname> MESSAGE &lt;msg> [DESCRIPTION &lt;desc>] [MSGTYPE &lt;msgType>]" */
+	public static class LogMessage extends EmbeddedRequest {
+		public final String facname;
+		public final String message;
+		public final String description;
+		public final int msgType;
+
+		/**
+		 * @param facname of the running log facility.
+		 * @param message to log.
+		 * @param description optional detail description. Can be null.
+		 * @param msgType one of the AbstractLogFacility message types.
+		 */
+		public LogMessage(String facname, String message, String description, int msgType){
+			this.facname = facname;
+			this.message = message;
+			this.description = description;
+			this.msgType = msgType;
+		}
+		@Override
+		public String toRequestString(){
+			String command = "LOGMESSAGE "+ facname +" MESSAGE "+ STAFHelper.lentagValue(message);
+			if(description != null) command += " DESCRIPTION "+ STAFHelper.lentagValue(description);
+			return command +" MSGTYPE "+ msgType;
+		}
+	}
+}
@@ -0,0 +1,36 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package org.safs.staf.embedded;
+
+import com.ibm.staf.STAFResult;
+
+/**
+ * Implemented by Embedded services able to process {@link EmbeddedRequest}s directly,
+ * without the formatting and parsing of STAF command strings.
+ * @see EmbeddedServiceHandle#acceptEmbeddedRequest(EmbeddedRequest, int, String)
+ */
+public interface EmbeddedRequestHandler {
+
+	/**
+	 * @param request the typed request to process.
+	 * @return the same STAFResult the equivalent STAF command string would have produced,
+	 * or null if the request type is not supported by this service.  When null is returned the
+	 * request will be submitted to the service as its equivalent STAF command string.
+	 */
+	public STAFResult acceptEmbeddedRequest(EmbeddedRequest request);
+}
@@ -79,6 +79,27 @@ public class EmbeddedServiceHandle extends EmbeddedHandle implements ServiceInte
 		return service.acceptRequest(info);
 	}
 
+	/**
+	 * Accept a typed request sent via another handler's submitEmbedded calls to the service using this Handle.
+	 * If the underlying service is an {@link EmbeddedRequestHandler} the request is routed to it directly.
+	 * Otherwise, the request is converted to its STAF command string and routed as a normal request.
+	 * @param request the typed request to process.
+	 * @param clientHandle handle number of the client submitting the request.
+	 * @param clientName handle name of the client submitting the request.
+	 * @return the response from the service handling the request.
+	 */
+	public STAFResult acceptEmbeddedRequest(EmbeddedRequest request, int clientHandle, String clientName) {
+		try{ register();}
+		catch(STAFException x){
+			return new STAFResult(STAFResult.STAFRegistrationError, "Registration Error");
+		}
+		if(service instanceof EmbeddedRequestHandler){
+			STAFResult rc = ((EmbeddedRequestHandler)service).acceptEmbeddedRequest(request);
+			if(rc != null) return rc;
+		}
+		return service.acceptRequest(new InfoInterface.RequestInfo(STAFHelper.LOCAL_MACHINE, clientHandle, clientName, request.toRequestString()));
+	}
+
 	/** 
 	 * Calls terminateService on the embedded service.
 	 * This does NOT unregister the service.
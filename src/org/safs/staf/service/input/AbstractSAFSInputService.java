@@ -250,6 +250,7 @@ import com.ibm.staf.service.STAFCommandParser;
  *
  * @author Carl Nagle JUL 16, 2004 Inital Release of most functionality
  * @author Carl Nagle JAN 25, 2005 Fix to accept case-sensitive filenames
+ * OCT 19, 2026 Read and search precompiled test tables when enabled.
  ************************************************************************************/
 
 public abstract class AbstractSAFSInputService {
@@ -640,9 +641,19 @@ public abstract class AbstractSAFSInputService {
 	}
 
 	protected STAFResult handleNext(InfoInterface.RequestInfo info,STAFCommandParseResult parsedData) {
+		return handleNext(parsedData.optionValue(SI_SERVICE_REQUEST_NEXTLINE));
+	}
+
+	/**
+	 * Handle the NEXT request whether received as a STAF command string or as an
+	 * {@link org.safs.staf.embedded.EmbeddedRequest.NextRecord}.
+	 * @param fileid of the open input source.
+	 * @return STAFResult with the next record, or the EOF state.
+	 */
+	protected STAFResult handleNext(String fileid) {
 		STAFResult result = new STAFResult(STAFResult.Ok);
 
-		String fileid = parsedData.optionValue(SI_SERVICE_REQUEST_NEXTLINE).toLowerCase();
+		fileid = fileid.toLowerCase();
 		SAFSTextFile textfile = getParsedDataTextFile(result, fileid);
 		if (result.rc != STAFResult.Ok)
 			return result;
@@ -948,13 +959,17 @@ public abstract class AbstractSAFSInputService {
 	protected SAFSTextFile openFile (String machine, String process, int handle,
 	                             String fileid , File file, STAFCommandParseResult parsedData){
 
-		return new SAFSTextFile ( machine, process, handle, fileid, file,
+		SAFSTextFile textfile = new SAFSTextFile ( machine, process, handle, fileid, file,
 		                          false,		// skipblanklines
 		                          false, 		// nolinenumbers
 	                 			  false,		// trimleading
 	                 			  false, 		// trimtrailing
 	                 			  false, 		// trimwhitespace
 	                 			  null);		// Vector commentids
+		// falls back to reading the text file if the table cannot be compiled
+		if(CompiledTestTable.isEnabled() && !textfile.isClosed())
+			textfile.useCompiledTable(CompiledTestTable.get(file));
+		return textfile;
 	}
 
 	protected String processExpression(String expression){
@@ -1037,8 +1052,22 @@ public abstract class AbstractSAFSInputService {
 		// inputBlockID may be an expression, so resolve it
 		inputBlockID = processExpression(inputBlockID) ;
 
+		// a compiled table only needs to test the lines that might match, in the same search order
+		CompiledTestTable table = file.getCompiledTable();
+		boolean searched = (table != null)&&(table.getSeparator().equals(fieldsep));
+		if(searched){
+			int[] lines = table.getBlockCandidates(inputBlockID);
+			int first = 0;
+			while((first < lines.length)&&(lines[first] < entryline)) first++;
+			for(int i=0;(i < lines.length)&&(!blockFound);i++){
+				currpos = lines[(first + i) % lines.length];
+				inputRecord = table.getLine((int)currpos);
+				blockFound = isTargetBlock(inputBlockID, inputRecord, fieldsep);
+			}
+		}
+
 		// look from here to EOF
-        while(! file.isEOF()){
+        while((! searched)&&(! file.isEOF())){
 
             // Get next record and trim any leading spaces
             currpos = file.getLineNumber();
@@ -1051,7 +1080,7 @@ public abstract class AbstractSAFSInputService {
         }
 
 		// if not found, try again from the beginning of the file
-        if (! blockFound) {
+        if ((! searched)&&(! blockFound)) {
 
 			file.begin();
 
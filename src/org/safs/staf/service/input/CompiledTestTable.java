@@ -0,0 +1,547 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package org.safs.staf.service.input;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.safs.Log;
+import org.safs.SAFSNullPointerException;
+import org.safs.StringUtils;
+import org.safs.text.FileLineReader;
+import org.safs.tools.drivers.DriverConstant;
+
+/**
+ * A test table (.CDD, .STD, .SDD) precompiled into a binary artifact that is memory-mapped 
+ * by the input service instead of decoding and tokenizing the text table each time it is opened 
+ * or searched.
+ * <p>
+ * The artifact holds the decoded lines exactly as {@link FileLineReader#readLine()} would return 
+ * them--UTF-8 BOM removed--as offsets into a single character block, the record type of each 
+ * line, and a BlockID index.  The header records the size, modification time, and SHA-256 hash of 
+ * the source table.  An artifact is only used when the hash still matches the source; otherwise 
+ * it is recompiled, and if that fails the input service falls back to reading the text table.
+ * <p>
+ * Artifacts are written beside the source table as &lt;table&gt;{@value #EXTENSION}, or into the 
+ * directory named by System property {@value #PROPERTY_CACHE_DIR}.  The input service only uses 
+ * compiled tables when System property {@value #PROPERTY_ENABLED} is "true".
+ * <p>
+ * The BlockID index is built for the {@value #SEPARATOR_NAME} field separator.  Block records whose 
+ * BlockID is a plain word are indexed by that word.  Records whose record type or BlockID is 
+ * anything else--a variable reference, expression, or number--are kept in a separate list because 
+ * they can only be matched by evaluating them at search time, as before.
+ * <p>
+ * Tables can be precompiled with:
+ * <p>
+ * &nbsp; &nbsp; java org.safs.staf.service.input.CompiledTestTable &lt;table&gt; [table ...]
+ * <p>
+ * Run with no arguments to perform a self-test comparing compiled and text reads.
+ * 
+ * OCT 19, 2026 Original Release
+ * @see SAFSTextFile#useCompiledTable(CompiledTestTable)
+ */
+public class CompiledTestTable {
+
+	/** "safs.input.compiled" System property set to "true" to have the input service use compiled tables. */
+	public static final String PROPERTY_ENABLED = "safs.input.compiled";
+	/** "safs.input.compiled.dir" optional System property naming a directory to hold compiled tables. */
+	public static final String PROPERTY_CACHE_DIR = "safs.input.compiled.dir";
+	/** ".safsbin" appended to the source table name to name its compiled artifact. */
+	public static final String EXTENSION = ".safsbin";
+	/** The field separator used to build the BlockID index: TAB. */
+	public static final String SEPARATOR = "\t";
+	static final String SEPARATOR_NAME = "TAB";
+
+	/** Record type of a line that is not a Block record. */
+	public static final byte RECORD_OTHER   = 0;
+	/** Record type of a Block record ("B") with a plain BlockID. */
+	public static final byte RECORD_BLOCK   = 1;
+	/** Record type of a line whose record type, or Block record BlockID, must be evaluated. */
+	public static final byte RECORD_DYNAMIC = 2;
+
+	static final int MAGIC = 0x53414654; // "SAFT"
+	static final int VERSION = 1;
+	static final int HASH_LENGTH = 32;
+	static final int HEADER_SIZE = 4+4+8+8+HASH_LENGTH+4+4+4+4+4+4+4; //84
+
+	/** Tables already mapped by this JVM, by source table absolute path. */
+	private static final Map<String,CompiledTestTable> tables = new ConcurrentHashMap<String,CompiledTestTable>();
+
+	private final File artifact;
+	private final long size;
+	private final long modified;
+	private final byte[] hash;
+	private final String separator;
+	private final int lineCount;
+	private final IntBuffer offsets;
+	private final ByteBuffer types;
+	private final CharBuffer text;
+	private final Map<String,int[]> blocks;
+	private final int[] dynamic;
+
+	/** Source modification time last verified against the hash. */
+	private volatile long verified;
+
+	private CompiledTestTable(File artifact, ByteBuffer buffer) throws IOException{
+		this.artifact = artifact;
+		if(buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION)
+			throw new IOException("Not a compiled test table: "+ artifact.getPath());
+		size = buffer.getLong(8);
+		modified = buffer.getLong(16);
+		verified = modified;
+		hash = new byte[HASH_LENGTH];
+		ByteBuffer header = buffer.duplicate();
+		header.position(24);
+		header.get(hash);
+		separator = String.valueOf(buffer.getChar(24+HASH_LENGTH));
+		lineCount = buffer.getInt(28+HASH_LENGTH);
+		int offsetsPos = buffer.getInt(32+HASH_LENGTH);
+		int typesPos = buffer.getInt(36+HASH_LENGTH);
+		int indexPos = buffer.getInt(40+HASH_LENGTH);
+		int textPos = buffer.getInt(44+HASH_LENGTH);
+		int textLength = buffer.getInt(48+HASH_LENGTH);
+
+		offsets = section(buffer, offsetsPos, (lineCount+1)*4).asIntBuffer();
+		types = section(buffer, typesPos, lineCount);
+		text = section(buffer, textPos, textLength*2).asCharBuffer();
+
+		ByteBuffer index = section(buffer, indexPos, textPos - indexPos);
+		dynamic = readLines(index);
+		int count = index.getInt();
+		blocks = new HashMap<String,int[]>(count * 2);
+		for(int i=0;i<count;i++){
+			char[] key = new char[index.getInt()];
+			index.asCharBuffer().get(key);
+			index.position(index.position() + key.length*2);
+			blocks.put(new String(key), readLines(index));
+		}
+	}
+
+	private static ByteBuffer section(ByteBuffer buffer, int position, int length) throws IOException{
+		if(position < HEADER_SIZE || length < 0 || position + length > buffer.capacity())
+			throw new IOException("Invalid compiled test table section.");
+		ByteBuffer section = buffer.duplicate();
+		section.position(position);
+		section.limit(position + length);
+		return section.slice();
+	}
+
+	private static int[] readLines(ByteBuffer index){
+		int[] lines = new int[index.getInt()];
+		index.asIntBuffer().get(lines);
+		index.position(index.position() + lines.length*4);
+		return lines;
+	}
+
+	/** @return true if System property {@value #PROPERTY_ENABLED} is "true". */
+	public static boolean isEnabled(){
+		return Boolean.parseBoolean(System.getProperty(PROPERTY_ENABLED));
+	}
+
+	/**
+	 * @param source the test table.
+	 * @return the compiled artifact File for the source table, which may not exist yet.
+	 * @see #PROPERTY_CACHE_DIR
+	 */
+	public static File getArtifactFile(File source){
+		String dir = System.getProperty(PROPERTY_CACHE_DIR);
+		if(dir == null || dir.trim().length()==0) return new File(source.getPath() + EXTENSION);
+		// different tables of the same name share the cache directory
+		String path = source.getAbsolutePath();
+		return new File(dir.trim(), source.getName() +"."+ Integer.toHexString(path.hashCode()) + EXTENSION);
+	}
+
+	/**
+	 * Get the compiled form of a test table, compiling it if there is no artifact yet or 
+	 * the artifact no longer matches the source table.
+	 * @param source the test table.
+	 * @return the compiled table, or null if it could not be compiled or loaded.  The caller 
+	 * should then read the text table.
+	 */
+	public static CompiledTestTable get(File source){
+		if(source == null || !source.isFile()) return null;
+		String key = source.getAbsolutePath();
+		long length = source.length();
+		long lastModified = source.lastModified();
+		CompiledTestTable table = tables.get(key);
+		if(table != null && table.size == length && table.verified == lastModified) return table;
+		try{
+			byte[] digest = hash(source);
+			if(table == null || table.size != length || !Arrays.equals(table.hash, digest)){
+				table = null;
+				File artifact = getArtifactFile(source);
+				if(artifact.isFile()){
+					try{
+						table = load(artifact);
+						if(table.size != length || !Arrays.equals(table.hash, digest)) table = null;
+					}catch(IOException x){
+						Log.debug("CompiledTestTable ignoring invalid "+ artifact.getPath() +": "+ x.getMessage());
+					}
+				}
+				if(table == null) table = load(compile(source, artifact, digest, lastModified));
+			}
+			table.verified = lastModified;
+			tables.put(key, table);
+			return table;
+		}catch(Exception x){
+			Log.debug("CompiledTestTable cannot compile "+ source.getPath() +", "+ x.getClass().getSimpleName()+": "+ x.getMessage());
+			tables.remove(key);
+			return null;
+		}
+	}
+
+	/**
+	 * Memory-map a compiled artifact.  The artifact is not checked against its source table.
+	 * @param artifact the compiled artifact.
+	 * @return the compiled table.
+	 * @throws IOException if the artifact cannot be read or is not a compiled test table.
+	 */
+	public static CompiledTestTable load(File artifact) throws IOException{
+		RandomAccessFile file = new RandomAccessFile(artifact, "r");
+		try{
+			FileChannel channel = file.getChannel();
+			// the mapping remains valid after the channel is closed
+			return new CompiledTestTable(artifact, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}finally{
+			file.close();
+		}
+	}
+
+	/**
+	 * Compile a test table to its artifact file.
+	 * @param source the test table.
+	 * @return the written artifact file.
+	 * @throws IOException if the table cannot be read or the artifact cannot be written.
+	 * @see #getArtifactFile(File)
+	 */
+	public static File compile(File source) throws IOException{
+		long lastModified = source.lastModified();
+		return compile(source, getArtifactFile(source), hash(source), lastModified);
+	}
+
+	private static File compile(File source, File artifact, byte[] digest, long lastModified) throws IOException{
+		List<String> lines = new ArrayList<String>();
+		FileLineReader reader = new FileLineReader(source);
+		if(reader.isClosed()) throw new IOException("Cannot read "+ source.getPath());
+		try{
+			for(String line = reader.readLine(); line != null; line = reader.readLine()) lines.add(line);
+		}finally{
+			reader.close();
+		}
+
+		int count = lines.size();
+		int[] offsets = new int[count+1];
+		byte[] types = new byte[count];
+		List<Integer> dynamic = new ArrayList<Integer>();
+		Map<String,List<Integer>> blocks = new HashMap<String,List<Integer>>();
+		int textLength = 0;
+		for(int i=0;i<count;i++){
+			String line = lines.get(i);
+			offsets[i] = textLength;
+			textLength += line.length();
+			types[i] = classify(line, blocks, dynamic, i);
+		}
+		offsets[count] = textLength;
+
+		int indexLength = 4 + dynamic.size()*4 + 4;
+		for(Map.Entry<String,List<Integer>> block: blocks.entrySet())
+			indexLength += 4 + block.getKey().length()*2 + 4 + block.getValue().size()*4;
+		int offsetsPos = HEADER_SIZE;
+		int typesPos = offsetsPos + offsets.length*4;
+		int indexPos = typesPos + ((count + 3) & ~3);
+		int textPos = indexPos + indexLength;
+
+		File dir = artifact.getAbsoluteFile().getParentFile();
+		if(dir != null && !dir.isDirectory()) dir.mkdirs();
+		File temp = File.createTempFile(artifact.getName(), ".tmp", dir);
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp), FileLineReader.DEFAULT_BUFFER_SIZE));
+		try{
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeLong(source.length());
+			out.writeLong(lastModified);
+			out.write(digest);
+			out.writeChar(SEPARATOR.charAt(0));
+			out.writeChar(0);
+			out.writeInt(count);
+			out.writeInt(offsetsPos);
+			out.writeInt(typesPos);
+			out.writeInt(indexPos);
+			out.writeInt(textPos);
+			out.writeInt(textLength);
+			for(int offset: offsets) out.writeInt(offset);
+			out.write(types);
+			for(int i=count;i<indexPos-typesPos;i++) out.writeByte(0);
+			writeLines(out, dynamic);
+			out.writeInt(blocks.size());
+			for(Map.Entry<String,List<Integer>> block: blocks.entrySet()){
+				out.writeInt(block.getKey().length());
+				out.writeChars(block.getKey());
+				writeLines(out, block.getValue());
+			}
+			for(String line: lines) out.writeChars(line);
+		}catch(IOException x){
+			out.close();
+			temp.delete();
+			throw x;
+		}
+		out.close();
+
+		if(!temp.renameTo(artifact)){
+			artifact.delete();
+			if(!temp.renameTo(artifact)){
+				// the old artifact may still be mapped (Windows); use the new one in its place
+				temp.deleteOnExit();
+				return temp;
+			}
+		}
+		return artifact;
+	}
+
+	private static void writeLines(DataOutputStream out, List<Integer> lines) throws IOException{
+		out.writeInt(lines.size());
+		for(Integer line: lines) out.writeInt(line.intValue());
+	}
+
+	/**
+	 * Classify a line the way AbstractSAFSInputService.isTargetBlock tokenizes it.
+	 * Lines that cannot be tokenized can never be a target block.
+	 */
+	private static byte classify(String line, Map<String,List<Integer>> blocks, List<Integer> dynamic, int index){
+		try{
+			String rtype = StringUtils.getInputToken(line, 0, SEPARATOR).trim();
+			if(! rtype.equalsIgnoreCase(DriverConstant.RECTYPE_B)){
+				if(isPlainWord(rtype)) return RECORD_OTHER;
+				dynamic.add(Integer.valueOf(index));
+				return RECORD_DYNAMIC;
+			}
+			String blockID = StringUtils.getInputToken(line, 1, SEPARATOR).trim();
+			if(! isPlainWord(blockID)){
+				dynamic.add(Integer.valueOf(index));
+				return RECORD_DYNAMIC;
+			}
+			String key = blockKey(blockID);
+			List<Integer> lines = blocks.get(key);
+			if(lines == null){
+				lines = new ArrayList<Integer>(1);
+				blocks.put(key, lines);
+			}
+			lines.add(Integer.valueOf(index));
+			return RECORD_BLOCK;
+		}
+		catch(SAFSNullPointerException npx) {;}
+		catch(StringIndexOutOfBoundsException six) {;}
+		return RECORD_OTHER;
+	}
+
+	/**
+	 * A plain word--a letter followed by letters, digits, or underscores--resolves to itself as 
+	 * an expression.  Anything else might not, so it must be evaluated when searched.
+	 */
+	static boolean isPlainWord(String value){
+		if(value.length()==0) return true;
+		if(! Character.isLetter(value.charAt(0))) return false;
+		for(int i=1;i<value.length();i++){
+			char c = value.charAt(i);
+			if(!Character.isLetterOrDigit(c) && c != '_') return false;
+		}
+		return true;
+	}
+
+	private static String blockKey(String blockID){
+		return blockID.toUpperCase(Locale.ENGLISH);
+	}
+
+	/** @return the SHA-256 hash of the file content. */
+	static byte[] hash(File file) throws IOException{
+		MessageDigest digest;
+		try{ digest = MessageDigest.getInstance("SHA-256"); }
+		catch(Exception x){ throw new IOException(x.getMessage()); }
+		InputStream in = new FileInputStream(file);
+		try{
+			byte[] buffer = new byte[FileLineReader.DEFAULT_BUFFER_SIZE];
+			for(int read = in.read(buffer); read > -1; read = in.read(buffer)) digest.update(buffer, 0, read);
+		}finally{
+			in.close();
+		}
+		return digest.digest();
+	}
+
+	/** @return the memory-mapped artifact file. */
+	public File getArtifactFile(){ return artifact; }
+
+	/** @return the field separator the record types and BlockID index were built for. */
+	public String getSeparator(){ return separator; }
+
+	/** @return the number of lines in the table. */
+	public int getLineCount(){ return lineCount; }
+
+	/**
+	 * @param line 0-based line index.
+	 * @return the text of the line as FileLineReader.readLine would return it.
+	 */
+	public String getLine(int line){
+		int start = offsets.get(line);
+		char[] chars = new char[offsets.get(line+1) - start];
+		CharBuffer view = text.duplicate();
+		view.position(start);
+		view.get(chars);
+		return new String(chars);
+	}
+
+	/**
+	 * @param line 0-based line index.
+	 * @return {@link #RECORD_OTHER}, {@link #RECORD_BLOCK}, or {@link #RECORD_DYNAMIC}.
+	 */
+	public byte getRecordType(int line){ return types.get(line); }
+
+	/**
+	 * Get the lines that might be the Block record for a BlockID: Block records with that plain 
+	 * BlockID, and every record that must be evaluated to know.  Lines not returned cannot match.
+	 * @param blockID the resolved BlockID being searched for.
+	 * @return ascending 0-based line indexes.
+	 */
+	public int[] getBlockCandidates(String blockID){
+		int[] literal = blocks.get(blockKey(blockID.trim()));
+		if(literal == null) return dynamic;
+		if(dynamic.length == 0) return literal;
+		int[] lines = new int[literal.length + dynamic.length];
+		int l=0, d=0, i=0;
+		while(l < literal.length && d < dynamic.length)
+			lines[i++] = literal[l] < dynamic[d] ? literal[l++]: dynamic[d++];
+		while(l < literal.length) lines[i++] = literal[l++];
+		while(d < dynamic.length) lines[i++] = dynamic[d++];
+		return lines;
+	}
+
+	/**
+	 * Compile the test tables given as arguments, or with no arguments run a self-test 
+	 * comparing compiled and text reads of a sample table.
+	 */
+	public static void main(String[] args) throws Exception{
+		if(args.length > 0){
+			for(String arg: args){
+				File source = new File(arg);
+				CompiledTestTable table = load(compile(source));
+				System.out.println(source.getPath() +": "+ table.getLineCount() +" lines, "+ table.blocks.size() +
+				                   " indexed blocks, "+ table.dynamic.length +" evaluated records -> "+ table.getArtifactFile().getPath());
+			}
+			return;
+		}
+		File dir = new File(System.getProperty("java.io.tmpdir"), "CompiledTestTable"+ System.nanoTime());
+		dir.mkdirs();
+		File source = new File(dir, "Sample.CDD");
+		PrintWriter writer = new PrintWriter(source, "UTF-8");
+		writer.print('\uFEFF');
+		writer.print("; Sample table\r\nC\tSetApplicationMap\tSample\r\n\r\nB\tSetup\r\nT\tWin\tWin\tClick\n");
+		writer.print("b\tsetup\r\n  B  \t ^block \nB\t007\n^rt=B\tAnother\nC\tUnicode \u00E9\u4E2D\nB\tLast");
+		writer.close();
+		System.setProperty(PROPERTY_ENABLED, "true");
+		int failures = 0;
+		CompiledTestTable table = get(source);
+		FileLineReader reader = new FileLineReader(source);
+		int count = 0;
+		for(String line = reader.readLine(); line != null; line = reader.readLine()){
+			if(!line.equals(table.getLine(count))){
+				System.out.println("Line "+ count +" differs: '"+ table.getLine(count) +"'");
+				failures++;
+			}
+			count++;
+		}
+		reader.close();
+		if(count != table.getLineCount()){
+			System.out.println("Line count "+ table.getLineCount() +" expected "+ count);
+			failures++;
+		}
+		if(!Arrays.equals(table.getBlockCandidates("SETUP"), new int[]{0,3,5,6,7,8})){
+			System.out.println("Setup candidates: "+ Arrays.toString(table.getBlockCandidates("SETUP")));
+			failures++;
+		}
+		if(!Arrays.equals(table.getBlockCandidates("Last"), new int[]{0,6,7,8,10})){
+			System.out.println("Last candidates: "+ Arrays.toString(table.getBlockCandidates("Last")));
+			failures++;
+		}
+		if(get(source) != table){
+			System.out.println("Unchanged table was not reused.");
+			failures++;
+		}
+		if(load(getArtifactFile(source)).getLineCount() != count){
+			System.out.println("Artifact reload failed.");
+			failures++;
+		}
+
+		SAFSTextFile text = new SAFSTextFile("local", "test", 1, "text", source, true, false, true, true, true, null);
+		SAFSTextFile compiled = new SAFSTextFile("local", "test", 1, "compiled", source, true, false, true, true, true, null);
+		if(!compiled.useCompiledTable(get(source))){
+			System.out.println("Compiled table was not used.");
+			failures++;
+		}
+		String[] steps = {"next","next","mark","next","next","reset","next","begin","next","setMark","reset","next","next","next","next","next","next","next","next"};
+		for(int i=0;i<steps.length;i++){
+			String a = step(text, steps[i]), b = step(compiled, steps[i]);
+			if(!String.valueOf(a).equals(String.valueOf(b))){
+				System.out.println("Step "+ i +" "+ steps[i] +": text '"+ a +"' compiled '"+ b +"'");
+				failures++;
+			}
+		}
+		text.close();
+		compiled.close();
+
+		writer = new PrintWriter(source, "UTF-8");
+		writer.print("B\tChanged\n");
+		writer.close();
+		source.setLastModified(table.modified + 2000);
+		CompiledTestTable changed = get(source);
+		if(changed == null || changed.getLineCount() != 1 || changed.getBlockCandidates("changed").length != 1){
+			System.out.println("Changed table was not recompiled.");
+			failures++;
+		}
+		tables.clear();
+		for(File file: dir.listFiles()) file.deleteOnExit();
+		dir.deleteOnExit();
+		System.out.println(failures == 0 ? "CompiledTestTable self-test passed." : "CompiledTestTable self-test FAILED: "+ failures);
+	}
+
+	private static String step(SAFSTextFile file, String step){
+		if(step.equals("next")) return file.next();
+		if(step.equals("mark")) file.mark();
+		else if(step.equals("reset")) file.reset();
+		else if(step.equals("begin")) file.begin();
+		else if(step.equals("setMark")) file.setMark(2);
+		return step +":"+ file.getLineNumber() +":"+ file.isEOF();
+	}
+}
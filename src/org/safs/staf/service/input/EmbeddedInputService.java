@@ -17,6 +17,8 @@
 **/
 package org.safs.staf.service.input;
 
+import org.safs.staf.embedded.EmbeddedRequest;
+import org.safs.staf.embedded.EmbeddedRequestHandler;
 import org.safs.staf.embedded.EmbeddedServiceHandle;
 import org.safs.staf.embedded.ServiceInterface;
 import org.safs.staf.service.InfoInterface;
@@ -33,7 +35,7 @@ import com.ibm.staf.STAFResult;
  * <p>
  * @author Carl Nagle
  */
-public class EmbeddedInputService extends AbstractSAFSInputService implements ServiceInterface {
+public class EmbeddedInputService extends AbstractSAFSInputService implements ServiceInterface, EmbeddedRequestHandler {
 
 	public EmbeddedInputService() {	}
 
@@ -61,6 +63,18 @@ public class EmbeddedInputService extends AbstractSAFSInputService implements Se
 		return super.init(initInfo);
 	}
 
+	/**
+	 * Handles NextRecord requests directly without STAF command parsing.
+	 * @see org.safs.staf.embedded.EmbeddedRequestHandler#acceptEmbeddedRequest(org.safs.staf.embedded.EmbeddedRequest)
+	 */
+	@Override
+	public STAFResult acceptEmbeddedRequest(EmbeddedRequest request) {
+		if(request instanceof EmbeddedRequest.NextRecord){
+			return handleNext(((EmbeddedRequest.NextRecord)request).fileId);
+		}
+		return null;
+	}
+
 	@Override
 	public STAFResult terminateService() {
 		return terminate();
@@ -32,10 +32,12 @@ import java.util.Vector;
  * reader.  It has not been evaluated for any other use.  Though, standalone use
  * is likely possible.
  * <p>
- * The class uses a java.io.BufferedReader as the underlying IO mechanism.
+ * The class uses a java.io.BufferedReader as the underlying IO mechanism, or the lines of a 
+ * {@link CompiledTestTable} once {@link #useCompiledTable(CompiledTestTable)} succeeds.
  * <p>
  * @author Carl Nagle, SAS Institute
  * @version 1.0, 06/02/2003
+ * OCT 19, 2026 Read lines from a CompiledTestTable when provided.
  * @see SAFSTextFileReader
  * @see SAFSInputService
  *
@@ -58,6 +60,9 @@ public class SAFSTextFile extends SAFSFile{
 
 	private Vector commentids = new Vector(3, 2);
 
+	/** lines are read from this instead of the reader when not null. */
+	private CompiledTestTable table;
+
 	/*******************************************************************************************
 	 * This constructor will create an inoperable (Closed) file object.  No use whatsoever. :)
 	 ******************************************************************************************/
@@ -130,6 +135,36 @@ public class SAFSTextFile extends SAFSFile{
 	 ******************************************************************************************/
 	public  long  getMark      () { return mark   ; }
 
+	/*******************************************************************************************
+	 * Read the lines of the file from its compiled form instead of the text file.
+	 * Only honored before any line has been read.  The text reader is closed on success.
+	 * Closing the file discards the compiled table.
+	 * <p>
+	 * @param table the compiled form of this file.  Should be the table compiled from the
+	 *        same file.
+	 * @return true if lines will now be read from the compiled table.
+	 ******************************************************************************************/
+	public boolean useCompiledTable(CompiledTestTable table){
+		if((table == null)||(isClosed())||(pointer != 0)) return false;
+		closeReader();
+		this.table = table;
+		eof = false;
+		return true;
+	}
+
+	/*******************************************************************************************
+	 * @return the compiled table lines are read from, or null if reading the text file.
+	 ******************************************************************************************/
+	public CompiledTestTable getCompiledTable(){ return table; }
+
+	/*******************************************************************************************
+	 * @return true if the file is closed.  A file reading a compiled table is open.
+	 ******************************************************************************************/
+	@Override
+	public boolean isClosed(){
+		return (table == null) ? super.isClosed(): false;
+	}
+
 	/*******************************************************************************************
 	 * This adds to the SAFSFile.readLine function.  While it does not modify the returned line
 	 * in any way, it does increment the line number pointer appropriately.  It also ignores
@@ -144,6 +179,16 @@ public class SAFSTextFile extends SAFSFile{
 	@Override
 	public String readLine(){
 
+		if(table != null){
+			if(eof) return null;
+			if(pointer >= table.getLineCount()){
+				eof = true;
+				linetext = null;
+				return null;
+			}
+			linetext = table.getLine((int)pointer++);
+			return linetext;
+		}
 		String val = super.readLine();
 		if(val != null) pointer++;
 		return val;
@@ -224,6 +269,11 @@ public class SAFSTextFile extends SAFSFile{
 			mark = MARK_INVALID;
 			return;
 		}
+		if(table != null){
+			mark = pointer;
+			isValidMark = true;
+			return;
+		}
 		try{
 			reader.mark(DEFAULT_BUFFER_SIZE);
 			mark = pointer;
@@ -251,6 +301,14 @@ public class SAFSTextFile extends SAFSFile{
 	private void gotoMark(){
 
 		long tmark = mark;
+		if(table != null){
+			// skipping past the last line reads to EOF, as below
+			pointer = tmark;
+			mark = tmark;
+			eof = (tmark > table.getLineCount());
+			linetext = ((tmark == 0)||(eof)) ? null : table.getLine((int)tmark -1);
+			return;
+		}
 		close();
 		open();
 
@@ -285,7 +343,7 @@ public class SAFSTextFile extends SAFSFile{
 			return;
 		}
 
-		if (! isValidMark){
+		if ((! isValidMark)||(table != null)){
 			gotoMark();
 			return;
 		}
@@ -305,6 +363,12 @@ public class SAFSTextFile extends SAFSFile{
 	 ******************************************************************************************/
 	public void begin(){
 		if((isClosed())||(pointer==0)) return;
+		if(table != null){
+			pointer = 0;
+			linetext = null;
+			eof = false;
+			return;
+		}
 
 		long tmark = mark;
 		close();
@@ -314,6 +378,15 @@ public class SAFSTextFile extends SAFSFile{
 		return;
 	}
 
+	/*******************************************************************************************
+	 * Closes the file, discarding any compiled table in use.
+	 ******************************************************************************************/
+	@Override
+	public void close(){
+		table = null;
+		super.close();
+	}
+
 	/*******************************************************************************************
 	 * resets our line and mark pointers to default read-to-get-started values.
 	 * This routine also calls the function in SAFSFile:
@@ -933,12 +933,7 @@ public abstract class AbstractSAFSLoggingService {
 		}
 
 		String facname = parsedRequest.optionValue(
-			SLS_SERVICE_REQUEST_LOGMESSAGE).toUpperCase();
-
-		if( !logfacs.containsKey(facname) )
-			return new STAFResult(STAFResult.DoesNotExist, facname);
-
-		SLSLogFacility logfac = (SLSLogFacility)logfacs.get(facname);
+			SLS_SERVICE_REQUEST_LOGMESSAGE);
 		String msg = parsedRequest.optionValue(SLS_SERVICE_PARM_MESSAGE);
 		String desc = null;
 		int msgType = SLSLogFacility.GENERIC_MESSAGE;
@@ -958,6 +953,25 @@ public abstract class AbstractSAFSLoggingService {
 				return new STAFResult(STAFResult.InvalidValue, mts);
 			}
 		}
+		return handleLogMessage(facname, msg, desc, msgType);
+	}
+
+	/**
+	 * Handle the LOGMESSAGE request whether received as a STAF command string or as an
+	 * {@link org.safs.staf.embedded.EmbeddedRequest.LogMessage}.
+	 * @param facname of the running log facility.
+	 * @param msg to log.
+	 * @param desc optional description. Can be null.
+	 * @param msgType of the message.
+	 * @return STAFResult with the log facility states.
+	 */
+	protected STAFResult handleLogMessage(String facname, String msg, String desc, int msgType)
+	{
+		facname = facname.toUpperCase();
+		if( !logfacs.containsKey(facname) )
+			return new STAFResult(STAFResult.DoesNotExist, facname);
+
+		SLSLogFacility logfac = (SLSLogFacility)logfacs.get(facname);
 		if(truncateLines){
 			try{ if (msg  != null && msg.length() > truncateLength) msg = msg.substring(0, truncateLength);}catch(Exception ignore){}
 			try{ if (desc != null && desc.length()> truncateLength) desc=desc.substring(0, truncateLength);}catch(Exception ignore){}
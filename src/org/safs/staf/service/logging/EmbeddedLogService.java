@@ -17,6 +17,8 @@
 **/
 package org.safs.staf.service.logging;
 
+import org.safs.staf.embedded.EmbeddedRequest;
+import org.safs.staf.embedded.EmbeddedRequestHandler;
 import org.safs.staf.embedded.EmbeddedServiceHandle;
 import org.safs.staf.embedded.ServiceInterface;
 import org.safs.staf.service.InfoInterface;
@@ -24,7 +26,7 @@ import org.safs.staf.service.InfoInterface;
 import com.ibm.staf.STAFException;
 import com.ibm.staf.STAFResult;
 
-public class EmbeddedLogService extends AbstractSAFSLoggingService implements ServiceInterface {
+public class EmbeddedLogService extends AbstractSAFSLoggingService implements ServiceInterface, EmbeddedRequestHandler {
 
 	public EmbeddedLogService() { }
 
@@ -82,6 +84,21 @@ public class EmbeddedLogService extends AbstractSAFSLoggingService implements Se
 		return new EmbeddedXMLLogItem(name,directory,filename);
 	}
 
+	/**
+	 * Handles LogMessage requests directly without STAF command parsing.
+	 * @see org.safs.staf.embedded.EmbeddedRequestHandler#acceptEmbeddedRequest(org.safs.staf.embedded.EmbeddedRequest)
+	 */
+	@Override
+	public STAFResult acceptEmbeddedRequest(EmbeddedRequest request) {
+		if(request instanceof EmbeddedRequest.LogMessage){
+			EmbeddedRequest.LogMessage log = (EmbeddedRequest.LogMessage)request;
+			if(log.facname == null || log.message == null)
+				return new STAFResult(STAFResult.InvalidRequestString, log.toRequestString());
+			return handleLogMessage(log.facname, log.message, log.description, log.msgType);
+		}
+		return null;
+	}
+
 	@Override
 	public STAFResult terminateService() {
 		return term();
@@ -25,6 +25,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.safs.Constants;
 import org.safs.Log;
@@ -411,6 +412,7 @@ import com.ibm.staf.service.STAFCommandParser;
  *                                 Two different versions of the service extend this class for supporting STAF2 and STAF3.
  * @author JunwuMa    SEP 17, 2010 Fixed the problem about chained maps' number does not decrease with SAFSMAPS Close command.
  * @author Lei Wang     APR 05, 2012 Add option "MAPVARLOOP" for command "GETITEM", see Testhelp078350
+ * OCT 19, 2026 Chained GETITEM lookups are answered from a resolution index when possible.
  *
  * @see SAFSAppMapService SAFSAppMapService3 SAFSVariableService SAFSVariableService3
  *********************************************************************************************/
@@ -493,6 +495,30 @@ public abstract class AbstractSAFSAppMapService {
 
     protected boolean resolve_enabled = true;
 
+    /**
+     * A chained GETITEM resolution: the raw map value and the map it came from, 
+     * or a null value if no map in the chain has the item.
+     */
+    protected static class Resolution {
+    	public final String value;
+    	public final String mapid;
+    	public Resolution(String value, String mapid){
+    		this.value = value;
+    		this.mapid = mapid;
+    	}
+    }
+
+    /** Maximum number of entries in the {@link #resolutions} index before it is reset. */
+    public static final int SAM_RESOLUTION_INDEX_MAX = 50000;
+
+    /**
+     * Chained GETITEM resolutions keyed by {@link #resolutionKey(String, String)}.
+     * Values are raw map values. _DDV: and embedded variables are still resolved on every GETITEM.
+     * The index is reset whenever the chain order or a map's contents may change, and entries 
+     * from a map are removed when it is closed.
+     */
+    protected ConcurrentHashMap<String, Resolution> resolutions = new ConcurrentHashMap<String, Resolution>();
+
 	protected STAFCommandParser parser = new STAFCommandParser(SAM_SERVICE_REQUEST_ARGS_MAX);
 
 	protected String defaultdir   = new String();
@@ -685,6 +711,27 @@ public abstract class AbstractSAFSAppMapService {
 
 
 
+	/** @return the {@link #resolutions} key for a section and item. */
+	protected String resolutionKey(String section, String item){
+		return section.trim().toLowerCase() +'\n'+ item.trim();
+	}
+
+	/** Reset the resolution index.  Called when the chain order or any map's contents may change. */
+	protected void resetResolutions(){
+		resolutions.clear();
+	}
+
+	/** Remove indexed resolutions found in the given map.  Indexed misses remain valid. */
+	protected void removeResolutions(String lcid){
+		resolutions.values().removeIf(r -> lcid.equals(r.mapid));
+	}
+
+	/** Store a chained resolution, resetting the index first if it is full. */
+	protected void putResolution(String key, Resolution resolution){
+		if(resolutions.size() >= SAM_RESOLUTION_INDEX_MAX) resetResolutions();
+		resolutions.put(key, resolution);
+	}
+
 	private String getAppMapID(STAFResult result, STAFCommandParseResult parsedData, String option){
 
 		String id = parsedData.optionValue(option);
@@ -705,11 +752,13 @@ public abstract class AbstractSAFSAppMapService {
 		if(! request_get_item){
 	    	if (chain.contains(lcid)) chain.remove(lcid);
 	    	chain.addLast(lcid);
+	    	resetResolutions();
 	    	if (chain_enabled) defaultmap = id;
 			Log.info("SAFSMAPS default AppMap '"+ defaultmap +"'");
 		}else{
 			if (! chain.contains(lcid)) {
 				chain.addLast(lcid);
+				resetResolutions();
 				if (chain_enabled) defaultmap = id;
 				Log.info("SAFSMAPS default AppMap '"+ defaultmap +"'");
 			}
@@ -720,6 +769,7 @@ public abstract class AbstractSAFSAppMapService {
 		String lcid = id.trim().toLowerCase();
 		if (appmaps.containsKey(lcid)) appmaps.remove(lcid);
 	    if (chain.contains(lcid)) chain.remove(lcid);
+	    removeResolutions(lcid);
 	    if (! chain.isEmpty()) {
 	    	defaultmap = (String) chain.getLast();
 	    }else{
@@ -1259,6 +1309,24 @@ public abstract class AbstractSAFSAppMapService {
 				return result;
 			}
 
+			// chained lookups are answered from the resolution index when possible
+			String resolutionKey = honor_chain ? resolutionKey(section, item) : null;
+			Resolution resolution = honor_chain ? resolutions.get(resolutionKey) : null;
+			if (resolution != null){
+				if (resolution.value == null){
+					result.result = SAM_SERVICE_PARM_SECTION +c+ section +c+ SAM_SERVICE_PARM_ITEM +c+ item;
+					result.rc = STAFResult.DoesNotExist;
+					Log.info("SAFSMAPS GETITEM indexed as not found: "+ result.result);
+					return result;
+				}
+				textfile = (SAFSAppMapFile) appmaps.get(resolution.mapid);
+				if (textfile != null){
+					result.result = resolution.value;
+					looking = false;
+					Log.info(section +":"+ item +" indexed from AppMap '"+ resolution.mapid +"': "+ result.result);
+				}
+			}
+
 			while(looking){
 				if (honor_chain) {
 					try{ tempid = getNextChainID();	}
@@ -1266,6 +1334,8 @@ public abstract class AbstractSAFSAppMapService {
 						result.result = SAM_SERVICE_PARM_SECTION +c+ section +c+ SAM_SERVICE_PARM_ITEM +c+ item;
 						result.rc = STAFResult.DoesNotExist;
 						Log.debug("SAFSMAPS "+ result.result +" does not exist in storage.");
+						putResolution(resolutionKey, new Resolution(null, null));
+						return result;
 					}
 				}
 				Log.info("SAFSMAPS GETITEM seeking AppMap: "+ tempid);
@@ -1294,6 +1364,7 @@ public abstract class AbstractSAFSAppMapService {
 					looking = honor_chain;
 				}else{
 					looking = false;
+					if (honor_chain) putResolution(resolutionKey, new Resolution(result.result, tempid.trim().toLowerCase()));
 				}
 			}
 
@@ -1344,6 +1415,7 @@ public abstract class AbstractSAFSAppMapService {
 			    result.result += textfile.getFileID() +";";
 				textfile.clearCache();
 			}
+			resetResolutions();
 			return result;
 
 		// ===============================================================
@@ -1355,6 +1427,7 @@ public abstract class AbstractSAFSAppMapService {
 				String lcid = id.trim().toLowerCase();
 				if (chain.contains(lcid))chain.remove(lcid);
 				chain.addLast(lcid);
+				resetResolutions();
 			}
 			result.result = defaultmap;
 			return result;
@@ -1376,6 +1449,7 @@ public abstract class AbstractSAFSAppMapService {
 				section = parsedData.optionValue(SAM_SERVICE_PARM_SECTION);
 				result.rc = textfile.setDefaultSection(section);
 				result.result = section;
+				resetResolutions();
 			// get the value
 			}else{
 				result.result = textfile.getDefaultSection();
@@ -1437,6 +1511,7 @@ public abstract class AbstractSAFSAppMapService {
 			appmaps.clear();
 		}
 		appmaps = null;
+		resetResolutions();
 		return 0;
 	}
 
@@ -29,9 +29,10 @@ import org.safs.StringUtils;
  * History:<br>
  * 
  *  <br>   Jul 18, 2014    (Lei Wang) Initial release.
+ *  <br>   Oct 19, 2026    Implement FifoInterface.
  * @param <T>
  */
-public class Fifo<T> {
+public class Fifo<T> implements FifoInterface<T>{
 	/**'10000' The default maximum size of this FIFO*/
 	public static final int DEFAULT_MAX_SIZE 		= 10000;
 	/**The constant of timeout, which means don't wait if FIFO is empty*/
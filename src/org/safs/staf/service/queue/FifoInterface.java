@@ -0,0 +1,54 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package org.safs.staf.service.queue;
+
+import org.safs.SAFSException;
+
+/**
+ * The operations shared by the FIFO implementations, {@link Fifo} and {@link RingFifo}.<br>
+ * Timeout values are those defined by {@link Fifo#TIMEOUT_NO_WAIT} and {@link Fifo#TIMEOUT_WAIT_FOREVER}.
+ * <br>
+ * History:<br>
+ *
+ *  <br>   Oct 19, 2026    Initial release.
+ * @param <T>
+ */
+public interface FifoInterface<T> {
+	/**
+	 * Put an object into the FIFO.<br>
+	 * @param object T, the object to put into the FIFO
+	 * @throws SAFSException if the FIFO is full
+	 */
+	public void in(T object) throws SAFSException;
+
+	/**
+	 * Get an object from the FIFO, waiting according to the timeout if it is empty.<br>
+	 * @param timeout int, milliseconds, or {@link Fifo#TIMEOUT_NO_WAIT} or {@link Fifo#TIMEOUT_WAIT_FOREVER}.
+	 * @return T the first object got from FIFO
+	 * @throws SAFSException if the FIFO is empty or the timeout is reached.
+	 */
+	public T out(int timeout/*milliseconds*/) throws SAFSException;
+
+	/**
+	 * Set the maximum size of this FIFO, the default maximum size is {@link Fifo#DEFAULT_MAX_SIZE}
+	 * @param maxSize
+	 */
+	public void setMaxSize(int maxSize);
+
+	public void clear();
+}
@@ -0,0 +1,423 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package org.safs.staf.service.queue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.safs.SAFSException;
+
+/**
+ * A bounded FIFO backed by a pre-sized, lock-free ring buffer.<br>
+ * Producers and consumers claim slots with compare-and-set on the ring positions, so neither
+ * {@link #in(Object)} nor a successful {@link #out(int)} ever blocks on a monitor. A lock is only
+ * taken when a consumer has to wait for a message (or a producer has to wait for space with
+ * {@link OverflowPolicy#BLOCK}), and then only a single waiter is signalled per message instead
+ * of waking every waiting thread.
+ * <p>
+ * The ring capacity is exactly the maximum size, {@link Fifo#DEFAULT_MAX_SIZE} by default, with a minimum of 2.<br>
+ * What happens when the ring is full depends on the {@link OverflowPolicy}:
+ * <ul>
+ * <li>{@link OverflowPolicy#FAIL} throws a SAFSException with code {@link SAFSException#CODE_CONTAINER_ISFULL}, same as {@link Fifo}.
+ * <li>{@link OverflowPolicy#DROP_OLDEST} discards the oldest message(s) to make room.
+ * <li>{@link OverflowPolicy#BLOCK} waits for a consumer to make room, up to the block timeout.
+ * </ul>
+ * {@link org.safs.staf.embedded.EmbeddedHandle} queues use a RingFifo when the System property
+ * {@link org.safs.staf.embedded.EmbeddedHandle#PROPERTY_RING_FIFO} is "true".
+ * <br>
+ * History:<br>
+ *
+ *  <br>   Oct 19, 2026    Initial release.
+ *  <br>   Oct 19, 2026    Used by EmbeddedHandle when safs.embedded.ringfifo is true.
+ * @param <T>
+ */
+public class RingFifo<T> implements FifoInterface<T> {
+
+	/** What to do with a new object when the ring is full. */
+	public static enum OverflowPolicy{
+		/** wait for space, up to the block timeout. */
+		BLOCK,
+		/** discard the oldest object to make room for the new one. */
+		DROP_OLDEST,
+		/** reject the new object with CODE_CONTAINER_ISFULL. */
+		FAIL
+	}
+
+	public static final int DEFAULT_MAX_SIZE 		= Fifo.DEFAULT_MAX_SIZE;
+	public static final int TIMEOUT_NO_WAIT 		= Fifo.TIMEOUT_NO_WAIT;
+	public static final int TIMEOUT_WAIT_FOREVER 	= Fifo.TIMEOUT_WAIT_FOREVER;
+
+	private volatile Ring<T> ring;
+	private volatile OverflowPolicy policy = OverflowPolicy.FAIL;
+	private volatile int blockTimeout = TIMEOUT_WAIT_FOREVER;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition notEmpty = lock.newCondition();
+	private final Condition notFull = lock.newCondition();
+	private final AtomicInteger consumersWaiting = new AtomicInteger(0);
+	private final AtomicInteger producersWaiting = new AtomicInteger(0);
+	private final AtomicLong dropped = new AtomicLong(0);
+
+	/** Create a RingFifo of {@link Fifo#DEFAULT_MAX_SIZE} using {@link OverflowPolicy#FAIL}. */
+	public RingFifo(){
+		this(DEFAULT_MAX_SIZE, OverflowPolicy.FAIL);
+	}
+
+	/**
+	 * @param maxSize int, the maximum number of objects held. Values less than 2 are treated as 2.
+	 * @param policy OverflowPolicy, what to do when the FIFO is full. null means {@link OverflowPolicy#FAIL}.
+	 */
+	public RingFifo(int maxSize, OverflowPolicy policy){
+		this.ring = new Ring<T>(maxSize);
+		setOverflowPolicy(policy);
+	}
+
+	public void setOverflowPolicy(OverflowPolicy policy){
+		this.policy = policy==null ? OverflowPolicy.FAIL : policy;
+	}
+
+	public OverflowPolicy getOverflowPolicy(){
+		return policy;
+	}
+
+	/**
+	 * Set how long a producer waits for space with {@link OverflowPolicy#BLOCK} before it fails.
+	 * @param timeout int, milliseconds. {@link Fifo#TIMEOUT_WAIT_FOREVER} by default.
+	 */
+	public void setBlockTimeout(int timeout){
+		this.blockTimeout = timeout;
+	}
+
+	/** @return the number of objects discarded by {@link OverflowPolicy#DROP_OLDEST}. */
+	public long getDroppedCount(){
+		return dropped.get();
+	}
+
+	/** @return the ring capacity, the maximum number of objects held. */
+	public int getCapacity(){
+		return ring.capacity();
+	}
+
+	/** @return the approximate number of objects in the FIFO. */
+	public int size(){
+		return ring.size();
+	}
+
+	/**
+	 * Put an object into the FIFO.<br>
+	 * If the FIFO is full the {@link OverflowPolicy} decides whether to wait, drop the oldest object, or fail.
+	 * @param object T, the object to put into the FIFO
+	 * @throws SAFSException if the FIFO is full and the object could not be added.
+	 */
+	@Override
+	public void in(T object) throws SAFSException{
+		if(object==null) throw new SAFSException("Cannot put null into FIFO.", SAFSException.CODE_CONTENT_ISNULL);
+		Ring<T> r = ring;
+		if(!r.offer(object)){
+			switch(policy){
+				case DROP_OLDEST:
+					while(!r.offer(object)){
+						if(r.poll()!=null) dropped.incrementAndGet();
+					}
+					break;
+				case BLOCK:
+					awaitSpace(r, object);
+					break;
+				default:
+					throw new SAFSException("FIFO is full!", SAFSException.CODE_CONTAINER_ISFULL);
+			}
+		}
+		if(consumersWaiting.get()>0) signal(notEmpty);
+	}
+
+	/**
+	 * Get an object from the FIFO if it is not empty.<br>
+	 * If the FIFO is empty, this method may throw an Exception or wait for a certain-time or wait for ever, which<br>
+	 * depends on the timeout value.<br>
+	 * @param timeout int, the time to wait for FIFO is not empty, in milliseconds<br>
+	 *                     it can be {@link #TIMEOUT_NO_WAIT}, this method will throw Exception if FIFO is empty.
+	 *                     it can be {@link #TIMEOUT_WAIT_FOREVER}, this method will wait for ever until the FIFO is not empty.
+	 * @return T the first object got from FIFO
+	 * @throws SAFSException
+	 */
+	@Override
+	public T out(int timeout/*milliseconds*/) throws SAFSException{
+		Ring<T> r = ring;
+		T message = r.poll();
+		if(message==null){
+			if(TIMEOUT_NO_WAIT==timeout || timeout<0){
+				throw new SAFSException("No content!", SAFSException.CODE_CONTAINER_ISEMPTY);
+			}
+			message = awaitMessage(r, timeout);
+		}
+		if(producersWaiting.get()>0) signal(notFull);
+		return message;
+	}
+
+	/**
+	 * Resize the ring, keeping any queued objects that fit.<br>
+	 * This is intended for configuration and should not be called while producers or consumers are active.
+	 * @param maxSize
+	 */
+	@Override
+	public synchronized void setMaxSize(int maxSize){
+		Ring<T> old = ring;
+		Ring<T> resized = new Ring<T>(maxSize);
+		T object = null;
+		while((object = old.poll())!=null){
+			if(!resized.offer(object)) dropped.incrementAndGet();
+		}
+		this.ring = resized;
+	}
+
+	@Override
+	public void clear(){
+		Ring<T> r = ring;
+		while(r.poll()!=null);
+		if(producersWaiting.get()>0) signalAll(notFull);
+	}
+
+	private T awaitMessage(Ring<T> r, int timeout) throws SAFSException{
+		boolean forever = TIMEOUT_WAIT_FOREVER==timeout || timeout==0;
+		long nanos = TimeUnit.MILLISECONDS.toNanos(timeout);
+		T message = null;
+		lock.lock();
+		consumersWaiting.incrementAndGet();
+		try{
+			while((message = r.poll())==null){
+				if(forever){
+					notEmpty.await();
+				}else{
+					if(nanos<=0) throw new SAFSException("Timeout reached!", SAFSException.CODE_TIMEOUT_REACHED);
+					nanos = notEmpty.awaitNanos(nanos);
+				}
+			}
+			return message;
+		}catch(InterruptedException e){
+			Thread.currentThread().interrupt();
+			throw new SAFSException("Waiting for message from fifo has been interrupted. ");
+		}finally{
+			consumersWaiting.decrementAndGet();
+			lock.unlock();
+		}
+	}
+
+	private void awaitSpace(Ring<T> r, T object) throws SAFSException{
+		int timeout = blockTimeout;
+		boolean forever = TIMEOUT_WAIT_FOREVER==timeout;
+		long nanos = TimeUnit.MILLISECONDS.toNanos(Math.max(timeout, 0));
+		lock.lock();
+		producersWaiting.incrementAndGet();
+		try{
+			while(!r.offer(object)){
+				if(forever){
+					notFull.await();
+				}else{
+					if(nanos<=0) throw new SAFSException("FIFO is full!", SAFSException.CODE_CONTAINER_ISFULL);
+					nanos = notFull.awaitNanos(nanos);
+				}
+			}
+		}catch(InterruptedException e){
+			Thread.currentThread().interrupt();
+			throw new SAFSException("Waiting for space in fifo has been interrupted. ");
+		}finally{
+			producersWaiting.decrementAndGet();
+			lock.unlock();
+		}
+	}
+
+	private void signal(Condition condition){
+		lock.lock();
+		try{ condition.signal(); }finally{ lock.unlock(); }
+	}
+
+	private void signalAll(Condition condition){
+		lock.lock();
+		try{ condition.signalAll(); }finally{ lock.unlock(); }
+	}
+
+	/**
+	 * Bounded multi-producer/multi-consumer ring.<br>
+	 * Each slot carries a sequence number telling producers and consumers whether the slot is free
+	 * for the current lap, so slots are claimed with a single compare-and-set on the head or tail.
+	 * The sequence scheme needs at least 2 slots.
+	 */
+	private static class Ring<E>{
+		private final AtomicReferenceArray<E> buffer;
+		private final AtomicLongArray sequence;
+		private final int capacity;
+		private final AtomicLong head = new AtomicLong(0);
+		private final AtomicLong tail = new AtomicLong(0);
+
+		Ring(int maxSize){
+			capacity = Math.max(maxSize, 2);
+			buffer = new AtomicReferenceArray<E>(capacity);
+			sequence = new AtomicLongArray(capacity);
+			for(int i=0;i<capacity;i++) sequence.set(i, i);
+		}
+
+		int capacity(){ return capacity; }
+
+		int size(){
+			long size = tail.get() - head.get();
+			return size<0 ? 0 : (int) Math.min(size, capacity());
+		}
+
+		boolean offer(E e){
+			long pos = tail.get();
+			int index;
+			for(;;){
+				index = (int)(pos % capacity);
+				long diff = sequence.get(index) - pos;
+				if(diff==0){
+					if(tail.compareAndSet(pos, pos+1)) break;
+					pos = tail.get();
+				}else if(diff<0){
+					return false;
+				}else{
+					pos = tail.get();
+				}
+			}
+			buffer.lazySet(index, e);
+			sequence.set(index, pos+1);
+			return true;
+		}
+
+		E poll(){
+			long pos = head.get();
+			int index;
+			for(;;){
+				index = (int)(pos % capacity);
+				long diff = sequence.get(index) - (pos+1);
+				if(diff==0){
+					if(head.compareAndSet(pos, pos+1)) break;
+					pos = head.get();
+				}else if(diff<0){
+					return null;
+				}else{
+					pos = head.get();
+				}
+			}
+			E e = buffer.get(index);
+			buffer.lazySet(index, null);
+			sequence.set(index, pos+capacity);
+			return e;
+		}
+	}
+
+	/**
+	 * Self-test of the overflow policies, ordering and capacity, followed by a multi-producer throughput
+	 * comparison of {@link Fifo} with {@link RingFifo}. Both FIFOs get the same bound, large enough that no
+	 * message is rejected, and every message is checked to arrive exactly once and in per-producer order.<br>
+	 * Usage: RingFifo [producers] [messagesPerProducer]
+	 */
+	public static void main(String[] args) throws Exception{
+		int producers = args.length>0 ? Integer.parseInt(args[0]) : 8;
+		int messages = args.length>1 ? Integer.parseInt(args[1]) : 200000;
+
+		check("default capacity is Fifo.DEFAULT_MAX_SIZE", new RingFifo<String>().getCapacity()==Fifo.DEFAULT_MAX_SIZE);
+		check("capacity is not rounded", new RingFifo<String>(10, null).getCapacity()==10);
+
+		RingFifo<String> drop = new RingFifo<String>(16, OverflowPolicy.DROP_OLDEST);
+		for(int i=0;i<100;i++) drop.in(String.valueOf(i));
+		check("DROP_OLDEST keeps the newest", drop.size()==16 && drop.getDroppedCount()==84 && "84".equals(drop.out(TIMEOUT_NO_WAIT)));
+
+		RingFifo<String> fail = new RingFifo<String>(3, OverflowPolicy.FAIL);
+		fail.in("1"); fail.in("2"); fail.in("3");
+		check("FAIL rejects at exactly maxSize", SAFSException.CODE_CONTAINER_ISFULL.equals(code(fail, "4")));
+		check("FIFO order", "1".equals(fail.out(TIMEOUT_NO_WAIT)) && "2".equals(fail.out(TIMEOUT_NO_WAIT)) && "3".equals(fail.out(TIMEOUT_NO_WAIT)));
+		String timedCode = null;
+		try{ fail.out(50); }catch(SAFSException x){ timedCode = x.getCode(); }
+		check("timed poll on empty FIFO", SAFSException.CODE_TIMEOUT_REACHED.equals(timedCode));
+
+		final RingFifo<String> block = new RingFifo<String>(2, OverflowPolicy.BLOCK);
+		block.in("a"); block.in("b");
+		Thread consumer = new Thread(new Runnable(){
+			@Override
+			public void run(){
+				try{ Thread.sleep(50); block.out(TIMEOUT_NO_WAIT); }catch(Exception x){}
+			}
+		});
+		consumer.start();
+		block.in("c");
+		consumer.join();
+		check("BLOCK waits for space", block.size()==2 && "b".equals(block.out(TIMEOUT_NO_WAIT)));
+
+		for(int round=0;round<3;round++){
+			Fifo<String> fifo = new Fifo<String>();
+			fifo.setMaxSize(producers*messages);
+			long f = throughput(fifo, producers, messages);
+			long r = throughput(new RingFifo<String>(producers*messages, OverflowPolicy.FAIL), producers, messages);
+			System.out.println("Fifo     : "+ f +" msgs/sec");
+			System.out.println("RingFifo : "+ r +" msgs/sec");
+		}
+		System.out.println("RingFifo self-test passed.");
+	}
+
+	private static String code(FifoInterface<String> fifo, String object){
+		try{ fifo.in(object); }catch(SAFSException x){ return x.getCode(); }
+		return null;
+	}
+
+	private static void check(String what, boolean ok){
+		if(!ok) throw new AssertionError("FAILED: "+ what);
+		System.out.println("ok: "+ what);
+	}
+
+	private static long throughput(final FifoInterface<String> fifo, int producers, final int messages) throws Exception{
+		final CountDownLatch start = new CountDownLatch(1);
+		final AtomicLong failures = new AtomicLong(0);
+		Thread[] threads = new Thread[producers];
+		for(int p=0;p<producers;p++){
+			final String prefix = p+":";
+			threads[p] = new Thread(new Runnable(){
+				@Override
+				public void run(){
+					try{ start.await(); }catch(InterruptedException x){ return; }
+					for(int i=0;i<messages;i++){
+						try{ fifo.in(prefix+i); }catch(SAFSException x){ failures.incrementAndGet(); }
+					}
+				}
+			});
+			threads[p].start();
+		}
+		long total = (long)producers*messages;
+		int[] next = new int[producers];
+		long begin = System.nanoTime();
+		start.countDown();
+		for(long received=0; received<total; received++){
+			String message = fifo.out(TIMEOUT_WAIT_FOREVER);
+			int colon = message.indexOf(':');
+			int p = Integer.parseInt(message.substring(0, colon));
+			int i = Integer.parseInt(message.substring(colon+1));
+			if(i!=next[p]++) throw new AssertionError("FAILED: producer "+ p +" message "+ i +" out of order.");
+		}
+		long elapsed = System.nanoTime()-begin;
+		for(Thread t: threads) t.join();
+		String empty = null;
+		try{ fifo.out(TIMEOUT_NO_WAIT); }catch(SAFSException x){ empty = x.getCode(); }
+		check(fifo.getClass().getSimpleName()+" received all "+ total +" messages once, in order", failures.get()==0 && SAFSException.CODE_CONTAINER_ISEMPTY.equals(empty));
+		return total*1000000000L/Math.max(elapsed, 1);
+	}
+}
@@ -29,11 +29,13 @@ package org.safs.staf.service.var;
  * @author Lei Wang    APR 05, 2012 Add option "MAPVARLOOP" for command "GET", see Testhelp078350
  * @author Carl Nagle     JUL 22, 2013 Allow SAFSVARS LIST to return V2 format.
  * @author Lei Wang    NOV 13, 2019 Modified getValue(): quote the variable when generating the map GETITEM request.
+ * OCT 19, 2026 Notify DirectoryContext of SET, DELETE, and RESET requests.
  */
 import org.safs.Log;
 import org.safs.SAFSStringTokenizer;
 import org.safs.staf.embedded.HandleInterface;
 import org.safs.staf.service.map.AbstractSAFSAppMapService;
+import org.safs.text.DirectoryContext;
 import org.safs.tools.expression.SafsExpression;
 import org.safs.tools.stringutils.StringUtilities;
 import org.safs.tools.vars.SimpleVarsInterface;
@@ -420,14 +422,9 @@ public abstract class AbstractSAFSVariableService implements SimpleVarsInterface
 		// ===============================================================
 		}else if( parsedData.optionTimes(SVS_SERVICE_REQUEST_SET) > 0) {
 
-			value1 = parsedData.optionValue(SVS_SERVICE_REQUEST_SET).toLowerCase();
+			value1 = parsedData.optionValue(SVS_SERVICE_REQUEST_SET);
 			value2  = parsedData.optionValue(SVS_SERVICE_REQUEST_VALUE);
-			synchronized(tempresult){
-				setValue(value1, value2);
-				locresult.rc = tempresult.rc;
-				locresult.result = tempresult.result;
-			}
-			return locresult;
+			return handleSet(value1, value2);
 
 		// ===============================================================
 		}else if( parsedData.optionTimes(SVS_SERVICE_REQUEST_GET) > 0) {
@@ -441,19 +438,11 @@ public abstract class AbstractSAFSVariableService implements SimpleVarsInterface
 			if(mapVarLoop){
 				processedItems = parsedData.optionValue(SVS_SERVICE_PARM_MAP_VAR_LOOP);
 			}
-			//I don't think we can synchronize here because a call to getValue
-			//can result in a call to get an ApplicationConstant out of an App map
-			//that can result in another call to VARS getValue from the App Map service
-			//if the app map value is a call to a _DDV or {^resolved} variable.
-			//In that scenario, I believe synchronizing on tempresult here would
-			//cause a deadlock when the second call to getValue is made.
-			getValue(value1.toLowerCase(), mapVarLoop, processedItems); //internally synchronized...mostly
-			locresult.rc = tempresult.rc;
-			locresult.result = tempresult.result;
-			return locresult;
+			return handleGet(value1, mapVarLoop, processedItems);
 
 		// ===============================================================
 		}else if( parsedData.optionTimes(SVS_SERVICE_REQUEST_RESET) > 0){
+			DirectoryContext.reset();
 			return handleReset();
 
 		// ===============================================================
@@ -464,61 +453,14 @@ public abstract class AbstractSAFSVariableService implements SimpleVarsInterface
 				value2 = parsedData.optionValue(SVS_SERVICE_REQUEST_SEPARATOR);
 			}
 			boolean expressions = !(parsedData.optionTimes(SVS_SERVICE_REQUEST_NOEXPRESSIONS) > 0);
-
-			try{
-				if((value2==null)||(value2.length()==0)){
-					String expResult = null;
-					try{
-						exp.setExpression(value1);
-						if (expressions) { expResult = exp.evalExpression();}
-						else             { expResult = exp.evalVariables() ;}
-						expResult = smartQuoteField(expResult);
-						locresult.result = "0:" + expResult;
-					}catch(Exception x){
-						Log.debug("IGNORING SAFSVARS RESOLVE ERROR for text:"+ value1, x);
-						locresult.result = "0:" + value1;
-					}
-				}
-				else{
-					String expression = "";
-					String field = "";
-					value2 = value2.substring(0,1);
-					SAFSStringTokenizer toker = new SAFSStringTokenizer(value1, value2);
-					while(toker.hasMoreTokens()){
-						field = StringUtilities.TWhitespace(toker.nextToken());
-						if (! field.equals(dq)){
-							if (field.length()> 0){
-									try{
-										exp.setExpression(field);
-										if (expressions) {field = exp.evalExpression();}
-										else             {field = exp.evalVariables() ;}
-										field = smartQuoteField(field);
-									}catch(Exception x){
-										Log.debug("IGNORING SAFSVARS RESOLVE ERROR for text:"+ field, x);
-									}
-							}else{
-								field = smartQuoteField(field);
-							}
-						}
-						expression += field;
-						if (toker.hasMoreTokens()) expression += value2;
-					}
-					locresult.result = "0:"+ expression;
-				}
-			}
-			catch(Exception x){
-				Log.debug("SAFSVARS RESOLVE Exception:", x);
-				locresult.rc = STAFResult.InvalidResolveString;
-				locresult.result = "15:"+ value1;
-			}
-
-			return locresult;
+			return handleResolve(value1, value2, expressions);
 
 		// ===============================================================
 		}else if( parsedData.optionTimes(SVS_SERVICE_REQUEST_DELETE) > 0){
 
 			value1= parsedData.optionValue(SVS_SERVICE_REQUEST_DELETE);
 			value2= stafDeleteCommand(value1.toLowerCase());
+			DirectoryContext.variableChanged(value1);
 			return deleteStoredVariable(value2);
 		// ===============================================================
 		}else{
@@ -529,6 +471,105 @@ public abstract class AbstractSAFSVariableService implements SimpleVarsInterface
 		return locresult;
 	}
 
+	/**
+	 * Handle the GET request whether received as a STAF command string or as an
+	 * {@link org.safs.staf.embedded.EmbeddedRequest.GetVariable}.
+	 * @param varname the variable to get.
+	 * @param mapVarLoop true if the request comes from the Map Service.
+	 * @param processedItems items already processed in the Map Service, if mapVarLoop is true.
+	 * @return STAFResult with the variable value.
+	 */
+	protected STAFResult handleGet(String varname, boolean mapVarLoop, String processedItems){
+		STAFResult locresult = new STAFResult(STAFResult.Ok, new String());
+		//I don't think we can synchronize here because a call to getValue
+		//can result in a call to get an ApplicationConstant out of an App map
+		//that can result in another call to VARS getValue from the App Map service
+		//if the app map value is a call to a _DDV or {^resolved} variable.
+		//In that scenario, I believe synchronizing on tempresult here would
+		//cause a deadlock when the second call to getValue is made.
+		getValue(varname.toLowerCase(), mapVarLoop, processedItems); //internally synchronized...mostly
+		locresult.rc = tempresult.rc;
+		locresult.result = tempresult.result;
+		return locresult;
+	}
+
+	/**
+	 * Handle the SET request whether received as a STAF command string or as an
+	 * {@link org.safs.staf.embedded.EmbeddedRequest.SetVariable}.
+	 * @param varname the variable to set.
+	 * @param varvalue the value to assign.
+	 * @return STAFResult of the storage request.
+	 */
+	protected STAFResult handleSet(String varname, String varvalue){
+		STAFResult locresult = new STAFResult(STAFResult.Ok, new String());
+		synchronized(tempresult){
+			setValue(varname.toLowerCase(), varvalue);
+			locresult.rc = tempresult.rc;
+			locresult.result = tempresult.result;
+		}
+		return locresult;
+	}
+
+	/**
+	 * Handle the RESOLVE request whether received as a STAF command string or as an
+	 * {@link org.safs.staf.embedded.EmbeddedRequest.Resolve}.
+	 * @param value1 the record to resolve, with any "_DDV_" already converted to CARETs.
+	 * @param value2 the optional field separator. null or empty to resolve the record as a single field.
+	 * @param expressions true to evaluate expressions, false to only process variables.
+	 * @return STAFResult with the resolved record in "RC:STRING" format.
+	 */
+	protected STAFResult handleResolve(String value1, String value2, boolean expressions){
+		STAFResult locresult = new STAFResult(STAFResult.Ok, new String());
+		try{
+			if((value2==null)||(value2.length()==0)){
+				String expResult = null;
+				try{
+					exp.setExpression(value1);
+					if (expressions) { expResult = exp.evalExpression();}
+					else             { expResult = exp.evalVariables() ;}
+					expResult = smartQuoteField(expResult);
+					locresult.result = "0:" + expResult;
+				}catch(Exception x){
+					Log.debug("IGNORING SAFSVARS RESOLVE ERROR for text:"+ value1, x);
+					locresult.result = "0:" + value1;
+				}
+			}
+			else{
+				String expression = "";
+				String field = "";
+				value2 = value2.substring(0,1);
+				SAFSStringTokenizer toker = new SAFSStringTokenizer(value1, value2);
+				while(toker.hasMoreTokens()){
+					field = StringUtilities.TWhitespace(toker.nextToken());
+					if (! field.equals(dq)){
+						if (field.length()> 0){
+								try{
+									exp.setExpression(field);
+									if (expressions) {field = exp.evalExpression();}
+									else             {field = exp.evalVariables() ;}
+									field = smartQuoteField(field);
+								}catch(Exception x){
+									Log.debug("IGNORING SAFSVARS RESOLVE ERROR for text:"+ field, x);
+								}
+						}else{
+							field = smartQuoteField(field);
+						}
+					}
+					expression += field;
+					if (toker.hasMoreTokens()) expression += value2;
+				}
+				locresult.result = "0:"+ expression;
+			}
+		}
+		catch(Exception x){
+			Log.debug("SAFSVARS RESOLVE Exception:", x);
+			locresult.rc = STAFResult.InvalidResolveString;
+			locresult.result = "15:"+ value1;
+		}
+
+		return locresult;
+	}
+
 	/**
 	 * Made to be overridden by subclasses, if any.
 	 * @param deleteCmd
@@ -556,6 +597,32 @@ public abstract class AbstractSAFSVariableService implements SimpleVarsInterface
 		return client.submit2("local", "var", setCmd);
 	}
 
+	/**
+	 * Get the stored value of a variable.  By default, this formats the storage GET command
+	 * and calls {@link #getStoredValue(String)}.  Subclasses storing variables locally can
+	 * override this to avoid formatting and parsing the command.
+	 * @param varname the already lowercase variable name.
+	 * @return STAFResult
+	 */
+	protected STAFResult getStoredVariable(String varname){
+		String lentagged = c+ String.valueOf(varname.length()).trim() +c+ varname;
+		return getStoredValue(stafGetCommmd(lentagged));
+	}
+
+	/**
+	 * Set the stored value of a variable.  By default, this formats the storage SET command
+	 * and calls {@link #setStoredValue(String)}.  Subclasses storing variables locally can
+	 * override this to avoid formatting and parsing the command.
+	 * @param varname the already lowercase variable name.
+	 * @param varvalue the value to store.
+	 * @return STAFResult
+	 */
+	protected STAFResult setStoredVariable(String varname, String varvalue){
+		String command = varname + eq + varvalue;
+		command = c+ String.valueOf(command.length()).trim() +c+ command;
+		return setStoredValue(stafSetCommmd(command));
+	}
+
 	/**
 	 * tempresult is internally synchronized since the method can be recursively called
 	 * @param varname			String, the variable name to resolve
@@ -587,11 +654,7 @@ public abstract class AbstractSAFSVariableService implements SimpleVarsInterface
 			trymap = false;
 			varname = varname.substring(AbstractSAFSAppMapService.SAM_DDV_PREFIX_LEN);
 		}
-		String lentagged = c+ String.valueOf(varname.length()).trim() +c+ varname.toLowerCase();
-
-		String getCmd = stafGetCommmd(lentagged);
-
-		STAFResult aresult = getStoredValue(getCmd);
+		STAFResult aresult = getStoredVariable(varname.toLowerCase());
 
 		if ((trymap)&&(aresult.rc == STAFResult.VariableDoesNotExist)){
 
@@ -652,11 +715,8 @@ public abstract class AbstractSAFSVariableService implements SimpleVarsInterface
 	@Override
 	public String setValue(String varname, String varvalue) {
 
-		String command = varname.toLowerCase() + eq + varvalue;
-		command = c+ String.valueOf(command.length()).trim() +c+ command;
-
-		String setCmd = stafSetCommmd(command);
-		tempresult = setStoredValue(setCmd);
+		tempresult = setStoredVariable(varname.toLowerCase(), varvalue);
+		DirectoryContext.variableChanged(varname);
 
 		return varvalue;
 	}
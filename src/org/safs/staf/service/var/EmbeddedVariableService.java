@@ -22,6 +22,8 @@ import java.util.Hashtable;
 import java.util.Iterator;
 
 import org.safs.Log;
+import org.safs.staf.embedded.EmbeddedRequest;
+import org.safs.staf.embedded.EmbeddedRequestHandler;
 import org.safs.staf.embedded.EmbeddedServiceHandle;
 import org.safs.staf.embedded.ServiceInterface;
 import org.safs.staf.service.InfoInterface;
@@ -38,7 +40,7 @@ import com.ibm.staf.service.STAFCommandParser;
  * @author Carl Nagle
  *
  */
-public class EmbeddedVariableService extends AbstractSAFSVariableService implements ServiceInterface {
+public class EmbeddedVariableService extends AbstractSAFSVariableService implements ServiceInterface, EmbeddedRequestHandler {
 	
 	protected boolean embedVars = false;
 	protected Hashtable<String, String> localvars = new CaseInsensitiveHashtable(150);
@@ -95,6 +97,24 @@ public class EmbeddedVariableService extends AbstractSAFSVariableService impleme
 		return doAcceptRequest(info.request);
 	}
 
+	/**
+	 * Handles GetVariable, SetVariable, and Resolve requests directly without STAF command parsing.
+	 * @see org.safs.staf.embedded.EmbeddedRequestHandler#acceptEmbeddedRequest(org.safs.staf.embedded.EmbeddedRequest)
+	 */
+	@Override
+	public STAFResult acceptEmbeddedRequest(EmbeddedRequest request) {
+		if(request instanceof EmbeddedRequest.GetVariable){
+			return handleGet(((EmbeddedRequest.GetVariable)request).name, false, "");
+		}else if(request instanceof EmbeddedRequest.SetVariable){
+			EmbeddedRequest.SetVariable set = (EmbeddedRequest.SetVariable)request;
+			return handleSet(set.name, set.value);
+		}else if(request instanceof EmbeddedRequest.Resolve){
+			EmbeddedRequest.Resolve resolve = (EmbeddedRequest.Resolve)request;
+			return handleResolve(resolve.record, resolve.separator, resolve.expressions);
+		}
+		return null;
+	}
+
 	/**********************************************************************
 	 * 	Handle the request to shutdown the service from STAF
 	 **********************************************************************/
@@ -122,6 +142,25 @@ public class EmbeddedVariableService extends AbstractSAFSVariableService impleme
 		return "handle "+ client.getHandle() +" LIST";
 	}	
 	
+	@Override
+	protected STAFResult getStoredVariable(String varname){
+		if(! embedVars) return super.getStoredVariable(varname);
+		String varvalue = localvars.get(varname);
+		if( varvalue == null )
+			return new STAFResult(STAFResult.VariableDoesNotExist, varname);
+		return new STAFResult(STAFResult.Ok, varvalue);
+	}
+
+	@Override
+	protected STAFResult setStoredVariable(String varname, String varvalue){
+		if(! embedVars) return super.setStoredVariable(varname, varvalue);
+		if(varname.length() < 1) {
+			return new STAFResult(STAFResult.InvalidRequestString, varname);
+		}
+		localvars.put(varname, varvalue == null ? "" : varvalue);
+		return new STAFResult(STAFResult.Ok);
+	}
+
 	@Override
 	protected STAFResult getStoredValue(String getCmd){
 		if(! embedVars) return super.getStoredValue(getCmd);
@@ -0,0 +1,192 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package org.safs.test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.safs.jvmagent.SAFSActionUnsupportedRuntimeException;
+import org.safs.rmi.engine.Agent;
+import org.safs.rmi.engine.AgentGuiObjectVector;
+import org.safs.rmi.engine.AgentMatch;
+
+/**
+ * Self-test of {@link AgentGuiObjectVector}.  Compares the RMI calls needed to resolve recognition 
+ * strings with a Server-side search against the single call needed by the Agent-side search.  
+ * A counting dynamic proxy stands in for the RMI stub of an Agent serving a synthetic component 
+ * hierarchy.
+ * <p>
+ * History:<br>
+ *
+ *  <br>   OCT 19, 2026    Initial release, moved out of AgentGuiObjectVector.
+ */
+public class AgentGuiObjectVectorTest {
+
+	/**
+	 * java org.safs.test.AgentGuiObjectVectorTest
+	 */
+	public static void main(String[] args) throws Exception {
+		final TreeNode desktop = TreeNode.build();
+		final Agent local = (Agent) Proxy.newProxyInstance(Agent.class.getClassLoader(), new Class<?>[]{Agent.class}, new TreeAgent(desktop));
+		final int[] calls = new int[1];
+		Agent remote = (Agent) Proxy.newProxyInstance(Agent.class.getClassLoader(), new Class<?>[]{Agent.class}, new InvocationHandler(){
+			public Object invoke(Object proxy, Method method, Object[] margs) throws Throwable{
+				if(method.getDeclaringClass() == Object.class) return method.invoke(local, margs);
+				calls[0]++;
+				try{ return method.invoke(local, margs); }
+				catch(InvocationTargetException x){ throw x.getCause(); }
+			}
+		});
+		String[][] searches = {
+			{"Class=javax.swing.JFrame;Caption=Main", null, "6"},
+			{"Class=javax.swing.JFrame;Index=2", null, "32"},
+			{"Class=javax.swing.JFrame;Caption=Main", "Class=javax.swing.JButton;Name=ok", "29"},
+			{"Class=javax.swing.JFrame;Caption=Main", "Class=javax.swing.JButton;Index=3", "27"},
+			// classic search mode counts class indices from the window, not from the matched panel
+			{"Class=javax.swing.JFrame;Caption=Main", "Class=javax.swing.JPanel;Index=2;\\;Class=JLabel;Index=4", "15"},
+			{"Class=javax.swing.JFrame;Caption={Other*}", "Class=javax.swing.JTextField;Index=1", "34"},
+			{"Class=javax.swing.JFrame;Caption=Main", "Class=javax.swing.JButton;Name=missing", null},
+			{"Class=javax.swing.JFrame;Caption=Missing", null, null},
+		};
+		String[] props = {"text", "enabled"};
+		int failures = 0, totalBefore = 0, totalAfter = 0;
+		for(String[] search: searches){
+			calls[0] = 0;
+			AgentMatch before = AgentGuiObjectVector.find(remote, search[0], search[1], props);
+			int beforeCalls = calls[0];
+			calls[0] = 0;
+			AgentMatch after = remote.findMatchingObject(search[0], search[1], props);
+			int afterCalls = calls[0];
+			totalBefore += beforeCalls;
+			totalAfter += afterCalls;
+			String expected = search[2];
+			String b = before == null ? null : String.valueOf(before.getObject());
+			String a = after == null ? null : String.valueOf(after.getObject());
+			boolean ok = (expected == null ? b == null && a == null : expected.equals(b) && expected.equals(a));
+			if(ok && after != null) ok = after.getProperties().equals(before.getProperties()) && 
+					                     ("text"+ expected).equals(after.getProperty("text"));
+			if(!ok) failures++;
+			System.out.println((ok ? "OK  " : "FAIL") +" remote calls before="+ beforeCalls +" after="+ afterCalls +
+					           " match="+ a +" : "+ search[0] + (search[1] == null ? "" : " ;\\; "+ search[1]));
+		}
+		System.out.println("Total remote calls: server-side search="+ totalBefore +", agent-side search="+ totalAfter);
+		if(totalAfter != searches.length) failures++;
+		System.out.println(failures == 0 ? "AgentGuiObjectVector self-test passed." : "AgentGuiObjectVector self-test FAILED: "+ failures);
+		if(failures > 0) System.exit(1);
+	}
+
+	/** Synthetic component used by the self-test.  The handle of a node is its Integer id. */
+	public static class TreeNode {
+		int id;
+		String classname;
+		String caption;
+		String name;
+		List<TreeNode> children = new ArrayList<TreeNode>();
+
+		Map<Integer,TreeNode> all;
+
+		public TreeNode(Map<Integer,TreeNode> all, String classname, String caption, String name){
+			this.all = all;
+			this.id = all.size();
+			this.classname = classname;
+			this.caption = caption;
+			this.name = name;
+			all.put(id, this);
+		}
+
+		public TreeNode add(String classname, String name){
+			TreeNode node = new TreeNode(all, classname, null, name);
+			children.add(node);
+			return node;
+		}
+
+		/** Two frames with nested panels, buttons, labels, and text fields. */
+		public static TreeNode build(){
+			Map<Integer,TreeNode> all = new HashMap<Integer,TreeNode>();
+			TreeNode desktop = new TreeNode(all, "Desktop", null, null);
+			for(int i=0;i<5;i++) desktop.add("javax.swing.JDialog", "dialog"+ i);
+			TreeNode main = desktop.add("javax.swing.JFrame", "main");
+			main.caption = "Main";
+			for(int p=0;p<3;p++){
+				TreeNode panel = main.add("javax.swing.JPanel", "panel"+ p);
+				for(int c=0;c<5;c++) panel.add(c % 2 == 0 ? "javax.swing.JLabel" : "javax.swing.JTextField", "field"+ p + c);
+				panel.add("javax.swing.JButton", "button"+ p);
+			}
+			main.add("javax.swing.JButton", "cancel");
+			main.add("javax.swing.JButton", "ok");
+			for(int i=0;i<2;i++) main.add("javax.swing.JLabel", "status"+ i);
+			TreeNode other = desktop.add("javax.swing.JFrame", "other");
+			other.caption = "Other Window";
+			other.add("javax.swing.JLabel", "prompt");
+			other.add("javax.swing.JTextField", "entry");
+			return desktop;
+		}
+	}
+
+	/** InvocationHandler serving Agent calls from a TreeNode hierarchy. */
+	public static class TreeAgent implements InvocationHandler {
+		TreeNode desktop;
+		public TreeAgent(TreeNode desktop){ this.desktop = desktop; }
+
+		Object[] handles(List<TreeNode> nodes){
+			Object[] rc = new Object[nodes.size()];
+			for(int i=0;i<rc.length;i++) rc[i] = Integer.valueOf(nodes.get(i).id);
+			return rc;
+		}
+
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String m = method.getName();
+			if(method.getDeclaringClass() == Object.class){
+				if(m.equals("equals")) return Boolean.valueOf(proxy == args[0]);
+				if(m.equals("hashCode")) return Integer.valueOf(System.identityHashCode(proxy));
+				return "TreeAgent";
+			}
+			if(m.equals("findMatchingObject"))
+				return AgentGuiObjectVector.find((Agent) proxy, (String) args[0], (String) args[1], (String[]) args[2]);
+			if(m.equals("getTopLevelWindows")) return handles(desktop.children);
+			if(m.equals("getTopLevelCount")) return Integer.valueOf(desktop.children.size());
+			TreeNode node = args == null || !(args[0] instanceof Integer) ? null : desktop.all.get(args[0]);
+			if(node == null) throw new SAFSActionUnsupportedRuntimeException(m +" Unsupported");
+			if(m.equals("getChildren")) return handles(node.children);
+			if(m.equals("getChildCount")) return Integer.valueOf(node.children.size());
+			if(m.equals("getClassName")) return node.classname;
+			if(m.equals("getSuperClassNames")) 
+				return new String[]{"java.lang.Object", "java.awt.Component", "java.awt.Container", node.classname};
+			if(m.equals("getCaption")){
+				if(node.caption == null) throw new NoSuchFieldException("caption");
+				return node.caption;
+			}
+			if(m.equals("getName")) return node.name;
+			if(m.equals("getText")) return "text"+ node.id;
+			if(m.equals("getProperty")){
+				if("text".equals(args[1])) return "text"+ node.id;
+				if("enabled".equals(args[1])) return "true";
+				throw new NoSuchFieldException((String) args[1]);
+			}
+			if(m.equals("isShowing") || m.equals("isValid")) return Boolean.TRUE;
+			if(m.equals("getLevel")) return Integer.valueOf(0);
+			throw new SAFSActionUnsupportedRuntimeException(m +" Unsupported");
+		}
+	}
+}
@@ -0,0 +1,252 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package org.safs.test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.Vector;
+
+import org.safs.GuiChildIterator;
+import org.safs.GuiClassData;
+import org.safs.GuiObjectRecognition;
+import org.safs.GuiObjectVector;
+import org.safs.MatchData;
+
+/**
+ * Concurrency stress test of {@link GuiChildIterator} searches over a synthetic hierarchy.<br>
+ * The StressNode hierarchy and its GuiObjectVector are also used by {@link RecognitionCacheTest}.
+ * <p>
+ * History:<br>
+ *
+ *  <br>   OCT 19, 2026    Initial release, moved out of GuiChildIterator.
+ *  <br>   OCT 19, 2026    Run with and without parallel prefetch, and time prefetch against slow child retrieval.
+ */
+public class GuiChildIteratorTest {
+
+	/** 
+	 * Stress test.  Runs many concurrent searches against a synthetic hierarchy, with and 
+	 * without parallel prefetch, and compares every result with a sequential search.
+	 * Then times sequential searches with slow child retrieval, as with a remote toolkit, 
+	 * with and without prefetch.
+	 * <p>
+	 * java org.safs.test.GuiChildIteratorTest [threads] [searchesPerThread] [prefetchWorkers]
+	 */
+	public static void main(String[] args) throws Exception {
+		final int threads  = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+		final int searches = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+		int workers        = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+		
+		final StressNode root = StressNode.build(4, 5);
+		final List<String> recognitions = new ArrayList<String>();
+		final String parent = "Class=Frame;Name=n0";
+		recognitions.add(parent);
+		for(StressNode node: root.all()){
+			if(node == root) continue;
+			recognitions.add(parent +";\\;Class="+ node.classname +";Name="+ node.name);
+			recognitions.add(parent +";\\;Class="+ node.classname +";Index="+ (1 + node.id % 7));
+			recognitions.add(parent +";\\;Type="+ node.classname +";Index="+ (1 + node.id % 5));
+			recognitions.add(GuiObjectVector.FULLPATH_SEARCH_MODE_PREFIX + node.fullpath());
+		}
+		recognitions.add(parent +";\\;Class=Button;Name=missing");
+		
+		// sequential reference results
+		GuiChildIterator.setParallelTraversal(0);
+		final Map<String,String> expected = new HashMap<String,String>();
+		final Map<String,String> expectedGather = new HashMap<String,String>();
+		long start = System.nanoTime();
+		for(String rec: recognitions) expected.put(rec, StressVector.search(root, rec, false));
+		for(String rec: recognitions) expectedGather.put(rec, StressVector.search(root, rec, true));
+		long sequential = System.nanoTime() - start;
+		System.out.println("GCI stress: "+ recognitions.size() +" recognition strings, "+ root.all().size() +" objects, sequential "+ (sequential/1000000) +"ms");
+		
+		int failures = 0;
+		for(int pass=0; pass < 2; pass++){
+			GuiChildIterator.setParallelTraversal(pass == 0 ? 0 : workers);
+			final List<String> errors = Collections.synchronizedList(new ArrayList<String>());
+			Thread[] runners = new Thread[threads];
+			start = System.nanoTime();
+			for(int t=0; t < threads; t++){
+				final int seed = t;
+				runners[t] = new Thread("GCI.stress-"+ t){
+					public void run(){
+						Random random = new Random(seed);
+						for(int n=0; n < searches; n++){
+							String rec = recognitions.get(random.nextInt(recognitions.size()));
+							boolean gathering = random.nextInt(4)==0;
+							String actual = StressVector.search(root, rec, gathering);
+							String wanted = gathering ? expectedGather.get(rec) : expected.get(rec);
+							if(! wanted.equals(actual)) errors.add(rec +"\n   expected: "+ wanted +"\n     actual: "+ actual);
+						}
+					}
+				};
+				runners[t].start();
+			}
+			for(Thread runner: runners) runner.join();
+			long elapsed = System.nanoTime() - start;
+			System.out.println("GCI stress: "+ threads +" threads x "+ searches +" searches, prefetch workers "+ GuiChildIterator.getParallelTraversal() +": "+ (elapsed/1000000) +"ms, "+ errors.size() +" mismatches");
+			for(int e=0; e < errors.size() && e < 5; e++) System.out.println(errors.get(e));
+			failures += errors.size();
+		}
+		
+		// slow child retrieval: prefetch overlaps the retrieval of sibling subtrees
+		StressVector.childDelayMillis = 2;
+		List<String> slow = new ArrayList<String>();
+		for(int i=0; i < recognitions.size(); i += recognitions.size() / 12) slow.add(recognitions.get(i));
+		for(int pass=0; pass < 2; pass++){
+			GuiChildIterator.setParallelTraversal(pass == 0 ? 0 : workers);
+			int mismatches = 0;
+			start = System.nanoTime();
+			for(String rec: slow) if(! expected.get(rec).equals(StressVector.search(root, rec, false))) mismatches++;
+			long elapsed = System.nanoTime() - start;
+			System.out.println("GCI slow children: "+ slow.size() +" searches, prefetch workers "+ GuiChildIterator.getParallelTraversal() +": "+ (elapsed/1000000) +"ms, "+ mismatches +" mismatches");
+			failures += mismatches;
+		}
+		StressVector.childDelayMillis = 0;
+		GuiChildIterator.setParallelTraversal(0);
+		System.out.println(failures == 0 ? "GCI stress: PASSED" : "GCI stress: FAILED with "+ failures +" mismatches");
+		if(failures > 0) System.exit(1);
+	}
+	
+	/** Synthetic component used by the stress test. */
+	public static class StressNode {
+		public int id;
+		public String name;
+		public String classname;
+		StressNode parent;
+		StressNode[] children = new StressNode[0];
+		
+		public static StressNode build(int depth, int fanout){
+			int[] ids = new int[]{0};
+			StressNode root = new StressNode(ids, null, "Frame");
+			root.grow(ids, depth, fanout);
+			return root;
+		}
+		StressNode(int[] ids, StressNode parent, String classname){
+			this.id = ids[0]++;
+			this.name = "n"+ id;
+			this.parent = parent;
+			this.classname = classname;
+		}
+		void grow(int[] ids, int depth, int fanout){
+			if(depth == 0) return;
+			String[] classes = {"Panel","Button","Label","Panel","TextField"};
+			children = new StressNode[fanout];
+			for(int i=0; i < fanout; i++){
+				children[i] = new StressNode(ids, this, classes[(id + i) % classes.length]);
+				if(children[i].classname.equals("Panel")) children[i].grow(ids, depth -1, fanout);
+			}
+		}
+		public List<StressNode> all(){
+			List<StressNode> list = new ArrayList<StressNode>();
+			list.add(this);
+			for(StressNode child: children) list.addAll(child.all());
+			return list;
+		}
+		public String fullpath(){
+			String path = "Class="+ classname +";Name="+ name;
+			return parent == null ? path : parent.fullpath() +";\\;"+ path;
+		}
+		public String toString(){ return name; }
+	}
+	
+	/** GuiObjectVector over StressNode hierarchies.  Child retrieval is safe to call concurrently. */
+	public static class StressVector extends GuiObjectVector {
+		/** Milliseconds each getChildObjects call takes, to stand in for a remote toolkit. 0 by default. */
+		public static volatile int childDelayMillis = 0;
+		StressNode root;
+		StressVector(StressNode root, String path){
+			super("Frame", "Child", path);
+			this.root = root;
+			initGuiObjectRecognition();
+		}
+		/** @return a printable summary of the search result for comparison. */
+		public static String search(StressNode root, String rec, boolean gathering){
+			GuiChildIterator.resetAbsoluteIndexStore();
+			List<String> gather = gathering ? new ArrayList<String>() : null;
+			GuiChildIterator it = new GuiChildIterator(root, new StressVector(root, rec), gather);
+			StringBuffer result = new StringBuffer(gathering ? "GATHER "+ gather : "");
+			result.append(" match="+ it.getMatchedGuiObject());
+			Vector<MatchData> matches = it.getSearchState().getMatches();
+			for(int m=0; m < matches.size(); m++){
+				MatchData data = matches.get(m);
+				result.append(" ["+ data.getGuiTestObject() +"@"+ data.getVectorRecognitionLevel() +"/"+ data.getObjectRecognitionLevel() +"]");
+			}
+			result.append(" abs="+ new TreeMap<String,Integer>(it.getSearchState().getAbsoluteIndexStore()));
+			return result.toString();
+		}
+		protected GuiClassData getGuiClassData(){
+			return new GuiClassData(){
+				public String getMappedClassType(String classname, Object theObject, boolean recursive, boolean allowGeneric){
+					return classname;
+				}
+			};
+		}
+		public Object[] getParentObjects(){ return new Object[]{root}; }
+		public Object[] getDomainParentObjects(String domainname){ return getParentObjects(); }
+		public Object[] getChildObjects(Object parent){
+			if(childDelayMillis > 0){
+				try{ Thread.sleep(childDelayMillis); }catch(InterruptedException x){ Thread.currentThread().interrupt(); }
+			}else{
+				Thread.yield(); // widen the window for interleaving
+			}
+			return ((StressNode)parent).children.clone();
+		}
+		public boolean isValidGuiObject(Object object){ return object instanceof StressNode; }
+		public boolean isConcurrentTraversalSupported(){ return true; }
+		protected boolean isValidGuiContainer(Object object){ return ((StressNode)object).children.length > 0; }
+		protected GuiObjectRecognition createGuiObjectRecognition(String subpath, int govLevel){
+			return new StressRecognition(subpath, govLevel);
+		}
+		@SuppressWarnings("rawtypes")
+		protected GuiChildIterator createGuiChildIterator(Object aparent, GuiObjectVector govVector, List gather){
+			return new GuiChildIterator(aparent, govVector, gather);
+		}
+		@SuppressWarnings("rawtypes")
+		protected GuiChildIterator createGuiChildIterator(List gather){ return new GuiChildIterator(gather); }
+		public void setActiveWindow(Object _comp){}
+	}
+	
+	/** GuiObjectRecognition over StressNode objects. */
+	public static class StressRecognition extends GuiObjectRecognition {
+		StressRecognition(String objectInfo, int govLevel){ super(objectInfo, govLevel); }
+		public String getObjectName(Object theObject){ return ((StressNode)theObject).name; }
+		public String getObjectClassName(Object theObject){ return ((StressNode)theObject).classname; }
+		public String getObjectCaption(Object theObject){ return ((StressNode)theObject).name; }
+		public String getObjectDomain(Object theObject){ return "Java"; }
+		public int getObjectLevel(Object theObject){ return 0; }
+		public String getObjectText(Object theObject){ return ((StressNode)theObject).name; }
+		public String getObjectID(Object theObject){ return ((StressNode)theObject).name; }
+		public String[] getObjectPropertyNames(Object theObject){ return new String[0]; }
+		public String getObjectProperty(Object theObject, String theProperty){ return null; }
+		public Object getMatchingPathObject(Object theObject, String thePath){ return theObject; }
+		public boolean isMatchingPath(Object theObject, String thePath){ return false; }
+		public boolean isObjectShowing(Object theObject){ return true; }
+		public boolean isMatchingType(Object theObject, String theClass){
+			return theClass.equalsIgnoreCase(getObjectClassName(theObject));
+		}
+		public boolean isMatchingSubClass(Object theObject, String theClass, String parentClass){
+			return isMatchingType(theObject, theClass);
+		}
+	}
+}
+
@@ -0,0 +1,89 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package org.safs.test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.safs.IndependantLog;
+import org.safs.Log;
+import org.safs.STAFHelper;
+
+/**
+ * Self-test of the delivery of {@link IndependantLog} and {@link Log} messages to a registered 
+ * debug Log at the default log level, without STAF: the debug Log is stood in for by a 
+ * STAFHelper recording the QUEUE messages sent to it.
+ * <p>
+ * History:<br>
+ *
+ *  <br>   OCT 19, 2026    Initial release.
+ */
+public class IndependantLogTest {
+
+	/** Records the messages queued for the debug Log instead of submitting them to STAF. */
+	public static class MonitorHelper extends STAFHelper {
+		public final List<String> messages = new ArrayList<String>();
+
+		public String getProcessName(){ return "IndependantLogTest"; }
+		public boolean isToolAvailable(String toolname){ return true; }
+		public boolean setVariable(String var, String val){ return true; }
+		public synchronized boolean sendQueueMessage(String name, String message){
+			messages.add(message);
+			return true;
+		}
+		public synchronized boolean received(String text){
+			for(String message: messages) if(message.contains(text)) return true;
+			return false;
+		}
+	}
+
+	/**
+	 * java org.safs.test.IndependantLogTest
+	 */
+	public static void main(String[] args){
+		MonitorHelper monitor = new MonitorHelper();
+		Log.ENABLED = true;
+		Log.setHelper(monitor);
+		check("default log level is GENERIC", Log.getLogLevel()==Log.GENERIC);
+		check("DEBUG is below the log level", !Log.isLoggable(Log.DEBUG));
+		check("DEBUG is deliverable to the debug Log", Log.isDeliverable(Log.DEBUG));
+
+		IndependantLog.debug("independant debug");
+		IndependantLog.info("independant info");
+		IndependantLog.index("independant index");
+		IndependantLog.debug("independant debug throwable", new Exception("debug exception"));
+		check("IndependantLog DEBUG reaches the debug Log", monitor.received("independant debug"));
+		check("IndependantLog INFO reaches the debug Log", monitor.received("independant info"));
+		check("IndependantLog INDEX reaches the debug Log", monitor.received("independant index"));
+		check("IndependantLog DEBUG with Throwable reaches the debug Log", monitor.received("debug exception"));
+
+		Log.debug("log debug throwable", new Exception("log debug exception"));
+		Log.info("log info throwable", new Exception("log info exception"));
+		Log.error("log error throwable", new Exception("log error exception"));
+		check("Log.debug(Object, Throwable) reaches the debug Log", monitor.received("log debug exception"));
+		check("Log.info(Object, Throwable) reaches the debug Log", monitor.received("log info exception"));
+		check("Log.error(Object, Throwable) reaches the debug Log", monitor.received("log error exception"));
+
+		System.out.println("IndependantLog self-test passed.");
+	}
+
+	private static void check(String what, boolean ok){
+		if(!ok) throw new AssertionError("FAILED: "+ what);
+		System.out.println("ok: "+ what);
+	}
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package org.safs.test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.safs.RecognitionCache;
+
+/**
+ * Benchmark of the {@link RecognitionCache} over the synthetic hierarchy of {@link GuiChildIteratorTest}.
+ * <p>
+ * History:<br>
+ *
+ *  <br>   OCT 19, 2026    Initial release, moved out of RecognitionCache.
+ */
+public class RecognitionCacheTest {
+
+	/**
+	 * Benchmark.  Runs object searches with wildcard recognition strings against a synthetic 
+	 * hierarchy of about 10,000 objects, with the cache disabled and then enabled, and verifies 
+	 * both produce the same results.
+	 * <p>
+	 * java org.safs.test.RecognitionCacheTest [rounds]
+	 */
+	public static void main(String[] args){
+		int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+		GuiChildIteratorTest.StressNode root = GuiChildIteratorTest.StressNode.build(7, 8);
+		List<GuiChildIteratorTest.StressNode> nodes = root.all();
+		List<String> recognitions = new ArrayList<String>();
+		String parent = "Class=Frame;Name=n0;\\;";
+		for(int i=1; i <= 20; i++){
+			GuiChildIteratorTest.StressNode node = nodes.get(i * (nodes.size() / 21));
+			recognitions.add(parent +"Class={"+ node.classname.substring(0, 3) +"*};Caption={"+ node.name +"}");
+			recognitions.add(parent +"Class="+ node.classname +";NameContains="+ node.name.substring(1));
+		}
+		recognitions.add(parent +"Class={Pan*};Caption={no?match*}"); // visits the whole tree
+		System.out.println("RecognitionCache benchmark: "+ nodes.size() +" objects, "+ recognitions.size() +" recognition strings, "+ rounds +" rounds");
+
+		List<String> uncached = null;
+		List<String> cached = null;
+		for(int pass=0; pass < 2; pass++){
+			RecognitionCache.setEnabled(pass == 1);
+			List<String> results = new ArrayList<String>();
+			long start = System.nanoTime();
+			for(int r=0; r < rounds; r++){
+				results.clear();
+				for(String rec: recognitions) results.add(GuiChildIteratorTest.StressVector.search(root, rec, false));
+			}
+			long elapsed = System.nanoTime() - start;
+			System.out.println("  cache "+ (RecognitionCache.isEnabled() ? "enabled ":"disabled") +": "+ (elapsed/1000000) +"ms, "+
+			                   (elapsed/(rounds * recognitions.size())/1000) +"us per search, patterns cached: "+ RecognitionCache.getPatternCount() +
+			                   ", qualifier sets cached: "+ RecognitionCache.getRecognitionCount());
+			if(pass == 0) uncached = results; else cached = results;
+		}
+		RecognitionCache.setEnabled(true);
+		boolean same = uncached.equals(cached);
+		System.out.println(same ? "RecognitionCache benchmark: results identical" : "RecognitionCache benchmark: RESULTS DIFFER");
+		if(!same) System.exit(1);
+	}
+}
@@ -0,0 +1,161 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package org.safs.test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import org.safs.tools.drivers.DriverConstant;
+import org.safs.tools.drivers.ShardExecutor;
+import org.safs.tools.status.StatusCounter;
+import org.safs.tools.status.StatusInfo;
+import org.safs.tools.status.StatusInterface;
+
+/**
+ * Self-test of {@link ShardExecutor}: splitting independent suites into shards, running them in 
+ * child JVMs with the parent's arguments, destroying a shard that exceeds the timeout, and merging 
+ * the shards' status counts and logs in submission order.
+ * <p>
+ * The child JVMs run this class in place of SAFSDRIVER.  A child reports the number of characters 
+ * in its suite name as its record count, and the suite HANG never finishes.
+ * <p>
+ * History:<br>
+ *
+ *  <br>   OCT 19, 2026    Initial release.
+ */
+public class ShardExecutorTest {
+
+	static final String[] ARGUMENTS = {"-testarg", "value with spaces"};
+
+	static final String HANG = "HANG";
+
+	public static void main(String[] args) throws Exception{
+		String statusFile = System.getProperty(DriverConstant.PROPERTY_SAFS_DRIVER_SHARD_STATUS);
+		if(statusFile != null){
+			runShard(args, new File(statusFile));
+			return;
+		}
+		int failures = 0;
+
+		// splitting
+		ShardExecutor shards = ShardExecutor.create("SuiteA:TID, suiteb;Hang", "2", "TID:1, Bad:x", "2");
+		if(shards == null || !shards.isIndependent(" suitea ") || !shards.isIndependent("SUITEB") ||
+		   !shards.isIndependent("hang") || shards.isIndependent("SuiteC") || shards.getTimeout() != 2000){
+			System.out.println("Independent suites were not parsed.");
+			failures++;
+		}
+		if(ShardExecutor.create(null, null, null, null) != null || ShardExecutor.create(" , ", "2", null, null) != null){
+			System.out.println("A ShardExecutor was created without independent suites.");
+			failures++;
+		}
+		System.setProperty(DriverConstant.PROPERTY_SAFS_DRIVER_SHARD_STATUS, "shard.status");
+		if(ShardExecutor.create("SuiteA", null, null, null) != null){
+			System.out.println("A shard created its own ShardExecutor.");
+			failures++;
+		}
+		System.clearProperty(DriverConstant.PROPERTY_SAFS_DRIVER_SHARD_STATUS);
+
+		// running
+		File dir = new File(System.getProperty("java.io.tmpdir"), "ShardExecutorTest"+ System.nanoTime());
+		dir.mkdirs();
+		ShardExecutor.setArguments(ARGUMENTS);
+		shards.setDriverClass(ShardExecutorTest.class.getName());
+		List<ShardExecutor.Shard> submitted = new ArrayList<ShardExecutor.Shard>();
+		long started = System.currentTimeMillis();
+		submitted.add(shards.submit("SuiteA", "\t", "Cycle", dir));
+		submitted.add(shards.submit(HANG, "\t", "Cycle", dir));
+		submitted.add(shards.submit("SuiteB", ",", "Cycle", dir));
+		for(ShardExecutor.Shard shard: submitted) shard.await();
+		long elapsed = System.currentTimeMillis() - started;
+		if(elapsed > 30000){
+			System.out.println("Shards took "+ elapsed +"ms despite the timeout.");
+			failures++;
+		}
+
+		// merging
+		StatusCounter merged = new StatusCounter();
+		for(ShardExecutor.Shard shard: submitted){
+			StatusInterface status = shard.getStatus();
+			if(shard.getSuite().equals(HANG)){
+				if(status != null || !(shard.getError() instanceof TimeoutException)){
+					System.out.println("Shard "+ HANG +" was not destroyed at the timeout: "+ shard.getError());
+					failures++;
+				}
+			}else if(status == null || shard.getExitCode() != 0){
+				System.out.println("Shard "+ shard.getSuite() +" exited "+ shard.getExitCode() +": "+ read(shard.getConsoleFile()));
+				failures++;
+			}else{
+				merged.addStatus(status);
+			}
+		}
+		if(merged.getTotalRecords() != 12 || merged.getTestPasses() != 10 || merged.getTestFailures() != 2){
+			System.out.println("Merged counts: "+ merged.getTotalRecords() +" records, "+ merged.getTestPasses() +" passes, "+ merged.getTestFailures() +" failures");
+			failures++;
+		}
+		File log = new File(dir, "merged.txt");
+		ShardExecutor.mergeLogs(submitted, dir, log);
+		String text = read(log);
+		int first = text.indexOf("==== Shard 1 SUITE SuiteA");
+		int second = text.indexOf("==== Shard 2 SUITE "+ HANG);
+		int third = text.indexOf("==== Shard 3 SUITE SuiteB");
+		if(first < 0 || second < first || third < second || text.indexOf("SuiteA log") < first || text.indexOf("SuiteB log") < third){
+			System.out.println("Merged log out of order:\n"+ text);
+			failures++;
+		}
+		for(File file: dir.listFiles()) file.delete();
+		dir.delete();
+		System.out.println(failures == 0 ? "ShardExecutor self-test passed." : "ShardExecutor self-test FAILED: "+ failures);
+	}
+
+	/** Run as a shard's driver: check the arguments, write the suite log, and report the status. */
+	static void runShard(String[] args, File statusFile) throws Exception{
+		String suite = System.getProperty(DriverConstant.PROPERTY_SAFS_TEST_NAME);
+		if(! Arrays.equals(args, ARGUMENTS)){
+			System.out.println("Shard "+ suite +" arguments "+ Arrays.asList(args));
+			System.exit(1);
+		}
+		if(suite.equals(HANG)){
+			Thread.sleep(120000);
+			System.exit(2);
+		}
+		PrintWriter out = new PrintWriter(new File(statusFile.getParentFile(), System.getProperty(DriverConstant.PROPERTY_SAFS_SUITE_LOGNAME) +".txt"), "UTF-8");
+		out.println(suite +" log");
+		out.close();
+		int records = suite.length();
+		ShardExecutor.writeStatus(statusFile, new StatusInfo(DriverConstant.DRIVER_SUITE_TESTLEVEL, records, 0, 0, 1, 0, records -1, 0, 0, 0, false));
+	}
+
+	static String read(File file) throws Exception{
+		if(! file.isFile()) return "";
+		StringBuilder text = new StringBuilder();
+		BufferedReader in = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+		try{
+			for(String line = in.readLine(); line != null; line = in.readLine()) text.append(line).append('\n');
+		}finally{
+			in.close();
+		}
+		return text.toString();
+	}
+}
@@ -0,0 +1,276 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package org.safs.text;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.safs.IndependantLog;
+import org.safs.SAFSException;
+import org.safs.staf.embedded.EmbeddedHandles;
+import org.safs.tools.CaseInsensitiveFile;
+import org.safs.tools.RuntimeDataInterface;
+
+/**
+ * The runtime directories of a test--bench, test, diff, datapool, project, and logs--as 
+ * seen by one RuntimeDataInterface.
+ * <p>
+ * Resolving a file with {@link FileUtilities#deduceFile(String, int, RuntimeDataInterface)} used to 
+ * request several directory variables from SAFSVARS and re-canonicalize the bench directory on 
+ * every call.  A DirectoryContext retrieves each directory variable only when first needed and 
+ * keeps it, along with the canonical bench path and datapool directory check, until one of the 
+ * directory variables changes.  A datapool directory found missing is checked again on the next 
+ * request, so one created during the run is seen.
+ * <p>
+ * Changes are reported through {@link #variableChanged(String)} by the variable service when it 
+ * sets or deletes a variable, and by STAFHelper when this JVM sets a variable.  These notifications 
+ * are complete only when SAFSVARS runs embedded in this JVM.  Otherwise another process may change 
+ * a directory without notice, so a context is reused only for the time given by System property 
+ * {@link #PROPERTY_MAX_AGE}:
+ * <p><ul>
+ * <li>-Dsafs.directorycontext.maxage=-1 : reuse until notified of a change.
+ * <li>-Dsafs.directorycontext.maxage=0 : (default) do not reuse, but still retrieve only the directories needed.
+ * <li>-Dsafs.directorycontext.maxage=n : reuse for n milliseconds or until notified of a change.
+ * </ul>
+ * 
+ * @since OCT 19, 2026
+ * <br>	OCT 19, 2026	Initial release.
+ * <br>	OCT 19, 2026	isDatapoolDirectory keeps only a found directory.
+ * @see FileUtilities#deduceFile(String, int, RuntimeDataInterface)
+ */
+public class DirectoryContext {
+
+	/** "safs.directorycontext.maxage" milliseconds a context is reused when SAFSVARS is not embedded in this JVM. */
+	public static final String PROPERTY_MAX_AGE = "safs.directorycontext.maxage";
+
+	/** "SAFSVARS" the variable service reporting changes when embedded in this JVM. */
+	public static final String VARIABLE_SERVICE = "SAFSVARS";
+
+	static final String[] VARIABLES = {
+		FileUtilities.VAR_SAFSBENCHDIRECTORY,
+		FileUtilities.VAR_SAFSTESTDIRECTORY,
+		FileUtilities.VAR_SAFSDIFDIRECTORY,
+		FileUtilities.VAR_SAFSDATAPOOLDIRECTORY,
+		FileUtilities.VAR_SAFSPROJECTDIRECTORY,
+		FileUtilities.VAR_SAFSLOGSDIRECTORY
+	};
+	static final int BENCH = 0, TEST = 1, DIFF = 2, DATAPOOL = 3, PROJECT = 4, LOGS = 5;
+
+	/** incremented whenever a directory variable may have changed. */
+	private static final AtomicLong generation = new AtomicLong();
+
+	private static final Map<RuntimeDataInterface, DirectoryContext> contexts = 
+			Collections.synchronizedMap(new WeakHashMap<RuntimeDataInterface, DirectoryContext>());
+
+	private final RuntimeDataInterface data;
+	private final long createdGeneration;
+	private final long created;
+	private final String[] values = new String[VARIABLES.length];
+	private final boolean[] loaded = new boolean[VARIABLES.length];
+	private String benchPath = null;
+	private boolean benchPathLoaded = false;
+	private Boolean datapoolDirectory = null;
+
+	private DirectoryContext(RuntimeDataInterface data){
+		this.data = data;
+		this.createdGeneration = generation.get();
+		this.created = System.currentTimeMillis();
+	}
+
+	/**
+	 * @param data RuntimeDataInterface providing the directory variables.
+	 * @return the current DirectoryContext of data.  A new context is created if the previous 
+	 * one may be out of date.
+	 */
+	public static DirectoryContext get(RuntimeDataInterface data){
+		DirectoryContext context = contexts.get(data);
+		if(context == null || ! context.isCurrent()){
+			context = new DirectoryContext(data);
+			if(getMaxAge() != 0) contexts.put(data, context);
+		}
+		return context;
+	}
+
+	/**
+	 * @return -1 if contexts are reused until notified of a change, 0 if they are not reused, 
+	 * or the milliseconds a context is reused.
+	 */
+	public static long getMaxAge(){
+		if(EmbeddedHandles.isServiceRunning(VARIABLE_SERVICE)) return -1;
+		String age = System.getProperty(PROPERTY_MAX_AGE);
+		if(age == null) return 0;
+		try{ return Long.parseLong(age.trim()); }
+		catch(NumberFormatException x){
+			IndependantLog.debug("DirectoryContext ignoring invalid "+ PROPERTY_MAX_AGE +" '"+ age +"'");
+			return 0;
+		}
+	}
+
+	/** @return true if no directory variable has changed and the context has not expired. */
+	public boolean isCurrent(){
+		if(createdGeneration != generation.get()) return false;
+		long maxage = getMaxAge();
+		return maxage < 0 || System.currentTimeMillis() - created < maxage;
+	}
+
+	/** @return true if varName names one of the directory variables.  Not case-sensitive. */
+	public static boolean isDirectoryVariable(String varName){
+		return indexOf(varName) > -1;
+	}
+
+	private static int indexOf(String varName){
+		if(varName == null) return -1;
+		String name = varName.trim();
+		for(int i=0;i<VARIABLES.length;i++) if(VARIABLES[i].equalsIgnoreCase(name)) return i;
+		return -1;
+	}
+
+	/**
+	 * Notification that a variable was set or deleted.  All contexts become out of date 
+	 * if varName is a directory variable.
+	 */
+	public static void variableChanged(String varName){
+		if(isDirectoryVariable(varName)) generation.incrementAndGet();
+	}
+
+	/** Notification that any or all variables may have changed, as with a SAFSVARS RESET. */
+	public static void reset(){
+		generation.incrementAndGet();
+	}
+
+	private synchronized String value(int index) throws SAFSException{
+		if(! loaded[index]){
+			values[index] = data.getVariable(VARIABLES[index]);
+			loaded[index] = true;
+		}
+		return values[index];
+	}
+
+	/**
+	 * @param varName a directory variable, or any other variable.
+	 * @return the directory variable value from this context, or the current value of 
+	 * any other variable from the RuntimeDataInterface.
+	 */
+	public String getDirectory(String varName) throws SAFSException{
+		int index = indexOf(varName);
+		return index < 0 ? data.getVariable(varName) : value(index);
+	}
+
+	public String getBenchDirectory() throws SAFSException{ return value(BENCH); }
+	public String getTestDirectory() throws SAFSException{ return value(TEST); }
+	public String getDiffDirectory() throws SAFSException{ return value(DIFF); }
+	public String getDatapoolDirectory() throws SAFSException{ return value(DATAPOOL); }
+	public String getProjectDirectory() throws SAFSException{ return value(PROJECT); }
+	public String getLogsDirectory() throws SAFSException{ return value(LOGS); }
+
+	/** @return the canonical path of the bench directory, or null if it cannot be determined. */
+	public synchronized String getCanonicalBenchDirectory() throws SAFSException{
+		if(! benchPathLoaded){
+			String bench = value(BENCH);
+			try{ benchPath = bench == null ? null : new File(bench).getCanonicalPath(); }
+			catch(IOException ignore){ benchPath = null; }
+			benchPathLoaded = true;
+		}
+		return benchPath;
+	}
+
+	/** 
+	 * @return true if the datapool directory is set and is an existing directory.  Only a true 
+	 * result is kept.  A missing directory is checked again on every call since it may be created 
+	 * without any change to the directory variables.
+	 */
+	public synchronized boolean isDatapoolDirectory() throws SAFSException{
+		if(datapoolDirectory == null || ! datapoolDirectory.booleanValue()){
+			String pdir = value(DATAPOOL);
+			boolean valid = false;
+			if(pdir != null && pdir.length() > 0){
+				CaseInsensitiveFile dir = new CaseInsensitiveFile(pdir);
+				valid = dir.exists() && dir.isDirectory();
+			}
+			datapoolDirectory = Boolean.valueOf(valid);
+		}
+		return datapoolDirectory.booleanValue();
+	}
+
+	/**
+	 * Self-test: resolves test, bench, and project files repeatedly against a counting 
+	 * RuntimeDataInterface and reports the variable requests made with and without reuse.
+	 */
+	public static void main(String[] args) throws Exception{
+		final String root = new File(System.getProperty("java.io.tmpdir"), "dircontext"+ System.currentTimeMillis()).getAbsolutePath();
+		final java.util.HashMap<String,String> vars = new java.util.HashMap<String,String>();
+		vars.put(FileUtilities.VAR_SAFSPROJECTDIRECTORY.toLowerCase(), root);
+		vars.put(FileUtilities.VAR_SAFSDATAPOOLDIRECTORY.toLowerCase(), root + File.separator +"Datapool");
+		vars.put(FileUtilities.VAR_SAFSBENCHDIRECTORY.toLowerCase(), root + File.separator +"Datapool"+ File.separator +"Bench");
+		vars.put(FileUtilities.VAR_SAFSTESTDIRECTORY.toLowerCase(), root + File.separator +"Datapool"+ File.separator +"Test");
+		vars.put(FileUtilities.VAR_SAFSDIFDIRECTORY.toLowerCase(), root + File.separator +"Datapool"+ File.separator +"Dif");
+		new File(vars.get(FileUtilities.VAR_SAFSBENCHDIRECTORY.toLowerCase())).mkdirs();
+		final int[] requests = new int[1];
+		RuntimeDataInterface data = new RuntimeDataInterface(){
+			public String getVariable(String varName){ requests[0]++; return vars.get(varName.toLowerCase()); }
+			public boolean setVariable(String varName, String varValue){
+				vars.put(varName.toLowerCase(), varValue);
+				variableChanged(varName);
+				return true;
+			}
+			public String getAppMapItem(String appMapId, String sectionName, String itemName){ return null; }
+		};
+		int loops = 1000;
+		int failures = 0;
+		long[] counts = new long[2];
+		String[] ages = {"0", "-1"};
+		for(int a=0;a<ages.length;a++){
+			System.setProperty(PROPERTY_MAX_AGE, ages[a]);
+			requests[0] = 0;
+			for(int i=0;i<loops;i++){
+				FileUtilities.deduceFile("actual.txt", FileUtilities.FILE_TYPE_TEST, data);
+				FileUtilities.deduceFile("Bench"+ File.separator +"expected.txt", FileUtilities.FILE_TYPE_BENCH, data);
+				FileUtilities.deduceFile("map.map", FileUtilities.FILE_TYPE_PROJECT, data);
+			}
+			counts[a] = requests[0];
+		}
+		System.out.println("variable requests for "+ (loops*3) +" files: maxage=0 "+ counts[0] +", maxage=-1 "+ counts[1]);
+		if(counts[1] >= counts[0]){ failures++; System.out.println("FAILED: reused contexts did not reduce variable requests."); }
+
+		File before = FileUtilities.deduceFile("actual.txt", FileUtilities.FILE_TYPE_TEST, data);
+		String newtest = root + File.separator +"Datapool"+ File.separator +"Test2";
+		data.setVariable(FileUtilities.VAR_SAFSTESTDIRECTORY, newtest);
+		File after = FileUtilities.deduceFile("actual.txt", FileUtilities.FILE_TYPE_TEST, data);
+		if(after.getParentFile().getAbsolutePath().equals(before.getParentFile().getAbsolutePath()) ||
+		  !after.getParentFile().getAbsolutePath().equals(new File(newtest).getAbsolutePath())){
+			failures++; System.out.println("FAILED: changed test directory not seen: "+ after);
+		}
+		File redirected = FileUtilities.deduceFile(new File(vars.get(FileUtilities.VAR_SAFSBENCHDIRECTORY.toLowerCase()), "x.txt").getAbsolutePath(), FileUtilities.FILE_TYPE_DIFF, data);
+		if(! redirected.getAbsolutePath().startsWith(new File(vars.get(FileUtilities.VAR_SAFSDIFDIRECTORY.toLowerCase())).getAbsolutePath())){
+			failures++; System.out.println("FAILED: bench file not redirected to diff directory: "+ redirected);
+		}
+		String newpool = root + File.separator +"Datapool2";
+		data.setVariable(FileUtilities.VAR_SAFSDATAPOOLDIRECTORY, newpool);
+		DirectoryContext context = get(data);
+		boolean missing = context.isDatapoolDirectory();
+		new File(newpool).mkdirs();
+		if(missing || ! get(data).isDatapoolDirectory() || get(data) != context){
+			failures++; System.out.println("FAILED: datapool directory created during the run not seen: "+ newpool);
+		}
+		System.out.println(failures == 0 ? "DirectoryContext self-test passed." : "DirectoryContext self-test had "+ failures +" failure(s).");
+	}
+}
@@ -31,6 +31,7 @@ package org.safs.text;
  * <br>	APR 06, 2016	(Carl Nagle)    Support FileAttribute.ALLFILES Type to specify all non-VOLUMELABEL files at a location.
  * <br>	DEC 29, 2016	(Lei Wang)    Added deduceDatapoolFile(): deduce file relative to datapool.
  * <br>	APR 11, 2017	(Lei Wang)    Override unzipJAR(): provide a version accepting Predicate parameter.
+ * <br>	OCT 19, 2026	deduceFile() retrieves directories through a cached DirectoryContext.
  *
  *********************************************************************************************/
 
@@ -1608,6 +1609,7 @@ public class FileUtilities
 	   * <p>
 	   * @param type int, the type of the file: test-relative, bench-relative, project-relative.
 	   * @param data RuntimeDataInterface to access runtime data (directories). Like a subclass of GenericEngine, or Processor.
+	   * Directories are retrieved through the {@link DirectoryContext} of data.
 	   * @return File, the absolute full path test/bench/diff file.
 	   * @throws SAFSException
 	   * @see {@link #FILE_TYPE_TEST}
@@ -1621,11 +1623,8 @@ public class FileUtilities
 		  if (filename==null || filename.length()==0) {
 			  throw new SAFSException("Required filename is not provided!");
 		  }
-		  File benchfile = new File(data.getVariable(VAR_SAFSBENCHDIRECTORY));
-		  File testfile = new File(data.getVariable(VAR_SAFSTESTDIRECTORY));
-		  File difffile = new File(data.getVariable(VAR_SAFSDIFDIRECTORY));
-		  String benchpath = null;
-		  try{ benchpath = benchfile.getCanonicalPath();}catch(IOException ignore){}
+		  DirectoryContext dirs = DirectoryContext.get(data);
+		  String benchpath = dirs.getCanonicalBenchDirectory();
 
 		  filename = FileUtilities.normalizeFileSeparators(filename);
 		  fn = new CaseInsensitiveFile(filename).toFile();
@@ -1635,12 +1634,12 @@ public class FileUtilities
 		  try{ filepath = fn.getCanonicalPath();}catch(IOException ignore){}
 
 		  // must not let a test or diff file overwrite an absolute bench file
-		  if( fn.isAbsolute() && filepath.startsWith(benchpath)){
+		  if( fn.isAbsolute() && benchpath != null && filepath.startsWith(benchpath)){
 			  if(type==FILE_TYPE_DIFF || type==FILE_TYPE_TEST){
 				  IndependantLog.info("Processor correcting Bench Absolute Path to a comparable Test/Diff relative path to prevent Bench overwrite!");
-				  filename = type==FILE_TYPE_TEST ?
-						     testfile.getAbsolutePath():
-						     difffile.getAbsolutePath();
+				  filename = new File(type==FILE_TYPE_TEST ?
+						     dirs.getTestDirectory():
+						     dirs.getDiffDirectory()).getAbsolutePath();
 				  filename += filepath.substring(benchpath.length());
 				  fn = new File(filename);
 				  if(!fn.getParentFile().exists()) fn.getParentFile().mkdirs();
@@ -1652,35 +1651,32 @@ public class FileUtilities
 			  try {
 				  if(type==FILE_TYPE_TEST || type==FILE_TYPE_BENCH || type==FILE_TYPE_DIFF){
 					  if (filename.indexOf(File.separator) > -1) {
-						  try{ pdir = data.getVariable(VAR_SAFSDATAPOOLDIRECTORY);}catch(Exception e){}
+						  boolean datapool = false;
+						  try{ datapool = dirs.isDatapoolDirectory();}catch(Exception e){}
 						  //if the datapool directory does not exist, use the 'project directory'
-						  if ((pdir == null) || (pdir.equals(""))) pdir = data.getVariable(VAR_SAFSPROJECTDIRECTORY);
+						  if (!datapool) pdir = dirs.getProjectDirectory();
 						  else{
-							  CaseInsensitiveFile datapoolDirFile = new CaseInsensitiveFile(pdir);
-							  if(!datapoolDirFile.exists() || !datapoolDirFile.isDirectory()){
-								  pdir = data.getVariable(VAR_SAFSPROJECTDIRECTORY);
-							  }else{
-								  CaseInsensitiveFile tmpFile = new CaseInsensitiveFile(filename, pdir);
-								  File parentDir = tmpFile.getParentFile();
-								  //if combined-file's parent-directory does not exist, use the 'project directory'
-								  if(!parentDir.exists()|| !parentDir.isDirectory()){
-									  pdir = data.getVariable(VAR_SAFSPROJECTDIRECTORY);
-								  }
+							  pdir = dirs.getDatapoolDirectory();
+							  CaseInsensitiveFile tmpFile = new CaseInsensitiveFile(filename, pdir);
+							  File parentDir = tmpFile.getParentFile();
+							  //if combined-file's parent-directory does not exist, use the 'project directory'
+							  if(!parentDir.exists()|| !parentDir.isDirectory()){
+								  pdir = dirs.getProjectDirectory();
 							  }
 						  }
 					  } else {
 						  if(type==FILE_TYPE_TEST ){
-							  pdir = data.getVariable(VAR_SAFSTESTDIRECTORY);
+							  pdir = dirs.getTestDirectory();
 						  }else if(type==FILE_TYPE_BENCH){
-							  pdir = data.getVariable(VAR_SAFSBENCHDIRECTORY);
+							  pdir = dirs.getBenchDirectory();
 						  }else if(type==FILE_TYPE_DIFF){
-							  pdir = data.getVariable(VAR_SAFSDIFDIRECTORY);
+							  pdir = dirs.getDiffDirectory();
 						  }
 					  }
 				  }else if(type==FILE_TYPE_PROJECT){
-					  pdir = data.getVariable(VAR_SAFSPROJECTDIRECTORY);
+					  pdir = dirs.getProjectDirectory();
 				  }else if(type==FILE_TYPE_DATAPOOL){
-					  pdir = data.getVariable(VAR_SAFSDATAPOOLDIRECTORY);
+					  pdir = dirs.getDatapoolDirectory();
 				  }
 			  } catch (Exception x) {}
 			  if ((pdir == null) || (pdir.equals(""))) {
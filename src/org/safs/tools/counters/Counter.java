@@ -15,19 +15,94 @@
  * You should have received a copy of the GNU Lesser General Public License
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
 **/
+/**
+ * OCT 19, 2026 Counts are kept in LongAdders so parallel test threads can increment 
+ *                           concurrently.  Added increment(long status), add(int[]) and getSnapshot().
+ */
 package org.safs.tools.counters;
 
+import java.util.concurrent.atomic.LongAdder;
+
 import org.safs.tools.status.StatusCounter;
+import org.safs.tools.status.StatusInterface;
 
+/**
+ * A counter safe for concurrent increments.
+ * <p>
+ * Each count is a LongAdder.  The counts a status increments are precomputed in 
+ * {@link #getStatusFields(long)}, so counting one status is a walk of a small int array.
+ * {@link #getSnapshot()} returns counts that include each increment either completely or not at all.
+ */
 public class Counter extends StatusCounter implements CountStatusInterface{
 
-	protected long mode = CountersInterface.ALL_STATUS_INFO_MODE;
-	
+	/** Index of the total records count. */
+	public static final int TOTAL_RECORDS    = 0;
+	/** Index of the skipped records count. */
+	public static final int SKIPPED_RECORDS  = 1;
+	/** Index of the IO failures count. */
+	public static final int IO_FAILURES      = 2;
+	/** Index of the test failures count. */
+	public static final int TEST_FAILURES    = 3;
+	/** Index of the test warnings count. */
+	public static final int TEST_WARNINGS    = 4;
+	/** Index of the test passes count. */
+	public static final int TEST_PASSES      = 5;
+	/** Index of the general failures count. */
+	public static final int GENERAL_FAILURES = 6;
+	/** Index of the general warnings count. */
+	public static final int GENERAL_WARNINGS = 7;
+	/** Index of the general passes count. */
+	public static final int GENERAL_PASSES   = 8;
+	/** The number of counts. */
+	public static final int COUNTS           = 9;
+
+	/**
+	 * The counts incremented for each CountersInterface STATUS_ code, indexed by the code.
+	 * The last count is the one an increment returns.
+	 */
+	private static final int[][] STATUS_FIELDS = new int[(int)CountersInterface.STATUS_TEST_IO_FAILURE+1][];
+	static{
+		STATUS_FIELDS[(int)CountersInterface.STATUS_TEST_PASS]       = new int[]{TOTAL_RECORDS, TEST_PASSES};
+		STATUS_FIELDS[(int)CountersInterface.STATUS_TEST_WARNING]    = new int[]{TOTAL_RECORDS, TEST_WARNINGS};
+		STATUS_FIELDS[(int)CountersInterface.STATUS_TEST_FAILURE]    = new int[]{TOTAL_RECORDS, TEST_FAILURES};
+		STATUS_FIELDS[(int)CountersInterface.STATUS_GENERAL_PASS]    = new int[]{TOTAL_RECORDS, GENERAL_PASSES};
+		STATUS_FIELDS[(int)CountersInterface.STATUS_GENERAL_WARNING] = new int[]{TOTAL_RECORDS, GENERAL_WARNINGS};
+		STATUS_FIELDS[(int)CountersInterface.STATUS_GENERAL_FAILURE] = new int[]{TOTAL_RECORDS, GENERAL_FAILURES};
+		STATUS_FIELDS[(int)CountersInterface.STATUS_SKIPPED_RECORD]  = new int[]{TOTAL_RECORDS, SKIPPED_RECORDS};
+		STATUS_FIELDS[(int)CountersInterface.STATUS_IO_FAILURE]      = new int[]{TOTAL_RECORDS, IO_FAILURES};
+		STATUS_FIELDS[(int)CountersInterface.STATUS_TEST_IO_FAILURE] = new int[]{TOTAL_RECORDS, TEST_FAILURES, IO_FAILURES};
+	}
+
+	/**
+	 * @param status long, one of the CountersInterface STATUS_ codes.
+	 * @return the indices of the counts incremented for the status, or null for an unknown status.
+	 *         The array is shared and must not be modified.
+	 */
+	public static int[] getStatusFields(long status){
+		return (status < 0 || status >= STATUS_FIELDS.length) ? null : STATUS_FIELDS[(int)status];
+	}
+
+	protected volatile long mode = CountersInterface.ALL_STATUS_INFO_MODE;
+
+	/** The counts, indexed by TOTAL_RECORDS through GENERAL_PASSES. */
+	protected final LongAdder[] counts = new LongAdder[COUNTS];
+
+	/** Increments begun and finished, compared to validate a snapshot. */
+	private final LongAdder started = new LongAdder();
+	private final LongAdder finished = new LongAdder();
+
+	/** Set while a snapshot or reset holds off new increments. */
+	private volatile boolean holding = false;
+
+	/** Optimistic snapshot attempts before new increments are held off. */
+	private static final int SNAPSHOT_ATTEMPTS = 16;
+
 	/**
 	 * Constructor for Counter
 	 */
 	public Counter() {
 		super();
+		for(int i=0;i<COUNTS;i++) counts[i] = new LongAdder();
 	}
 
 	/**
@@ -43,24 +118,165 @@ public class Counter extends StatusCounter implements CountStatusInterface{
 		long generalfailures,
 		long generalwarnings,
 		long generalpasses) {
-		super(
-			null,
-			totalrecords,
-			skippedrecords,
-			iofailures,
-			testfailures,
-			testwarnings,
-			testpasses,
-			generalfailures,
-			generalwarnings,
-			generalpasses,
-			false);
+		this();
+		counts[TOTAL_RECORDS].add(totalrecords);
+		counts[SKIPPED_RECORDS].add(skippedrecords);
+		counts[IO_FAILURES].add(iofailures);
+		counts[TEST_FAILURES].add(testfailures);
+		counts[TEST_WARNINGS].add(testwarnings);
+		counts[TEST_PASSES].add(testpasses);
+		counts[GENERAL_FAILURES].add(generalfailures);
+		counts[GENERAL_WARNINGS].add(generalwarnings);
+		counts[GENERAL_PASSES].add(generalpasses);
+	}
+
+	/**
+	 * Copy constructor.  Copies the counts only, not the mode or suspension.
+	 * A Counter is copied from a consistent snapshot of its counts.
+	 */
+	public Counter(StatusInterface status){
+		this(status instanceof Counter ? ((Counter)status).getCounts() : new long[]{
+				status.getTotalRecords(),
+				status.getSkippedRecords(),
+				status.getIOFailures(),
+				status.getTestFailures(),
+				status.getTestWarnings(),
+				status.getTestPasses(),
+				status.getGeneralFailures(),
+				status.getGeneralWarnings(),
+				status.getGeneralPasses()});
 	}
-	
-	public void suspend(){ suspended = true;}
-	public void resume(){ suspended = false;}
+
+	/** Constructor for Counter from counts indexed by TOTAL_RECORDS through GENERAL_PASSES. */
+	protected Counter(long[] values){
+		this();
+		for(int i=0;i<COUNTS;i++) counts[i].add(values[i]);
+	}
+
+	public void suspend(){ setSuspended(true);}
+	public void resume(){ setSuspended(false);}
 
 	public void setMode(long mode){ this.mode = mode; }
 	public long getMode(){ return mode; }
-}
 
+	/**
+	 * If counts are not suspended, increment each of the given counts once.
+	 * @param fields int[], indices of counts, usually from {@link #getStatusFields(long)}.
+	 */
+	public void add(int[] fields){
+		if(suspended) return;
+		begin();
+		try{ for(int field: fields) counts[field].increment(); }
+		finally{ finished.increment(); }
+	}
+
+	/**
+	 * If counts are not suspended, increment the counts for the status.
+	 * @param status long, one of the CountersInterface STATUS_ codes.
+	 * @return the count of the status, or -1 for an unknown status.
+	 */
+	public long increment(long status){
+		int[] fields = getStatusFields(status);
+		if(fields==null) return -1;
+		add(fields);
+		return counts[fields[fields.length-1]].sum();
+	}
+
+	/** Announce an increment, waiting while a snapshot or reset holds off increments. */
+	private void begin(){
+		for(;;){
+			started.increment();
+			if(!holding) return;
+			finished.increment();
+			while(holding) Thread.yield();
+		}
+	}
+
+	/**
+	 * @return the counts, indexed by TOTAL_RECORDS through GENERAL_PASSES, including 
+	 *         every increment either completely or not at all.
+	 */
+	public long[] getCounts(){
+		long[] values = new long[COUNTS];
+		for(int attempt=0;attempt<SNAPSHOT_ATTEMPTS;attempt++){
+			if(readCounts(values)) return values;
+			Thread.yield();
+		}
+		synchronized(counts){
+			holding = true;
+			try{ while(!readCounts(values)) Thread.yield(); }
+			finally{ holding = false; }
+		}
+		return values;
+	}
+
+	/** @return true if no increment was in progress while the counts were read. */
+	private boolean readCounts(long[] values){
+		long done = finished.sum();
+		for(int i=0;i<COUNTS;i++) values[i] = counts[i].sum();
+		return done == started.sum();
+	}
+
+	/** @return a new Counter with a consistent copy of this counter's counts, mode and suspension. */
+	public Counter getSnapshot(){
+		Counter snapshot = new Counter(getCounts());
+		snapshot.setMode(mode);
+		snapshot.setSuspended(suspended);
+		return snapshot;
+	}
+
+	@Override
+	public long getTotalRecords()   { return counts[TOTAL_RECORDS].sum(); }
+	@Override
+	public long getSkippedRecords() { return counts[SKIPPED_RECORDS].sum(); }
+	@Override
+	public long getIOFailures()     { return counts[IO_FAILURES].sum(); }
+	@Override
+	public long getTestFailures()   { return counts[TEST_FAILURES].sum(); }
+	@Override
+	public long getTestWarnings()   { return counts[TEST_WARNINGS].sum(); }
+	@Override
+	public long getTestPasses()     { return counts[TEST_PASSES].sum(); }
+	@Override
+	public long getGeneralFailures(){ return counts[GENERAL_FAILURES].sum(); }
+	@Override
+	public long getGeneralWarnings(){ return counts[GENERAL_WARNINGS].sum(); }
+	@Override
+	public long getGeneralPasses()  { return counts[GENERAL_PASSES].sum(); }
+
+	@Override
+	public long incrementSkippedRecords() { return increment(CountersInterface.STATUS_SKIPPED_RECORD); }
+	@Override
+	public long incrementIOFailures()     { return increment(CountersInterface.STATUS_IO_FAILURE); }
+	@Override
+	public long incrementTestIOFailures() { return increment(CountersInterface.STATUS_TEST_IO_FAILURE); }
+	@Override
+	public long incrementTestFailures()   { return increment(CountersInterface.STATUS_TEST_FAILURE); }
+	@Override
+	public long incrementTestWarnings()   { return increment(CountersInterface.STATUS_TEST_WARNING); }
+	@Override
+	public long incrementTestPasses()     { return increment(CountersInterface.STATUS_TEST_PASS); }
+	@Override
+	public long incrementGeneralFailures(){ return increment(CountersInterface.STATUS_GENERAL_FAILURE); }
+	@Override
+	public long incrementGeneralWarnings(){ return increment(CountersInterface.STATUS_GENERAL_WARNING); }
+	@Override
+	public long incrementGeneralPasses()  { return increment(CountersInterface.STATUS_GENERAL_PASS); }
+
+	@Override
+	public void addStatus(StatusInterface counter){
+		if(suspended) return;
+		begin();
+		try{
+			counts[TOTAL_RECORDS].add(counter.getTotalRecords());
+			counts[TEST_FAILURES].add(counter.getTestFailures());
+			counts[TEST_WARNINGS].add(counter.getTestWarnings());
+			counts[TEST_PASSES].add(counter.getTestPasses());
+			counts[GENERAL_FAILURES].add(counter.getGeneralFailures());
+			counts[GENERAL_WARNINGS].add(counter.getGeneralWarnings());
+			counts[GENERAL_PASSES].add(counter.getGeneralPasses());
+			counts[IO_FAILURES].add(counter.getIOFailures());
+			counts[SKIPPED_RECORDS].add(counter.getSkippedRecords());
+		}finally{ finished.increment(); }
+	}
+}
@@ -15,24 +15,47 @@
  * You should have received a copy of the GNU Lesser General Public License
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
 **/
+/**
+ * OCT 19, 2026 Counters are kept in a ConcurrentHashMap with interned upper-case keys.
+ *                           incrementAllCounters walks an array of the active counters and their 
+ *                           precomputed status counts.  getStatus returns a consistent snapshot.
+ */
 package org.safs.tools.counters;
 
-import java.util.Enumeration;
-import java.util.Hashtable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.safs.tools.ConfigurableToolsInterface;
 import org.safs.tools.CoreInterface;
 import org.safs.tools.UniqueIDInterface;
 import org.safs.tools.status.StatusInterface;
 import org.safs.tools.drivers.DriverInterface;
 
+/**
+ * The default CountersInterface.
+ * <p>
+ * Counts may be incremented concurrently from parallel test threads.  
+ * Counters are {@link Counter}s, so each status increments its precomputed counts, 
+ * and {@link #getStatus(UniqueIDInterface)} returns a consistent snapshot of a counter.
+ */
 public class SAFSCOUNTERS implements ConfigurableToolsInterface, CountersInterface {
 
 	/** TRUE if ALL counting is currently suspended. */
-	protected boolean suspended = false;
+	protected volatile boolean suspended = false;
 	
 	protected DriverInterface driver = null;
 	
-	protected Hashtable counters = new Hashtable(10);
+	/** Counters keyed by their upper-case ID. */
+	protected Map<String, Counter> counters = new ConcurrentHashMap<String, Counter>(10);
+
+	/** The counters in {@link #counters}, rebuilt whenever a counter is added, replaced or deleted. */
+	private volatile Counter[] active = new Counter[0];
+
+	/** Interned upper-case keys for counter IDs, so lookups do not upper-case each time. */
+	private final Map<String, String> keys = new ConcurrentHashMap<String, String>();
+
+	/** Maximum number of interned keys. */
+	private static final int MAX_KEYS = 1024;
 	
 	/**
 	 * Constructor for SAFSCOUNTERS
@@ -51,26 +74,62 @@ public class SAFSCOUNTERS implements ConfigurableToolsInterface, CountersInterfa
 	protected String getUpperCaseKey(UniqueIDInterface counter) throws IllegalArgumentException{
 		if (counter==null) throw new IllegalArgumentException("Counter ID null.");
 		String id = (String) counter.getUniqueID();
-		if(id.length()==0) throw new IllegalArgumentException("Empty Counter ID.");		
-		return id.toUpperCase();		
+		if(id.length()==0) throw new IllegalArgumentException("Empty Counter ID.");
+		String key = keys.get(id);
+		if(key==null){
+			key = id.toUpperCase();
+			if(keys.size() < MAX_KEYS) keys.put(id, key);
+		}
+		return key;
 	}
-	
+
+	/** internal convenience routine */
+	protected Counter getCounter(String id, String role) throws IllegalArgumentException{
+		Counter counter = counters.get(id);
+		if(counter==null) throw new IllegalArgumentException("Unknown "+ role +"Counter ID:"+ id);
+		return counter;
+	}
+
+	/** Store or replace a counter and rebuild the array of active counters. */
+	protected synchronized void putCounter(String id, Counter counter){
+		counters.put(id, counter);
+		active = counters.values().toArray(new Counter[0]);
+	}
+
+	/** Remove a counter and rebuild the array of active counters. */
+	protected synchronized void removeCounter(String id){
+		counters.remove(id);
+		active = counters.values().toArray(new Counter[0]);
+	}
+
 	/**
 	 * @see CountersInterface#initCounter(UniqueIDInterface)
 	 */
-	public void initCounter(UniqueIDInterface counter) throws IllegalArgumentException{
+	public synchronized void initCounter(UniqueIDInterface counter) throws IllegalArgumentException{
 		String id=getUpperCaseKey(counter);
 		if (counters.containsKey(id)) throw new IllegalArgumentException("Illegal Duplicate Counter:"+ id);
-		counters.put(id, new Counter());
+		putCounter(id, new Counter());
 	}
 
 	/**
 	 * @see CountersInterface#getStatus(UniqueIDInterface)
+	 * @return a consistent snapshot of the counter.
 	 */
 	public CountStatusInterface getStatus(UniqueIDInterface counter) {
-		String id=getUpperCaseKey(counter);
-		if(!(counters.containsKey(id))) throw new IllegalArgumentException("Unknown Counter ID:"+ id);
-		return (Counter) counters.get(id);
+		return getCounter(getUpperCaseKey(counter), "").getSnapshot();
+	}
+
+	/** @return a new Counter with the sum, or difference, of the counts of two status objects. */
+	protected Counter combine(StatusInterface a, StatusInterface b, int sign){
+		return new Counter( a.getTotalRecords()  + sign * b.getTotalRecords(),
+		                    a.getSkippedRecords() + sign * b.getSkippedRecords(),
+		                    a.getIOFailures()     + sign * b.getIOFailures(),
+		                    a.getTestFailures()   + sign * b.getTestFailures(),
+		                    a.getTestWarnings()   + sign * b.getTestWarnings(),
+		                    a.getTestPasses()     + sign * b.getTestPasses(),
+		                    a.getGeneralFailures()+ sign * b.getGeneralFailures(),
+		                    a.getGeneralWarnings()+ sign * b.getGeneralWarnings(),
+		                    a.getGeneralPasses()  + sign * b.getGeneralPasses());
 	}
 
 	/**
@@ -80,21 +139,11 @@ public class SAFSCOUNTERS implements ConfigurableToolsInterface, CountersInterfa
 	                         throws IllegalArgumentException {
 		String from_id=getUpperCaseKey(from_counter);
 		String to_id=getUpperCaseKey(to_counter);
-		if(!(counters.containsKey(from_id))) throw new IllegalArgumentException("Unknown FROM Counter ID:"+ from_id);
-		if(!(counters.containsKey(to_id))) throw new IllegalArgumentException("Unknown TO Counter ID:"+ to_id);
-		Counter from_status = (Counter) counters.get(from_id);
-		Counter to_status = new Counter( from_status.getTotalRecords(),
-		                                 from_status.getSkippedRecords(),
-										 from_status.getIOFailures(),
-										 from_status.getTestFailures(),
-										 from_status.getTestWarnings(),
-										 from_status.getTestPasses(),
-										 from_status.getGeneralFailures(),
-										 from_status.getGeneralWarnings(),
-										 from_status.getGeneralPasses());
+		Counter from_status = getCounter(from_id, "FROM ");
+		getCounter(to_id, "TO ");
+		Counter to_status = new Counter(from_status);
 		if (from_status.isSuspended()) to_status.suspend();
-		counters.remove(to_id);
-	    counters.put(to_id, to_status);
+		putCounter(to_id, to_status);
 	}
 
 	/**
@@ -104,19 +153,10 @@ public class SAFSCOUNTERS implements ConfigurableToolsInterface, CountersInterfa
 	                        throws IllegalArgumentException {
 		if (from_status==null) throw new IllegalArgumentException("FROM Status null.");
 		String to_id = getUpperCaseKey(to_counter);
-		Counter from_counter = (Counter) counters.get(to_id);
-		Counter to_status = new Counter( from_status.getTotalRecords(),
-		                                 from_status.getSkippedRecords(),
-										 from_status.getIOFailures(),
-										 from_status.getTestFailures(),
-										 from_status.getTestWarnings(),
-										 from_status.getTestPasses(),
-										 from_status.getGeneralFailures(),
-										 from_status.getGeneralWarnings(),
-										 from_status.getGeneralPasses());
+		Counter from_counter = counters.get(to_id);
+		Counter to_status = new Counter(from_status);
 		if (from_counter.isSuspended()) to_status.suspend();
-		counters.remove(to_id);
-	    counters.put(to_id, to_status);
+		putCounter(to_id, to_status);
 	}
 
 	/**
@@ -126,22 +166,11 @@ public class SAFSCOUNTERS implements ConfigurableToolsInterface, CountersInterfa
 	                         throws IllegalArgumentException {
 		String from_id=getUpperCaseKey(add_counter);
 		String to_id=getUpperCaseKey(to_counter);
-		if(!(counters.containsKey(from_id))) throw new IllegalArgumentException("Unknown FROM Counter ID:"+ from_id);
-		if(!(counters.containsKey(to_id))) throw new IllegalArgumentException("Unknown TO Counter ID:"+ to_id);
-		Counter from_status = (Counter) counters.get(from_id);
-		Counter to_status = (Counter) counters.get(to_id);
-		Counter new_status = new Counter( from_status.getTotalRecords()  + to_status.getTotalRecords(),
-		                                 from_status.getSkippedRecords() + to_status.getSkippedRecords(),
-										 from_status.getIOFailures()     + to_status.getIOFailures(),
-										 from_status.getTestFailures()   + to_status.getTestFailures(),
-										 from_status.getTestWarnings()   + to_status.getTestWarnings(),
-										 from_status.getTestPasses()     + to_status.getTestPasses(),
-										 from_status.getGeneralFailures()+ to_status.getGeneralFailures(),
-										 from_status.getGeneralWarnings()+ to_status.getGeneralWarnings(),
-										 from_status.getGeneralPasses()  + to_status.getGeneralPasses());
+		Counter from_status = getCounter(from_id, "FROM ").getSnapshot();
+		Counter to_status = getCounter(to_id, "TO ").getSnapshot();
+		Counter new_status = combine(from_status, to_status, 1);
 		if (to_status.isSuspended()) new_status.suspend();
-		counters.remove(to_id);
-	    counters.put(to_id, new_status);
+		putCounter(to_id, new_status);
 	}
 
 	/**
@@ -151,20 +180,10 @@ public class SAFSCOUNTERS implements ConfigurableToolsInterface, CountersInterfa
 	                         throws IllegalArgumentException {
 		if(add_status==null) throw new IllegalArgumentException("ADD Status null.");
 		String to_id=getUpperCaseKey(to_counter);
-		if(!(counters.containsKey(to_id))) throw new IllegalArgumentException("Unknown TO Counter ID:"+ to_id);
-		Counter to_status = (Counter) counters.get(to_id);
-		Counter new_status = new Counter( add_status.getTotalRecords()  + to_status.getTotalRecords(),
-		                                 add_status.getSkippedRecords() + to_status.getSkippedRecords(),
-										 add_status.getIOFailures()     + to_status.getIOFailures(),
-										 add_status.getTestFailures()   + to_status.getTestFailures(),
-										 add_status.getTestWarnings()   + to_status.getTestWarnings(),
-										 add_status.getTestPasses()     + to_status.getTestPasses(),
-										 add_status.getGeneralFailures()+ to_status.getGeneralFailures(),
-										 add_status.getGeneralWarnings()+ to_status.getGeneralWarnings(),
-										 add_status.getGeneralPasses()  + to_status.getGeneralPasses());
+		Counter to_status = getCounter(to_id, "TO ").getSnapshot();
+		Counter new_status = combine(add_status, to_status, 1);
 		if (to_status.isSuspended()) new_status.suspend();
-		counters.remove(to_id);
-	    counters.put(to_id, new_status);
+		putCounter(to_id, new_status);
 	}
 
 	/**
@@ -174,22 +193,11 @@ public class SAFSCOUNTERS implements ConfigurableToolsInterface, CountersInterfa
 	                         throws IllegalArgumentException {
 		String sub_id=getUpperCaseKey(sub_counter);
 		String from_id=getUpperCaseKey(from_counter);
-		if(!(counters.containsKey(sub_id))) throw new IllegalArgumentException("Unknown SUB Counter ID:"+ sub_id);
-		if(!(counters.containsKey(from_id))) throw new IllegalArgumentException("Unknown FROM Counter ID:"+ from_id);
-		Counter sub_status = (Counter) counters.get(sub_id);
-		Counter from_status = (Counter) counters.get(from_id);
-		Counter new_status = new Counter( from_status.getTotalRecords()  - sub_status.getTotalRecords(),
-		                                 from_status.getSkippedRecords() - sub_status.getSkippedRecords(),
-										 from_status.getIOFailures()     - sub_status.getIOFailures(),
-										 from_status.getTestFailures()   - sub_status.getTestFailures(),
-										 from_status.getTestWarnings()   - sub_status.getTestWarnings(),
-										 from_status.getTestPasses()     - sub_status.getTestPasses(),
-										 from_status.getGeneralFailures()- sub_status.getGeneralFailures(),
-										 from_status.getGeneralWarnings()- sub_status.getGeneralWarnings(),
-										 from_status.getGeneralPasses()  - sub_status.getGeneralPasses());
+		Counter sub_status = getCounter(sub_id, "SUB ").getSnapshot();
+		Counter from_status = getCounter(from_id, "FROM ").getSnapshot();
+		Counter new_status = combine(from_status, sub_status, -1);
 		if (from_status.isSuspended()) new_status.suspend();
-		counters.remove(from_id);
-	    counters.put(from_id, new_status);
+		putCounter(from_id, new_status);
 	}
 
 	/**
@@ -199,20 +207,10 @@ public class SAFSCOUNTERS implements ConfigurableToolsInterface, CountersInterfa
 	                         throws IllegalArgumentException {
 		if(sub_status==null) throw new IllegalArgumentException("SUB Status null.");
 		String from_id=getUpperCaseKey(from_counter);
-		if(!(counters.containsKey(from_id))) throw new IllegalArgumentException("Unknown FROM Counter ID:"+ from_id);
-		Counter from_status = (Counter) counters.get(from_id);
-		Counter new_status = new Counter( from_status.getTotalRecords()  - sub_status.getTotalRecords(),
-		                                 from_status.getSkippedRecords() - sub_status.getSkippedRecords(),
-										 from_status.getIOFailures()     - sub_status.getIOFailures(),
-										 from_status.getTestFailures()   - sub_status.getTestFailures(),
-										 from_status.getTestWarnings()   - sub_status.getTestWarnings(),
-										 from_status.getTestPasses()     - sub_status.getTestPasses(),
-										 from_status.getGeneralFailures()- sub_status.getGeneralFailures(),
-										 from_status.getGeneralWarnings()- sub_status.getGeneralWarnings(),
-										 from_status.getGeneralPasses()  - sub_status.getGeneralPasses());
+		Counter from_status = getCounter(from_id, "FROM ").getSnapshot();
+		Counter new_status = combine(from_status, sub_status, -1);
 		if (from_status.isSuspended()) new_status.suspend();
-		counters.remove(from_id);
-	    counters.put(from_id, new_status);
+		putCounter(from_id, new_status);
 	}
 
 	/**
@@ -221,12 +219,10 @@ public class SAFSCOUNTERS implements ConfigurableToolsInterface, CountersInterfa
 	public void clearCounter(UniqueIDInterface counter) 
 	                         throws IllegalArgumentException {
 		String from_id=getUpperCaseKey(counter);
-		if(!(counters.containsKey(from_id))) throw new IllegalArgumentException("Unknown Counter ID:"+ from_id);
-		Counter from_status = (Counter) counters.get(from_id);
+		Counter from_status = getCounter(from_id, "");
 		Counter new_status = new Counter();
 		if (from_status.isSuspended()) new_status.suspend();
-		counters.remove(from_id);
-	    counters.put(from_id, new_status);
+		putCounter(from_id, new_status);
 	}
 
 	/**
@@ -234,11 +230,7 @@ public class SAFSCOUNTERS implements ConfigurableToolsInterface, CountersInterfa
 	 */
 	public void suspendCounter(UniqueIDInterface counter) 
 	                         throws IllegalArgumentException {
-		String from_id=getUpperCaseKey(counter);
-		if(!(counters.containsKey(from_id))) throw new IllegalArgumentException("Unknown Counter ID:"+ from_id);
-		Counter from_status = (Counter) counters.get(from_id);
-		from_status.suspend();
-	    counters.put(from_id, from_status);
+		getCounter(getUpperCaseKey(counter), "").suspend();
 	}
 
 	/**
@@ -251,11 +243,7 @@ public class SAFSCOUNTERS implements ConfigurableToolsInterface, CountersInterfa
 	 */
 	public void resumeCounter(UniqueIDInterface counter) 
 	                         throws IllegalArgumentException {
-		String from_id=getUpperCaseKey(counter);
-		if(!(counters.containsKey(from_id))) throw new IllegalArgumentException("Unknown Counter ID:"+ from_id);
-		Counter from_status = (Counter) counters.get(from_id);
-		from_status.resume();
-	    counters.put(from_id, from_status);
+		getCounter(getUpperCaseKey(counter), "").resume();
 	}
 
 	/**
@@ -268,60 +256,39 @@ public class SAFSCOUNTERS implements ConfigurableToolsInterface, CountersInterfa
 	 */
 	public void incrementAllCounters(UniqueCounterInterface testlevel, long status) {
 		if(suspended) return;
-		if(counters.isEmpty()) return;
+		Counter[] list = active;
+		if(list.length==0) return;
+		int[] fields = Counter.getStatusFields(status);
+		if(fields==null) return;
 		boolean isStep = testlevel.getTestLevel().equalsIgnoreCase("STEP");
-					
-		Enumeration list = counters.elements();
-		while(list.hasMoreElements()){
-			Counter counter = (Counter) list.nextElement();
-			boolean stepsOnly = (counter.getMode()==CountersInterface.STEP_TESTS_ONLY_MODE);
-			if( (!(counter.isSuspended()))&&
-			    ((stepsOnly && isStep)||(!stepsOnly))
-			  ){
-				
-				// cannot use SWITCH with 'long' values
-				
-				      if(status==STATUS_GENERAL_FAILURE){
-				      	counter.incrementGeneralFailures();					
-				}else if(status==STATUS_GENERAL_WARNING){
-				      	counter.incrementGeneralWarnings();										
-				}else if(status==STATUS_GENERAL_PASS){
-				      	counter.incrementGeneralPasses();					
-				}else if(status==STATUS_IO_FAILURE){
-				      	counter.incrementIOFailures();					
-				}else if(status==STATUS_SKIPPED_RECORD){
-				      	counter.incrementSkippedRecords();					
-				}else if(status==STATUS_TEST_FAILURE){
-				      	counter.incrementTestFailures();					
-				}else if(status==STATUS_TEST_IO_FAILURE){
-				      	counter.incrementTestIOFailures();					
-				}else if(status==STATUS_TEST_WARNING){
-				      	counter.incrementTestWarnings();					
-				}else if(status==STATUS_TEST_PASS){
-				      	counter.incrementTestPasses();					
-				}
-			}
+		for(Counter counter: list){
+			if(isStep || counter.getMode()!=CountersInterface.STEP_TESTS_ONLY_MODE) counter.add(fields);
 		}
 	}
 
 	/**
-	 * @see CountersInterface#incrementTestFailures(UniqueIDInterface)
+	 * Increment one counter for the status, unless counting is suspended or the counter 
+	 * only counts STEP tests and the test level is not STEP.
+	 * @param counter UniqueCounterInterface, the counter and current test level.
+	 * @param status long, one of the CountersInterface STATUS_ codes.
+	 * @return the counter's count for the status.
 	 */
-	public long incrementTestFailures(UniqueCounterInterface counter)
-	                         throws IllegalArgumentException {
-	    long val = -1;
+	protected long increment(UniqueCounterInterface counter, long status) throws IllegalArgumentException {
 		String from_id=getUpperCaseKey(counter);
-		if(!(counters.containsKey(from_id))) throw new IllegalArgumentException("Unknown Counter ID:"+ from_id);
+		Counter from_status = getCounter(from_id, "");
 		boolean isStep = counter.getTestLevel().equalsIgnoreCase("STEP");
-		Counter from_status = (Counter) counters.get(from_id);
 		boolean stepsOnly = (from_status.getMode()==CountersInterface.STEP_TESTS_ONLY_MODE);
-		if( ((! suspended)&&(!(from_status.isSuspended())))&&
-		    ((stepsOnly && isStep)||(!stepsOnly))
-		  ) 
-		    {val = from_status.incrementTestFailures();}
-		else                                              
-		    {val = from_status.getTestFailures();}
-		return val;
+		int[] fields = Counter.getStatusFields(status);
+		if( (!suspended) && (isStep || !stepsOnly)) from_status.add(fields);
+		return from_status.counts[fields[fields.length-1]].sum();
+	}
+
+	/**
+	 * @see CountersInterface#incrementTestFailures(UniqueIDInterface)
+	 */
+	public long incrementTestFailures(UniqueCounterInterface counter)
+	                         throws IllegalArgumentException {
+		return increment(counter, STATUS_TEST_FAILURE);
 	}
 
 	/**
@@ -329,19 +296,7 @@ public class SAFSCOUNTERS implements ConfigurableToolsInterface, CountersInterfa
 	 */
 	public long incrementTestWarnings(UniqueCounterInterface counter) 
 	                         throws IllegalArgumentException {
-	    long val = -1;
-		String from_id=getUpperCaseKey(counter);
-		if(!(counters.containsKey(from_id))) throw new IllegalArgumentException("Unknown Counter ID:"+ from_id);
-		boolean isStep = counter.getTestLevel().equalsIgnoreCase("STEP");
-		Counter from_status = (Counter) counters.get(from_id);
-		boolean stepsOnly = (from_status.getMode()==CountersInterface.STEP_TESTS_ONLY_MODE);
-		if( ((! suspended)&&(!(from_status.isSuspended()))) &&
-		    ((stepsOnly && isStep)||(!stepsOnly))
-		  )
-			{val = from_status.incrementTestWarnings();}
-		else                                              
-			{val = from_status.getTestWarnings();}
-		return val;
+		return increment(counter, STATUS_TEST_WARNING);
 	}
 
 	/**
@@ -349,19 +304,7 @@ public class SAFSCOUNTERS implements ConfigurableToolsInterface, CountersInterfa
 	 */
 	public long incrementTestPasses(UniqueCounterInterface counter)  
 	                         throws IllegalArgumentException {
-	    long val = -1;
-		String from_id=getUpperCaseKey(counter);
-		if(!(counters.containsKey(from_id))) throw new IllegalArgumentException("Unknown Counter ID:"+ from_id);
-		boolean isStep = counter.getTestLevel().equalsIgnoreCase("STEP");
-		Counter from_status = (Counter) counters.get(from_id);
-		boolean stepsOnly = (from_status.getMode()==CountersInterface.STEP_TESTS_ONLY_MODE);
-		if( ((! suspended)&&(!(from_status.isSuspended()))) &&
-		    ((stepsOnly && isStep)||(!stepsOnly))
-		  )
-			{val = from_status.incrementTestPasses();}
-		else                                              
-			{val = from_status.getTestPasses();}
-		return val;
+		return increment(counter, STATUS_TEST_PASS);
 	}
 
 	/**
@@ -369,19 +312,7 @@ public class SAFSCOUNTERS implements ConfigurableToolsInterface, CountersInterfa
 	 */
 	public long incrementGeneralFailures(UniqueCounterInterface counter)  
 	                         throws IllegalArgumentException {
-	    long val = -1;
-		String from_id=getUpperCaseKey(counter);
-		if(!(counters.containsKey(from_id))) throw new IllegalArgumentException("Unknown Counter ID:"+ from_id);
-		boolean isStep = counter.getTestLevel().equalsIgnoreCase("STEP");
-		Counter from_status = (Counter) counters.get(from_id);
-		boolean stepsOnly = (from_status.getMode()==CountersInterface.STEP_TESTS_ONLY_MODE);
-		if( ((! suspended)&&(!(from_status.isSuspended()))) &&
-		    ((stepsOnly && isStep)||(!stepsOnly))
-		  )
-			{val = from_status.incrementGeneralFailures();}
-		else                                              
-			{val = from_status.getGeneralFailures();}
-		return val;
+		return increment(counter, STATUS_GENERAL_FAILURE);
 	}
 
 	/**
@@ -389,19 +320,7 @@ public class SAFSCOUNTERS implements ConfigurableToolsInterface, CountersInterfa
 	 */
 	public long incrementGeneralWarnings(UniqueCounterInterface counter)  
 	                         throws IllegalArgumentException {
-	    long val = -1;
-		String from_id=getUpperCaseKey(counter);
-		if(!(counters.containsKey(from_id))) throw new IllegalArgumentException("Unknown Counter ID:"+ from_id);
-		boolean isStep = counter.getTestLevel().equalsIgnoreCase("STEP");
-		Counter from_status = (Counter) counters.get(from_id);
-		boolean stepsOnly = (from_status.getMode()==CountersInterface.STEP_TESTS_ONLY_MODE);
-		if( ((! suspended)&&(!(from_status.isSuspended()))) &&
-		    ((stepsOnly && isStep)||(!stepsOnly))
-		  )
-			{val = from_status.incrementGeneralWarnings();}
-		else                                              
-			{val = from_status.getGeneralWarnings();}
-		return val;
+		return increment(counter, STATUS_GENERAL_WARNING);
 	}
 
 	/**
@@ -409,19 +328,7 @@ public class SAFSCOUNTERS implements ConfigurableToolsInterface, CountersInterfa
 	 */
 	public long incrementGeneralPasses(UniqueCounterInterface counter)  
 	                         throws IllegalArgumentException {
-	    long val = -1;
-		String from_id=getUpperCaseKey(counter);
-		if(!(counters.containsKey(from_id))) throw new IllegalArgumentException("Unknown Counter ID:"+ from_id);
-		boolean isStep = counter.getTestLevel().equalsIgnoreCase("STEP");
-		Counter from_status = (Counter) counters.get(from_id);
-		boolean stepsOnly = (from_status.getMode()==CountersInterface.STEP_TESTS_ONLY_MODE);
-		if( ((! suspended)&&(!(from_status.isSuspended()))) &&
-		    ((stepsOnly && isStep)||(!stepsOnly))
-		  )
-			{val = from_status.incrementGeneralPasses();}
-		else                                              
-			{val = from_status.getGeneralPasses();}
-		return val;
+		return increment(counter, STATUS_GENERAL_PASS);
 	}
 
 	/**
@@ -429,19 +336,7 @@ public class SAFSCOUNTERS implements ConfigurableToolsInterface, CountersInterfa
 	 */
 	public long incrementIOFailures(UniqueCounterInterface counter)  
 	                         throws IllegalArgumentException {
-	    long val = -1;
-		String from_id=getUpperCaseKey(counter);
-		if(!(counters.containsKey(from_id))) throw new IllegalArgumentException("Unknown Counter ID:"+ from_id);
-		boolean isStep = counter.getTestLevel().equalsIgnoreCase("STEP");
-		Counter from_status = (Counter) counters.get(from_id);
-		boolean stepsOnly = (from_status.getMode()==CountersInterface.STEP_TESTS_ONLY_MODE);
-		if( ((! suspended)&&(!(from_status.isSuspended()))) &&
-		    ((stepsOnly && isStep)||(!stepsOnly))
-		  )
-			{val = from_status.incrementIOFailures();}
-		else                                              
-			{val = from_status.getIOFailures();}
-		return val;
+		return increment(counter, STATUS_IO_FAILURE);
 	}
 
 	/**
@@ -449,19 +344,7 @@ public class SAFSCOUNTERS implements ConfigurableToolsInterface, CountersInterfa
 	 */
 	public long incrementTestIOFailures(UniqueCounterInterface counter)  
 	                         throws IllegalArgumentException {
-	    long val = -1;
-		String from_id=getUpperCaseKey(counter);
-		if(!(counters.containsKey(from_id))) throw new IllegalArgumentException("Unknown Counter ID:"+ from_id);
-		boolean isStep = counter.getTestLevel().equalsIgnoreCase("STEP");
-		Counter from_status = (Counter) counters.get(from_id);
-		boolean stepsOnly = (from_status.getMode()==CountersInterface.STEP_TESTS_ONLY_MODE);
-		if( ((! suspended)&&(!(from_status.isSuspended()))) &&
-		    ((stepsOnly && isStep)||(!stepsOnly))
-		  )
-			{val = from_status.incrementTestIOFailures();}
-		else                                              
-			{val = from_status.getIOFailures();}
-		return val;
+		return increment(counter, STATUS_TEST_IO_FAILURE);
 	}
 
 	/**
@@ -469,19 +352,7 @@ public class SAFSCOUNTERS implements ConfigurableToolsInterface, CountersInterfa
 	 */
 	public long incrementSkippedRecords(UniqueCounterInterface counter)  
 	                         throws IllegalArgumentException {
-	    long val = -1;
-		String from_id=getUpperCaseKey(counter);
-		if(!(counters.containsKey(from_id))) throw new IllegalArgumentException("Unknown Counter ID:"+ from_id);
-		boolean isStep = counter.getTestLevel().equalsIgnoreCase("STEP");
-		Counter from_status = (Counter) counters.get(from_id);
-		boolean stepsOnly = (from_status.getMode()==CountersInterface.STEP_TESTS_ONLY_MODE);
-		if( ((! suspended)&&(!(from_status.isSuspended()))) &&
-		    ((stepsOnly && isStep)||(!stepsOnly))
-		  )
-			{val = from_status.incrementSkippedRecords();}
-		else                                              
-			{val = from_status.getSkippedRecords();}
-		return val;
+		return increment(counter, STATUS_SKIPPED_RECORD);
 	}
 
 	/**
@@ -490,8 +361,8 @@ public class SAFSCOUNTERS implements ConfigurableToolsInterface, CountersInterfa
 	public void deleteCounter(UniqueIDInterface counter)  
 	                         throws IllegalArgumentException {
 		String from_id=getUpperCaseKey(counter);
-		if(!(counters.containsKey(from_id))) throw new IllegalArgumentException("Unknown Counter ID:"+ from_id);
-		counters.remove(from_id);
+		getCounter(from_id, "");
+		removeCounter(from_id);
 	}
 
 	/**
@@ -504,9 +375,10 @@ public class SAFSCOUNTERS implements ConfigurableToolsInterface, CountersInterfa
 	/**
 	 * @see GenericToolsInterface#reset()
 	 */
-	public void reset() {
+	public synchronized void reset() {
 		suspended = false;
 		counters.clear();
+		active = new Counter[0];
 	}
 
 	/**
@@ -522,10 +394,7 @@ public class SAFSCOUNTERS implements ConfigurableToolsInterface, CountersInterfa
 	 */
 	public void setCounterMode(UniqueIDInterface counter, long mode)  
 	                         throws IllegalArgumentException {
-		String from_id=getUpperCaseKey(counter);
-		if(!(counters.containsKey(from_id))) throw new IllegalArgumentException("Unknown Counter ID:"+ from_id);
-		Counter status = (Counter) counters.get(from_id);
-		status.setMode(mode);
+		getCounter(getUpperCaseKey(counter), "").setMode(mode);
 	}
 
 	/**
@@ -533,10 +402,7 @@ public class SAFSCOUNTERS implements ConfigurableToolsInterface, CountersInterfa
 	 */
 	public long getCounterMode(UniqueIDInterface counter)  
 	                         throws IllegalArgumentException {
-		String from_id=getUpperCaseKey(counter);
-		if(!(counters.containsKey(from_id))) throw new IllegalArgumentException("Unknown Counter ID:"+ from_id);
-		Counter status = (Counter) counters.get(from_id);
-		return status.getMode();
+		return getCounter(getUpperCaseKey(counter), "").getMode();
 	}
 	
 	/**
@@ -546,6 +412,60 @@ public class SAFSCOUNTERS implements ConfigurableToolsInterface, CountersInterfa
 	public CoreInterface getCoreInterface() throws IllegalStateException {
 		throw new IllegalStateException("SAFSCOUNTERS does not interface with the core framework directly.");
 	}
-	
-}
 
+	/**
+	 * Self-test: parallel threads increment all counters while snapshots are checked for consistency.
+	 * @param args [threads] [increments per thread]
+	 */
+	public static void main(String[] args) throws Exception{
+		final int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+		final int increments = args.length > 1 ? Integer.parseInt(args[1]) : 200000;
+		final SAFSCOUNTERS counters = new SAFSCOUNTERS();
+		final UniqueCounterInterface all = new UniqueStringCounterInfo("all", "SUITE");
+		final UniqueCounterInterface steps = new UniqueStringCounterInfo("steps", "STEP");
+		counters.initCounter(all);
+		counters.initCounter(steps);
+		counters.setCounterMode(steps, STEP_TESTS_ONLY_MODE);
+		final long[] statuses = {STATUS_TEST_PASS, STATUS_TEST_WARNING, STATUS_TEST_FAILURE,
+		                         STATUS_GENERAL_PASS, STATUS_GENERAL_WARNING, STATUS_GENERAL_FAILURE,
+		                         STATUS_SKIPPED_RECORD, STATUS_IO_FAILURE};
+		final boolean[] running = {true};
+		final long[] inconsistent = {0, 0};
+		Thread reader = new Thread(){
+			public void run(){
+				while(running[0]){
+					CountStatusInterface s = counters.getStatus(all);
+					long parts = s.getSkippedRecords()+ s.getIOFailures()+ s.getTestFailures()+ s.getTestWarnings()+
+					             s.getTestPasses()+ s.getGeneralFailures()+ s.getGeneralWarnings()+ s.getGeneralPasses();
+					if(parts != s.getTotalRecords()) inconsistent[0]++;
+					inconsistent[1]++;
+				}
+			}
+		};
+		reader.start();
+		Thread[] workers = new Thread[threads];
+		long start = System.nanoTime();
+		for(int t=0;t<threads;t++){
+			final UniqueCounterInterface level = (t % 2 == 0) ? steps : all;
+			workers[t] = new Thread(){
+				public void run(){
+					for(int i=0;i<increments;i++) counters.incrementAllCounters(level, statuses[i % statuses.length]);
+				}
+			};
+			workers[t].start();
+		}
+		for(Thread worker: workers) worker.join();
+		long millis = (System.nanoTime()-start)/1000000;
+		running[0] = false;
+		reader.join();
+		long expectAll = (long) threads * increments;
+		long expectSteps = (long) ((threads+1)/2) * increments;
+		long gotAll = counters.getStatus(all).getTotalRecords();
+		long gotSteps = counters.getStatus(steps).getTotalRecords();
+		System.out.println(threads +" threads x "+ increments +" increments in "+ millis +"ms");
+		System.out.println("all:   "+ gotAll   +" expected "+ expectAll);
+		System.out.println("steps: "+ gotSteps +" expected "+ expectSteps);
+		System.out.println("inconsistent snapshots: "+ inconsistent[0] +" of "+ inconsistent[1]);
+		if(gotAll != expectAll || gotSteps != expectSteps || inconsistent[0] != 0) System.exit(1);
+	}
+}
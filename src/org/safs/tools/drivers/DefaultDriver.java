@@ -35,6 +35,11 @@
  * <br>	APR 18, 2018	(Lei Wang) 	Moved safs-data related methods to AbstractDriver.
  * <br>	JUN 07, 2018	(Lei Wang) 	Modified validateTestParameters(): get orderable information from .ini configuration file.
  *                                  Modified openTestLogs(): write orderable information into Log file.
+ * <br>	OCT 19, 2026	Launch services and engines through a StartupScheduler, optionally in parallel.
+ *                                  Log a startup timeline with the critical path.
+ * <br>	OCT 19, 2026	Enable and export RecordMetrics.
+ * <br>	OCT 19, 2026	Configure a ShardExecutor for independent suites.
+ * <br>	OCT 19, 2026	Enable and export the ExecutionProfiler.
  */
 package org.safs.tools.drivers;
 
@@ -743,12 +748,16 @@ public abstract class DefaultDriver extends AbstractDriver {
 
 			System.out.println("Driver Services initializing...");
 			Log.info("Driver Interface initializing...");
-			((ConfigurableToolsInterface)input).launchInterface(this);
-			((ConfigurableToolsInterface)maps).launchInterface(this);
-			((ConfigurableToolsInterface)vars).launchInterface(this);
-			((ConfigurableToolsInterface)logs).launchInterface(this);
-			((ConfigurableToolsInterface)counts).launchInterface(this);
-			((ConfigurableToolsInterface)status).launchInterface(this);
+			// first one in, if initializing STAF, must be ready before the STAF services.
+			StartupScheduler startup = new StartupScheduler("Driver Services", isParallelStartup());
+			startup.add("SAFSINPUT", launcher(input));
+			startup.add("SAFSMAPS", launcher(maps), "SAFSINPUT");
+			startup.add("SAFSVARS", launcher(vars), "SAFSINPUT", "SAFSMAPS");
+			startup.add("SAFSLOGS", launcher(logs), "SAFSINPUT", "SAFSVARS");
+			startup.add("COUNTERS", launcher(counts));
+			startup.add("STATUS", launcher(status));
+			startup.run();
+			System.out.println("Driver Services initialized in "+ startup.getElapsedMillis() +"ms");
 
 			core = getCoreInterface();
 			if(core instanceof STAFHelper) SingletonSTAFHelper.setInitializedHelper((STAFHelper)core);
@@ -794,13 +803,87 @@ public abstract class DefaultDriver extends AbstractDriver {
 
 		String[] items = {"First", "Second", "Third", "Fourth", "Fifth",
 			              "Sixth", "Seventh", "Eighth", "Ninth", "Tenth"};
+		// engines depend only on the Driver Services, which are already running
+		StartupScheduler startup = new StartupScheduler("Driver Engines", isParallelStartup());
+		Vector<EngineInterface> configured = new Vector<EngineInterface>(items.length);
+		Vector<String> names = new Vector<String>(items.length);
 		for(int i=0;i<items.length;i++){
 			EngineInterface engine = getEngineInterface(items[i]);
 			if(! (engine==null)){
-				engine.launchInterface(this);
-				engines.addElement(engine);
+				String name = items[i] +" "+ engine.getClass().getSimpleName();
+				startup.add(name, launcher(engine));
+				configured.addElement(engine);
+				names.addElement(name);
 			}
 		}
+		try{
+			startup.run();
+		}finally{
+			// keep configured engine order, regardless of which finished first
+			for(int i=0;i<configured.size();i++){
+				if(startup.isReady(names.get(i))) engines.addElement(configured.get(i));
+			}
+		}
+	}
+
+	/**
+	 * @return true if independent services and engines should start concurrently.<br>
+	 * JVM property {@link DriverConstant#PROPERTY_SAFS_DRIVER_PARALLEL_STARTUP}, else
+	 * [SAFS_DRIVER] {@link DriverConstant#PARALLEL_STARTUP}.  Default false.
+	 */
+	protected boolean isParallelStartup(){
+		String setting = getDriverSetting(DriverConstant.PROPERTY_SAFS_DRIVER_PARALLEL_STARTUP, DriverConstant.PARALLEL_STARTUP);
+		return setting != null && StringUtilities.convertBool(setting);
+	}
+
+	/**
+	 * @return true if {@link RecordMetrics} are enabled by System property 
+	 * {@link DriverConstant#PROPERTY_SAFS_DRIVER_RECORD_METRICS}, or else by 
+	 * {@link DriverConstant#RECORD_METRICS} in the SAFS_DRIVER configuration.  Default is false.
+	 */
+	protected boolean isRecordMetrics(){
+		String setting = getDriverSetting(DriverConstant.PROPERTY_SAFS_DRIVER_RECORD_METRICS, DriverConstant.RECORD_METRICS);
+		return setting != null && StringUtilities.convertBool(setting);
+	}
+
+	/**
+	 * @return a ShardExecutor for the suites configured by System property 
+	 * {@link DriverConstant#PROPERTY_SAFS_DRIVER_PARALLEL_SUITES}, or else by 
+	 * {@link DriverConstant#PARALLEL_SUITES} in the SAFS_DRIVER configuration.  Null if none.
+	 */
+	protected ShardExecutor createShardExecutor(){
+		return ShardExecutor.create(getDriverSetting(DriverConstant.PROPERTY_SAFS_DRIVER_PARALLEL_SUITES, DriverConstant.PARALLEL_SUITES),
+		                            getDriverSetting(DriverConstant.PROPERTY_SAFS_DRIVER_PARALLEL_SHARDS, DriverConstant.PARALLEL_SHARDS),
+		                            getDriverSetting(DriverConstant.PROPERTY_SAFS_DRIVER_SHARD_ENGINE_CAPACITY, DriverConstant.SHARD_ENGINE_CAPACITY),
+		                            getDriverSetting(DriverConstant.PROPERTY_SAFS_DRIVER_SHARD_TIMEOUT, DriverConstant.SHARD_TIMEOUT));
+	}
+
+	/**
+	 * Enable the {@link ExecutionProfiler} if set by System property 
+	 * {@link DriverConstant#PROPERTY_SAFS_DRIVER_PROFILER}, or else by 
+	 * {@link DriverConstant#PROFILER} in the SAFS_DRIVER configuration.  Default is disabled.
+	 */
+	protected void initializeProfiler(){
+		String setting = getDriverSetting(DriverConstant.PROPERTY_SAFS_DRIVER_PROFILER, DriverConstant.PROFILER);
+		ExecutionProfiler.setEnabled(setting != null && StringUtilities.convertBool(setting));
+		setting = getDriverSetting(DriverConstant.PROPERTY_SAFS_DRIVER_PROFILER_TOP_RECORDS, DriverConstant.PROFILER_TOP_RECORDS);
+		try{ if(setting != null) ExecutionProfiler.setTopRecords(Integer.parseInt(setting.trim())); }
+		catch(NumberFormatException x){ Log.warn("Driver ignoring invalid "+ DriverConstant.PROFILER_TOP_RECORDS +" '"+ setting +"'"); }
+	}
+
+	/** @return the System property, or else the SAFS_DRIVER configuration item, or null. */
+	private String getDriverSetting(String property, String item){
+		String setting = System.getProperty(property, "");
+		if(setting.length() > 0) return setting;
+		return configInfo.getNamedValue(DriverConstant.SECTION_SAFS_DRIVER, item);
+	}
+
+	/** @return a Runnable launching the tool with this driver, for a {@link StartupScheduler}. */
+	protected Runnable launcher(final Object tool){
+		final DefaultDriver driver = this;
+		return new Runnable(){
+			public void run(){ ((ConfigurableToolsInterface)tool).launchInterface(driver); }
+		};
 	}
 
 	/**
@@ -1108,6 +1191,9 @@ public abstract class DefaultDriver extends AbstractDriver {
 
 			phoneHome();
 
+		    RecordMetrics.setEnabled(isRecordMetrics());
+		    ShardExecutor.setExecutor(createShardExecutor());
+		    initializeProfiler();
 		    statuscounts = processTest();
 		}
 		catch(IllegalArgumentException iae){ System.err.println("Driver "+ iae.getClass().getSimpleName()+": "+ iae.getMessage());	}
@@ -1118,6 +1204,20 @@ public abstract class DefaultDriver extends AbstractDriver {
 			catchall.printStackTrace();
 		}
 
+		if(RecordMetrics.isEnabled()){
+			try{
+				RecordMetrics.export(new File(getLogsDir()));
+			}catch(Throwable t){
+				System.err.println("Driver RecordMetrics "+ t.getClass().getSimpleName()+": "+ t.getMessage());
+			}
+		}
+		if(ExecutionProfiler.isEnabled()){
+			try{
+				ExecutionProfiler.export(new File(getLogsDir()));
+			}catch(Throwable t){
+				System.err.println("Driver ExecutionProfiler "+ t.getClass().getSimpleName()+": "+ t.getMessage());
+			}
+		}
 		try{
 		    closeTestLogs();					// include any CAPPING of XML logs
 		}catch(Throwable t){
@@ -28,6 +28,10 @@ package org.safs.tools.drivers;
  * JUL 11, 2018    (Lei Wang) Add SAFSLogsConstant.
  * OCT 09, 2018    (Lei Wang) Modified DataServiceConstant: changed the default data service url to "http://localhost:8080/safsdata".
  * OCT 09, 2018    (Lei Wang) Add SafsROBOTJ.
+ * OCT 19, 2026    Add PARALLEL_STARTUP and PROPERTY_SAFS_DRIVER_PARALLEL_STARTUP.
+ * OCT 19, 2026    Add RECORD_METRICS and PROPERTY_SAFS_DRIVER_RECORD_METRICS.
+ * OCT 19, 2026    Add PARALLEL_SUITES, PARALLEL_SHARDS, SHARD_ENGINE_CAPACITY, SHARD_TIMEOUT and their properties.
+ * OCT 19, 2026    Add PROFILER, PROFILER_TOP_RECORDS and their properties.
  */
 import java.awt.Toolkit;
 import java.awt.event.KeyEvent;
@@ -1504,6 +1508,86 @@ public abstract class DriverConstant extends JavaConstant{
 	/** 'showMonitor' */
 	public static final String SHOW_MONITOR 			    = "showMonitor";
 
+	/** 'ParallelStartup' <br>
+	 * [SAFS_DRIVER] ParallelStartup=TRUE|FALSE (default FALSE) <br>
+	 * Launch independent Driver services and engines concurrently. **/
+	public static final String PARALLEL_STARTUP 		    = "ParallelStartup";
+
+	/** "safs.driver.parallelstartup" <br>
+	 * JVM command line: -Dsafs.driver.parallelstartup=TRUE|FALSE **/
+	public static final String PROPERTY_SAFS_DRIVER_PARALLEL_STARTUP = "safs.driver.parallelstartup";
+
+	/** 'RecordMetrics' <br>
+	 * [SAFS_DRIVER] RecordMetrics=TRUE|FALSE (default FALSE) <br>
+	 * Time the phases of each test record and export latency histograms to the logs directory.
+	 * @see RecordMetrics **/
+	public static final String RECORD_METRICS 		    = "RecordMetrics";
+
+	/** "safs.driver.recordmetrics" <br>
+	 * JVM command line: -Dsafs.driver.recordmetrics=TRUE|FALSE **/
+	public static final String PROPERTY_SAFS_DRIVER_RECORD_METRICS = "safs.driver.recordmetrics";
+
+	/** 'Profiler' <br>
+	 * [SAFS_DRIVER] Profiler=TRUE|FALSE (default FALSE) <br>
+	 * Profile tables, records, and record phases and export a flame graph profile to the logs directory.
+	 * @see ExecutionProfiler **/
+	public static final String PROFILER 		    = "Profiler";
+
+	/** "safs.driver.profiler" <br>
+	 * JVM command line: -Dsafs.driver.profiler=TRUE|FALSE **/
+	public static final String PROPERTY_SAFS_DRIVER_PROFILER = "safs.driver.profiler";
+
+	/** 'ProfilerTopRecords' <br>
+	 * [SAFS_DRIVER] ProfilerTopRecords=n (default 25) <br>
+	 * The number of slowest records reported by the Profiler. **/
+	public static final String PROFILER_TOP_RECORDS 	    = "ProfilerTopRecords";
+
+	/** "safs.driver.profiler.toprecords" <br>
+	 * JVM command line: -Dsafs.driver.profiler.toprecords=n **/
+	public static final String PROPERTY_SAFS_DRIVER_PROFILER_TOP_RECORDS = "safs.driver.profiler.toprecords";
+
+	/** 'ParallelSuites' <br>
+	 * [SAFS_DRIVER] ParallelSuites=Suite[:Engine], ... <br>
+	 * Suites called by a cycle that are independent and run as parallel shards in child JVMs.
+	 * A shard naming an engine is also limited by SHARD_ENGINE_CAPACITY.
+	 * @see ShardExecutor **/
+	public static final String PARALLEL_SUITES 		    = "ParallelSuites";
+
+	/** "safs.driver.parallelsuites" <br>
+	 * JVM command line: -Dsafs.driver.parallelsuites=Suite[:Engine],... **/
+	public static final String PROPERTY_SAFS_DRIVER_PARALLEL_SUITES = "safs.driver.parallelsuites";
+
+	/** 'ParallelShards' <br>
+	 * [SAFS_DRIVER] ParallelShards=n (default 2) <br>
+	 * The number of PARALLEL_SUITES shards run at once. **/
+	public static final String PARALLEL_SHARDS 		    = "ParallelShards";
+
+	/** "safs.driver.parallelshards" <br>
+	 * JVM command line: -Dsafs.driver.parallelshards=n **/
+	public static final String PROPERTY_SAFS_DRIVER_PARALLEL_SHARDS = "safs.driver.parallelshards";
+
+	/** 'ShardEngineCapacity' <br>
+	 * [SAFS_DRIVER] ShardEngineCapacity=Engine:n, ... <br>
+	 * The number of PARALLEL_SUITES shards needing an engine that may run at once. **/
+	public static final String SHARD_ENGINE_CAPACITY 	    = "ShardEngineCapacity";
+
+	/** "safs.driver.shardenginecapacity" <br>
+	 * JVM command line: -Dsafs.driver.shardenginecapacity=Engine:n,... **/
+	public static final String PROPERTY_SAFS_DRIVER_SHARD_ENGINE_CAPACITY = "safs.driver.shardenginecapacity";
+
+	/** 'ShardTimeout' <br>
+	 * [SAFS_DRIVER] ShardTimeout=seconds (default 43200, 12 hours) <br>
+	 * The time a PARALLEL_SUITES shard may run before its child JVM is destroyed.  0 for no limit. **/
+	public static final String SHARD_TIMEOUT 		    = "ShardTimeout";
+
+	/** "safs.driver.shardtimeout" <br>
+	 * JVM command line: -Dsafs.driver.shardtimeout=seconds **/
+	public static final String PROPERTY_SAFS_DRIVER_SHARD_TIMEOUT = "safs.driver.shardtimeout";
+
+	/** "safs.driver.shard.status" <br>
+	 * Set by ShardExecutor for a shard's child JVM: the file the driver writes its final status counts to. **/
+	public static final String PROPERTY_SAFS_DRIVER_SHARD_STATUS = "safs.driver.shard.status";
+
 	/**
 	 *
 	 * Define properties and items in section {@link DriverConstant#SECTION_SAFS_LOGS}.
@@ -0,0 +1,387 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package org.safs.tools.drivers;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.safs.Log;
+import org.safs.SAFSNullPointerException;
+import org.safs.TestRecordHelper;
+
+/**
+ * Profiles test execution as a call tree of cycle, suite, and step tables, the records in 
+ * each table, and each record's phases from {@link RecordMetrics}: resolve, appmap, route, 
+ * engine, log, and other.  A table called by a record is a child of that record, and its time 
+ * is not counted again in the record's engine phase.
+ * <p>
+ * {@link #export(File)} writes the wall time of every distinct call path in the collapsed-stack 
+ * format read by standard flame graph tools (flamegraph.pl, speedscope, etc.), and a report of 
+ * the slowest records.  Records are identified in the call tree by record type and command, so 
+ * the same command in the same table is aggregated.
+ * <p>
+ * Each record costs a handful of System.nanoTime calls and map updates, so the profiler can be 
+ * left enabled for CI runs.
+ *
+ * OCT 19, 2026 Original Release
+ * @see DriverConstant#PROFILER
+ */
+public class ExecutionProfiler {
+
+	/** "safs-profile" file name, without extension, used by {@link #export(File)}. */
+	public static final String EXPORT_NAME = "safs-profile";
+
+	/** 25 slowest records are reported by default. */
+	public static final int DEFAULT_TOP_RECORDS = 25;
+
+	/** Leaf name for record time outside the measured phases: flow control, counting, etc. */
+	public static final String OTHER = "other";
+
+	private static volatile boolean enabled = false;
+	private static volatile int topRecords = DEFAULT_TOP_RECORDS;
+
+	/** nanoseconds by collapsed call path. */
+	private static final Map<String,LongAdder> stacks = new ConcurrentHashMap<String,LongAdder>();
+
+	/** the slowest records, fastest first. */
+	private static final PriorityQueue<SlowRecord> slowest = new PriorityQueue<SlowRecord>(DEFAULT_TOP_RECORDS +1, new Comparator<SlowRecord>(){
+		public int compare(SlowRecord a, SlowRecord b){ return a.nanos < b.nanos ? -1 : a.nanos > b.nanos ? 1 : 0; }
+	});
+
+	private static final ThreadLocal<List<Frame>> frames = new ThreadLocal<List<Frame>>(){
+		@Override protected List<Frame> initialValue(){ return new ArrayList<Frame>(); }
+	};
+
+	/** A table or record in the call tree of the current thread. */
+	static class Frame {
+		final String path;
+		final boolean table;
+		final long started = System.nanoTime();
+		long children = 0;
+		Frame(String path, boolean table){ this.path = path; this.table = table; }
+	}
+
+	/** A record reported among the slowest. */
+	static class SlowRecord {
+		final String path;
+		final String table;
+		final long line;
+		final String record;
+		final long nanos;
+		final long[] phases;
+		SlowRecord(String path, String table, long line, String record, long nanos, long[] phases){
+			this.path = path;
+			this.table = table;
+			this.line = line;
+			this.record = record;
+			this.nanos = nanos;
+			this.phases = phases;
+		}
+	}
+
+	/** Enable or disable profiling of tables and records started afterwards. */
+	public static void setEnabled(boolean enable){ enabled = enable; }
+
+	/** @return true if profiling is enabled. */
+	public static boolean isEnabled(){ return enabled; }
+
+	/** Set the number of slowest records to report. */
+	public static void setTopRecords(int count){ topRecords = Math.max(0, count); }
+
+	/** Discard the profile. */
+	public static void reset(){
+		stacks.clear();
+		synchronized(slowest){ slowest.clear(); }
+		frames.get().clear();
+	}
+
+	/** @return a frame name that cannot break the collapsed-stack format. */
+	static String frameName(String name){
+		StringBuilder sb = new StringBuilder(name.length());
+		for(int i=0;i<name.length();i++){
+			char c = name.charAt(i);
+			sb.append(c == ';' ? ':' : c < 0x20 ? ' ' : c);
+		}
+		return sb.toString().trim();
+	}
+
+	private static Frame current(){
+		List<Frame> stack = frames.get();
+		return stack.isEmpty() ? null: stack.get(stack.size()-1);
+	}
+
+	private static void push(String name, boolean table){
+		Frame parent = current();
+		String frame = frameName(name);
+		frames.get().add(new Frame(parent == null ? frame: parent.path +";"+ frame, table));
+	}
+
+	private static Frame pop(){
+		List<Frame> stack = frames.get();
+		return stack.isEmpty() ? null: stack.remove(stack.size()-1);
+	}
+
+	static void add(String path, long nanos){
+		if(nanos <= 0) return;
+		LongAdder total = stacks.get(path);
+		if(total == null){
+			LongAdder created = new LongAdder();
+			total = ((ConcurrentHashMap<String,LongAdder>)stacks).putIfAbsent(path, created);
+			if(total == null) total = created;
+		}
+		total.add(nanos);
+	}
+
+	/**
+	 * Enter a table.  Must be paired with {@link #exitTable()}, in a finally block.
+	 * @param level the test level: CYCLE, SUITE, or STEP.
+	 * @param table the table name.
+	 */
+	public static void enterTable(String level, String table){
+		push(level +" "+ table, true);
+	}
+
+	/**
+	 * Exit the current table, recording the table time not spent in its records.  Records 
+	 * entered in the table but never exited, as when the table is left early, are closed first 
+	 * with their time recorded as the record itself.
+	 */
+	public static void exitTable(){
+		Frame frame;
+		do{
+			frame = pop();
+			if(frame == null) return;
+			long elapsed = System.nanoTime() - frame.started;
+			add(frame.path, elapsed - frame.children);
+			Frame parent = current();
+			if(parent != null) parent.children += elapsed;
+		}while(! frame.table);
+	}
+
+	/**
+	 * Enter a record once its record type is known.  Must be paired with {@link #exitRecord}.
+	 * The record is named by its record type and its test name or command.
+	 * @param rt the record type.
+	 * @param trd the record.
+	 * @param isStep true if the record is in a STEP table, where the command is field 4.
+	 */
+	public static void enterRecord(String rt, TestRecordHelper trd, boolean isStep){
+		String name = "";
+		boolean componentFunction = isStep && rt.startsWith(DriverConstant.RECTYPE_T);
+		try{ name = trd.getTrimmedUnquotedInputRecordToken(componentFunction ? 3 : 1); }
+		catch(SAFSNullPointerException npx){;}
+		catch(IndexOutOfBoundsException ibx){;}
+		push(name.length()==0 ? rt : rt +" "+ name, false);
+	}
+
+	/**
+	 * Exit the current record, recording each phase as a leaf of the record.  Time in tables 
+	 * the record called is removed from its engine phase.  Does nothing if the record was 
+	 * already closed by {@link #exitTable()}.
+	 * @param nanos phase nanoseconds indexed as {@link RecordMetrics#PHASES}.
+	 * @param engine the engine that processed the record, or null.
+	 * @param trd the record.
+	 */
+	public static void exitRecord(long[] nanos, String engine, TestRecordHelper trd){
+		Frame record = current();
+		if(record == null || record.table) return;
+		pop();
+		long total = nanos[RecordMetrics.TOTAL];
+		long measured = 0;
+		for(int phase=0;phase<RecordMetrics.TOTAL;phase++){
+			long time = nanos[phase];
+			measured += time;
+			if(phase == RecordMetrics.ENGINE){
+				time -= record.children;
+				add(record.path +";"+ RecordMetrics.PHASES[phase] + (engine == null ? "": " "+ frameName(engine)), time);
+			}else{
+				add(record.path +";"+ RecordMetrics.PHASES[phase], time);
+			}
+		}
+		add(record.path +";"+ OTHER, total - measured);
+		Frame table = current();
+		if(table != null) table.children += total;
+		if(topRecords > 0){
+			synchronized(slowest){
+				if(slowest.size() < topRecords || total > slowest.peek().nanos){
+					slowest.add(new SlowRecord(record.path, trd.getFilename(), trd.getLineNumber(), trd.getInputRecord(), total, nanos.clone()));
+					while(slowest.size() > topRecords) slowest.poll();
+				}
+			}
+		}
+	}
+
+	/** @return nanoseconds by collapsed call path, sorted by path. */
+	public static Map<String,Long> getStacks(){
+		Map<String,Long> sorted = new TreeMap<String,Long>();
+		for(Map.Entry<String,LongAdder> stack: stacks.entrySet()) sorted.put(stack.getKey(), Long.valueOf(stack.getValue().sum()));
+		return sorted;
+	}
+
+	/**
+	 * Write {@value #EXPORT_NAME}.collapsed, in microseconds, and {@value #EXPORT_NAME}-top.txt.
+	 * @param dir the directory to write to.
+	 * @throws IOException if a file cannot be written.
+	 */
+	public static void export(File dir) throws IOException{
+		if(! dir.isDirectory()) dir.mkdirs();
+		File collapsed = new File(dir, EXPORT_NAME +".collapsed");
+		File top = new File(dir, EXPORT_NAME +"-top.txt");
+		PrintWriter out = new PrintWriter(new OutputStreamWriter(new FileOutputStream(collapsed), "UTF-8"));
+		try{ writeCollapsed(out); }finally{ out.close(); }
+		if(out.checkError()) throw new IOException("Unable to write "+ collapsed.getPath());
+		out = new PrintWriter(new OutputStreamWriter(new FileOutputStream(top), "UTF-8"));
+		try{ writeTopRecords(out); }finally{ out.close(); }
+		if(out.checkError()) throw new IOException("Unable to write "+ top.getPath());
+		Log.info("ExecutionProfiler exported to "+ collapsed.getPath() +" and "+ top.getPath());
+	}
+
+	/** Write each call path and its microseconds, one per line: frame;frame;leaf value */
+	public static void writeCollapsed(PrintWriter out){
+		for(Map.Entry<String,Long> stack: getStacks().entrySet()){
+			long micros = stack.getValue().longValue() / 1000;
+			if(micros > 0) out.println(stack.getKey() +" "+ micros);
+		}
+	}
+
+	/** Write the slowest records, slowest first, with their phase times in milliseconds. */
+	public static void writeTopRecords(PrintWriter out){
+		List<SlowRecord> records;
+		synchronized(slowest){ records = new ArrayList<SlowRecord>(slowest); }
+		Collections.sort(records, Collections.reverseOrder(slowest.comparator()));
+		out.println("Slowest "+ records.size() +" records (milliseconds)");
+		int rank = 0;
+		for(SlowRecord record: records){
+			out.println();
+			out.println(++rank +". "+ millis(record.nanos) +" ms  "+ record.table +" line "+ record.line);
+			out.println("   "+ record.path);
+			out.println("   "+ record.record);
+			StringBuilder phases = new StringBuilder("  ");
+			for(int phase=0;phase<RecordMetrics.TOTAL;phase++)
+				phases.append(' ').append(RecordMetrics.PHASES[phase]).append('=').append(millis(record.phases[phase]));
+			out.println(phases);
+		}
+	}
+
+	static String millis(long nanos){
+		return String.format("%.3f", nanos / 1000000.0);
+	}
+
+	/** Self-test building a small call tree. */
+	public static void main(String[] args) throws Exception{
+		int failures = 0;
+		setEnabled(true);
+		setTopRecords(2);
+		TestRecordHelper trd = new TestRecordHelper();
+		trd.setInputRecord("T\tSuite;1\t,");
+		trd.setSeparator("\t");
+		trd.setFilename("Cycle.CDD");
+
+		long cycle = System.nanoTime();
+		enterTable(DriverConstant.DRIVER_CYCLE_TESTLEVEL, "Cycle.CDD");
+		enterRecord(DriverConstant.RECTYPE_T, trd, false);
+		long[] outer = new long[RecordMetrics.PHASES.length];
+		long started = System.nanoTime();
+		{
+			enterTable(DriverConstant.DRIVER_SUITE_TESTLEVEL, "Suite.STD");
+			TestRecordHelper step = new TestRecordHelper();
+			step.setInputRecord("C\tPause\t1");
+			step.setSeparator("\t");
+			for(int i=0;i<3;i++){
+				enterRecord(DriverConstant.RECTYPE_C, step, false);
+				long[] nanos = new long[RecordMetrics.PHASES.length];
+				nanos[RecordMetrics.RESOLVE] = 1000000;
+				nanos[RecordMetrics.ENGINE] = 2000000 * (i+1);
+				nanos[RecordMetrics.TOTAL] = 3500000 + 2000000 * i;
+				exitRecord(nanos, "TIDDriverCommands", step);
+			}
+			Thread.sleep(20);
+			exitTable();
+		}
+		outer[RecordMetrics.TOTAL] = System.nanoTime() - started;
+		outer[RecordMetrics.ENGINE] = outer[RecordMetrics.TOTAL];
+		exitRecord(outer, "SUITE TABLE", trd);
+		exitTable();
+		cycle = System.nanoTime() - cycle;
+		if(! frames.get().isEmpty()){
+			System.out.println("Frames left after the cycle: "+ frames.get().size());
+			failures++;
+		}
+
+		Map<String,Long> profile = getStacks();
+		String pause = "CYCLE Cycle.CDD;T Suite:1;SUITE Suite.STD;C Pause";
+		if(!Long.valueOf(3000000).equals(profile.get(pause +";resolve")) ||
+		   !Long.valueOf(12000000).equals(profile.get(pause +";engine TIDDriverCommands")) ||
+		   !Long.valueOf(1500000).equals(profile.get(pause +";"+ OTHER))){
+			System.out.println("Record leaves: "+ profile);
+			failures++;
+		}
+		long sum = 0;
+		for(Long nanos: profile.values()) sum += nanos.longValue();
+		Long outerEngine = profile.get("CYCLE Cycle.CDD;T Suite:1;engine SUITE TABLE");
+		if(sum > cycle || (outerEngine != null && outerEngine.longValue() > 1000000)){
+			System.out.println("Nested table time counted twice: "+ sum +" vs "+ cycle +" "+ profile);
+			failures++;
+		}
+		synchronized(slowest){
+			if(slowest.size() != 2 || slowest.peek().nanos != 7500000){
+				System.out.println("Slowest records: "+ slowest.size());
+				failures++;
+			}
+		}
+
+		// a table left early, without exiting its record, must not leave frames for the caller
+		enterTable(DriverConstant.DRIVER_CYCLE_TESTLEVEL, "Early.CDD");
+		enterRecord(DriverConstant.RECTYPE_T, trd, false);
+		enterTable(DriverConstant.DRIVER_SUITE_TESTLEVEL, "Exit.STD");
+		enterRecord(DriverConstant.RECTYPE_C, trd, false);
+		exitTable();
+		if(current() == null || current().table || frames.get().size() != 2){
+			System.out.println("Early table exit left "+ frames.get().size() +" frames.");
+			failures++;
+		}
+		long[] nanos = new long[RecordMetrics.PHASES.length];
+		exitRecord(nanos, null, trd);
+		exitTable();
+		exitRecord(nanos, null, trd);
+		if(! frames.get().isEmpty() || !getStacks().containsKey("CYCLE Early.CDD;T Suite:1;SUITE Exit.STD;C Suite:1")){
+			System.out.println("Early table exit unwound to "+ frames.get().size() +" frames: "+ getStacks().keySet());
+			failures++;
+		}
+
+		PrintWriter out = new PrintWriter(System.out);
+		writeCollapsed(out);
+		writeTopRecords(out);
+		out.flush();
+		reset();
+		setEnabled(false);
+		System.out.println(failures == 0 ? "ExecutionProfiler self-test passed." : "ExecutionProfiler self-test FAILED: "+ failures);
+	}
+}
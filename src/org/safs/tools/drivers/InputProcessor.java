@@ -26,9 +26,15 @@
  *                                  set variable 'activeTableVar' outside of mainloop.
  *                                  add logTableStart() and logTableEnd(): Log explicit message to tell the start/end of 'Cycle/Suite/TestCase'.
  *                                  log the 'End Table/Cycle/Suite/TestCase' after the 'STATUS_REPORT'.
+ * <br>OCT 19, 2026 	Time each record's phases for RecordMetrics when enabled.
+ * <br>OCT 19, 2026 	Run independent suites of a cycle as parallel shards and merge them in table order.
+ * <br>OCT 19, 2026 	Enter tables and records in the ExecutionProfiler when enabled.
  */
 package org.safs.tools.drivers;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.ListIterator;
 
 import org.safs.JavaHook;
@@ -92,6 +98,17 @@ public class InputProcessor extends AbstractInputProcessor {
 	private boolean isStep  = false;
     private String activeTableVar = null;
 
+	/**
+	 * Timings of the record being processed, or null if {@link RecordMetrics} are disabled.
+	 */
+	protected RecordMetrics.Sample metrics = RecordMetrics.sample();
+
+	/**
+	 * Independent suites started as shards by this cycle and not yet merged, in table order.
+	 * @see ShardExecutor
+	 */
+	private List<ShardExecutor.Shard> shards = null;
+
 	/***************************************************************************
 	 * Constructor for InputProcessor
 	 */
@@ -161,11 +178,13 @@ public class InputProcessor extends AbstractInputProcessor {
 	 */
 	@Override
 	public void logMessage(String msg, String msgdescription, int msgtype){
+		long mark = (metrics == null) ? 0 : System.nanoTime();
 		UniqueStringMessageInfo msgInfo = new UniqueStringMessageInfo(
 											  (String)logid.getUniqueID(),
 											  msg, msgdescription, msgtype);
 
 		getLogsInterface().logMessage(msgInfo);
+		if(metrics != null) metrics.add(RecordMetrics.LOG, mark);
 	}
 
 	/***************************************************************************
@@ -292,7 +311,7 @@ public class InputProcessor extends AbstractInputProcessor {
 					//there are still more engines can be tried to execute the keyword
 //					if(list.hasNext() || hasMoreEnginesToTry())
 					trd.setStatusInfo(trd.getStatusInfo()+" "+DriverConstant.MORE_ENGINES);
-					result = theEngine.processRecord(trd);
+					result = processRecord(theEngine, trd);
 					Log.info("InputProcessor preferred engine '"+ enginename +"' returned result:"+ result);
 				}catch(IllegalArgumentException iax){
 					// this should not happen!
@@ -359,7 +378,7 @@ public class InputProcessor extends AbstractInputProcessor {
 						list.previous();
 					}
 				}
-				result = theEngine.processRecord(trd);
+				result = processRecord(theEngine, trd);
 				Log.info("InputProcessor engine '"+ theEngine.getEngineName() +"' returned result:"+ result);
 			}catch(IllegalArgumentException iax){
 				// this should not happen!
@@ -372,6 +391,17 @@ public class InputProcessor extends AbstractInputProcessor {
 		return result;
 	}
 
+	/***************************************************************************
+	 * Have an engine process the record, timing it for {@link RecordMetrics} when enabled.
+	 */
+	protected long processRecord(EngineInterface engine, TestRecordHelper trd){
+		if(metrics == null) return engine.processRecord(trd);
+		long mark = System.nanoTime();
+		long result = engine.processRecord(trd);
+		metrics.addEngine(engine.getEngineName(), mark, result != DriverConstant.STATUS_SCRIPT_NOT_EXECUTED);
+		return result;
+	}
+
 	/***************************************************************************
 	 * Process a Driver Command (C,CW,or CF) input record.
 	 * This is called internally by processTest as necessary.
@@ -408,14 +438,14 @@ public class InputProcessor extends AbstractInputProcessor {
 		   (!hasEnginePreferences())){
 			// try important driver control commands first
 			Log.debug("InputProcessor.processDriverCommand trying TIDDriverCommands BEFORE preferred engines...");
-			try{ result = getTIDDriverCommands().processRecord(trd);}
+			try{ result = processRecord(getTIDDriverCommands(), trd);}
 				 catch(NullPointerException x){;}
 
 			// try AutoIt next if not executed
 			if ((result==DriverConstant.STATUS_SCRIPT_NOT_EXECUTED)&&
 				(! trd.getStatusInfo().equalsIgnoreCase(JavaHook.SHUTDOWN_RECORD))){
 				Log.debug("InputProcessor.processDriverCommand trying AutoIT BEFORE preferred engines...");
-				result =  getAutoItComponentSupport().processRecord(trd);
+				result =  processRecord(getAutoItComponentSupport(), trd);
 			}
 		}
 
@@ -431,7 +461,7 @@ public class InputProcessor extends AbstractInputProcessor {
 		{
 			Log.debug("InputProcessor trying TIDDriverCommands AFTER preferred engines...");
 			// try important driver control commands first
-			try{ result = getTIDDriverCommands().processRecord(trd);}
+			try{ result = processRecord(getTIDDriverCommands(), trd);}
 				 catch(NullPointerException x){;}
 		}
 
@@ -443,7 +473,7 @@ public class InputProcessor extends AbstractInputProcessor {
 		// try in-process handlers
 		if ((result==DriverConstant.STATUS_SCRIPT_NOT_EXECUTED)&&
 			(! trd.getStatusInfo().equalsIgnoreCase(JavaHook.SHUTDOWN_RECORD)))
-			try{ result = getIPDriverCommands().processRecord(trd);}
+			try{ result = processRecord(getIPDriverCommands(), trd);}
 			catch(NullPointerException x){;}
 
 		if ((result==DriverConstant.STATUS_SCRIPT_NOT_EXECUTED)&&
@@ -548,14 +578,14 @@ public class InputProcessor extends AbstractInputProcessor {
 		   (!hasEnginePreferences())){
 			// try internal CF support
 			Log.debug("InputProcessor.processComponentFunction trying internal TIDComponent BEFORE preferred engines...");
-			try{ rc = getTIDGUIlessComponentSupport().processRecord(trd);}
+			try{ rc = processRecord(getTIDGUIlessComponentSupport(), trd);}
 		    catch(NullPointerException x){;}
 
 			// try AutoIt next if not executed
 			Log.debug("InputProcessor.processComponentFunction trying AutoIT BEFORE preferred engines...");
 			if ((rc==DriverConstant.STATUS_SCRIPT_NOT_EXECUTED)&&
 				(! trd.getStatusInfo().equalsIgnoreCase(JavaHook.SHUTDOWN_RECORD)))
-				rc =  this.getAutoItComponentSupport().processRecord(trd);
+				rc =  processRecord(getAutoItComponentSupport(), trd);
 		}
 
 		// try preferred engines next
@@ -569,7 +599,7 @@ public class InputProcessor extends AbstractInputProcessor {
 		   (hasEnginePreferences()))
 		{
 			// try internal CF support
-			try{ rc = getTIDGUIlessComponentSupport().processRecord(trd);}
+			try{ rc = processRecord(getTIDGUIlessComponentSupport(), trd);}
 		    catch(NullPointerException x){;}
 		}
 
@@ -627,6 +657,15 @@ public class InputProcessor extends AbstractInputProcessor {
 		// make sure we use the right separator
 		if (theSeparator.length()==0) theSeparator = trd.getSeparator();
 
+		// run an independent suite as a shard, merged later in table order
+		ShardExecutor executor = ShardExecutor.getExecutor();
+		if (isCycle && (executor != null) && executor.isIndependent(theTest)){
+			if (shards == null) shards = new ArrayList<ShardExecutor.Shard>();
+			shards.add(executor.submit(theTest, theSeparator, (String)logid.getUniqueID(), new File(driver.getLogsDir())));
+			logMessage("Started parallel "+ theTestLevel +" "+ theTest, null, AbstractLogFacility.GENERIC_MESSAGE);
+			return DriverConstant.STATUS_NO_SCRIPT_FAILURE;
+		}
+
 		// make sure we use the right log
 		if (isCycle) { theLogID = driver.getSuiteLogName(); }
 		else{ theLogID = driver.getStepLogName();}
@@ -639,7 +678,9 @@ public class InputProcessor extends AbstractInputProcessor {
 
 		// run the test and add status info to existing status info
 		InputProcessor nextLevel = new InputProcessor(this, theSource, alog);
+		long mark = (metrics == null) ? 0 : System.nanoTime();
 		StatusInterface nextStatus = nextLevel.processTest();
+		if(metrics != null) metrics.addEngine(theTestLevel +" TABLE", mark, true);
 		Driver.setIDriver(this);
 		statusCounter.addStatus(nextStatus);
 		TestRecordData nltrd = nextLevel.getTestRecordData();
@@ -652,6 +693,81 @@ public class InputProcessor extends AbstractInputProcessor {
 		return DriverConstant.STATUS_NO_SCRIPT_FAILURE;
 	}
 
+	/***************************************************************************
+	 * @return true if the record is a call to an independent suite that will run as a shard.
+	 */
+	protected boolean isShardRecord(String rt, TestRecordHelper trd){
+		ShardExecutor executor = ShardExecutor.getExecutor();
+		if ((! isCycle)||(executor == null)) return false;
+		if (!((rt.equals(DriverConstant.RECTYPE_T))  ||
+		      (rt.equals(DriverConstant.RECTYPE_TW)) ||
+		      (rt.equals(DriverConstant.RECTYPE_TF)))) return false;
+		try{ return executor.isIndependent(trd.getTrimmedUnquotedInputRecordToken(1)); }
+		catch(SAFSNullPointerException npx){;}
+		catch(IndexOutOfBoundsException ibx){;}
+		return false;
+	}
+
+	/***************************************************************************
+	 * Wait for the suites running as shards and merge their status counts and logs in 
+	 * the order they were called.  A shard that did not report its counts is a test failure.
+	 * The shard logs are concatenated into &lt;log&gt;_shards.txt in the logs directory.
+	 */
+	protected void mergeShards(){
+		if ((shards == null)||(shards.isEmpty())) return;
+		CountersInterface counts = getCountersInterface();
+		for(ShardExecutor.Shard shard: shards){
+			shard.await();
+			StatusInterface status = shard.getStatus();
+			if (status == null){
+				String detail = (shard.getError() == null) ? "exit code "+ shard.getExitCode() +", see "+ shard.getConsoleFile().getPath():
+				                                            shard.getError().getClass().getSimpleName() +": "+ shard.getError().getMessage();
+				logMessage("Parallel SUITE "+ shard.getSuite() +" did not complete.", detail, AbstractLogFacility.FAILED_MESSAGE);
+				statusCounter.incrementTestFailures();
+				counts.incrementAllCounters(counterInfo, CountersInterface.STATUS_TEST_FAILURE);
+				continue;
+			}
+			statusCounter.addStatus(status);
+			addShardCounts(counts, status);
+			logMessage("Parallel SUITE "+ shard.getSuite() +" completed in log "+ shard.getLogName(),
+			           status.getTotalRecords() +" records, "+ status.getTestFailures() +" test failures, "+
+			           status.getGeneralFailures() +" general failures.", AbstractLogFacility.GENERIC_MESSAGE);
+		}
+		File logsDir = new File(driver.getLogsDir());
+		File merged = new File(logsDir, (String)logid.getUniqueID() +"_shards.txt");
+		try{
+			ShardExecutor.mergeLogs(shards, logsDir, merged);
+		}catch(Exception x){
+			Log.warn("InputProcessor cannot merge shard logs into "+ merged.getPath() +": "+ x.getMessage());
+		}
+		shards.clear();
+	}
+
+	/**
+	 * Replay a shard's counts to the active counters, as if its records had run here.
+	 * Test IO failures are counted in both test failures and IO failures, and general IO failures
+	 * are the records not otherwise counted.
+	 */
+	private void addShardCounts(CountersInterface counts, StatusInterface status){
+		long counted = status.getTestPasses() + status.getTestWarnings() + status.getTestFailures() +
+		               status.getGeneralPasses() + status.getGeneralWarnings() + status.getGeneralFailures() +
+		               status.getSkippedRecords();
+		long generalIO = Math.max(0, status.getTotalRecords() - counted);
+		long testIO = Math.max(0, Math.min(status.getIOFailures() - generalIO, status.getTestFailures()));
+		long[][] replay = {
+			{status.getTestPasses(), CountersInterface.STATUS_TEST_PASS},
+			{status.getTestWarnings(), CountersInterface.STATUS_TEST_WARNING},
+			{status.getTestFailures() - testIO, CountersInterface.STATUS_TEST_FAILURE},
+			{testIO, CountersInterface.STATUS_TEST_IO_FAILURE},
+			{status.getGeneralPasses(), CountersInterface.STATUS_GENERAL_PASS},
+			{status.getGeneralWarnings(), CountersInterface.STATUS_GENERAL_WARNING},
+			{status.getGeneralFailures(), CountersInterface.STATUS_GENERAL_FAILURE},
+			{status.getSkippedRecords(), CountersInterface.STATUS_SKIPPED_RECORD},
+			{generalIO, CountersInterface.STATUS_IO_FAILURE}};
+		for(long[] count: replay)
+			for(long i=0;i<count[0];i++) counts.incrementAllCounters(counterInfo, count[1]);
+	}
+
 	/***************************************************************************
 	 * Process a Skipped (S) input record.
 	 * This is called internally by processTest as necessary.
@@ -694,12 +810,14 @@ public class InputProcessor extends AbstractInputProcessor {
 	    testRecordData.reinit();
 	    testRecordData.setInputRecord(trimdata);
 	    testRecordData.setSeparator(separator);
+	    long mark = (metrics == null) ? 0 : System.nanoTime();
 	    try{
 	    	String defaultMap = (String) getMapsInterface().getDefaultMap().getUniqueID();
 	    	testRecordData.setAppMapName(defaultMap);
 	    }
 	    catch(ClassCastException ccx){testRecordData.setAppMapName("null");}
 	    catch(NullPointerException npx){testRecordData.setAppMapName("null");}
+	    if(metrics != null) metrics.add(RecordMetrics.APPMAP, mark);
 
 	    String rt = null;
 
@@ -733,10 +851,6 @@ public class InputProcessor extends AbstractInputProcessor {
 		DebugInterface            debug = getDebugInterface();
 		CountersInterface        counts = getCountersInterface();
 		MapsInterface              maps = getMapsInterface();
-		String                  message = "";
-		String               statusInfo = "";
-		String			   driverStatus = "";
-
 		if (! input.open(sourceinfo)){
 			Log.debug("InputProcessor.processTest unable to locate or open '"+ sourceinfo.getSourceName()+"'.");
 			logMessage ("Unable to locate or open "+ sourceinfo.getTestLevel() +
@@ -749,6 +863,26 @@ public class InputProcessor extends AbstractInputProcessor {
 
 		Driver.setIDriver(this);
 
+		boolean profiled = ExecutionProfiler.isEnabled();
+		if(profiled) ExecutionProfiler.enterTable(sourceinfo.getTestLevel(), sourceinfo.getFilename());
+		try{
+			processTestTable(sourceinfo, input, debug, counts);
+		}finally{
+			if(profiled) ExecutionProfiler.exitTable();
+		}
+
+		return statusCounter;
+	}
+
+	/**
+	 * Loop through the records of the opened test table, then close it.
+	 * Called by {@link #processTest()}, which enters and exits the table in the ExecutionProfiler.
+	 */
+	private void processTestTable(UniqueStringFileInfo sourceinfo, InputInterface input, DebugInterface debug, CountersInterface counts){
+		String                  message = "";
+		String               statusInfo = "";
+		String			   driverStatus = "";
+
 		logTableStart(sourceinfo);
     	// set DDVariable for active test table like safsActiveCycle=
     	getVarsInterface().setValue(activeTableVar, sourceinfo.getFilename());
@@ -768,6 +902,7 @@ public class InputProcessor extends AbstractInputProcessor {
 mainloop: while (inputrecord.isValid()){
 loopbody: {
 			result=DriverConstant.STATUS_SCRIPT_NOT_EXECUTED;
+			if(metrics != null) metrics.startRecord();
     		// In STEP_RETRY_EXECUTION, rawdata is updated in the end of this loop, and shall be reused again
     		if (!driverStatus.equalsIgnoreCase(JavaHook.STEP_RETRY_EXECUTION))
     			rawdata  = inputrecord.getRecordData();
@@ -793,6 +928,7 @@ loopbody: {
 			// OR, you are debugging ALL record types.
 
 			// process variables and/or expressions
+			long mark = (metrics == null) ? 0 : System.nanoTime();
 			if (RESOLVE_SKIPPED_RECORDS){
 			    trimdata = getVarsInterface().resolveExpressions(
 			                                  trimdata, sourceinfo.getDefaultSeparator());
@@ -808,6 +944,7 @@ loopbody: {
                             trimdata, sourceinfo.getDefaultSeparator());
 				}
 			}
+			if(metrics != null) metrics.add(RecordMetrics.RESOLVE, mark);
 
 		    // initialize a new TestRecordData object with expressions already resolved
 			testRecordData = initTestRecordData(trimdata, sourceinfo.getDefaultSeparator());
@@ -826,10 +963,15 @@ loopbody: {
 	    	}
 	    	testRecordData.setFileID(sourceinfo.getStringID());
 	    	testRecordData.setLineNumber(inputrecord.getRecordNumber());
+	    	if(metrics != null) metrics.setRecordType(rt, testRecordData, isStep);
 
 	    	//Set the current separator to variable "SAFS/Hook/separator"
 	    	getVarsInterface().setValue(STAFHelper.SAFS_HOOK_TRD+STAFHelper.SAFS_VAR_SEPARATOR, testRecordData.getSeparator());
 
+			// shards must finish before a record that might depend on them
+			if ((shards != null)&&(! shards.isEmpty())&&(! isShardRecord(rt, testRecordData))) mergeShards();
+
+			if(metrics != null) metrics.startRoute();
 			// branch according to the record type
 			if ((rt.equals(DriverConstant.RECTYPE_C))  ||
 				(rt.equals(DriverConstant.RECTYPE_CW)) ||
@@ -881,6 +1023,7 @@ loopbody: {
 					}
 				}
 			}
+			if(metrics != null) metrics.endRoute();
 			statusInfo = testRecordData.getStatusInfo();
 
 			//////////////////////////////////////////////////////////////
@@ -921,7 +1064,10 @@ loopbody: {
 				statusCounter.incrementGeneralPasses();
 				counts.incrementAllCounters(counterInfo, counts.STATUS_GENERAL_PASS);
 
-				if(! flow.isExitTableBlockValid()) break mainloop;
+				if(! flow.isExitTableBlockValid()){
+					if(metrics != null) metrics.endRecord(testRecordData);
+					break mainloop;
+				}
 				result = locateBlockID(input, sourceinfo,
 				                       flow.getExitTableBlock());
 				break loopbody;
@@ -1044,6 +1190,7 @@ loopbody: {
 			}
 
     	  } // end of loopbody:
+			if(metrics != null) metrics.endRecord(testRecordData);
 
 			if( (result == DriverConstant.STATUS_SCRIPT_NOT_EXECUTED) &&
 				(statusInfo.equalsIgnoreCase(JavaHook.SHUTDOWN_RECORD))){
@@ -1124,14 +1271,13 @@ holdloop:	while(! driverStatus.equalsIgnoreCase(JavaHook.RUNNING_EXECUTION)){
 
 		}// end of mainloop:
 
+		mergeShards();
 		input.close(sourceinfo);
 
 		if (!(sourceinfo.getTestLevel().equalsIgnoreCase(DriverConstant.DRIVER_STEP_TESTLEVEL)))
 		    driver.getLogsInterface().logStatusInfo(logid, statusCounter, sourceinfo.getSourcePath(driver));
 
 		logTableEnd(sourceinfo);
-
-		return statusCounter;
 	}
 
 	private void logTableStart(UniqueStringFileInfo sourceinfo){
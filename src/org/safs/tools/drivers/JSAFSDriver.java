@@ -36,7 +36,10 @@ package org.safs.tools.drivers;
  *                                  the resolve behavior will be the same and easy to maintain.
  * <br>	APR 18, 2018	(Lei Wang) 	Modified constructor JSAFSDriver(): Set product's name, version and description.
  * <br>	OCT 10, 2018	(Lei Wang) 	Modified getFirstNonSAFSStackTraceElement(): Skip the classes from more packages (besides org.safs) org.springframework, sun.reflect and java.lang.reflect
+ * <br>	OCT 19, 2026	Added runStructuredCommand(): fill the test record directly from the typed command fields,
+ *                                  with no separator serialization/tokenization and only opt-in expression resolution.
  */
+import java.util.List;
 import java.util.ListIterator;
 
 import org.safs.IndependantLog;
@@ -563,13 +566,50 @@ public class JSAFSDriver extends DefaultDriver implements ITestRecordStackable{
 		testRecordHelper.setInputRecord(testRecord);
 
 		testRecordHelper.setCommand(command.getCommandName());
+		setDefaultAppMapName(testRecordHelper);
+	}
+
+	/**
+	 * <em>Note:</em>   Before calling method processDriverCommand() and processComponentFunction()<br>
+	 *                  you MUST call this method to initialize the global variable testRecordHelper.
+	 * <p>
+	 * The structured alternative to {@link #setGlobalTestRecordHelper(AbstractCommand, String, String)}.
+	 * The test record fields are taken directly from the AbstractCommand.  They are not joined into a
+	 * delimited record that must then be tokenized again, and field values do not need to avoid the separator.
+	 * The delimited input-record is only built if something asks for it, like an out-of-process engine.
+	 *
+	 * @param command   An instance of AbstractCommand, DriverCommand or ComponentFunction.
+	 * @param separator The preferred separator, if a delimited record is ever needed.
+	 * @param expandVariables true to resolve SAFS variable references (and expressions, if enabled)
+	 *                  in the fields, as {@link #resolveExpression(String, String)} does.
+	 *                  false to use the field values exactly as provided.
+	 * @see TestRecordData#setInputRecordTokens(List)
+	 */
+	protected void setGlobalTestRecordHelper(AbstractCommand command, String separator, boolean expandVariables){
+		testRecordHelper = this.initTestRecordData(null);
+		testRecordHelper.setRecordType(command.getTestRecordID());
 
+		List<String> fields = command.exportTestRecordFields();
+		if(expandVariables){
+			String sep = StringUtils.getUniqueSep(separator, "", fields.toArray(new String[fields.size()]));
+			testRecordHelper.setSeparator(sep);
+			testRecordHelper.setInputRecord(resolveExpression(command.exportTestRecord(sep), sep));
+		}else{
+			testRecordHelper.setSeparator(separator);
+			testRecordHelper.setInputRecordTokens(fields);
+		}
+
+		testRecordHelper.setCommand(command.getCommandName());
+		setDefaultAppMapName(testRecordHelper);
+	}
+
+	private void setDefaultAppMapName(TestRecordHelper trd){
 		try{
 			String defaultMap = (String) maps.getDefaultMap().getUniqueID();
-			testRecordHelper.setAppMapName(defaultMap);
+			trd.setAppMapName(defaultMap);
 		}
-		catch(ClassCastException ccx){testRecordHelper.setAppMapName("null");}
-		catch(NullPointerException npx){testRecordHelper.setAppMapName("null");}
+		catch(ClassCastException ccx){trd.setAppMapName("null");}
+		catch(NullPointerException npx){trd.setAppMapName("null");}
 	}
 
 	/**
@@ -764,6 +804,20 @@ public class JSAFSDriver extends DefaultDriver implements ITestRecordStackable{
 	 * @see #runComponentFunction(ComponentFunction)
 	 */
 	public TestRecordHelper processCommand(AbstractCommand command, String separator){
+		return processCommand(command, separator, false, false);
+	}
+
+	/**
+	 * Process the AbstractCommand with SAFSMonitor support as {@link #processCommand(AbstractCommand, String)},
+	 * optionally filling the test record directly from the command fields.
+	 * @param command   An instance of AbstractCommand, DriverCommand or ComponentFunction
+	 * @param separator The separator used to create test-record from AbstractCommand.
+	 * @param structured true to use {@link #setGlobalTestRecordHelper(AbstractCommand, String, boolean)}.
+	 * @param expandVariables if structured, true to resolve variables in the fields.
+	 * @return TestRecordHelper with result information.
+	 * @see #runStructuredCommand(AbstractCommand, boolean)
+	 */
+	protected TestRecordHelper processCommand(AbstractCommand command, String separator, boolean structured, boolean expandVariables){
 		String debugmsg = getClass().getName()+".processCommand() ";
 		String driverStatus = null;
 		String testRecord = null;
@@ -775,7 +829,11 @@ mainloop: while (true){
 	        //testRecord is null when we first enter this loop.
 	        //testRecord will contain the value of STAF variable "SAFS/Hook/inputrecord" when we
 	        //retry the same step.
-			setGlobalTestRecordHelper(command, separator, testRecord);
+			if(structured && testRecord==null){
+				setGlobalTestRecordHelper(command, separator, expandVariables);
+			}else{
+				setGlobalTestRecordHelper(command, separator, testRecord);
+			}
 			pushTestRecord(testRecordHelper);
 
 			if(command instanceof DriverCommand){
@@ -916,11 +974,29 @@ holdloop:	while(! driverStatus.equalsIgnoreCase(JavaHook.RUNNING_EXECUTION)){
 	 * {@link TestRecordHelper#getStatusInfo()}
 	 */
 	protected TestRecordHelper processCommandDirect(AbstractCommand command, String separator){
+		return processCommandDirect(command, separator, false, false);
+	}
+
+	/**
+	 * Process the AbstractCommand without SAFSMonitor control as {@link #processCommandDirect(AbstractCommand, String)},
+	 * optionally filling the test record directly from the command fields.
+	 * @param command AbstractCommand command to execute
+	 * @param separator for test record fields
+	 * @param structured true to use {@link #setGlobalTestRecordHelper(AbstractCommand, String, boolean)}.
+	 * @param expandVariables if structured, true to resolve variables in the fields.
+	 * @return TestRecordHelper with result information.
+	 * @see #runStructuredCommand(AbstractCommand, boolean)
+	 */
+	protected TestRecordHelper processCommandDirect(AbstractCommand command, String separator, boolean structured, boolean expandVariables){
 		String debugmsg = StringUtils.debugmsg(false);
 		long rc = DriverConstant.STATUS_SCRIPT_NOT_EXECUTED;
 
 		//prepare the "test record"
-		setGlobalTestRecordHelper(command, separator,null);
+		if(structured){
+			setGlobalTestRecordHelper(command, separator, expandVariables);
+		}else{
+			setGlobalTestRecordHelper(command, separator,null);
+		}
 		pushTestRecord(testRecordHelper);
 
 		//execute the "test record"
@@ -1035,6 +1111,33 @@ holdloop:	while(! driverStatus.equalsIgnoreCase(JavaHook.RUNNING_EXECUTION)){
 		}
 	}
 
+	/**
+	 * Execute the DriverCommand or ComponentFunction with the test record filled directly from
+	 * the typed command fields.
+	 * <p>
+	 * Unlike {@link #runDriverCommand(DriverCommand, String)} and {@link #runComponentFunction(ComponentFunction, String)}
+	 * the command is not serialized into a separator-delimited record that must be tokenized again,
+	 * parameter values may contain any separator character, and no expression resolution is
+	 * performed unless requested--regardless of {@link #getAutomaticResolve()}.
+	 * <p>
+	 * SAFS Monitor support is the same as for the other run methods.
+	 *
+	 * @param command DriverCommand or ComponentFunction to execute
+	 * @param expandVariables true to resolve SAFS variable references (and expressions, if enabled)
+	 * in the command fields before execution.
+	 * @return TestRecordHelper with result information in
+	 * {@link TestRecordHelper#getStatusCode()} and
+	 * {@link TestRecordHelper#getStatusInfo()}
+	 */
+	public TestRecordHelper runStructuredCommand(AbstractCommand command, boolean expandVariables){
+		Log.info("routing structured "+ command.getClass().getSimpleName() +" '"+command.getCommandName()+"' with SAFS Monitor support = "+ useSAFSMonitor);
+		if(useSAFSMonitor){
+			return processCommand(command, SEPARATOR, true, expandVariables);
+		}else{
+			return processCommandDirect(command, SEPARATOR, true, expandVariables);
+		}
+	}
+
 	/**
 	 * Try to delay a certain time {@link #getMillisBetweenRecords()} between the executions.<br>
 	 * Normally, it is called after the execution of a command.<br>
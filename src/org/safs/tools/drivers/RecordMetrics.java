@@ -0,0 +1,491 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package org.safs.tools.drivers;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.safs.Log;
+import org.safs.SAFSException;
+import org.safs.TestRecordHelper;
+
+/**
+ * Per-record latency metrics for the {@link InputProcessor}.
+ * <p>
+ * When enabled, each record processed is timed in nanoseconds for each phase:
+ * <ul>
+ * <li>{@link #RESOLVE} variable and expression resolution,
+ * <li>{@link #APPMAP} app map lookup,
+ * <li>{@link #ROUTE} routing the record to engines, excluding engine and logging time,
+ * <li>{@link #ENGINE} engine execution,
+ * <li>{@link #LOG} logging, and
+ * <li>{@link #TOTAL} the whole record.
+ * </ul>
+ * Timings are aggregated into log-linear (HDR-style) {@link Histogram}s by command, by component 
+ * type, and by the engine that executed the record.  {@link #export(File)} writes them as JSON 
+ * and CSV at the end of a run.  The JSON retains the histogram buckets so results from many runs 
+ * can be merged.
+ * <p>
+ * When disabled, and the {@link ExecutionProfiler} is also disabled, {@link #sample()} returns null 
+ * and the InputProcessor skips all timing.
+ * 
+ * OCT 19, 2026 Original Release
+ * OCT 19, 2026 Provide samples to the ExecutionProfiler.
+ * @see DriverConstant#RECORD_METRICS
+ */
+public class RecordMetrics {
+
+	/** Phase index: variable and expression resolution. */
+	public static final int RESOLVE = 0;
+	/** Phase index: app map lookup. */
+	public static final int APPMAP  = 1;
+	/** Phase index: routing the record to engines, excluding engine and logging time. */
+	public static final int ROUTE   = 2;
+	/** Phase index: engine execution. */
+	public static final int ENGINE  = 3;
+	/** Phase index: logging. */
+	public static final int LOG     = 4;
+	/** Phase index: the whole record. */
+	public static final int TOTAL   = 5;
+
+	/** Phase names, by phase index. */
+	public static final String[] PHASES = {"resolve","appmap","route","engine","log","total"};
+
+	/** Aggregation dimension: the record's command, or its record type if it has no command. */
+	public static final String BY_COMMAND = "command";
+	/** Aggregation dimension: the record's component type. */
+	public static final String BY_COMPONENT = "component";
+	/** Aggregation dimension: the engine that executed the record. */
+	public static final String BY_ENGINE = "engine";
+	/** Aggregation dimension: all records. */
+	public static final String BY_ALL = "all";
+
+	static final String[] DIMENSIONS = {BY_ALL, BY_COMMAND, BY_COMPONENT, BY_ENGINE};
+
+	/** Component type used for Driver Command records. */
+	public static final String DRIVER_COMPONENT = "Driver";
+
+	/** "safs-record-metrics" file name, without extension, used by {@link #export(File)}. */
+	public static final String EXPORT_NAME = "safs-record-metrics";
+
+	private static volatile boolean enabled = false;
+
+	private static final Map<String, Map<String,Histogram[]>> metrics = new ConcurrentHashMap<String, Map<String,Histogram[]>>();
+	static{
+		for(String dimension: DIMENSIONS) metrics.put(dimension, new ConcurrentHashMap<String,Histogram[]>());
+	}
+
+	/** Enable or disable metrics for InputProcessors created afterwards. */
+	public static void setEnabled(boolean enable){ enabled = enable; }
+
+	/** @return true if metrics are enabled. */
+	public static boolean isEnabled(){ return enabled; }
+
+	/** @return a new Sample for an InputProcessor, or null if metrics and the ExecutionProfiler are disabled. */
+	public static Sample sample(){
+		return (enabled || ExecutionProfiler.isEnabled()) ? new Sample(): null;
+	}
+
+	/** Discard all recorded metrics. */
+	public static void reset(){
+		for(Map<String,Histogram[]> dimension: metrics.values()) dimension.clear();
+	}
+
+	/** @return the histograms, by phase index, for a key in a dimension, or null if none recorded. */
+	public static Histogram[] getHistograms(String dimension, String key){
+		Map<String,Histogram[]> keys = metrics.get(dimension);
+		return keys == null ? null : keys.get(key);
+	}
+
+	static void record(String dimension, String key, long[] nanos){
+		if(key == null || key.length()==0) return;
+		Map<String,Histogram[]> keys = metrics.get(dimension);
+		Histogram[] histograms = keys.get(key);
+		if(histograms == null){
+			Histogram[] created = new Histogram[PHASES.length];
+			for(int i=0;i<created.length;i++) created[i] = new Histogram();
+			histograms = ((ConcurrentHashMap<String,Histogram[]>)keys).putIfAbsent(key, created);
+			if(histograms == null) histograms = created;
+		}
+		for(int i=0;i<nanos.length;i++) histograms[i].record(nanos[i]);
+	}
+
+	/**
+	 * Timings for the record an InputProcessor is currently processing.
+	 * A Sample is used by one InputProcessor on one thread.
+	 */
+	public static class Sample {
+		private final long[] nanos = new long[PHASES.length];
+		private long started;
+		private String recordType;
+		private boolean profiled;
+		private String engine;
+		private long dispatched;
+		private long dispatchEngine;
+		private long dispatchLog;
+
+		Sample(){}
+
+		/** Begin timing a new record. */
+		public void startRecord(){
+			Arrays.fill(nanos, 0);
+			recordType = null;
+			engine = null;
+			dispatched = 0;
+			started = System.nanoTime();
+		}
+
+		/** Identify the record type once the record has been initialized.  Only such records are recorded. */
+		public void setRecordType(String recordType){ this.recordType = recordType; }
+
+		/**
+		 * Identify the record type once the record has been initialized, and enter the record 
+		 * in the {@link ExecutionProfiler} if it is enabled.
+		 * @param isStep true if the record is in a STEP table.
+		 */
+		public void setRecordType(String recordType, TestRecordHelper trd, boolean isStep){
+			setRecordType(recordType);
+			profiled = ExecutionProfiler.isEnabled();
+			if(profiled) ExecutionProfiler.enterRecord(recordType, trd, isStep);
+		}
+
+		/**
+		 * Add the time since mark to a phase.
+		 * @param phase phase index.
+		 * @param mark System.nanoTime() when the phase began.
+		 */
+		public void add(int phase, long mark){
+			nanos[phase] += System.nanoTime() - mark;
+		}
+
+		/**
+		 * Add the time since mark to {@link #ENGINE}, attributed to the named engine.
+		 * @param engine the name of the engine that processed the record.
+		 * @param mark System.nanoTime() when the engine was called.
+		 * @param executed true if the engine executed the record.  The record is attributed to 
+		 * the last engine that executed it.
+		 */
+		public void addEngine(String engine, long mark, boolean executed){
+			nanos[ENGINE] += System.nanoTime() - mark;
+			if(executed || this.engine == null) this.engine = engine;
+		}
+
+		/** Begin routing the record to its handlers. */
+		public void startRoute(){
+			dispatched = System.nanoTime();
+			dispatchEngine = nanos[ENGINE];
+			dispatchLog = nanos[LOG];
+		}
+
+		/** Finish routing the record: engine and logging time within the route are not route time. */
+		public void endRoute(){
+			if(dispatched == 0) return;
+			long route = System.nanoTime() - dispatched - (nanos[ENGINE] - dispatchEngine) - (nanos[LOG] - dispatchLog);
+			if(route > 0) nanos[ROUTE] += route;
+			dispatched = 0;
+		}
+
+		/**
+		 * Finish timing the record and add it to the metrics and the ExecutionProfiler.
+		 * Does nothing if the record has already been finished.
+		 * @param trd the processed record.
+		 */
+		public void endRecord(TestRecordHelper trd){
+			if(recordType == null) return;
+			nanos[TOTAL] = System.nanoTime() - started;
+			if(profiled){
+				profiled = false;
+				ExecutionProfiler.exitRecord(nanos, engine, trd);
+			}
+			if(! enabled){
+				recordType = null;
+				return;
+			}
+			String command = trd.getCommand();
+			if(command == null || command.length()==0) command = recordType;
+			String component = null;
+			try{ component = trd.getCompType(); }catch(SAFSException x){}
+			if((component == null || component.length()==0)&&(recordType.startsWith(DriverConstant.RECTYPE_C)))
+				component = DRIVER_COMPONENT;
+			record(BY_ALL, BY_ALL, nanos);
+			record(BY_COMMAND, command, nanos);
+			record(BY_COMPONENT, component, nanos);
+			record(BY_ENGINE, engine, nanos);
+			recordType = null;
+		}
+	}
+
+	/**
+	 * A log-linear histogram of nanosecond values in the manner of HdrHistogram.
+	 * Values below 2^{@value #SUB_BUCKET_BITS} are counted exactly.  Larger values are counted in 
+	 * 2^{@value #SUB_BUCKET_BITS} buckets per power of 2, so a reported value is within about 3% 
+	 * of the recorded value.  Buckets are allocated as values require them.
+	 */
+	public static class Histogram {
+		/** 5: 32 buckets per power of 2. */
+		public static final int SUB_BUCKET_BITS = 5;
+		static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+		private long[] counts = new long[SUB_BUCKETS * 8];
+		private long count;
+		private long total;
+		private long min = Long.MAX_VALUE;
+		private long max;
+
+		/** @return the bucket index for a value. */
+		static int index(long value){
+			if(value < SUB_BUCKETS) return (int) value;
+			int exponent = 63 - Long.numberOfLeadingZeros(value);
+			int shift = exponent - SUB_BUCKET_BITS;
+			return ((shift + 1) << SUB_BUCKET_BITS) + (int)((value >>> shift) - SUB_BUCKETS);
+		}
+
+		/** @return the lowest value counted in a bucket. */
+		static long lowest(int index){
+			if(index < SUB_BUCKETS) return index;
+			int shift = (index >> SUB_BUCKET_BITS) - 1;
+			return ((long)(index & (SUB_BUCKETS -1)) + SUB_BUCKETS) << shift;
+		}
+
+		/** @return the highest value counted in a bucket. */
+		static long highest(int index){
+			long next = lowest(index + 1);
+			return next > 0 ? next - 1: Long.MAX_VALUE;
+		}
+
+		/** Record a value.  Negative values are recorded as 0. */
+		public synchronized void record(long value){
+			if(value < 0) value = 0;
+			int index = index(value);
+			if(index >= counts.length) counts = Arrays.copyOf(counts, Math.max(index +1, counts.length * 2));
+			counts[index]++;
+			count++;
+			total += value;
+			if(value < min) min = value;
+			if(value > max) max = value;
+		}
+
+		/** @return the number of values recorded. */
+		public synchronized long getCount(){ return count; }
+
+		/** @return the sum of values recorded. */
+		public synchronized long getTotal(){ return total; }
+
+		/** @return the smallest value recorded, or 0 if none. */
+		public synchronized long getMin(){ return count == 0 ? 0: min; }
+
+		/** @return the largest value recorded. */
+		public synchronized long getMax(){ return max; }
+
+		/** @return the mean value recorded, or 0 if none. */
+		public synchronized long getMean(){ return count == 0 ? 0: total / count; }
+
+		/**
+		 * @param percentile 0 - 100.
+		 * @return the value at or below which the percentile of recorded values fall, within 
+		 * the histogram's precision.  Never more than {@link #getMax()}.
+		 */
+		public synchronized long getPercentile(double percentile){
+			if(count == 0) return 0;
+			long target = (long) Math.ceil(count * Math.min(100, Math.max(0, percentile)) / 100.0);
+			if(target < 1) target = 1;
+			long seen = 0;
+			for(int i=0;i<counts.length;i++){
+				seen += counts[i];
+				if(seen >= target) return Math.min(highest(i), max);
+			}
+			return max;
+		}
+
+		/** @return the non-empty buckets as {lowest value, count} pairs. */
+		public synchronized long[][] getBuckets(){
+			int used = 0;
+			for(long c: counts) if(c > 0) used++;
+			long[][] buckets = new long[used][];
+			for(int i=0, b=0;i<counts.length;i++)
+				if(counts[i] > 0) buckets[b++] = new long[]{lowest(i), counts[i]};
+			return buckets;
+		}
+	}
+
+	static final double[] PERCENTILES = {50, 90, 99, 99.9};
+	static final String[] PERCENTILE_NAMES = {"p50", "p90", "p99", "p999"};
+
+	/**
+	 * Write the metrics to {@value #EXPORT_NAME}.json and {@value #EXPORT_NAME}.csv.
+	 * All values are nanoseconds.
+	 * @param dir the directory to write to.
+	 * @throws IOException if a file cannot be written.
+	 */
+	public static void export(File dir) throws IOException{
+		if(! dir.isDirectory()) dir.mkdirs();
+		File json = new File(dir, EXPORT_NAME +".json");
+		File csv = new File(dir, EXPORT_NAME +".csv");
+		PrintWriter out = new PrintWriter(new OutputStreamWriter(new FileOutputStream(json), "UTF-8"));
+		try{ writeJSON(out); }finally{ out.close(); }
+		if(out.checkError()) throw new IOException("Unable to write "+ json.getPath());
+		out = new PrintWriter(new OutputStreamWriter(new FileOutputStream(csv), "UTF-8"));
+		try{ writeCSV(out); }finally{ out.close(); }
+		if(out.checkError()) throw new IOException("Unable to write "+ csv.getPath());
+		Log.info("RecordMetrics exported to "+ json.getPath() +" and "+ csv.getPath());
+	}
+
+	/** Write the metrics as JSON. */
+	public static void writeJSON(PrintWriter out){
+		out.println("{");
+		out.println("  \"unit\": \"ns\",");
+		out.println("  \"subBucketBits\": "+ Histogram.SUB_BUCKET_BITS +",");
+		out.print("  \"phases\": [");
+		for(int p=0;p<PHASES.length;p++) out.print((p==0?"":", ") + quote(PHASES[p]));
+		out.println("],");
+		for(int d=0;d<DIMENSIONS.length;d++){
+			out.println("  "+ quote(DIMENSIONS[d]) +": {");
+			Map<String,Histogram[]> keys = new TreeMap<String,Histogram[]>(metrics.get(DIMENSIONS[d]));
+			int k = 0;
+			for(Map.Entry<String,Histogram[]> key: keys.entrySet()){
+				out.println("    "+ quote(key.getKey()) +": {");
+				Histogram[] histograms = key.getValue();
+				for(int p=0;p<PHASES.length;p++){
+					Histogram h = histograms[p];
+					out.print("      "+ quote(PHASES[p]) +": {\"count\": "+ h.getCount() +", \"total\": "+ h.getTotal() +
+					          ", \"min\": "+ h.getMin() +", \"mean\": "+ h.getMean());
+					for(int i=0;i<PERCENTILES.length;i++)
+						out.print(", \""+ PERCENTILE_NAMES[i] +"\": "+ h.getPercentile(PERCENTILES[i]));
+					out.print(", \"max\": "+ h.getMax() +", \"buckets\": [");
+					long[][] buckets = h.getBuckets();
+					for(int b=0;b<buckets.length;b++)
+						out.print((b==0?"":",") +"["+ buckets[b][0] +","+ buckets[b][1] +"]");
+					out.println("]}"+ (p < PHASES.length -1 ? ",":""));
+				}
+				out.println("    }"+ (++k < keys.size() ? ",":""));
+			}
+			out.println("  }"+ (d < DIMENSIONS.length -1 ? ",":""));
+		}
+		out.println("}");
+	}
+
+	/** Write the metrics as CSV, one row per dimension, key, and phase. */
+	public static void writeCSV(PrintWriter out){
+		out.print("dimension,key,phase,count,total,min,mean");
+		for(String name: PERCENTILE_NAMES) out.print(","+ name);
+		out.println(",max");
+		for(String dimension: DIMENSIONS){
+			Map<String,Histogram[]> keys = new TreeMap<String,Histogram[]>(metrics.get(dimension));
+			for(Map.Entry<String,Histogram[]> key: keys.entrySet()){
+				for(int p=0;p<PHASES.length;p++){
+					Histogram h = key.getValue()[p];
+					out.print(dimension +","+ csv(key.getKey()) +","+ PHASES[p] +","+ h.getCount() +","+
+					          h.getTotal() +","+ h.getMin() +","+ h.getMean());
+					for(double percentile: PERCENTILES) out.print(","+ h.getPercentile(percentile));
+					out.println(","+ h.getMax());
+				}
+			}
+		}
+	}
+
+	/** @return value as a quoted JSON string. */
+	public static String quote(String value){
+		StringBuilder sb = new StringBuilder(value.length()+2).append('"');
+		for(int i=0;i<value.length();i++){
+			char c = value.charAt(i);
+			if(c == '"' || c == '\\') sb.append('\\').append(c);
+			else if(c < 0x20) sb.append(String.format("\\u%04x", (int)c));
+			else sb.append(c);
+		}
+		return sb.append('"').toString();
+	}
+
+	static String csv(String value){
+		if(value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) return value;
+		return "\""+ value.replace("\"", "\"\"") +"\"";
+	}
+
+	/** Self-test of histogram precision and export. */
+	public static void main(String[] args) throws Exception{
+		int failures = 0;
+		for(long v: new long[]{0,1,31,32,33,63,64,100,1000,123456,987654321L,Long.MAX_VALUE/2}){
+			int i = Histogram.index(v);
+			if(v < Histogram.lowest(i) || v > Histogram.highest(i)){
+				System.out.println("Value "+ v +" outside bucket "+ i +" ["+ Histogram.lowest(i) +","+ Histogram.highest(i) +"]");
+				failures++;
+			}
+		}
+		Histogram h = new Histogram();
+		for(long v=1;v<=100000;v++) h.record(v * 1000);
+		long[] expected = {50000000L, 90000000L, 99000000L, 99900000L};
+		for(int i=0;i<PERCENTILES.length;i++){
+			long p = h.getPercentile(PERCENTILES[i]);
+			if(Math.abs(p - expected[i]) > expected[i] * 0.035){
+				System.out.println(PERCENTILE_NAMES[i] +" "+ p +" expected about "+ expected[i]);
+				failures++;
+			}
+		}
+		if(h.getMin() != 1000 || h.getMax() != 100000000L || h.getCount() != 100000){
+			System.out.println("min/max/count "+ h.getMin() +"/"+ h.getMax() +"/"+ h.getCount());
+			failures++;
+		}
+		setEnabled(true);
+		Sample sample = sample();
+		TestRecordHelper trd = new TestRecordHelper();
+		for(int r=0;r<100;r++){
+			trd.reinit();
+			trd.setCommand(r % 2 == 0 ? "Click": "");
+			sample.startRecord();
+			long mark = System.nanoTime();
+			sample.add(RESOLVE, mark);
+			sample.setRecordType(r % 2 == 0 ? "T": "C");
+			sample.startRoute();
+			mark = System.nanoTime();
+			sample.addEngine("TID", mark, true);
+			sample.endRoute();
+			sample.endRecord(trd);
+			// records ended before leaving the table, like ExitTable, must not be counted twice
+			sample.endRecord(trd);
+		}
+		if(getHistograms(BY_ALL, BY_ALL)[TOTAL].getCount() != 100 ||
+		   getHistograms(BY_COMMAND, "Click")[TOTAL].getCount() != 50 ||
+		   getHistograms(BY_COMMAND, "C")[TOTAL].getCount() != 50 ||
+		   getHistograms(BY_COMPONENT, DRIVER_COMPONENT)[TOTAL].getCount() != 50 ||
+		   getHistograms(BY_ENGINE, "TID")[ENGINE].getCount() != 100){
+			System.out.println("Sample aggregation failed.");
+			failures++;
+		}
+		File dir = new File(System.getProperty("java.io.tmpdir"), "RecordMetrics"+ System.nanoTime());
+		export(dir);
+		if(new File(dir, EXPORT_NAME +".json").length() == 0 || new File(dir, EXPORT_NAME +".csv").length() == 0){
+			System.out.println("Export failed.");
+			failures++;
+		}
+		for(File file: dir.listFiles()) file.delete();
+		dir.delete();
+		reset();
+		setEnabled(false);
+		if(sample() != null){
+			System.out.println("Disabled metrics returned a Sample.");
+			failures++;
+		}
+		System.out.println(failures == 0 ? "RecordMetrics self-test passed." : "RecordMetrics self-test FAILED: "+ failures);
+	}
+}
@@ -18,6 +18,7 @@
 /**
  * History:
  * 	APR 18, 2018	(Lei Wang) Modified constructor SAFSDRIVER(): Set product's name, version and description.
+ * 	OCT 19, 2026	Write final status counts for a parent driver when run as a shard, and give shards the command-line arguments.
  */
 package org.safs.tools.drivers;
 
@@ -202,8 +203,14 @@ public class SAFSDRIVER extends DefaultDriver {
 	 */
 	public static void main(String[] args) {
 
+		ShardExecutor.setArguments(args);
 		SAFSDRIVER driver = new SAFSDRIVER();
 		driver.run();
+		String shardStatus = System.getProperty(DriverConstant.PROPERTY_SAFS_DRIVER_SHARD_STATUS);
+		if(shardStatus != null){
+			try{ ShardExecutor.writeStatus(new java.io.File(shardStatus), driver.getStatusInterface()); }
+			catch(Exception x){ System.err.println("SAFSDRIVER cannot write shard status: "+ x.getMessage()); }
+		}
 		System.runFinalization();
 		System.exit(0);
 	}
@@ -150,6 +150,7 @@ import org.safs.image.ImageUtils;
 import org.safs.jvmagent.LocalServerGuiClassData;
 import org.safs.jvmagent.SAFSInvalidActionArgumentRuntimeException;
 import org.safs.jvmagent.STAFLocalServer;
+import org.safs.jvmagent.SubtreeSnapshot;
 import org.safs.natives.MenuUtilities;
 import org.safs.staf.STAFProcessHelpers;
 import org.safs.text.FileUtilities;
@@ -1985,12 +1986,15 @@ public class STAFProcessContainer extends JFrame implements ActionListener,
 					in="";
 					parent = null;
 					pctree = null;
+					loadSnapshot();
 					processParent();
 					if (isInterrupted()) throw new InterruptedException("SPC Process cancelled or application closed by user.");
 				}
 			}catch(Exception x){
 				Log.debug("SPC Exception aborted run():",x);
 				status.setText("Processor run aborted.");
+			}finally{
+				server.clearSubtreeSnapshot();
 			}
 			closeMapPathStream();
 			closeOutPathStream();
@@ -2001,6 +2005,19 @@ public class STAFProcessContainer extends JFrame implements ActionListener,
 			run.setEnabled(true);
 		}
 
+		/**
+		 * Ask the engine for the whole subtree of the current container in one command.
+		 * When the engine supports it, the server answers the per-component queries made by 
+		 * processParent from the snapshot.  Otherwise every component is queried individually.
+		 */
+		protected void loadSnapshot(){
+			status.setText("Capturing component hierarchy...");
+			int depth = doChildren.isSelected() ? SubtreeSnapshot.UNLIMITED_DEPTH : 0;
+			String[] properties = doProperties.isSelected() ? new String[]{SubtreeSnapshot.ALL_PROPERTIES} : new String[0];
+			if(! server.loadSubtreeSnapshot(container, depth, properties))
+				Log.info("SPC subtree snapshot not available. Querying components individually.");
+		}
+
 		/**
 		 * Increase our output indention based on the depth (level) of the hierarchy
 		 * being processed.
@@ -0,0 +1,414 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package org.safs.tools.drivers;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.StringTokenizer;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.safs.Log;
+import org.safs.tools.status.StatusInfo;
+import org.safs.tools.status.StatusInterface;
+
+/**
+ * Runs independent suites of a cycle as shards, each in a child SAFSDRIVER JVM.
+ * <p>
+ * Each shard runs the suite as its own SUITE-level test with its own suite log name, so it has 
+ * its own variables, counters, and log files when the driver runs with embedded services.  With 
+ * STAF, the SAFS services are shared by the machine and only the logs and counts are separate.
+ * The child JVM is given the parent's class path, JVM options, every "safs.*" System property, 
+ * and the parent driver's command-line arguments, and writes its final status counts to a file 
+ * for the parent to merge.  A child still running after the shard timeout is destroyed and its 
+ * suite counts as a test failure.
+ * <p>
+ * At most the configured concurrency of shards run at once.  A shard may name the engine it 
+ * needs, in which case it also waits for that engine's capacity.  Shards are merged by the 
+ * InputProcessor in the order they were submitted, so counts and logs are deterministic regardless 
+ * of which shard finished first.
+ * <p>
+ * Configured in the SAFS_DRIVER section or with JVM System properties:
+ * <ul>
+ * <li>{@link DriverConstant#PARALLEL_SUITES} the independent suites: Suite[:Engine], ...
+ * <li>{@link DriverConstant#PARALLEL_SHARDS} the number of shards to run at once.  Default 2.
+ * <li>{@link DriverConstant#SHARD_ENGINE_CAPACITY} shards allowed per engine: Engine:n, ...
+ * <li>{@link DriverConstant#SHARD_TIMEOUT} seconds a shard may run.  Default 43200, 0 for no limit.
+ * </ul>
+ * 
+ * OCT 19, 2026 Original Release
+ */
+public class ShardExecutor {
+
+	/** 2 shards run at once by default. */
+	public static final int DEFAULT_CONCURRENCY = 2;
+
+	/** A shard may run 12 hours by default. */
+	public static final long DEFAULT_TIMEOUT_SECONDS = 12 * 60 * 60;
+
+	/** A destroyed child JVM is given 10 seconds to exit before it is forcibly destroyed. */
+	static final long DESTROY_WAIT_MILLIS = 10000;
+
+	static final String SHARD_SUFFIX = "_shard";
+
+	private static volatile ShardExecutor executor = null;
+
+	private static volatile List<String> arguments = Collections.emptyList();
+
+	private final Map<String,String> suites;
+	private final Semaphore running;
+	private final Map<String,Semaphore> engines = new HashMap<String,Semaphore>();
+	private final long timeout;
+	private volatile String driverClass = SAFSDRIVER.class.getName();
+	private int submitted = 0;
+
+	/**
+	 * @param suites the independent suite names, uppercase, mapped to the engine each needs, or "".
+	 * @param concurrency the number of shards to run at once.
+	 * @param capacity shards allowed per engine name, uppercase.
+	 * @param timeoutSeconds seconds a shard may run before its child JVM is destroyed, 0 for no limit.
+	 */
+	public ShardExecutor(Map<String,String> suites, int concurrency, Map<String,Integer> capacity, long timeoutSeconds){
+		this.suites = suites;
+		this.timeout = Math.max(0, timeoutSeconds) * 1000;
+		running = new Semaphore(Math.max(1, concurrency), true);
+		for(Map.Entry<String,Integer> engine: capacity.entrySet())
+			engines.put(engine.getKey(), new Semaphore(Math.max(1, engine.getValue().intValue()), true));
+	}
+
+	/** @return the active ShardExecutor, or null if parallel suites are not enabled. */
+	public static ShardExecutor getExecutor(){ return executor; }
+
+	/** Set, or clear with null, the active ShardExecutor. */
+	public static void setExecutor(ShardExecutor shards){ executor = shards; }
+
+	/** Set the driver's command-line arguments, passed on to every shard. */
+	public static void setArguments(String[] args){
+		arguments = args == null ? Collections.<String>emptyList(): Collections.unmodifiableList(new ArrayList<String>(Arrays.asList(args)));
+	}
+
+	/** @return the driver's command-line arguments passed on to every shard. */
+	public static List<String> getArguments(){ return arguments; }
+
+	/** Set the driver class run in each shard's JVM.  Default is SAFSDRIVER. */
+	public void setDriverClass(String classname){ driverClass = classname; }
+
+	/** @return the milliseconds a shard may run, 0 for no limit. */
+	public long getTimeout(){ return timeout; }
+
+	/**
+	 * Create a ShardExecutor from settings.  Never creates one in a shard's own JVM.
+	 * @param suites Suite[:Engine], ... or null.
+	 * @param concurrency number of shards to run at once, or null for the default.
+	 * @param capacity Engine:n, ... or null.
+	 * @param timeout seconds a shard may run, or null for the default.
+	 * @return the ShardExecutor, or null if no independent suites are configured.
+	 */
+	public static ShardExecutor create(String suites, String concurrency, String capacity, String timeout){
+		if(System.getProperty(DriverConstant.PROPERTY_SAFS_DRIVER_SHARD_STATUS) != null) return null;
+		Map<String,String> independent = new HashMap<String,String>();
+		for(String[] item: parse(suites)) independent.put(item[0], item[1]);
+		if(independent.isEmpty()) return null;
+		int shards = DEFAULT_CONCURRENCY;
+		try{ shards = Integer.parseInt(concurrency.trim()); }catch(Exception x){}
+		Map<String,Integer> engines = new HashMap<String,Integer>();
+		for(String[] item: parse(capacity)){
+			try{ engines.put(item[0], Integer.valueOf(item[1].trim())); }
+			catch(NumberFormatException x){ Log.warn("ShardExecutor ignoring invalid engine capacity '"+ item[0] +":"+ item[1] +"'"); }
+		}
+		long seconds = DEFAULT_TIMEOUT_SECONDS;
+		try{ seconds = Long.parseLong(timeout.trim()); }catch(Exception x){}
+		return new ShardExecutor(independent, shards, engines, seconds);
+	}
+
+	/** @return {name, value} pairs, uppercase, from "name[:value], ..." */
+	static List<String[]> parse(String setting){
+		List<String[]> items = new ArrayList<String[]>();
+		if(setting == null) return items;
+		for(StringTokenizer st = new StringTokenizer(setting, ",;"); st.hasMoreTokens();){
+			String item = st.nextToken().trim();
+			if(item.length()==0) continue;
+			int colon = item.indexOf(':');
+			String name = colon < 0 ? item: item.substring(0, colon).trim();
+			String value = colon < 0 ? "": item.substring(colon+1).trim();
+			items.add(new String[]{name.toUpperCase(Locale.ENGLISH), value.toUpperCase(Locale.ENGLISH)});
+		}
+		return items;
+	}
+
+	/** @return true if the suite is configured as independent. */
+	public boolean isIndependent(String suite){
+		return suite != null && suites.containsKey(suite.trim().toUpperCase(Locale.ENGLISH));
+	}
+
+	/**
+	 * Start a suite shard.  It runs as soon as the concurrency and its engine's capacity allow.
+	 * @param suite the suite name as it appears in the cycle.
+	 * @param separator the suite's field separator.
+	 * @param logName the parent log name shard log names are derived from.
+	 * @param logsDir the directory the shard's status and console output are written to.
+	 * @return the started Shard.
+	 */
+	public synchronized Shard submit(String suite, String separator, String logName, File logsDir){
+		int index = ++submitted;
+		String engine = suites.get(suite.trim().toUpperCase(Locale.ENGLISH));
+		Shard shard = new Shard(index, suite.trim(), separator, logName + SHARD_SUFFIX + index +"_"+ suite.trim(), logsDir,
+		                        engine == null ? null: engines.get(engine));
+		shard.start();
+		return shard;
+	}
+
+	/** A suite running in a child JVM. */
+	public class Shard implements Runnable {
+		private final int index;
+		private final String suite;
+		private final String separator;
+		private final String logName;
+		private final File statusFile;
+		private final File consoleFile;
+		private final Semaphore engine;
+		private final Thread thread;
+		private volatile long deadline = 0;
+		private volatile int exitCode = -1;
+		private volatile StatusInterface status = null;
+		private volatile Throwable error = null;
+
+		Shard(int index, String suite, String separator, String logName, File logsDir, Semaphore engine){
+			this.index = index;
+			this.suite = suite;
+			this.separator = separator;
+			this.logName = logName;
+			this.statusFile = new File(logsDir, logName +".status");
+			this.consoleFile = new File(logsDir, logName +".console.txt");
+			this.engine = engine;
+			thread = new Thread(this, "Shard "+ index +" "+ suite);
+			thread.setDaemon(true);
+		}
+
+		void start(){ thread.start(); }
+
+		public void run(){
+			try{
+				if(engine != null) engine.acquire();
+				try{
+					running.acquire();
+					try{
+						execute();
+					}finally{
+						running.release();
+					}
+				}finally{
+					if(engine != null) engine.release();
+				}
+			}catch(Throwable t){
+				error = t;
+			}
+		}
+
+		private void execute() throws IOException, InterruptedException, TimeoutException{
+			List<String> command = new ArrayList<String>();
+			command.add(System.getProperty("java.home") + File.separator +"bin"+ File.separator +"java");
+			command.add("-cp");
+			command.add(System.getProperty("java.class.path"));
+			for(String option: ManagementFactory.getRuntimeMXBean().getInputArguments()){
+				if(isShardOption(option)) command.add(option);
+			}
+			Properties properties = System.getProperties();
+			for(Enumeration<?> names = properties.propertyNames(); names.hasMoreElements();){
+				String name = (String) names.nextElement();
+				if(name.startsWith("safs.") && !isShardProperty(name))
+					command.add("-D"+ name +"="+ properties.getProperty(name));
+			}
+			command.add("-D"+ DriverConstant.PROPERTY_SAFS_TEST_NAME +"="+ suite);
+			command.add("-D"+ DriverConstant.PROPERTY_SAFS_TEST_LEVEL +"="+ DriverConstant.DRIVER_SUITE_TESTLEVEL);
+			command.add("-D"+ DriverConstant.PROPERTY_SAFS_SUITE_SEPARATOR +"="+ separator);
+			command.add("-D"+ DriverConstant.PROPERTY_SAFS_SUITE_LOGNAME +"="+ logName);
+			command.add("-D"+ DriverConstant.PROPERTY_SAFS_DRIVER_SHARD_STATUS +"="+ statusFile.getAbsolutePath());
+			command.add(driverClass);
+			command.addAll(arguments);
+
+			statusFile.delete();
+			Log.info("ShardExecutor starting shard "+ index +" "+ suite);
+			ProcessBuilder builder = new ProcessBuilder(command);
+			builder.redirectErrorStream(true);
+			builder.redirectOutput(consoleFile);
+			Process process = builder.start();
+			if(timeout > 0) deadline = System.currentTimeMillis() + timeout;
+			boolean finished = false;
+			try{
+				if(timeout > 0){
+					finished = process.waitFor(timeout, TimeUnit.MILLISECONDS);
+				}else{
+					process.waitFor();
+					finished = true;
+				}
+			}finally{
+				if(! finished) destroy(process);
+			}
+			if(! finished){
+				Log.warn("ShardExecutor destroyed shard "+ index +" "+ suite +" after "+ (timeout / 1000) +" seconds");
+				throw new TimeoutException("shard exceeded "+ (timeout / 1000) +" seconds");
+			}
+			exitCode = process.exitValue();
+			status = readStatus(statusFile);
+			Log.info("ShardExecutor shard "+ index +" "+ suite +" exited "+ exitCode);
+		}
+
+		/**
+		 * Wait for the shard to finish.  A shard still running after the timeout is interrupted, 
+		 * destroying its child JVM.
+		 */
+		public void await(){
+			while(thread.isAlive()){
+				long wait = 1000;
+				if(deadline > 0){
+					wait = deadline + DESTROY_WAIT_MILLIS - System.currentTimeMillis();
+					if(wait <= 0){
+						thread.interrupt();
+						try{ thread.join(DESTROY_WAIT_MILLIS * 2); }catch(InterruptedException x){}
+						return;
+					}
+				}
+				try{ thread.join(wait); }catch(InterruptedException x){}
+			}
+		}
+
+		/** @return the 1-based submission order of the shard. */
+		public int getIndex(){ return index; }
+		/** @return the suite the shard runs. */
+		public String getSuite(){ return suite; }
+		/** @return the shard's suite log name. */
+		public String getLogName(){ return logName; }
+		/** @return the file holding the shard's console output. */
+		public File getConsoleFile(){ return consoleFile; }
+		/** @return the child JVM exit code, or -1 if it did not run. */
+		public int getExitCode(){ return exitCode; }
+		/** @return the shard's final status counts, or null if it did not report them. */
+		public StatusInterface getStatus(){ return status; }
+		/** @return the error that prevented the shard running, or null. */
+		public Throwable getError(){ return error; }
+	}
+
+	/**
+	 * Concatenate the text logs of finished shards, in submission order, into one file.
+	 * A shard without a text log contributes its console output.
+	 * @param shards finished shards.
+	 * @param logsDir the directory holding the shard logs.
+	 * @param target the merged log file, appended to if it exists.
+	 */
+	public static void mergeLogs(List<Shard> shards, File logsDir, File target) throws IOException{
+		OutputStream out = new FileOutputStream(target, true);
+		try{
+			byte[] buffer = new byte[8192];
+			for(Shard shard: shards){
+				File log = new File(logsDir, shard.getLogName() +".txt");
+				if(! log.isFile()) log = shard.getConsoleFile();
+				String header = "==== Shard "+ shard.getIndex() +" SUITE "+ shard.getSuite() +" ("+ log.getName() +") ===="+ System.getProperty("line.separator");
+				out.write(header.getBytes("UTF-8"));
+				if(! log.isFile()) continue;
+				InputStream in = new FileInputStream(log);
+				try{
+					for(int read = in.read(buffer); read > -1; read = in.read(buffer)) out.write(buffer, 0, read);
+				}finally{
+					in.close();
+				}
+			}
+		}finally{
+			out.close();
+		}
+	}
+
+	/** Destroy a child JVM, forcibly if it does not exit in {@link #DESTROY_WAIT_MILLIS}. */
+	static void destroy(Process process){
+		process.destroy();
+		try{
+			if(process.waitFor(DESTROY_WAIT_MILLIS, TimeUnit.MILLISECONDS)) return;
+		}catch(InterruptedException x){}
+		process.destroyForcibly();
+	}
+
+	/**
+	 * @return true if a parent JVM option is given to a shard.  "safs.*" System properties are 
+	 * passed separately with their current values, and a debugger agent would collide with the parent's.
+	 */
+	static boolean isShardOption(String option){
+		return !(option.startsWith("-Dsafs.") ||
+		         option.startsWith("-agentlib:jdwp") ||
+		         option.startsWith("-Xrunjdwp") ||
+		         option.equals("-Xdebug"));
+	}
+
+	static boolean isShardProperty(String name){
+		return name.equals(DriverConstant.PROPERTY_SAFS_TEST_NAME) ||
+		       name.equals(DriverConstant.PROPERTY_SAFS_TEST_LEVEL) ||
+		       name.equals(DriverConstant.PROPERTY_SAFS_SUITE_SEPARATOR) ||
+		       name.equals(DriverConstant.PROPERTY_SAFS_SUITE_LOGNAME) ||
+		       name.equals(DriverConstant.PROPERTY_SAFS_DRIVER_SHARD_STATUS);
+	}
+
+	static final String[] STATUS_KEYS = {"testlevel","totalrecords","skippedrecords","iofailures",
+	                                     "testfailures","testwarnings","testpasses",
+	                                     "generalfailures","generalwarnings","generalpasses"};
+
+	/**
+	 * Write status counts for the parent of a shard.
+	 * @see DriverConstant#PROPERTY_SAFS_DRIVER_SHARD_STATUS
+	 */
+	public static void writeStatus(File file, StatusInterface status) throws IOException{
+		Properties counts = new Properties();
+		long[] values = {status.getTotalRecords(), status.getSkippedRecords(), status.getIOFailures(),
+		                 status.getTestFailures(), status.getTestWarnings(), status.getTestPasses(),
+		                 status.getGeneralFailures(), status.getGeneralWarnings(), status.getGeneralPasses()};
+		counts.setProperty(STATUS_KEYS[0], String.valueOf(status.getTestLevel()));
+		for(int i=0;i<values.length;i++) counts.setProperty(STATUS_KEYS[i+1], String.valueOf(values[i]));
+		OutputStream out = new FileOutputStream(file);
+		try{ counts.store(out, "SAFS shard status"); }finally{ out.close(); }
+	}
+
+	/** @return status counts written by {@link #writeStatus(File, StatusInterface)}, or null if none. */
+	public static StatusInterface readStatus(File file){
+		if(! file.isFile()) return null;
+		Properties counts = new Properties();
+		try{
+			InputStream in = new FileInputStream(file);
+			try{ counts.load(in); }finally{ in.close(); }
+			long[] values = new long[STATUS_KEYS.length];
+			for(int i=1;i<values.length;i++) values[i] = Long.parseLong(counts.getProperty(STATUS_KEYS[i], "0").trim());
+			return new StatusInfo(counts.getProperty(STATUS_KEYS[0]), values[1], values[2], values[3],
+			                      values[4], values[5], values[6], values[7], values[8], values[9], false);
+		}catch(Exception x){
+			Log.warn("ShardExecutor cannot read shard status "+ file.getPath() +": "+ x.getMessage());
+			return null;
+		}
+	}
+}
@@ -0,0 +1,245 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package org.safs.tools.drivers;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import org.safs.Log;
+
+/**
+ * Starts a set of Driver components--services, engines, runtime interfaces--according to 
+ * the components each one depends on.
+ * <p>
+ * Components are added in a valid serial startup order: every dependency must already have 
+ * been added.  When run in parallel, each component starts on its own thread as soon as all 
+ * of its dependencies have reported ready by returning from their startup, so independent 
+ * components start concurrently.  Otherwise, they start one at a time in the order added.
+ * <p>
+ * If a component fails, components depending on it are skipped and the first failure is 
+ * rethrown from {@link #run()} once every started component has finished.  Serial startup 
+ * skips every component after the failure.
+ * <p>
+ * After a run, {@link #getTimeline()} shows the start and duration of each component 
+ * and the critical path: the chain of dependencies that determined the total startup time.
+ * <p>
+ * Example:
+ * <pre>
+ * StartupScheduler startup = new StartupScheduler("Driver Services", true);
+ * startup.add("SAFSINPUT", inputLauncher);
+ * startup.add("SAFSMAPS",  mapsLauncher, "SAFSINPUT");
+ * startup.add("SAFSVARS",  varsLauncher, "SAFSINPUT", "SAFSMAPS");
+ * startup.run();
+ * Log.info(startup.getTimeline());
+ * </pre>
+ * OCT 19, 2026 Initial release.
+ */
+public class StartupScheduler {
+
+	/** One component to start. */
+	protected class Component implements Runnable{
+		final String name;
+		final Runnable launcher;
+		final Component[] dependencies;
+		final CountDownLatch done = new CountDownLatch(1);
+		long start = -1;
+		long end = -1;
+		Throwable failure = null;
+		boolean skipped = false;
+
+		Component(String name, Runnable launcher, Component[] dependencies){
+			this.name = name;
+			this.launcher = launcher;
+			this.dependencies = dependencies;
+		}
+
+		/** @return true if this component started and finished without failure. */
+		boolean isReady(){ return end >= 0 && failure == null && !skipped; }
+
+		public void run(){
+			try{
+				for(Component dependency: dependencies){
+					dependency.done.await();
+					if(! dependency.isReady()){
+						skipped = true;
+						Log.info(title +" skipping '"+ name +"'. Dependency '"+ dependency.name +"' is not ready.");
+						return;
+					}
+				}
+				start = System.nanoTime();
+				try{ launcher.run(); }
+				catch(Throwable t){ failure = t; }
+				end = System.nanoTime();
+			}catch(InterruptedException x){
+				skipped = true;
+				Thread.currentThread().interrupt();
+			}finally{
+				done.countDown();
+			}
+		}
+	}
+
+	protected final String title;
+	protected final boolean parallel;
+	protected final Map<String, Component> components = new LinkedHashMap<String, Component>();
+	protected long started = -1;
+	protected long finished = -1;
+
+	/**
+	 * @param title String, used in log messages and the timeline, like "Driver Services".
+	 * @param parallel boolean, true to start independent components concurrently.
+	 */
+	public StartupScheduler(String title, boolean parallel){
+		this.title = title;
+		this.parallel = parallel;
+	}
+
+	/** @return true if independent components are started concurrently. */
+	public boolean isParallel(){ return parallel; }
+
+	/**
+	 * Add a component to start.
+	 * @param name String, unique name of the component, like "SAFSMAPS".
+	 * @param launcher Runnable, starts the component and returns when it is ready.
+	 * @param dependencies String..., names of previously added components that must be ready first.
+	 * @throws IllegalArgumentException if the name is already used or a dependency has not been added.
+	 */
+	public void add(String name, Runnable launcher, String... dependencies) throws IllegalArgumentException{
+		if(components.containsKey(name)) throw new IllegalArgumentException(title +" duplicate component '"+ name +"'.");
+		Component[] depends = new Component[dependencies.length];
+		for(int i=0;i<dependencies.length;i++){
+			depends[i] = components.get(dependencies[i]);
+			if(depends[i]==null) throw new IllegalArgumentException(title +" component '"+ name +"' depends on unknown component '"+ dependencies[i] +"'.");
+		}
+		components.put(name, new Component(name, launcher, depends));
+	}
+
+	/**
+	 * Start all components and wait for them to finish.
+	 * @throws RuntimeException or Error, the first failure of any component, once all have finished.
+	 */
+	public void run(){
+		started = System.nanoTime();
+		List<Thread> threads = new ArrayList<Thread>();
+		Component failed = null;
+		for(Component component: components.values()){
+			if(failed != null){
+				// serial startup stops at the first failure
+				component.skipped = true;
+				component.done.countDown();
+			}else if(parallel){
+				Thread thread = new Thread(component, title +": "+ component.name);
+				thread.setDaemon(true);
+				threads.add(thread);
+				thread.start();
+			}else{
+				component.run();
+				if(component.failure != null) failed = component;
+			}
+		}
+		for(Thread thread: threads){
+			try{ thread.join(); }
+			catch(InterruptedException x){
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+		finished = System.nanoTime();
+		Log.info(getTimeline());
+		for(Component component: components.values()){
+			if(component.failure instanceof RuntimeException) throw (RuntimeException) component.failure;
+			if(component.failure instanceof Error) throw (Error) component.failure;
+			if(component.failure != null) throw new IllegalStateException(title +" '"+ component.name +"' failed: "+ component.failure, component.failure);
+		}
+	}
+
+	/**
+	 * @param name String, the name of an added component.
+	 * @return true if the component started and finished without failure.
+	 */
+	public boolean isReady(String name){
+		Component component = components.get(name);
+		return component != null && component.isReady();
+	}
+
+	/** @return elapsed milliseconds of the last run, or -1 if not yet run. */
+	public long getElapsedMillis(){
+		return finished < 0 ? -1 : (finished - started)/1000000;
+	}
+
+	/**
+	 * @return the names of the components on the critical path, first to last: starting from the 
+	 *         component that finished last, each step back is the dependency that finished last.
+	 */
+	public List<String> getCriticalPath(){
+		List<String> path = new ArrayList<String>();
+		if(! parallel){
+			// one at a time, every component gates the next
+			for(Component component: components.values()) if(component.start >= 0) path.add(component.name);
+			return path;
+		}
+		Component last = null;
+		for(Component component: components.values()){
+			if(component.end >= 0 && (last == null || component.end > last.end)) last = component;
+		}
+		while(last != null){
+			path.add(0, last.name);
+			Component gate = null;
+			for(Component dependency: last.dependencies){
+				if(gate == null || dependency.end > gate.end) gate = dependency;
+			}
+			last = gate;
+		}
+		return path;
+	}
+
+	/** @return a multi-line startup timeline: per-component start offset and duration, and the critical path. */
+	public String getTimeline(){
+		StringBuilder timeline = new StringBuilder();
+		timeline.append(title).append(parallel ? " parallel" : " serial").append(" startup: ")
+		        .append(getElapsedMillis()).append("ms\n");
+		for(Component component: components.values()){
+			timeline.append("  ").append(component.name).append(": ");
+			if(component.skipped){
+				timeline.append("skipped");
+			}else if(component.start < 0){
+				timeline.append("not started");
+			}else{
+				timeline.append("start +").append((component.start - started)/1000000).append("ms, ")
+				        .append((component.end - component.start)/1000000).append("ms");
+				if(component.failure != null) timeline.append(", FAILED: ").append(component.failure);
+			}
+			if(component.dependencies.length > 0){
+				timeline.append(" (after");
+				for(Component dependency: component.dependencies) timeline.append(' ').append(dependency.name);
+				timeline.append(')');
+			}
+			timeline.append('\n');
+		}
+		timeline.append("  critical path: ");
+		List<String> path = getCriticalPath();
+		for(int i=0;i<path.size();i++){
+			if(i > 0) timeline.append(" -> ");
+			timeline.append(path.get(i));
+		}
+		return timeline.toString();
+	}
+}
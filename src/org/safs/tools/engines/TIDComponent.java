@@ -46,6 +46,9 @@
  * <br>	Lei Wang FEB 26, 2018  Modified method __request(): Handle the body according the "Content-Type" header.
  * <br>	Lei Wang JUN 26, 2018  Modified method verifyFileToFile(): compare 2 PDF files.
  *                                                                 accept 2 more parameters 'alterImageStyle' and 'alterImageFactor' for creating diff image.
+ * <br>	OCT 19, 2026  Added RESTComponent action RestLoadTest; moved header/body handling of __request() into __headers() and __body().
+ * <br>	OCT 19, 2026  Release REST Responses removed from the internal Map, deleting temporary body Files.
+ * <br>	OCT 19, 2026  RestLoadTest formats its result variables for Locale.US, like LoadTest.Result.
  */
 package org.safs.tools.engines;
 
@@ -91,6 +94,7 @@ import org.safs.persist.Persistor;
 import org.safs.persist.PersistorFactory;
 import org.safs.rest.REST;
 import org.safs.rest.service.Headers;
+import org.safs.rest.service.LoadTest;
 import org.safs.rest.service.Response;
 import org.safs.rest.service.Service;
 import org.safs.rest.service.Services;
@@ -2213,16 +2217,22 @@ public class TIDComponent extends GenericEngine {
 	}
 	/**
 	 * @param responseID String, the unique ID to identify the rest service Response.
-	 * @return Response, a cached Response deleted from the internal Map.
+	 * @return Response, a cached Response deleted from the internal Map and released, 
+	 *                   deleting any temporary File holding its body.
 	 *                   null if it doesn't exist.
+	 * @see Response#release()
 	 */
 	public static synchronized Response deleteRestResponse(String responseID){
-		return responseMap.remove(responseID);
+		Response response = responseMap.remove(responseID);
+		if(response != null) response.release();
+		return response;
 	}
 	/**
-	 * Clean the whole Map, all Responses will be removed.
+	 * Clean the whole Map, all Responses will be removed and released.
+	 * @see Response#release()
 	 */
 	public static synchronized void deleteRestResponseStore(){
+		for(Response response: responseMap.values()) response.release();
 		responseMap.clear();
 	}
 
@@ -2230,8 +2240,10 @@ public class TIDComponent extends GenericEngine {
 	 * @param sessionID String, the ID of session during which the response is generated.
 	 * @param responseID String, the unique ID to identify the rest service Response.
 	 * @param response Response, a Response object to be cached into a map.
-	 * @return response Response, the previous Response stored in the map with the same responseID;
+	 * @return response Response, the previous Response stored in the map with the same responseID, 
+	 *                            now released;
 	 *                            or null if no Response was previously stored with the key responseID.
+	 * @see Response#release()
 	 */
 	private static synchronized Response saveRestResponse(String sessionID, String responseID, Response response) {
 		if(responseMap.containsKey(responseID)){
@@ -2241,7 +2253,9 @@ public class TIDComponent extends GenericEngine {
 			Log.warn("responseMap has alreday contained Response "+ response);
 		}
 
-		return responseMap.put(responseID, response);
+		Response previous = responseMap.put(responseID, response);
+		if(previous != null && previous != response) previous.release();
+		return previous;
 	}
 
 	/**
@@ -2424,7 +2438,9 @@ public class TIDComponent extends GenericEngine {
 				} else if ( TIDRestFunctions.RESTPUTCUSTOM_KEYWORD.equalsIgnoreCase(action) ) {
 					actionRequest(REST.PUT_METHOD, null);
 				}
-				else if ( TIDRestFunctions.RESTREQUEST_KEYWORD.equalsIgnoreCase(action) ) {
+				else if ( TIDRestFunctions.RESTLOADTEST_KEYWORD.equalsIgnoreCase(action) ) {
+					actionLoadTest();
+				} else if ( TIDRestFunctions.RESTREQUEST_KEYWORD.equalsIgnoreCase(action) ) {
 					actionHttpRequest();
 				} else if ( TIDRestFunctions.RESTSTARTSERVICESESSION_KEYWORD.equalsIgnoreCase(action) ) {
 					actionStartServiceSession();
@@ -2733,6 +2749,93 @@ public class TIDComponent extends GenericEngine {
 			return verified;
 		}
 
+		/**
+		 * Replay one request, and optionally a block of requests read from a request file, concurrently against
+		 * the session's service and check the latency/error thresholds given in the load settings.<br>
+		 * The summary is stored in the SAFS variables summaryVar.count, .errors, .errorrate, .throughput,
+		 * .p50, .p95, .p99, .max, .passed and .report (the JSON report file in the test directory).
+		 * <p>
+		 * The request file holds one request per line as "METHOD relativeURI [body]"; blank lines and lines
+		 * starting with '#' are ignored.
+		 * @see LoadTest
+		 */
+		private void actionLoadTest(){
+			String message = null;
+			String description = null;
+
+			if (!checkSessionID()) return;
+
+			if (params.size() < 3) {
+				issueParameterCountFailure();
+				return;
+			}
+			String method = iterator.next();
+			String relativeURI = iterator.next();
+			String summaryVar = iterator.next();
+			String body = iterator.hasNext()? iterator.next():null;
+			String customHeaders = iterator.hasNext()? iterator.next():null;
+			String loadSettings = iterator.hasNext()? iterator.next():null;
+			String requestFile = iterator.hasNext()? iterator.next():null;
+
+			try {
+				LoadTest loadTest = new LoadTest(getPossibleMapItem(loadSettings));
+				String headers = __headers(null, customHeaders);
+
+				List<LoadTest.Call> calls = new ArrayList<LoadTest.Call>();
+				calls.add(new LoadTest.Call(method, relativeURI, headers, __body(body, headers)));
+				if(StringUtils.isValid(requestFile)){
+					File file = FileUtilities.deduceProjectFile(getPossibleMapItem(requestFile), this);
+					if(!file.isFile()) file = FileUtilities.deduceTestFile(requestFile, this);
+					for(String line: FileUtilities.readStringFromUTF8File(file.getAbsolutePath()).split("\\r?\\n")){
+						line = line.trim();
+						if(line.isEmpty() || line.startsWith("#")) continue;
+						String[] fields = line.split("\\s+", 3);
+						if(fields.length < 2) throw new SAFSException("Invalid request '"+line+"' in request file "+file);
+						calls.add(new LoadTest.Call(fields[0], fields[1], headers, fields.length>2? __body(fields[2], headers):null));
+					}
+				}
+
+				LoadTest.Result result = loadTest.run(sessionID, calls);
+				File report = FileUtilities.deduceTestFile("RestLoadTest_"+summaryVar+".json", this);
+				result.export(report);
+
+				setVariable(summaryVar+".count", String.valueOf(result.getCount()));
+				setVariable(summaryVar+".errors", String.valueOf(result.getErrors()));
+				setVariable(summaryVar+".errorrate", LoadTest.Result.format(result.getErrorRate()));
+				setVariable(summaryVar+".throughput", LoadTest.Result.format(result.getThroughput()));
+				setVariable(summaryVar+".p50", LoadTest.Result.format(result.getPercentileMillis(50)));
+				setVariable(summaryVar+".p95", LoadTest.Result.format(result.getPercentileMillis(95)));
+				setVariable(summaryVar+".p99", LoadTest.Result.format(result.getPercentileMillis(99)));
+				setVariable(summaryVar+".max", LoadTest.Result.format(result.getMaxMillis()));
+				setVariable(summaryVar+".passed", String.valueOf(result.isPassed()));
+				setVariable(summaryVar+".report", report.getAbsolutePath());
+
+				String actionMsg = action +" "+method;
+				description = result.getSummary()+"\n"+"report: "+report.getAbsolutePath();
+				if(result.isPassed()){
+					message = GENStrings.convert(GENStrings.SUCCESS_3,
+							restFlag+":"+sessionID+" "+actionMsg+" successful.",
+							restFlag, sessionID, actionMsg);
+					logMessage( message, description, PASSED_MESSAGE);
+					setTRDStatus(testRecordData, DriverConstant.STATUS_NO_SCRIPT_FAILURE);
+				}else{
+					message = FAILStrings.convert(FAILStrings.FAILURE_3,
+							"Unable to perform "+actionMsg+" on "+restFlag+" in "+sessionID+".",
+							sessionID, restFlag, actionMsg);
+					description = "breaches: "+result.getBreaches()+"\n"+description;
+					logMessage( message, description, FAILED_MESSAGE);
+					setTRDStatus(testRecordData, DriverConstant.STATUS_GENERAL_SCRIPT_FAILURE);
+				}
+
+			}catch(Exception e){
+				String exceptionMsg = StringUtils.debugmsg(e);
+				message = FAILStrings.convert(FAILStrings.GENERIC_ERROR,
+						"*** ERROR *** "+exceptionMsg, exceptionMsg);
+				standardErrorMessage(testRecordData, message, testRecordData.getInputRecord());
+				setTRDStatus(testRecordData, DriverConstant.STATUS_GENERAL_SCRIPT_FAILURE);
+			}
+		}
+
 		/**
 		 * Handle the custom request.<br/>
 		 * User will set the real HTTP headers by himself.<br/>
@@ -2841,45 +2944,8 @@ public class TIDComponent extends GenericEngine {
 				try{ customHeaders = optionals[2]; }catch(Exception e){}
 				try{ customAuthFile = optionals[3]; }catch(Exception e){}
 
-				String headers = type==null? null : Headers.getHeadersForType(type);
-				//handle the custom headers information
-				if(StringUtils.isValid(customHeaders)){
-					customHeaders = getPossibleMapItem(customHeaders);
-					try{
-						File tempHeaderFile = FileUtilities.deduceProjectFile(customHeaders, this);
-						if(tempHeaderFile.isFile()){
-							customHeaders = FileUtilities.readStringFromUTF8File(tempHeaderFile.getAbsolutePath());
-						}
-					}catch(SAFSException e){
-						IndependantLog.warn(debugmsg+" Failed to read custom header file due to "+e.toString());
-					}
-					IndependantLog.debug(debugmsg+" appending custom headers \n"+customHeaders);
-					headers = headers==null? customHeaders: headers + "\n"+customHeaders;
-				}
-
-				//handle the body information 'paramBody'
-				if(StringUtils.isValid(paramBody)){
-					try{
-						//deduce it as a project-relative file, or test-directory-relative file
-						File tempFile = FileUtilities.deduceProjectFile(paramBody, this);
-						if(!tempFile.isFile()) tempFile = FileUtilities.deduceTestFile(paramBody, this);
-
-						if(tempFile.isFile()){
-							//The body's content type is defined by the headers "Content-Type", we will check it.
-							String contentType = Headers.getHeader(headers, Headers.CONTENT_TYPE);
-
-							//For binary/image file, we pass the File object as body
-							if(Headers.APPL_OCTET_STREAM.equalsIgnoreCase(contentType) ||
-							   Headers.IMAGE.equalsIgnoreCase(contentType)){
-								body = tempFile;
-							}else{//For non-binary file, we read string from the file and pass it as body
-								body = FileUtilities.readStringFromUTF8File(tempFile.getAbsolutePath());
-							}
-						}
-					}catch(SAFSException e){
-						IndependantLog.warn(debugmsg+" Failed to read body file due to "+e.toString());
-					}
-				}
+				String headers = __headers(type, customHeaders);
+				body = __body(paramBody, headers);
 
 				//Handle the custom authentication/authorization information
 				if(StringUtils.isValid(customAuthFile)){
@@ -2902,6 +2968,69 @@ public class TIDComponent extends GenericEngine {
 			}
 		}
 
+		/**
+		 * @param type String, the "header type" (content_type or accept), like "BINARY" "JOSN" etc. It can be null.
+		 * @param customHeaders String, the "customer headers"; it can be a header-string, or a map item holding
+		 *                             a header-string or holding a file which contains a header-string. It can be null.
+		 * @return String, the headers for the type followed by the custom headers; or null if there are none.
+		 * @throws Exception if the custom header file cannot be read.
+		 */
+		private String __headers(String type, String customHeaders) throws Exception{
+			String debugmsg = StringUtils.debugmsg(false);
+			String headers = type==null? null : Headers.getHeadersForType(type);
+			//handle the custom headers information
+			if(StringUtils.isValid(customHeaders)){
+				customHeaders = getPossibleMapItem(customHeaders);
+				try{
+					File tempHeaderFile = FileUtilities.deduceProjectFile(customHeaders, this);
+					if(tempHeaderFile.isFile()){
+						customHeaders = FileUtilities.readStringFromUTF8File(tempHeaderFile.getAbsolutePath());
+					}
+				}catch(SAFSException e){
+					IndependantLog.warn(debugmsg+" Failed to read custom header file due to "+e.toString());
+				}
+				IndependantLog.debug(debugmsg+" appending custom headers \n"+customHeaders);
+				headers = headers==null? customHeaders: headers + "\n"+customHeaders;
+			}
+			return headers;
+		}
+
+		/**
+		 * @param paramBody String, the "body" to send. It can be the body itself, or a project-relative or
+		 *                          test-directory-relative file holding the body.
+		 * @param headers String, the request headers; their "Content-Type" decides if a body file is sent as binary.
+		 * @return Object, the body String, the body File for binary content, or paramBody if it is not a file.
+		 * @throws Exception if the body file cannot be read.
+		 */
+		private Object __body(String paramBody, String headers) throws Exception{
+			String debugmsg = StringUtils.debugmsg(false);
+			Object body = paramBody;
+			//handle the body information 'paramBody'
+			if(StringUtils.isValid(paramBody)){
+				try{
+					//deduce it as a project-relative file, or test-directory-relative file
+					File tempFile = FileUtilities.deduceProjectFile(paramBody, this);
+					if(!tempFile.isFile()) tempFile = FileUtilities.deduceTestFile(paramBody, this);
+
+					if(tempFile.isFile()){
+						//The body's content type is defined by the headers "Content-Type", we will check it.
+						String contentType = Headers.getHeader(headers, Headers.CONTENT_TYPE);
+
+						//For binary/image file, we pass the File object as body
+						if(Headers.APPL_OCTET_STREAM.equalsIgnoreCase(contentType) ||
+						   Headers.IMAGE.equalsIgnoreCase(contentType)){
+							body = tempFile;
+						}else{//For non-binary file, we read string from the file and pass it as body
+							body = FileUtilities.readStringFromUTF8File(tempFile.getAbsolutePath());
+						}
+					}
+				}catch(SAFSException e){
+					IndependantLog.warn(debugmsg+" Failed to read body file due to "+e.toString());
+				}
+			}
+			return body;
+		}
+
 		private void actionEndServiceSession(){
 			String message = null;
 			String description = null;
@@ -19,6 +19,7 @@ package org.safs.tools.input;
 
 import org.safs.Log;
 import org.safs.STAFHelper;
+import org.safs.staf.embedded.EmbeddedRequest;
 import org.safs.staf.service.InfoInterface;
 import org.safs.staf.service.input.EmbeddedInputService;
 import org.safs.tools.ConfigurableToolsInterface;
@@ -296,9 +297,7 @@ public class SAFSINPUT extends DriverConfiguredSTAFInterfaceClass implements Inp
 		String id = (String)source.getUniqueID();
 		if (id==null) id="";
 
-		STAFResult result = staf.submit2ForFormatUnchangedService(machine, 
-		                                 servicename, 
-	                                    "NEXT " + staf.lentagValue(id));
+		STAFResult result = staf.submitEmbedded(servicename, new EmbeddedRequest.NextRecord(id));
 
 		return parseInputRecord(result);
 	}
@@ -25,16 +25,24 @@
  * MAY 14, 2018    (Lei Wang) Modified code to simplify the use of this XMLSaxProcessor.
  *                           Provided constructors to accept source in more types.
  * JUN 13, 2018    (Lei Wang) Provided parameter -counterlevel.
+ * OCT 19, 2026    Provided parameters -stream and -threads, and multiple -source: convert with XMLSaxToJUnitXMLStreamHandler.
  *
  */
 package org.safs.tools.logs.processor;
 
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.StringReader;
+import java.io.Writer;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
@@ -139,8 +147,8 @@ public class XMLSaxProcessor {
 	}
 
 	private static String usage(){
-		String usage = "java XMLSaxProcessor -source SAFSXMLLog.xml [-counterunit TESTCASE|TESTSTEP] [-out junitLog.xml] [-safsdata http://safsdataServiceURL]\n"+
-				       "java XMLSaxProcessor -s SAFSXMLLog.xml [-cu TESTCASE|TESTSTEP] [-o junitLog.xml] [-d http://safsdataurl]\n";
+		String usage = "java XMLSaxProcessor -source SAFSXMLLog.xml [-source SAFSXMLLog2.xml ...] [-counterunit TESTCASE|TESTSTEP] [-out junitLog.xml] [-safsdata http://safsdataServiceURL] [-stream] [-threads n]\n"+
+				       "java XMLSaxProcessor -s SAFSXMLLog.xml [-s SAFSXMLLog2.xml ...] [-cu TESTCASE|TESTSTEP] [-o junitLog.xml] [-d http://safsdataurl] [-stream] [-t n]\n";
 		return usage;
 	}
 	/**
@@ -148,6 +156,8 @@ public class XMLSaxProcessor {
 	 * printed to the console or be written into a file if the optional parameter '-out/-o' is provided.<br>
 	 * Push the SAFS XML Log into SAFS-Data-Repository if the optional parameter '-safsdata/-d' is provided.<br>
 	 * Provide the counter unit by the optional parameter '-counterunit/-cu'; It can be TESTCASE or TESTSTEP, the default unit is 'TESTCASE'.<br>
+	 * With the optional parameter '-stream', the JUnit report is written while parsing by {@link XMLSaxToJUnitXMLStreamHandler}, for logs too large to hold in memory.<br>
+	 * With several '-source/-s', the logs are streamed in parallel, by '-threads/-t' threads (default 4), into one merged JUnit report.<br>
 	 * <br>
 	 * Usage:<br>
 	 * <pre>
@@ -161,6 +171,8 @@ public class XMLSaxProcessor {
 	 * java XMLSaxProcessor -source SAFSXMLLog.xml -counterunit TESTSTEP -out junitLog.xml
 	 * java XMLSaxProcessor -source SAFSXMLLog.xml -safsdata http://safsdataurl
 	 * java XMLSaxProcessor -source SAFSXMLLog.xml -out junitLog.xml -safsdata http://safsdataurl
+	 * java XMLSaxProcessor -source SAFSXMLLog.xml -out junitLog.xml -stream
+	 * java XMLSaxProcessor -source Nightly1.xml -source Nightly2.xml -out junitLog.xml -threads 2
 	 * </pre>
 	 *
 	 * @param args
@@ -172,6 +184,9 @@ public class XMLSaxProcessor {
 		}
 
 		String source = null;
+		List<File> sources = new ArrayList<File>();
+		boolean stream = false;
+		int threads = 4;
 		String out = null;
 		String safsdata = null;
 		String counterunit = null;
@@ -179,6 +194,7 @@ public class XMLSaxProcessor {
 			if(args[i].equals("-s") || args[i].equals("-source")){
 				if(i+1<args.length){
 					source = args[++i];
+					sources.add(new File(source));
 				}else{
 					System.err.println("Missing '-source' parameter!");
 					System.out.println(usage());
@@ -200,6 +216,16 @@ public class XMLSaxProcessor {
 					System.out.println(usage());
 					return;
 				}
+			}else if(args[i].equals("-stream")){
+				stream = true;
+			}else if(args[i].equals("-t") || args[i].equals("-threads")){
+				if(i+1<args.length){
+					threads = Integer.parseInt(args[++i]);
+				}else{
+					System.err.println("Missing '-threads' parameter!");
+					System.out.println(usage());
+					return;
+				}
 			}else if(args[i].equals("-cu") || args[i].equals("-counterunit")){
 				if(i+1<args.length){
 					counterunit = args[++i].toUpperCase().trim();
@@ -223,18 +249,27 @@ public class XMLSaxProcessor {
 
 		XMLSaxAbstractHandler handler = null;
 		try{
-			if(counterunit!=null){
-				handler = new XMLSaxToJUnitXMLHandler(counterunit);
+			if(stream || sources.size()>1){
+				Writer writer = out==null? new OutputStreamWriter(System.out, "UTF-8"): new BufferedWriter(new OutputStreamWriter(new FileOutputStream(out), "UTF-8"));
+				try{
+					XMLSaxToJUnitXMLStreamHandler.convert(sources, writer, counterunit, threads);
+				}finally{
+					if(out==null) writer.flush(); else writer.close();
+				}
 			}else{
-				handler = new XMLSaxToJUnitXMLHandler();
-			}
-			XMLSaxProcessor sxp = new XMLSaxProcessor(new FileReader(source), handler);
-			Object result = sxp.parse();
+				if(counterunit!=null){
+					handler = new XMLSaxToJUnitXMLHandler(counterunit);
+				}else{
+					handler = new XMLSaxToJUnitXMLHandler();
+				}
+				XMLSaxProcessor sxp = new XMLSaxProcessor(new FileReader(source), handler);
+				Object result = sxp.parse();
 
-			if(out!=null){
-				FileUtilities.writeStringToUTF8File(out, result.toString());
-			}else{
-				System.out.println(result);
+				if(out!=null){
+					FileUtilities.writeStringToUTF8File(out, result.toString());
+				}else{
+					System.out.println(result);
+				}
 			}
 		}catch(Exception e){
 			System.out.println(usage());
@@ -250,9 +285,11 @@ public class XMLSaxProcessor {
 				}
 
 				//Create processor with XMLSaxToRepositoryHandler to push 'test data' into safs-data-repository.
-				XMLSaxProcessor sxp = new XMLSaxProcessor(new FileReader(source), handler);
-				Object result = sxp.parse();
-				System.out.println(result);
+				for(File file: sources){
+					XMLSaxProcessor sxp = new XMLSaxProcessor(new FileReader(file), handler);
+					Object result = sxp.parse();
+					System.out.println(result);
+				}
 			}
 		}catch(Exception e){
 			System.out.println(usage());
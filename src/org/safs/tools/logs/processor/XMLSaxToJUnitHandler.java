@@ -29,11 +29,15 @@
  *                                When the unit is 'teststep', the SAFS counter system will provide the count of 'failures', 'skipped', 'warning' etc.
  *                                When the unit is 'testcase', XMLSaxToJUnitHandler will count according to the message of type TESTLEVEL_FAILED, TESTLEVEL_ERRORED or TESTLEVEL_SKIPPED.
  * @date 2018-08-21    (Lei Wang) Modified handleLogMessage(): Fixed the junit counter, the 'tests' is the total tests including the 'failures', 'errors', 'skipped' and 'success'.
+ * @date 2026-10-19    Modified handleLogMessage(): find the parent/matching test level by the last test level of each type instead of searching 'testLevelList'.
+ *                                Added addTestLevel(): a sub class can process each test level as it is parsed instead of keeping it in 'testLevelList'.
  */
 package org.safs.tools.logs.processor;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Stack;
 
 import org.safs.Constants;
@@ -77,6 +81,14 @@ public abstract class XMLSaxToJUnitHandler extends XMLSaxAbstractHandler{
 	 */
 	protected List<TestLevel> testLevelList = null;
 
+	/**
+	 * The last test level (start or end) added by {@link #addTestLevel(TestLevel)}, of each type {@link TestSuites}, {@link TestSuite} and {@link TestCase}.<br>
+	 * It is the same as the last of that type in {@link #testLevelList}, without keeping the whole list.<br>
+	 */
+	private Map<Class<?>, TestLevel> lastTestLevels = null;
+	/** The last test level (start or end) added by {@link #addTestLevel(TestLevel)}. */
+	private TestLevel lastTestLevel = null;
+
 	/**
 	 * It contains the Orderable object parsed from the LogMessage of type {@link MessageTypeInfo#ORDERABLE_XML_PREFIX}.
 	 * @see #endElement(String, String, String)
@@ -133,28 +145,20 @@ public abstract class XMLSaxToJUnitHandler extends XMLSaxAbstractHandler{
 			testLevel.setParent(null);
 		}else if(MessageTypeInfo.START_SUITE_XML_PREFIX.equals(type)){
 			testLevel = new TestSuite();
-			//Find the last 'TestSuites', which should be my parent
-			for(int i=testLevelList.size()-1;i>-1;i--){
-				if(testLevelList.get(i).getClass().getName().equals(TestSuites.class.getName())){
-					testLevel.setParent(testLevelList.get(i));
-					break;
-				}
-			}
+			//The last 'TestSuites' should be my parent
+			TestLevel parent = lastTestLevels.get(TestSuites.class);
+			if(parent!=null) testLevel.setParent(parent);
 		}else if(MessageTypeInfo.START_TESTCASE_XML_PREFIX.equals(type)){
 			testLevel = new TestCase();
-			//Find the last 'TestSuite', which should be my parent
-			for(int i=testLevelList.size()-1;i>-1;i--){
-				if(testLevelList.get(i).getClass().getName().equals(TestSuite.class.getName())){
-					testLevel.setParent(testLevelList.get(i));
-					break;
-				}
-			}
+			//The last 'TestSuite' should be my parent
+			TestLevel parent = lastTestLevels.get(TestSuite.class);
+			if(parent!=null) testLevel.setParent(parent);
 		}
 
 		if(testLevel!=null){
 			//It is 'Start Cycle/Suite/TestCase', the begin of a certain test level
 			testLevel.setTimestamp(SAFS_LogConstants.getDate(dateTime));
-			testLevelList.add(testLevel);
+			addTestLevel(testLevel);
 			message = testLevel;
 //			testLevel.name = node.text;//will be assigned in endElement()
 //			testLevel.classname = node.text;//will be assigned in endElement()
@@ -186,13 +190,8 @@ public abstract class XMLSaxToJUnitHandler extends XMLSaxAbstractHandler{
 				message = endTestLevel;
 
 				//It is 'Stop Cycle/Suite/TestCase', the end of a certain test level.
-				//Find the last Cycle/Suite/TestCase from the 'testLevelList', it should be the matching 'start Cycle/Suite/Case'
-				for(int i=testLevelList.size()-1;i>-1;i--){
-					if(testLevelList.get(i).getClass().getName().equals(endTestLevel.getClass().getName())){
-						startTestLevel = testLevelList.get(i);
-						break;
-					}
-				}
+				//The last Cycle/Suite/TestCase should be the matching 'start Cycle/Suite/Case'
+				startTestLevel = lastTestLevels.get(endTestLevel.getClass());
 
 				//If we find the matched 'start Cycle/Suite/Case'
 				if(startTestLevel!=null){
@@ -236,7 +235,7 @@ public abstract class XMLSaxToJUnitHandler extends XMLSaxAbstractHandler{
 							startTestLevel.setSkipped(statusReport.countSkipped());
 						}
 					}
-					testLevelList.add(endTestLevel);
+					addTestLevel(endTestLevel);
 				}else{
 					IndependantLog.warn("Cannot find the matched 'Start "+endTestLevel.getClass().getSimpleName()+"'");
 				}
@@ -249,10 +248,10 @@ public abstract class XMLSaxToJUnitHandler extends XMLSaxAbstractHandler{
 				//<LOG_MESSAGE type='TESTLEVEL_SKIPPED' date='06-12-2018' time='09:45:44' >
 				message = new LogMessage();
 
-				//if testLevelList is empty, then the message doesn't belong to any test level, we ignore it.
-				if(!testLevelList.isEmpty()){
-					//Get the last item in the 'testLevelList', that item should be a certain 'Cycle/Suite/Case'
-					startTestLevel = testLevelList.get(testLevelList.size()-1);
+				//if there is no test level yet, then the message doesn't belong to any test level, we ignore it.
+				if(lastTestLevel!=null){
+					//Get the last test level, that item should be a certain 'Cycle/Suite/Case'
+					startTestLevel = lastTestLevel;
 					//if startTestLevel.start is true, that means this test level is still open
 					//The test message should belong to this test level, we will try to add it to this test level.
 					if(startTestLevel.start){
@@ -291,10 +290,32 @@ public abstract class XMLSaxToJUnitHandler extends XMLSaxAbstractHandler{
 		return message;
 	}
 
+	/**
+	 * Add a test level, 'start' or 'end', in the order they appear in the SAFS XML Log.<br>
+	 * By default it is kept in {@link #testLevelList}. A sub class can override it to process the
+	 * test level right away instead, it should then call {@link #trackTestLevel(TestLevel)}.<br>
+	 * @param testLevel TestLevel, the test level to add.
+	 */
+	protected void addTestLevel(TestLevel testLevel){
+		trackTestLevel(testLevel);
+		testLevelList.add(testLevel);
+	}
+
+	/**
+	 * Remember the test level as the last one of its type, to find the parent or the matching 'start' of the following test levels.
+	 * @param testLevel TestLevel, the test level just added.
+	 */
+	protected final void trackTestLevel(TestLevel testLevel){
+		lastTestLevels.put(testLevel.getClass(), testLevel);
+		lastTestLevel = testLevel;
+	}
+
 	@Override
 	public void startDocument () throws SAXException{
 		value = new StringBuilder();
 		testLevelList = new ArrayList<TestLevel>();
+		lastTestLevels = new HashMap<Class<?>, TestLevel>();
+		lastTestLevel = null;
 		tagStack = new Stack<Tag>();
 	}
 
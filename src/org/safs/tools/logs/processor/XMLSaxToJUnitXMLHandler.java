@@ -21,6 +21,7 @@
  * History:
  * @date 2018-04-27    (Lei Wang) Initial release.
  * @date 2018-06-13    (Lei Wang) Handled count unit (testcase, teststep).
+ * @date 2026-10-19    Moved the conversion of each test level into appendStartTag() and appendEndTag(), shared with XMLSaxToJUnitXMLStreamHandler.
  */
 package org.safs.tools.logs.processor;
 
@@ -79,94 +80,114 @@ public class XMLSaxToJUnitXMLHandler extends XMLSaxToJUnitHandler{
 	@Override
 	public String getResult(){
     	StringBuilder sb = new StringBuilder();
-    	TestCase testcase = null;
-    	int level = 0;
 
-    	sb.append("<?xml version='1.0' encoding='utf-8'?>\n");
+    	sb.append(XML_DECLARATION);
 
     	for(TestLevel testLevel:testLevelList){
     		if(testLevel.start){
-    			if(testLevel instanceof TestSuites){
-    				sb.append("<"+testLevel.tagName+" "+SAFS_XML_LogConstants.PROPERTY_NAME+"=\""+testLevel.name+"\" "+
-    			                  SAFS_XML_LogConstants.PROPERTY_TIMESTAMP+"=\""+testLevel.dateTime+"\" "+SAFS_XML_LogConstants.PROPERTY_TIME+"=\""+testLevel.time+"\">\n");
-
-    			}else if(testLevel instanceof TestSuite){
-    				sb.append(getIndent(1)+"<"+testLevel.tagName+" "+SAFS_XML_LogConstants.PROPERTY_NAME+"=\""+testLevel.name+"\" "+
-    			                               SAFS_XML_LogConstants.PROPERTY_TESTS+"=\""+testLevel.tests+"\" "+
-    			                               SAFS_XML_LogConstants.PROPERTY_ERRORS+"=\""+testLevel.errors+"\" "+
-    						                   SAFS_XML_LogConstants.PROPERTY_FAILURES+"=\""+testLevel.failures+"\" "+
-    						                   SAFS_XML_LogConstants.PROPERTY_SKIPPED+"=\""+testLevel.skipped+"\" "+
-    						                   SAFS_XML_LogConstants.PROPERTY_TIMESTAMP+"=\""+testLevel.dateTime+"\" "+
-    			                               SAFS_XML_LogConstants.PROPERTY_TIME+"=\""+testLevel.time+"\" >\n");
-
-    			}else if(testLevel instanceof TestCase){
-    				testcase = (TestCase) testLevel;
-    				String classname = testcase.classname==null? "":" "+SAFS_XML_LogConstants.PROPERTY_CLASSNAME+"=\""+testcase.classname+"\"";
-    				sb.append(getIndent(2)+"<"+testcase.tagName+" "+SAFS_XML_LogConstants.PROPERTY_NAME+"=\""+testcase.name+"\""+
-    				                                                classname+" "+
-    						                                        SAFS_XML_LogConstants.PROPERTY_TIME+"=\""+testcase.time+"\">\n");
-
-    				for(LogMessage msg:testcase.getMessages()){
-    					if(MessageTypeInfo.XML_PREFIX_TESTLEVEL_FAILED.equals(msg.type)){
-    						//The SAFS Log message of type 'TESTLEVEL_FAILED' which presents when the counter-unit is 'testcase'
-    						//User should put his failure messages into SAFSTestLevelFailure which can be got from the msg.text
-    						SAFSTestLevelFailure exception = Utils.fromJsonString(msg.text, SAFSTestLevelFailure.class);
-    						List<TestLevelMessage> failures = exception.getFailures();
-
-    						failures.forEach(failure->{
-    							StackTraceElement trace = failure.getErrorTrace();
-    							String details = failure.getDetails()==null? "":SAFS_XML_LogConstants.PROPERTY_DETAILS+"=\""+failure.getDetails()+"\" ";
-    							sb.append(getIndent(3)+"<"+SAFS_XML_LogConstants.TAG_FAILURE+" "+
-    							                           SAFS_XML_LogConstants.PROPERTY_MESSAGE+"=\""+failure.getMessage()+"\" "+
-    							                           details +
-    									                   SAFS_XML_LogConstants.PROPERTY_TYPE+"=\""+failure.getType()+"\" "+
-    							                           SAFS_XML_LogConstants.PROPERTY_LINE+"=\""+trace.getLineNumber()+"\"/>\n");
-    						});
-    					}else if(MessageTypeInfo.XML_PREFIX_TESTLEVEL_ERRORED.equals(msg.type)){
-    						//The SAFS Log message of type 'TESTLEVEL_ERRORED' which presents when the counter-unit is 'testcase'
-    						//User should put his error messages into SAFSTestLevelError which can be got from the msg.text
-    						SAFSTestLevelError exception = Utils.fromJsonString(msg.text, SAFSTestLevelError.class);
-    						List<TestLevelMessage> errors = exception.getErrors();
-
-    						errors.forEach(error->{
-    							StackTraceElement trace = error.getErrorTrace();
-    							String details = error.getDetails()==null? "":SAFS_XML_LogConstants.PROPERTY_DETAILS+"=\""+error.getDetails()+"\" ";
-    							sb.append(getIndent(3)+"<"+SAFS_XML_LogConstants.TAG_ERROR+" "+
-    							                           SAFS_XML_LogConstants.PROPERTY_MESSAGE+"=\""+error.getMessage()+"\" "+
-    							                           details +
-    									                   SAFS_XML_LogConstants.PROPERTY_TYPE+"=\""+error.getType()+"\" "+
-    							                           SAFS_XML_LogConstants.PROPERTY_LINE+"=\""+trace.getLineNumber()+"\"/>\n");
-    						});
-    					}else if(MessageTypeInfo.XML_PREFIX_TESTLEVEL_SKIPPED.equals(msg.type)){
-    						//The SAFS Log message of type 'TESTLEVEL_SKIPPED'
-    						String details = msg.getDetails()==null? "":SAFS_XML_LogConstants.PROPERTY_DETAILS+"=\""+msg.getDetails()+"\" ";
-							sb.append(getIndent(3)+"<"+SAFS_XML_LogConstants.TAG_SKIPPED+" "+SAFS_XML_LogConstants.PROPERTY_MESSAGE+"=\""+msg.getText()+"\" "+details+"/>\n");
-
-    					}else{
-    						//The SAFS Log message of type 'FAILED', 'WARNING' etc. which presents when the counter-unit is 'teststep'
-    						String details = msg.getDetails()==null? "":SAFS_XML_LogConstants.PROPERTY_DETAILS+"=\""+msg.getDetails()+"\" ";
-    						sb.append(getIndent(3)+"<"+msg.type+" "+SAFS_XML_LogConstants.PROPERTY_MESSAGE+"=\""+msg.getText()+"\" "+details+">\n");
-
-    					}
-    				}
-    			}
+    			appendStartTag(sb, testLevel);
     		}else{
-    			if(testLevel instanceof TestSuites){
-    				level = 0;
-    			}else if(testLevel instanceof TestSuite){
-    				level = 1;
-    			}else if(testLevel instanceof TestCase){
-    				level = 2;
-    			}
-
-    			sb.append(getIndent(level)+"</"+testLevel.tagName+">\n");
+    			appendEndTag(sb, testLevel);
     		}
     	}
 
     	return sb.toString();
 	}
 
-	private String getIndent(int level){
+	/** "&lt;?xml version='1.0' encoding='utf-8'?&gt;\n" */
+	protected static final String XML_DECLARATION = "<?xml version='1.0' encoding='utf-8'?>\n";
+
+	/**
+	 * Append the JUnit start tag of a test level; for a {@link TestCase}, its messages are appended too.
+	 * @param sb StringBuilder, to append to.
+	 * @param testLevel TestLevel, the 'start' test level.
+	 */
+	protected void appendStartTag(StringBuilder sb, TestLevel testLevel){
+		if(testLevel instanceof TestSuites){
+			sb.append("<"+testLevel.tagName+" "+SAFS_XML_LogConstants.PROPERTY_NAME+"=\""+testLevel.name+"\" "+
+		                  SAFS_XML_LogConstants.PROPERTY_TIMESTAMP+"=\""+testLevel.dateTime+"\" "+SAFS_XML_LogConstants.PROPERTY_TIME+"=\""+testLevel.time+"\">\n");
+
+		}else if(testLevel instanceof TestSuite){
+			sb.append(getIndent(1)+"<"+testLevel.tagName+" "+SAFS_XML_LogConstants.PROPERTY_NAME+"=\""+testLevel.name+"\" "+
+		                               SAFS_XML_LogConstants.PROPERTY_TESTS+"=\""+testLevel.tests+"\" "+
+		                               SAFS_XML_LogConstants.PROPERTY_ERRORS+"=\""+testLevel.errors+"\" "+
+					                   SAFS_XML_LogConstants.PROPERTY_FAILURES+"=\""+testLevel.failures+"\" "+
+					                   SAFS_XML_LogConstants.PROPERTY_SKIPPED+"=\""+testLevel.skipped+"\" "+
+					                   SAFS_XML_LogConstants.PROPERTY_TIMESTAMP+"=\""+testLevel.dateTime+"\" "+
+		                               SAFS_XML_LogConstants.PROPERTY_TIME+"=\""+testLevel.time+"\" >\n");
+
+		}else if(testLevel instanceof TestCase){
+			TestCase testcase = (TestCase) testLevel;
+			String classname = testcase.classname==null? "":" "+SAFS_XML_LogConstants.PROPERTY_CLASSNAME+"=\""+testcase.classname+"\"";
+			sb.append(getIndent(2)+"<"+testcase.tagName+" "+SAFS_XML_LogConstants.PROPERTY_NAME+"=\""+testcase.name+"\""+
+			                                                classname+" "+
+					                                        SAFS_XML_LogConstants.PROPERTY_TIME+"=\""+testcase.time+"\">\n");
+
+			for(LogMessage msg:testcase.getMessages()){
+				if(MessageTypeInfo.XML_PREFIX_TESTLEVEL_FAILED.equals(msg.type)){
+					//The SAFS Log message of type 'TESTLEVEL_FAILED' which presents when the counter-unit is 'testcase'
+					//User should put his failure messages into SAFSTestLevelFailure which can be got from the msg.text
+					SAFSTestLevelFailure exception = Utils.fromJsonString(msg.text, SAFSTestLevelFailure.class);
+					List<TestLevelMessage> failures = exception.getFailures();
+
+					failures.forEach(failure->{
+						StackTraceElement trace = failure.getErrorTrace();
+						String details = failure.getDetails()==null? "":SAFS_XML_LogConstants.PROPERTY_DETAILS+"=\""+failure.getDetails()+"\" ";
+						sb.append(getIndent(3)+"<"+SAFS_XML_LogConstants.TAG_FAILURE+" "+
+						                           SAFS_XML_LogConstants.PROPERTY_MESSAGE+"=\""+failure.getMessage()+"\" "+
+						                           details +
+								                   SAFS_XML_LogConstants.PROPERTY_TYPE+"=\""+failure.getType()+"\" "+
+						                           SAFS_XML_LogConstants.PROPERTY_LINE+"=\""+trace.getLineNumber()+"\"/>\n");
+					});
+				}else if(MessageTypeInfo.XML_PREFIX_TESTLEVEL_ERRORED.equals(msg.type)){
+					//The SAFS Log message of type 'TESTLEVEL_ERRORED' which presents when the counter-unit is 'testcase'
+					//User should put his error messages into SAFSTestLevelError which can be got from the msg.text
+					SAFSTestLevelError exception = Utils.fromJsonString(msg.text, SAFSTestLevelError.class);
+					List<TestLevelMessage> errors = exception.getErrors();
+
+					errors.forEach(error->{
+						StackTraceElement trace = error.getErrorTrace();
+						String details = error.getDetails()==null? "":SAFS_XML_LogConstants.PROPERTY_DETAILS+"=\""+error.getDetails()+"\" ";
+						sb.append(getIndent(3)+"<"+SAFS_XML_LogConstants.TAG_ERROR+" "+
+						                           SAFS_XML_LogConstants.PROPERTY_MESSAGE+"=\""+error.getMessage()+"\" "+
+						                           details +
+								                   SAFS_XML_LogConstants.PROPERTY_TYPE+"=\""+error.getType()+"\" "+
+						                           SAFS_XML_LogConstants.PROPERTY_LINE+"=\""+trace.getLineNumber()+"\"/>\n");
+					});
+				}else if(MessageTypeInfo.XML_PREFIX_TESTLEVEL_SKIPPED.equals(msg.type)){
+					//The SAFS Log message of type 'TESTLEVEL_SKIPPED'
+					String details = msg.getDetails()==null? "":SAFS_XML_LogConstants.PROPERTY_DETAILS+"=\""+msg.getDetails()+"\" ";
+					sb.append(getIndent(3)+"<"+SAFS_XML_LogConstants.TAG_SKIPPED+" "+SAFS_XML_LogConstants.PROPERTY_MESSAGE+"=\""+msg.getText()+"\" "+details+"/>\n");
+
+				}else{
+					//The SAFS Log message of type 'FAILED', 'WARNING' etc. which presents when the counter-unit is 'teststep'
+					String details = msg.getDetails()==null? "":SAFS_XML_LogConstants.PROPERTY_DETAILS+"=\""+msg.getDetails()+"\" ";
+					sb.append(getIndent(3)+"<"+msg.type+" "+SAFS_XML_LogConstants.PROPERTY_MESSAGE+"=\""+msg.getText()+"\" "+details+">\n");
+
+				}
+			}
+		}
+	}
+
+	/**
+	 * Append the JUnit end tag of a test level.
+	 * @param sb StringBuilder, to append to.
+	 * @param testLevel TestLevel, the 'end' test level.
+	 */
+	protected void appendEndTag(StringBuilder sb, TestLevel testLevel){
+		int level = 0;
+		if(testLevel instanceof TestSuites){
+			level = 0;
+		}else if(testLevel instanceof TestSuite){
+			level = 1;
+		}else if(testLevel instanceof TestCase){
+			level = 2;
+		}
+
+		sb.append(getIndent(level)+"</"+testLevel.tagName+">\n");
+	}
+
+	protected String getIndent(int level){
     	StringBuilder sb = new StringBuilder();
     	for(int i=0;i<level;i++){
     		sb.append("  ");
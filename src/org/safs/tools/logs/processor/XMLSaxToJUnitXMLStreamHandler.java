@@ -0,0 +1,443 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+/**
+ * Logs for developers, not published to API DOC.
+ *
+ * History:
+ * @date 2026-10-19    Initial release.
+ */
+package org.safs.tools.logs.processor;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Stack;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.safs.SAFSException;
+import org.safs.StringUtils;
+import org.safs.logging.MessageTypeInfo;
+import org.xml.sax.SAXException;
+
+/**
+ * Parse SAFS XML Log and write the JUnit XML report while parsing, with the same output as {@link XMLSaxToJUnitXMLHandler}.
+ * <p>
+ * {@link XMLSaxToJUnitXMLHandler} keeps every test level of the whole log in memory before writing anything.
+ * This handler writes each JUnit element as soon as its SAFS test level closes, and only keeps the test levels still open.
+ * As the start tag of an element holds counts known only at its end, the content of each open element is buffered;
+ * the buffer spills to a temporary file after {@link #SPOOL_LIMIT} characters, so the memory stays proportional to the nesting depth.
+ * <p>
+ * Several logs can be converted in parallel into one report by {@link #convert(List, Writer, String, int)}.
+ * <pre>
+ * Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream("junit.xml"), "UTF-8"));
+ * new XMLSaxProcessor(new FileReader("TIDTest.SAFS.xml"), new XMLSaxToJUnitXMLStreamHandler(out)).parse();
+ * out.close();
+ * </pre>
+ *
+ */
+public class XMLSaxToJUnitXMLStreamHandler extends XMLSaxToJUnitXMLHandler{
+
+	/** 1M, the characters buffered in memory for an open element before spilling to a temporary file. */
+	public static final int SPOOL_LIMIT = 1024*1024;
+
+	/** The destination of the JUnit XML report. */
+	private final Writer out;
+	/** If true, only the &lt;testsuite> elements are written, without the xml declaration and the &lt;testsuites> element. */
+	private boolean fragment = false;
+	/** The test levels started but not yet ended, with the buffered content of each. */
+	private Stack<Element> openElements = null;
+	/** The cycles (&lt;testsuites>) of the log. */
+	private List<TestSuites> cycles = null;
+
+	/**
+	 * @param out Writer, the destination of the JUnit XML report. It is flushed, not closed, at the end of the document.
+	 */
+	public XMLSaxToJUnitXMLStreamHandler(Writer out){
+		this.out = out;
+	}
+
+	/**
+	 * @param out Writer, the destination of the JUnit XML report. It is flushed, not closed, at the end of the document.
+	 * @param counterUnit String, the counter unit. It can be one of {@link org.safs.Constants#VALID_COUTNER_UNITS}.
+	 */
+	public XMLSaxToJUnitXMLStreamHandler(Writer out, String counterUnit){
+		super(counterUnit);
+		this.out = out;
+	}
+
+	/**
+	 * @param fragment boolean, if true, only write the &lt;testsuite> elements, to be merged into a report of several logs.
+	 */
+	public void setFragment(boolean fragment){
+		this.fragment = fragment;
+	}
+
+	/** @return List&lt;TestSuites>, the cycles of the parsed log. */
+	public List<TestSuites> getCycles(){
+		return cycles;
+	}
+
+	@Override
+	public void startDocument() throws SAXException{
+		super.startDocument();
+		openElements = new Stack<Element>();
+		cycles = new ArrayList<TestSuites>();
+		if(!fragment) write(out, XML_DECLARATION);
+	}
+
+	@Override
+	protected void addTestLevel(TestLevel testLevel){
+		trackTestLevel(testLevel);
+		if(testLevel.start){
+			openElements.push(new Element(testLevel));
+			if(testLevel instanceof TestSuites) cycles.add((TestSuites) testLevel);
+		}else{
+			//Find the open element matching this end; the elements opened after it are left unclosed, as in XMLSaxToJUnitXMLHandler.
+			int index = openElements.size()-1;
+			while(index>-1 && !openElements.get(index).testLevel.getClass().equals(testLevel.getClass())) index--;
+			if(index<0){
+				//There is no open element, a duplicated end.
+				StringBuilder sb = new StringBuilder();
+				appendEndTag(sb, testLevel);
+				write(currentWriter(), sb.toString());
+			}else{
+				while(openElements.size()>index+1) writeElement(openElements.pop(), null);
+				writeElement(openElements.pop(), testLevel);
+			}
+		}
+	}
+
+	@Override
+	public void endDocument() throws SAXException{
+		try{
+			//The test levels never ended are written without end tag, as in XMLSaxToJUnitXMLHandler.
+			while(!openElements.isEmpty()) writeElement(openElements.pop(), null);
+			out.flush();
+		}catch(IOException | UncheckedIOException e){
+			throw new SAXException(e.toString());
+		}
+	}
+
+	/**
+	 * @return String, the JUnit XML report if the destination is a StringWriter;
+	 *                 otherwise null, as the report has already been written to the destination.
+	 */
+	@Override
+	public String getResult(){
+		return out instanceof StringWriter? out.toString(): null;
+	}
+
+	/** @return Writer, the buffer of the innermost open element, or the destination if there is none. */
+	private Writer currentWriter(){
+		return openElements.isEmpty()? out: openElements.peek().content;
+	}
+
+	/**
+	 * Write an element, its start tag, its buffered content and its end tag, into the buffer of its parent or into the destination.
+	 * @param element Element, the element to write.
+	 * @param end TestLevel, the 'end' test level; it is null if the element is not closed.
+	 */
+	private void writeElement(Element element, TestLevel end){
+		Writer target = currentWriter();
+		boolean skipTags = fragment && element.testLevel instanceof TestSuites;
+		try{
+			if(!skipTags){
+				StringBuilder sb = new StringBuilder();
+				appendStartTag(sb, element.testLevel);
+				target.write(sb.toString());
+			}
+			element.content.copyTo(target);
+			if(end!=null && !skipTags){
+				StringBuilder sb = new StringBuilder();
+				appendEndTag(sb, end);
+				target.write(sb.toString());
+			}
+		}catch(IOException e){
+			throw new UncheckedIOException(e);
+		}finally{
+			element.content.delete();
+			//The test case's messages are not needed anymore
+			element.testLevel.getMessages().clear();
+		}
+	}
+
+	private static void write(Writer writer, String text){
+		try{
+			writer.write(text);
+		}catch(IOException e){
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/** A test level being parsed, and the content written for it so far. */
+	private static class Element{
+		private final TestLevel testLevel;
+		private final Spool content = new Spool();
+		private Element(TestLevel testLevel){
+			this.testLevel = testLevel;
+		}
+	}
+
+	/**
+	 * Characters buffered in memory up to {@link XMLSaxToJUnitXMLStreamHandler#SPOOL_LIMIT}, then in a temporary file.
+	 */
+	static class Spool extends Writer{
+		private StringBuilder buffer = new StringBuilder();
+		private File file = null;
+		private Writer fileWriter = null;
+
+		@Override
+		public void write(char[] cbuf, int off, int len) throws IOException{
+			if(fileWriter!=null){
+				fileWriter.write(cbuf, off, len);
+				return;
+			}
+			buffer.append(cbuf, off, len);
+			if(buffer.length()>SPOOL_LIMIT){
+				file = File.createTempFile("junit", ".spool");
+				file.deleteOnExit();
+				fileWriter = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"));
+				fileWriter.append(buffer);
+				buffer = null;
+			}
+		}
+
+		/** Copy the buffered characters to the target. */
+		void copyTo(Writer target) throws IOException{
+			if(fileWriter==null){
+				target.append(buffer);
+				return;
+			}
+			fileWriter.flush();
+			try(Reader reader = new InputStreamReader(new FileInputStream(file), "UTF-8")){
+				char[] chars = new char[8192];
+				for(int n; (n = reader.read(chars))>0;) target.write(chars, 0, n);
+			}
+		}
+
+		/** Release the buffer, and delete the temporary file. */
+		void delete(){
+			buffer = null;
+			if(fileWriter!=null){
+				try{ fileWriter.close(); }catch(IOException ignore){}
+				fileWriter = null;
+				file.delete();
+			}
+		}
+
+		@Override
+		public void flush() throws IOException{
+			if(fileWriter!=null) fileWriter.flush();
+		}
+
+		@Override
+		public void close() throws IOException{
+			flush();
+		}
+	}
+
+	/**
+	 * Convert several SAFS XML Logs, in parallel, into one JUnit XML report.<br>
+	 * With one log, the report is the same as {@link XMLSaxToJUnitXMLHandler}'s.<br>
+	 * With several logs, the &lt;testsuite> elements of all the logs are merged, in the order of the logs, into one &lt;testsuites> element.
+	 * Its name is the cycles' names separated by ';', its timestamp is the earliest cycle's, and its time is the total of the cycles' times.
+	 *
+	 * @param sources List&lt;File>, the SAFS XML Logs.
+	 * @param out Writer, the destination of the JUnit XML report. It is flushed, not closed.
+	 * @param counterUnit String, the counter unit; it can be null for the default unit.
+	 * @param threads int, the number of logs parsed at the same time.
+	 * @throws SAFSException if a log cannot be parsed or the report cannot be written.
+	 */
+	public static void convert(List<File> sources, Writer out, final String counterUnit, int threads) throws SAFSException{
+		if(sources.size()==1){
+			parse(sources.get(0), newHandler(out, counterUnit));
+			return;
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, sources.size())));
+		List<Spool> fragments = new ArrayList<Spool>();
+		List<Future<XMLSaxToJUnitXMLStreamHandler>> results = new ArrayList<Future<XMLSaxToJUnitXMLStreamHandler>>();
+		try{
+			for(final File source: sources){
+				final Spool fragment = new Spool();
+				fragments.add(fragment);
+				results.add(executor.submit(() -> {
+					XMLSaxToJUnitXMLStreamHandler handler = newHandler(fragment, counterUnit);
+					handler.setFragment(true);
+					parse(source, handler);
+					return handler;
+				}));
+			}
+
+			TestSuites merged = new TestSuites();
+			StringBuilder names = new StringBuilder();
+			for(Future<XMLSaxToJUnitXMLStreamHandler> result: results){
+				for(TestSuites cycle: result.get().getCycles()){
+					if(names.length()>0) names.append(";");
+					names.append(cycle.getName());
+					merged.setTime(merged.getTime()+cycle.getTime());
+					if(merged.getTimestamp()==null ||
+					   (cycle.getTimestamp()!=null && cycle.getTimestamp().before(merged.getTimestamp()))){
+						merged.setTimestamp(cycle.getTimestamp());
+						merged.setDateTime(cycle.getDateTime());
+					}
+				}
+			}
+			merged.setName(names.toString());
+
+			XMLSaxToJUnitXMLStreamHandler writer = newHandler(out, counterUnit);
+			StringBuilder sb = new StringBuilder(XML_DECLARATION);
+			writer.appendStartTag(sb, merged);
+			out.write(sb.toString());
+			for(Spool fragment: fragments) fragment.copyTo(out);
+			sb.setLength(0);
+			merged.setStart(false);
+			writer.appendEndTag(sb, merged);
+			out.write(sb.toString());
+			out.flush();
+
+		}catch(Exception e){
+			Throwable cause = e.getCause()==null? e: e.getCause();
+			if(cause instanceof SAFSException) throw (SAFSException) cause;
+			throw new SAFSException("Failed to convert SAFS XML Logs to JUnit report, due to "+StringUtils.debugmsg(cause));
+		}finally{
+			executor.shutdownNow();
+			for(Spool fragment: fragments) fragment.delete();
+		}
+	}
+
+	private static XMLSaxToJUnitXMLStreamHandler newHandler(Writer out, String counterUnit){
+		return counterUnit==null? new XMLSaxToJUnitXMLStreamHandler(out): new XMLSaxToJUnitXMLStreamHandler(out, counterUnit);
+	}
+
+	private static void parse(File source, XMLSaxToJUnitXMLStreamHandler handler) throws SAFSException{
+		try(Reader reader = new BufferedReader(new FileReader(source))){
+			new XMLSaxProcessor(reader, handler).parse();
+		}catch(SAFSException e){
+			throw e;
+		}catch(Exception e){
+			throw new SAFSException("Failed to parse "+source+", due to "+StringUtils.debugmsg(e));
+		}
+	}
+
+	/**
+	 * Write a SAFS XML Log of one cycle with the given number of suites and test cases, for the self-test.
+	 */
+	static void writeSampleLog(File file, String cycleName, int suites, int cases) throws IOException{
+		try(Writer log = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"))){
+			log.write("<?xml version=\"1.0\"?>\n<SAFS_LOG>\n<LOG_OPENED name='"+cycleName+"' date='10-19-2026' time='10:00:00'/>\n");
+			int second = 0;
+			sampleMessage(log, MessageTypeInfo.START_CYCLE_XML_PREFIX, second, cycleName, null);
+			for(int s=0;s<suites;s++){
+				sampleMessage(log, MessageTypeInfo.START_SUITE_XML_PREFIX, second, cycleName+".Suite"+s, null);
+				for(int c=0;c<cases;c++){
+					sampleMessage(log, MessageTypeInfo.START_TESTCASE_XML_PREFIX, second, "org.sample.Cases"+s+".case"+c, null);
+					sampleMessage(log, "GENERIC", second, "click & type <text>", null);
+					if(c%7==3) sampleMessage(log, MessageTypeInfo.FAILED_MESSAGE_XML_PREFIX, second, "case"+c+" failed", "details of case"+c);
+					if(c%11==5) sampleMessage(log, MessageTypeInfo.WARNING_MESSAGE_XML_PREFIX, second, "case"+c+" warned", null);
+					if(c%13==9) sampleMessage(log, MessageTypeInfo.XML_PREFIX_TESTLEVEL_SKIPPED, second, "case"+c+" skipped", "not ready");
+					second = (second+1)%3600;
+					sampleMessage(log, MessageTypeInfo.END_TESTCASE_XML_PREFIX, second, "org.sample.Cases"+s+".case"+c, null);
+				}
+				sampleMessage(log, MessageTypeInfo.END_SUITE_XML_PREFIX, second, cycleName+".Suite"+s, null);
+			}
+			sampleMessage(log, MessageTypeInfo.END_CYCLE_XML_PREFIX, second, cycleName, null);
+			log.write("</SAFS_LOG>\n");
+		}
+	}
+
+	private static void sampleMessage(Writer log, String type, int second, String text, String details) throws IOException{
+		log.write("<LOG_MESSAGE type='"+type+"' date='10-19-2026' time='10:"+String.format("%02d:%02d", second/60, second%60)+"' >\n");
+		log.write("    <MESSAGE_TEXT><![CDATA["+text+"]]></MESSAGE_TEXT>\n");
+		if(details!=null) log.write("    <MESSAGE_DETAILS><![CDATA["+details+"]]></MESSAGE_DETAILS>\n");
+		log.write("</LOG_MESSAGE>\n");
+	}
+
+	/**
+	 * Self-test: the streamed report must be the same as {@link XMLSaxToJUnitXMLHandler}'s, for both counter units,
+	 * and several logs must merge into one report.<br>
+	 * java org.safs.tools.logs.processor.XMLSaxToJUnitXMLStreamHandler [suites cases]
+	 */
+	public static void main(String[] args) throws Exception{
+		int suites = args.length>1? Integer.parseInt(args[0]): 40;
+		int cases = args.length>1? Integer.parseInt(args[1]): 250;
+		java.io.PrintStream console = System.out;
+		//XMLSaxToJUnitHandler prints a line for each test case
+		System.setOut(new java.io.PrintStream(new java.io.ByteArrayOutputStream(){
+			@Override public synchronized void write(byte[] b, int off, int len){}
+		}));
+		List<File> logs = new ArrayList<File>();
+		try{
+			for(int i=0;i<3;i++){
+				File log = File.createTempFile("safslog"+i, ".xml");
+				log.deleteOnExit();
+				writeSampleLog(log, "Cycle"+i, suites, cases);
+				logs.add(log);
+			}
+
+			for(String unit: org.safs.Constants.VALID_COUTNER_UNITS){
+				long start = System.nanoTime();
+				String expected;
+				try(Reader reader = new BufferedReader(new FileReader(logs.get(0)))){
+					expected = (String) new XMLSaxProcessor(reader, new XMLSaxToJUnitXMLHandler(unit)).parse();
+				}
+				long inMemory = System.nanoTime()-start;
+
+				start = System.nanoTime();
+				StringWriter streamed = new StringWriter();
+				convert(logs.subList(0, 1), streamed, unit, 1);
+				long streaming = System.nanoTime()-start;
+				if(!expected.equals(streamed.toString())){
+					throw new AssertionError("The streamed report is different for counter unit "+unit+"\n"+expected+"\n----\n"+streamed);
+				}
+				console.println(unit+": "+(suites*cases)+" test cases, "+(logs.get(0).length()/1024)+"KB log, in memory "+(inMemory/1000000)+"ms, streamed "+(streaming/1000000)+"ms, same report.");
+			}
+
+			long start = System.nanoTime();
+			StringWriter merged = new StringWriter();
+			convert(logs, merged, null, 3);
+			long parallel = System.nanoTime()-start;
+			String report = merged.toString();
+			javax.xml.parsers.DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new org.xml.sax.InputSource(new java.io.StringReader(report)));
+			int testcases = report.split("<testcase ", -1).length-1;
+			int testsuites = report.split("<testsuite ", -1).length-1;
+			if(testcases!=3*suites*cases || testsuites!=3*suites || !report.contains("name=\"Cycle0;Cycle1;Cycle2\"")){
+				throw new AssertionError("The merged report has "+testsuites+" suites and "+testcases+" cases.");
+			}
+			console.println("merged 3 logs in parallel in "+(parallel/1000000)+"ms: "+testsuites+" suites, "+testcases+" cases.");
+			console.println("XMLSaxToJUnitXMLStreamHandler self-test passed.");
+		}finally{
+			System.setOut(console);
+			for(File log: logs) log.delete();
+		}
+	}
+}
@@ -28,10 +28,15 @@
  * @date 2018-06-05    (Lei Wang) Modified method collectTestcycle(): Push cycle with more properties 'user', 'machine', 'ip' and 'testName'.
  * @date 2018-06-07    (Lei Wang) Modified collectTestcycle(): Push the Orderable data and set the orderableId to Cycle.
  * @date 2018-06-13    (Lei Wang) Added constructor to accept parameter 'counterUnit'.
+ * @date 2026-10-19    Modified getResult(): push the test data in concurrent batches by RepositoryUploader instead of one request after another.
+ *                                                       Added createXXX() to create the models; deprecated collectXXX() and phoneHome(), which push them one by one.
+ *                                                       Wait for the batches in flight before rolling back the pushed models.
  */
 package org.safs.tools.logs.processor;
 
-import java.util.Stack;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import org.safs.Constants;
 import org.safs.IndependantLog;
@@ -40,6 +45,8 @@ import org.safs.SAFSModelCreationException;
 import org.safs.SAFSRuntimeException;
 import org.safs.StringUtils;
 import org.safs.Utils;
+import org.safs.data.RepositoryUploader;
+import org.safs.data.RepositoryUploader.Upload;
 import org.safs.data.model.Orderable;
 import org.safs.data.model.RestModel;
 import org.safs.data.model.Testcase;
@@ -99,61 +106,66 @@ public class XMLSaxToRepositoryHandler extends XMLSaxToJUnitHandler{
 	@Override
 	public String getResult(){
 
-		Stack<RestModel> pushedModelStack = new Stack<RestModel>();
 		StringBuilder resultOfPushedModels = new StringBuilder();
+		RepositoryUploader uploader = null;
 
 		try{
 			safsdataServiceID = XMLSaxToRepositoryHandler.class.getSimpleName()+System.currentTimeMillis();
 			REST.StartServiceSession(safsdataServiceID, safsdataServiceURL);
+			uploader = new RepositoryUploader(safsdataServiceID);
 
-			resultOfPushedModels.append("Test data have been pushed to reposiotry as below:\n");
-
-			Testcycle modelTestCycle = null;
-			Testsuite modelTestSuite = null;
-			Testcase modelTestCase = null;
+			Upload orderableUpload = null;
+			Upload modelTestCycle = null;
+			Upload modelTestSuite = null;
+			List<Upload> uploads = new ArrayList<Upload>();
 
 			for(TestLevel testLevel:testLevelList){
 				if(testLevel.start){//The begin of this test level
 					if(testLevel instanceof TestSuites){
-						modelTestCycle = collectTestcycle((TestSuites) testLevel);
-						pushedModelStack.push(modelTestCycle);
-
-						resultOfPushedModels.append(modelTestCycle.getClass().getSimpleName()+": "+modelTestCycle.toString()+"\n");
+						if(orderable!=null){
+							orderableUpload = uploader.push(orderable);
+						}
+						modelTestCycle = uploader.push(createTestcycle((TestSuites) testLevel), orderableUpload, "orderableId");
+						uploads.add(modelTestCycle);
 
 					}else if(testLevel instanceof TestSuite){
-						modelTestSuite = collectTestsuite((TestSuite) testLevel, modelTestCycle.getId());
-						pushedModelStack.push(modelTestSuite);
-						resultOfPushedModels.append(modelTestSuite.getClass().getSimpleName()+": "+modelTestSuite.toString()+"\n");
+						modelTestSuite = uploader.push(createTestsuite((TestSuite) testLevel), modelTestCycle, "testcycleId");
+						uploads.add(modelTestSuite);
 
 					}else if(testLevel instanceof TestCase){
-						TestCase testcase = (TestCase) testLevel;
-
-//						for(LogMessage msg:testcase.getMessages()){
-//							//Teststep: testcaseId, statusId, logMessage;
-//							System.out.println("type: "+msg.getType()+"\nmessage: "+msg.getText());
-//						}
-
-						modelTestCase = collectTestcase(testcase, modelTestSuite.getId());
-						pushedModelStack.push(modelTestCase);
-						resultOfPushedModels.append(modelTestCase.getClass().getSimpleName()+": "+modelTestCase.toString()+"\n");
+						uploads.add(uploader.push(createTestcase((TestCase) testLevel), modelTestSuite, "testsuiteId"));
 					}
 				}else{//The end of this test level, we do nothing for now.
 
 				}
 			}
 
+			uploader.flush();
+			if(orderableUpload!=null) orderable = (Orderable) orderableUpload.get();
+
+			resultOfPushedModels.append("Test data have been pushed to reposiotry as below:\n");
+			for(Upload upload: uploads){
+				RestModel model = upload.get();
+				resultOfPushedModels.append(model.getClass().getSimpleName()+": "+model.toString()+"\n");
+			}
+
 		} catch (SAFSDatabaseException | SAFSModelCreationException e) {
 			String eMsg = StringUtils.debugmsg(e)+"\n"+e.getCause()==null?"":StringUtils.debugmsg(e.getCause());
 			IndependantLog.error("Failed to push safs test data (cycle, suite, testcase), due to "+eMsg);
 			StringBuilder throwMsg = new StringBuilder();
 
-			if(pushedModelStack.isEmpty()){
+			//Wait for the batches still in flight, so that every pushed model is rolled back
+			if(uploader!=null) uploader.close();
+			List<RestModel> pushedModels = uploader==null? new ArrayList<RestModel>() : uploader.getPushed();
+			if(pushedModels.isEmpty()){
 				throwMsg.append("No test data was pushed to repository, due to "+eMsg);
 			}else{
-				RestModel model = null;
+				//Delete the children before their parents
+				Collections.reverse(pushedModels);
 				StringBuilder failDeleteModels = new StringBuilder();
-				while(!pushedModelStack.empty()){
-					model = pushedModelStack.pop();
+				for(RestModel model: pushedModels){
+					//The orderable was not created by this transaction, it may be shared by other cycles
+					if(model instanceof Orderable) continue;
 					try{
 						Utils.deleteFromRepository(safsdataServiceID, model);
 					}catch(SAFSDatabaseException sde){
@@ -171,15 +183,35 @@ public class XMLSaxToRepositoryHandler extends XMLSaxToJUnitHandler{
 			throw new SAFSRuntimeException(throwMsg.toString());
 
 		}finally{
+			if(uploader!=null) uploader.close();
 			if(safsdataServiceID!=null) REST.EndServiceSession(safsdataServiceID);
 		}
 
 		return resultOfPushedModels.toString();
 	}
 
-	protected Testcycle collectTestcycle(TestSuites testlevel) throws SAFSDatabaseException, SAFSModelCreationException{
-		Testcycle cycle = new Testcycle(/*testlevel.getOrderableID() ,*/testlevel.getName(), testlevel.getErrors(), testlevel.getTests(), testlevel.getFailures(), testlevel.getSkipped(), testlevel.getTime(), testlevel.getTimestamp(),
+	/** @return Testcycle, the model of the test level, not yet pushed to the repository. */
+	protected Testcycle createTestcycle(TestSuites testlevel){
+		return new Testcycle(/*testlevel.getOrderableID() ,*/testlevel.getName(), testlevel.getErrors(), testlevel.getTests(), testlevel.getFailures(), testlevel.getSkipped(), testlevel.getTime(), testlevel.getTimestamp(),
 				testlevel.getTestName(), testlevel.getUser(), testlevel.getMachine(), testlevel.getIp());
+	}
+	/** @return Testsuite, the model of the test level, not yet pushed to the repository. */
+	protected Testsuite createTestsuite(TestSuite testlevel){
+		return new Testsuite(null, testlevel.getName(), testlevel.getTests(), testlevel.getErrors(), testlevel.getFailures(), testlevel.getSkipped(), testlevel.getTime(), testlevel.getTimestamp());
+	}
+	/** @return Testcase, the model of the test level, not yet pushed to the repository. */
+	protected Testcase createTestcase(TestCase testlevel){
+		String classname = testlevel.classname==null? "":testlevel.classname;
+		return new Testcase(null, testlevel.getName(), classname, testlevel.getTime());
+	}
+
+	/**
+	 * Push the orderable, if any, and the cycle to the repository, one request after another.
+	 * @deprecated {@link #getResult()} pushes the models created by {@link #createTestcycle(TestSuites)} through a {@link RepositoryUploader}.
+	 */
+	@Deprecated
+	protected Testcycle collectTestcycle(TestSuites testlevel) throws SAFSDatabaseException, SAFSModelCreationException{
+		Testcycle cycle = createTestcycle(testlevel);
 
 		if(orderable!=null){
 			orderable = (Orderable) phoneHome(orderable);
@@ -188,15 +220,31 @@ public class XMLSaxToRepositoryHandler extends XMLSaxToJUnitHandler{
 
 		return (Testcycle) phoneHome(cycle);
 	}
+	/**
+	 * Push the suite of the cycle 'id' to the repository.
+	 * @deprecated {@link #getResult()} pushes the models created by {@link #createTestsuite(TestSuite)} through a {@link RepositoryUploader}.
+	 */
+	@Deprecated
 	protected Testsuite collectTestsuite(TestSuite testlevel, Long id) throws SAFSDatabaseException, SAFSModelCreationException{
-		Testsuite suite = new Testsuite(id, testlevel.getName(), testlevel.getTests(), testlevel.getErrors(), testlevel.getFailures(), testlevel.getSkipped(), testlevel.getTime(), testlevel.getTimestamp());
+		Testsuite suite = createTestsuite(testlevel);
+		suite.setTestcycleId(id);
 		return (Testsuite) phoneHome(suite);
 	}
+	/**
+	 * Push the test case of the suite 'id' to the repository.
+	 * @deprecated {@link #getResult()} pushes the models created by {@link #createTestcase(TestCase)} through a {@link RepositoryUploader}.
+	 */
+	@Deprecated
 	protected Testcase collectTestcase(TestCase testlevel, Long id) throws SAFSDatabaseException, SAFSModelCreationException{
-		String classname = testlevel.classname==null? "":testlevel.classname;
-		Testcase testcase = new Testcase(id, testlevel.getName(), classname, testlevel.getTime());
+		Testcase testcase = createTestcase(testlevel);
+		testcase.setTestsuiteId(id);
 		return (Testcase) phoneHome(testcase);
 	}
+	/**
+	 * Push one model to the repository.
+	 * @deprecated {@link #getResult()} pushes the models through a {@link RepositoryUploader}.
+	 */
+	@Deprecated
 	protected RestModel phoneHome(RestModel restModel) throws SAFSDatabaseException, SAFSModelCreationException{
 		return Utils.pushToRepository(safsdataServiceID, restModel);
 	}
@@ -26,6 +26,7 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 
 import org.safs.Log;
@@ -53,6 +54,10 @@ import org.safs.tools.ocr.tesseract.TesseractOCREngine;
  *                                to the given engine name (by parameter or STAF variable).
  *                                Add static method getOCREngineKey(), setOCREngineKey(), getOCRLanguageCode(),
  *                                setOCRLanguageCode(): get or set STAF variables
+ * <br> OCT 19, 2026    Cache imageToText and findTextRectFromImage results by image content.
+ *                                Engines now implement recognizeText() and recognizeTextRect().
+ *                                Add imageToTextIncremental() to re-OCR only the changed bands of an image.
+ * <br> OCT 19, 2026    Add getTextRectMode() to the key of the cached findTextRectFromImage results.
  */
 public abstract class OCREngine {
 	
@@ -84,6 +89,15 @@ public abstract class OCREngine {
 	public float getdefaultZoomScale() { return defaultZoomScale; }
 	public void setdefaultZoomScale(float value) {	defaultZoomScale = value; }
 	
+	/** results of recent OCR calls keyed by the content of the image recognized. */
+	protected OCRResultCache resultCache = new OCRResultCache();
+	public OCRResultCache getResultCache() { return resultCache; }
+	/**
+	 * Set the maximum number of OCR results this engine retains.
+	 * @param size 0 or less disables the cache. Default is {@link OCRResultCache#DEFAULT_MAX_SIZE}.
+	 */
+	public void setResultCacheSize(int size) { resultCache.setMaxSize(size); }
+	
 	public String imageToText(BufferedImage image, String langId, Rectangle subarea) throws SAFSException {
 		return imageToText(image, langId, subarea, getdefaultZoomScale());	
 	}
@@ -103,11 +117,60 @@ public abstract class OCREngine {
               User may give a proper zoom value for the text in a image to be fit in and recognized.     
 	 * @return String, converted from the input image. NULL if fails to convert.
 	 * @throws SAFSException if meets any Exception
+	 * @see #recognizeText(BufferedImage, String, Rectangle, float)
 	 */
 	public String imageToText(BufferedImage image, String langId, Rectangle subarea, float zoom) throws SAFSException {
-		throw new UnsupportedOperationException();	
+		if(!resultCache.isEnabled()) return recognizeText(image, langId, subarea, zoom);
+		String key = OCRResultCache.textKey(image, langId, subarea, zoom);
+		if(resultCache.contains(key)){
+			Log.info(getClass().getName() + ".imageToText(): unchanged image, using cached text.");
+			return resultCache.getText(key);
+		}
+		String text = recognizeText(image, langId, subarea, zoom);
+		resultCache.putText(key, text);
+		return text;
 	}	
 	
+	/**
+	 * Run the OCR engine to convert buffered image to text. It needs to be implemented in its derived class.
+	 * Called by {@link #imageToText(BufferedImage, String, Rectangle, float)} when no result is cached for
+	 * the image content, language and zoom.
+	 */
+	protected String recognizeText(BufferedImage image, String langId, Rectangle subarea, float zoom) throws SAFSException {
+		throw new UnsupportedOperationException();	
+	}
+	
+	/**
+	 * Convert buffered image to text a band at a time, re-running the OCR engine only for the bands
+	 * whose pixels changed since they were last recognized.
+	 * <p>
+	 * The area is cut into horizontal bands at blank rows so lines of text are not split. Each band goes
+	 * through {@link #imageToText(BufferedImage, String, Rectangle, float)} and its cache; the band texts
+	 * are joined with newlines. Suited to images polled repeatedly where only part of the content changes.
+	 * Text is recognized per band, so it may differ slightly from recognizing the whole area at once.
+	 * 
+	 * @param image, an input BufferedImage for converting to text.
+	 * @param langId, language id representing the language that OCR intends to convert to. 
+	 * @param subarea, area of the input image for convert. NULL stands for whole area of the image. 
+	 * @param zoom,  float, zoom value. See {@link #imageToText(BufferedImage, String, Rectangle, float)}.
+	 * @param minBandHeight, minimum height in pixels of a band. A few text lines high is a good value.
+	 * @return String, converted from the input image.
+	 * @throws SAFSException if meets any Exception
+	 * @see OCRResultCache#splitBands(BufferedImage, Rectangle, int)
+	 */
+	public String imageToTextIncremental(BufferedImage image, String langId, Rectangle subarea, float zoom, int minBandHeight) throws SAFSException {
+		List<Rectangle> bands = OCRResultCache.splitBands(image, subarea, minBandHeight);
+		if(bands.isEmpty()) return imageToText(image, langId, subarea, zoom);
+		StringBuilder text = new StringBuilder();
+		for(Rectangle band: bands){
+			String bandtext = imageToText(image, langId, band, zoom);
+			if(bandtext == null || bandtext.length() == 0) continue;
+			if(text.length() > 0) text.append('\n');
+			text.append(bandtext);
+		}
+		return text.toString();
+	}
+	
 	public String storedImageToText(String imagefile, String langId, Rectangle subarea) throws SAFSException {
 		return storedImageToText(imagefile, langId, subarea, getdefaultZoomScale());
 	}
@@ -122,8 +185,41 @@ public abstract class OCREngine {
 		throw new UnsupportedOperationException();
 	}
 
+	/**
+	 * Find text from BufferedImage, and return its area in the zoomed image.
+	 * Results, including text not found, are cached by image content, language, zoom, searchtext, index
+	 * and {@link #getTextRectMode()}.
+	 * @see #recognizeTextRect(String, int, BufferedImage, String, Rectangle, float)
+	 */
 	public Rectangle findTextRectFromImage(String searchtext, int index, 
 			BufferedImage image, String stdlangId, Rectangle subarea, float zoom) throws SAFSException {
+		if(!resultCache.isEnabled()) return recognizeTextRect(searchtext, index, image, stdlangId, subarea, zoom);
+		String key = OCRResultCache.rectKey(searchtext, index, image, stdlangId, subarea, zoom, getTextRectMode());
+		if(resultCache.contains(key)){
+			Log.info(getClass().getName() + ".findTextRectFromImage(): unchanged image, using cached result.");
+			return resultCache.getRect(key);
+		}
+		Rectangle rect = recognizeTextRect(searchtext, index, image, stdlangId, subarea, zoom);
+		resultCache.putRect(key, rect);
+		return rect;
+	}
+	
+	/**
+	 * Derived classes that can locate text in more than one way override this, so that a rect cached in
+	 * one mode is not returned in another. Called for each {@link #findTextRectFromImage(String, int, BufferedImage, String, Rectangle, float)}.
+	 * @return String, the current mode of locating text. "" by default.
+	 */
+	protected String getTextRectMode(){
+		return "";
+	}
+
+	/**
+	 * Run the OCR engine to find text from BufferedImage. Derived classes supporting it override this.
+	 * Called by {@link #findTextRectFromImage(String, int, BufferedImage, String, Rectangle, float)} when
+	 * no result is cached.
+	 */
+	protected Rectangle recognizeTextRect(String searchtext, int index, 
+			BufferedImage image, String stdlangId, Rectangle subarea, float zoom) throws SAFSException {
 		throw new SAFSException("Not supported Operation: findTextRectFromImage().");
 	}
 	
@@ -0,0 +1,317 @@
+/**
+ * Copyright (C) SAS Institute, All rights reserved.
+ * General Public License: https://www.gnu.org/licenses/gpl-3.0.en.html
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+**/
+package org.safs.tools.ocr;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.safs.SAFSException;
+
+/**
+ * A bounded LRU cache of OCR results keyed by the content of the (sub)image that was recognized.
+ * <p>
+ * Screen-captured images handed to an {@link OCREngine} are frequently identical from one call
+ * to the next: the same window, the same label, polled until something changes. Every call used to
+ * zoom the image, write a temporary file and spawn the external OCR executable. Here a 64-bit FNV-1a
+ * hash of the pixels in the subarea, together with the language id and zoom, identifies a prior
+ * result so the engine does not have to run again.
+ * <p>
+ * {@link #splitBands(BufferedImage, Rectangle, int)} supports the incremental mode of
+ * {@link OCREngine#imageToTextIncremental(BufferedImage, String, Rectangle, float, int)}: the area
+ * is cut into horizontal bands at blank rows so no line of text is split, and each band is cached
+ * on its own. When only part of the image changes, only the bands whose pixels changed are re-OCRed.
+ *
+ * <br>	OCT 19, 2026    Original Release
+ * @see OCREngine#setResultCacheSize(int)
+ */
+public class OCRResultCache {
+
+	/** Default maximum number of results retained: 64. */
+	public static final int DEFAULT_MAX_SIZE = 64;
+
+	private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME  = 0x100000001b3L;
+
+	/** Cached stand-in for a findTextRect result of null (text not found). */
+	private static final Rectangle NOT_FOUND = new Rectangle(-1, -1, -1, -1);
+
+	private int maxSize;
+	private long hits = 0;
+	private long misses = 0;
+
+	private final LinkedHashMap<String,Object> results = new LinkedHashMap<String,Object>(16, 0.75f, true){
+		private static final long serialVersionUID = 1L;
+		protected boolean removeEldestEntry(Map.Entry<String,Object> eldest){
+			return size() > maxSize;
+		}
+	};
+
+	public OCRResultCache(){ this(DEFAULT_MAX_SIZE); }
+
+	/**
+	 * @param maxSize maximum number of results retained. 0 or less disables caching.
+	 */
+	public OCRResultCache(int maxSize){ this.maxSize = maxSize; }
+
+	public synchronized int getMaxSize(){ return maxSize; }
+
+	/**
+	 * Change the maximum number of results retained, evicting the least recently used as needed.
+	 * @param maxSize 0 or less disables caching and clears the cache.
+	 */
+	public synchronized void setMaxSize(int maxSize){
+		this.maxSize = maxSize;
+		if(maxSize <= 0){
+			results.clear();
+		}else{
+			while(results.size() > maxSize){
+				results.remove(results.keySet().iterator().next());
+			}
+		}
+	}
+
+	public synchronized boolean isEnabled(){ return maxSize > 0; }
+	public synchronized int size(){ return results.size(); }
+	public synchronized long getHits(){ return hits; }
+	public synchronized long getMisses(){ return misses; }
+
+	public synchronized void clear(){
+		results.clear();
+		hits = 0;
+		misses = 0;
+	}
+
+	/**
+	 * Compute a 64-bit FNV-1a hash over the pixels of the subarea of an image.
+	 * @param image BufferedImage to hash.
+	 * @param subarea area of the image to hash. NULL stands for whole area of the image.
+	 * @return long hash of the width, height and RGB pixels of the area.
+	 * @throws SAFSException if the subarea is not contained within the image.
+	 */
+	public static long hash(BufferedImage image, Rectangle subarea) throws SAFSException{
+		Rectangle area = toArea(image, subarea);
+		long h = FNV_OFFSET;
+		h = (h ^ area.width) * FNV_PRIME;
+		h = (h ^ area.height) * FNV_PRIME;
+		int[] row = new int[area.width];
+		for(int y=area.y; y < area.y + area.height; y++){
+			image.getRGB(area.x, y, area.width, 1, row, 0, area.width);
+			for(int p: row){
+				h = (h ^ (p & 0xFF)) * FNV_PRIME;
+				h = (h ^ ((p >>> 8) & 0xFF)) * FNV_PRIME;
+				h = (h ^ ((p >>> 16) & 0xFF)) * FNV_PRIME;
+			}
+		}
+		return h;
+	}
+
+	/**
+	 * Build the cache key for the text recognized in an image area.
+	 * @throws SAFSException if the subarea is not contained within the image.
+	 */
+	public static String textKey(BufferedImage image, String langId, Rectangle subarea, float zoom) throws SAFSException{
+		return "T:"+ Long.toHexString(hash(image, subarea)) +":"+ langId +":"+ Float.floatToIntBits(zoom);
+	}
+
+	/**
+	 * Build the cache key for the area of the Nth instance of searchtext found in an image area.
+	 * @param mode the engine's current mode of locating text, see {@link OCREngine#getTextRectMode()}.
+	 * @throws SAFSException if the subarea is not contained within the image.
+	 */
+	public static String rectKey(String searchtext, int index, BufferedImage image, String langId, Rectangle subarea, float zoom, String mode) throws SAFSException{
+		return "R:"+ Long.toHexString(hash(image, subarea)) +":"+ langId +":"+ Float.floatToIntBits(zoom) +":"+ mode +":"+ index +":"+ searchtext;
+	}
+
+	/**
+	 * @return true if a result is cached for the key. A cached findTextRect result may be null.
+	 */
+	public synchronized boolean contains(String key){
+		boolean found = results.containsKey(key);
+		if(found) hits++; else misses++;
+		return found;
+	}
+
+	/** @return the cached text for the key, or null. */
+	public synchronized String getText(String key){
+		Object o = results.get(key);
+		return o instanceof String ? (String) o : null;
+	}
+
+	/** Cache the text recognized for the key. null results are not cached. */
+	public synchronized void putText(String key, String text){
+		if(maxSize > 0 && text != null) results.put(key, text);
+	}
+
+	/** @return a copy of the cached Rectangle for the key, or null if the text was not found. */
+	public synchronized Rectangle getRect(String key){
+		Object o = results.get(key);
+		return (o instanceof Rectangle && o != NOT_FOUND) ? new Rectangle((Rectangle) o) : null;
+	}
+
+	/** Cache the Rectangle found for the key. A null rect is cached as "not found". */
+	public synchronized void putRect(String key, Rectangle rect){
+		if(maxSize > 0) results.put(key, rect == null ? NOT_FOUND : new Rectangle(rect));
+	}
+
+	/**
+	 * Split an image area into horizontal bands for incremental OCR.
+	 * Bands are cut only at blank rows--rows whose pixels are all the same color--so lines of text
+	 * are kept whole. A band is closed at the first blank row once it is at least minBandHeight tall.
+	 * Leading and trailing blank rows of each band are trimmed, and wholly blank bands are dropped.
+	 * If no blank row is found, the whole area is returned as a single band.
+	 * @param image BufferedImage to split.
+	 * @param subarea area of the image to split. NULL stands for whole area of the image.
+	 * @param minBandHeight minimum height in pixels of each band, except possibly the last.
+	 * @return List of Rectangles in image coordinates, top to bottom.
+	 * @throws SAFSException if the subarea is not contained within the image.
+	 */
+	public static List<Rectangle> splitBands(BufferedImage image, Rectangle subarea, int minBandHeight) throws SAFSException{
+		Rectangle area = toArea(image, subarea);
+		List<Rectangle> bands = new ArrayList<Rectangle>();
+		int[] row = new int[area.width];
+		int start = -1;       // first non-blank row of the current band
+		int lastInk = -1;     // last non-blank row of the current band
+		for(int y=area.y; y < area.y + area.height; y++){
+			image.getRGB(area.x, y, area.width, 1, row, 0, area.width);
+			boolean blank = true;
+			for(int i=1; i < row.length && blank; i++) blank = row[i] == row[0];
+			if(!blank){
+				if(start < 0) start = y;
+				lastInk = y;
+			}else if(start >= 0 && y - start >= minBandHeight){
+				bands.add(new Rectangle(area.x, start, area.width, lastInk - start + 1));
+				start = -1;
+			}
+		}
+		if(start >= 0) bands.add(new Rectangle(area.x, start, area.width, lastInk - start + 1));
+		if(bands.size() == 1 && bands.get(0).height == area.height) bands.set(0, area);
+		return bands;
+	}
+
+	private static Rectangle toArea(BufferedImage image, Rectangle subarea) throws SAFSException{
+		Rectangle whole = new Rectangle(0, 0, image.getWidth(), image.getHeight());
+		if(subarea == null) return whole;
+		if(subarea.isEmpty() || !whole.contains(subarea))
+			throw new SAFSException("The specified subarea "+ subarea +" is not contained within the source image.");
+		return subarea;
+	}
+
+	/**
+	 * Self-test with a stand-in engine that counts recognitions instead of running an OCR executable,
+	 * followed--when an image file is given--by the real engine on a stored image.
+	 * <p>
+	 * java org.safs.tools.ocr.OCRResultCache [imageFile [TOCR|GOCR]]
+	 */
+	public static void main(String[] args) throws Exception{
+		final int[] calls = new int[1];
+		final String[] mode = {"A"};
+		OCREngine counting = new OCREngine(){
+			protected String getTextRectMode(){
+				return mode[0];
+			}
+			protected String recognizeText(BufferedImage image, String langId, Rectangle subarea, float zoom) throws SAFSException{
+				calls[0]++;
+				Rectangle area = toArea(image, subarea);
+				return "text@"+ area.y +"+"+ area.height;
+			}
+			protected Rectangle recognizeTextRect(String searchtext, int index, BufferedImage image, String langId, Rectangle subarea, float zoom) throws SAFSException{
+				calls[0]++;
+				return searchtext.equals("missing") ? null : new Rectangle(1, 2, 3, 4);
+			}
+		};
+		// five distinct lines of "text" separated by blank rows. Identical bands would share a cache entry.
+		BufferedImage image = new BufferedImage(200, 100, BufferedImage.TYPE_INT_RGB);
+		Graphics g = image.getGraphics();
+		g.setColor(Color.WHITE);
+		g.fillRect(0, 0, 200, 100);
+		g.setColor(Color.BLACK);
+		for(int line=0; line < 5; line++) g.fillRect(10, 5 + line*20, 100 + line*10, 10);
+		g.dispose();
+
+		check("whole image is recognized once", counting.imageToText(image, "en", null, 1.5f).equals("text@0+100") && calls[0]==1);
+		counting.imageToText(image, "en", null, 1.5f);
+		check("unchanged image is served from the cache", calls[0]==1);
+		counting.imageToText(image, "zh", null, 1.5f);
+		counting.imageToText(image, "en", null, 2f);
+		check("language and zoom are part of the key", calls[0]==3);
+
+		List<Rectangle> bands = splitBands(image, null, 1);
+		check("one band per line of text: "+ bands, bands.size()==5 && bands.get(2).equals(new Rectangle(0, 45, 200, 10)));
+		check("bands honor the minimum height", splitBands(image, null, 30).size()==3);
+
+		calls[0] = 0;
+		String text = counting.imageToTextIncremental(image, "en", null, 1.5f, 1);
+		check("first incremental pass recognizes every band", calls[0]==5 && text.split("\n").length==5);
+		g = image.getGraphics();
+		g.setColor(Color.BLACK);
+		g.fillRect(170, 65, 10, 10);
+		g.dispose();
+		counting.imageToTextIncremental(image, "en", null, 1.5f, 1);
+		check("only the changed band is recognized again", calls[0]==6);
+
+		calls[0] = 0;
+		Rectangle r = counting.findTextRectFromImage("found", 1, image, "en", null, 1.5f);
+		r.x = 99;
+		check("found rect is cached as a copy", counting.findTextRectFromImage("found", 1, image, "en", null, 1.5f).x==1 && calls[0]==1);
+		counting.findTextRectFromImage("found", 2, image, "en", null, 1.5f);
+		check("search index is part of the key", calls[0]==2);
+		mode[0] = "B";
+		counting.findTextRectFromImage("found", 1, image, "en", null, 1.5f);
+		check("text find mode is part of the key", calls[0]==3);
+		mode[0] = "A";
+		counting.findTextRectFromImage("found", 1, image, "en", null, 1.5f);
+		check("switching the mode back uses the cache", calls[0]==3);
+		check("text not found is cached", counting.findTextRectFromImage("missing", 1, image, "en", null, 1.5f)==null
+				&& counting.findTextRectFromImage("missing", 1, image, "en", null, 1.5f)==null && calls[0]==4);
+
+		counting.setResultCacheSize(0);
+		counting.imageToText(image, "en", null, 1.5f);
+		counting.imageToText(image, "en", null, 1.5f);
+		check("a cache size of 0 disables caching", calls[0]==6);
+
+		if(args.length > 0){
+			OCREngine engine = OCREngine.getOCREngine(args.length > 1 ? args[1] : OCREngine.OCR_DEFAULT_ENGINE_KEY, null);
+			BufferedImage stored = org.safs.image.ImageUtils.getStoredImage(args[0]);
+			float zoom = engine.getdefaultZoomScale();
+			long t0 = System.currentTimeMillis();
+			String first = engine.imageToText(stored, "en", null, zoom);
+			long t1 = System.currentTimeMillis();
+			String second = engine.imageToText(stored, "en", null, zoom);
+			long t2 = System.currentTimeMillis();
+			String banded = engine.imageToTextIncremental(stored, "en", null, zoom, 20);
+			long t3 = System.currentTimeMillis();
+			engine.imageToTextIncremental(stored, "en", null, zoom, 20);
+			long t4 = System.currentTimeMillis();
+			check("stored image text is cached", first != null && first.equals(second));
+			System.out.println("OCR "+ (t1-t0) +"ms, cached "+ (t2-t1) +"ms, incremental "+ (t3-t2) +"ms, incremental cached "+ (t4-t3) +"ms");
+			System.out.println("Text:\n"+ first +"\nIncremental text:\n"+ banded);
+		}
+		System.out.println("OCRResultCache self-test passed.");
+	}
+
+	private static void check(String what, boolean ok){
+		if(!ok) throw new AssertionError("FAILED: "+ what);
+		System.out.println("ok: "+ what);
+	}
+}
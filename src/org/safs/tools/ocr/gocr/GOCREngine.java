@@ -37,6 +37,7 @@ import org.safs.tools.ocr.OCREngine;
  * <br> JAN 15, 2009    (JunwuMa) Adding support to use trained data as an alternative.
  * <br> JAN 27, 2009    (JunwuMa) Move runCommandLine() to its super. 
  * <br> FEB 25, 2010    (JunwuMa) Refactoring for OCR keywords.
+ * <br> OCT 19, 2026    imageToText() becomes recognizeText() so OCREngine can cache its results.
  *
  */
 public class GOCREngine extends OCREngine {
@@ -70,7 +71,7 @@ public class GOCREngine extends OCREngine {
 	}
 
 	/*override its super*/
-	public String imageToText(BufferedImage image, String langId, Rectangle subarea, float zoom) throws SAFSException {
+	protected String recognizeText(BufferedImage image, String langId, Rectangle subarea, float zoom) throws SAFSException {
 		String debugMsg = getClass().getName() + ".imageToText():";
 		
 		Log.info(debugMsg + " start...");
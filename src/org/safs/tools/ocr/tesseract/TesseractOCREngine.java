@@ -84,6 +84,9 @@ import org.safs.tools.stringutils.StringUtilities;
  * <br> OCT 22, 2010    (Carl Nagle) added support for tesseract.exe text coordinate extraction
  *                               added support to detect System Environment Variable TESSDATA_VERSION to
  *                               detect versions of Tesseract > 2.04.
+ * <br> OCT 19, 2026    imageToText() and findTextRectFromImage() become recognizeText() and
+ *                               recognizeTextRect() so OCREngine can cache their results.
+ * <br> OCT 19, 2026    Added getTextRectMode(): TEXT_FIND_MODE is part of the key of the cached rects.
  * @see tessFileParser
  * @see org.safs.image.ReverseRectangle                              
  */
@@ -142,6 +145,11 @@ public class TesseractOCREngine extends OCREngine {
 	 * <p>
 	 * Possible values: TEXT_FIND_TESSDLL_MODE, and the default TEXT_FIND_TESSEXE_MODE.*/ 
 	public static int TEXT_FIND_MODE = TEXT_FIND_TESSEXE_MODE;
+
+	/** @return String, the current {@link #TEXT_FIND_MODE}, so rects are cached apart for each mode. */
+	protected String getTextRectMode(){
+		return String.valueOf(TEXT_FIND_MODE);
+	}
 	
 	
 	public TesseractOCREngine() {
@@ -151,7 +159,7 @@ public class TesseractOCREngine extends OCREngine {
 	}
 	
 	/*override its super*/
-	public String imageToText(BufferedImage image, String langId, Rectangle subarea, float zoom) throws SAFSException {
+	protected String recognizeText(BufferedImage image, String langId, Rectangle subarea, float zoom) throws SAFSException {
 		String debugMsg = getClass().getName() + ".imageToText():";
 		Log.info(debugMsg + " start...");		
 		BufferedImage targimg = zoomImageWithType(image, BufferedImage.TYPE_BYTE_GRAY, subarea, zoom);  //TYPE_BYTE_GRAY  TYPE_BYTE_BINARY
@@ -241,6 +249,8 @@ public class TesseractOCREngine extends OCREngine {
 	
 	/**
 	 * Find text from BufferedImage, and return its area in the BufferedImage. 
+	 * Called by {@link OCREngine#findTextRectFromImage(String, int, BufferedImage, String, Rectangle, float)}
+	 * when no result is cached for the image.
 	 * 
 	 * Two modes of operation are possible based on the TEXT_FIND_MODE setting.
 	 * <p><pre>
@@ -271,7 +281,7 @@ public class TesseractOCREngine extends OCREngine {
 	 * @see {@link #TEXT_FIND_MODE}
 	 * @see ReverseRectangle
 	 */
-	public Rectangle findTextRectFromImage(String searchtext, int index, BufferedImage image, String stdlangId, Rectangle subarea, float zoom) throws SAFSException {
+	protected Rectangle recognizeTextRect(String searchtext, int index, BufferedImage image, String stdlangId, Rectangle subarea, float zoom) throws SAFSException {
 		//TMP_TEXT__COOR_OUTPUT will be generated
 		String debugMsg = getClass().getName() + ".findTextRectFromImage():";
 		Log.info(debugMsg + " start...");		
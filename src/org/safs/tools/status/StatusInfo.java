@@ -27,7 +27,7 @@ import org.safs.testrail.TestRailConstants;
 
 public class StatusInfo implements StatusInterface {
 
-	protected boolean suspended = false;
+	protected volatile boolean suspended = false;
 	protected String testlevel = null;
 
 	protected long totalrecords = 0;
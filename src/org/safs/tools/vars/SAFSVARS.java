@@ -18,10 +18,10 @@
 package org.safs.tools.vars;
 
 import org.safs.Log;
+import org.safs.staf.embedded.EmbeddedRequest;
 import org.safs.staf.service.InfoInterface;
 import org.safs.staf.service.input.EmbeddedInputService;
 import org.safs.staf.service.map.EmbeddedMapService;
-import org.safs.staf.service.var.AbstractSAFSVariableService;
 import org.safs.staf.service.var.EmbeddedVariableService;
 import org.safs.tools.drivers.DriverConfiguredSTAFInterfaceClass;
 import org.safs.STAFHelper;
@@ -311,11 +311,8 @@ public class SAFSVARS extends DriverConfiguredSTAFInterfaceClass
 
 		if(record!=null&&sep!=null)
 		{
-			String _ddv_record = StringUtilities.findAndReplace(record, AbstractSAFSVariableService.SVS_CARET, AbstractSAFSVariableService.SVS_FALSE_CARET);
-			String NOEXPRESSIONS = (driver.isExpressionsEnabled()) ? "":" NOEXPRESSIONS";
-			
-		    String     request = "RESOLVE "+staf.lentagValue(_ddv_record)+" SEPARATOR "+staf.lentagValue(sep) + NOEXPRESSIONS;
-		    STAFResult result  = staf.submit2ForFormatUnchangedService(machine,servicename,request);		    
+		    // Embedded services receive the typed request directly, others receive the equivalent RESOLVE command string
+		    STAFResult result  = staf.submitEmbedded(servicename, new EmbeddedRequest.Resolve(record, sep, driver.isExpressionsEnabled()));
 		    if (result.rc==STAFResult.Ok) 
 		        // remove leading "0:"
 		    	return result.result.substring(2);
@@ -337,8 +334,7 @@ public class SAFSVARS extends DriverConfiguredSTAFInterfaceClass
 		
 		if(var!=null&&value!=null)
 		 {
-		   String     request = "SET "+staf.lentagValue(var)+" Value "+staf.lentagValue(value);
-		   STAFResult result  = staf.submit2ForFormatUnchangedService(machine,servicename,request);
+		   STAFResult result  = staf.submitEmbedded(servicename, new EmbeddedRequest.SetVariable(var, value));
 		   return value;
          }
         else
@@ -357,8 +353,7 @@ public class SAFSVARS extends DriverConfiguredSTAFInterfaceClass
 		if(var!=null)
 		 {
 		 	
-		   String     request = "GET "+staf.lentagValue(var);
-		   STAFResult result  = staf.submit2ForFormatUnchangedService(machine,servicename,request);
+		   STAFResult result  = staf.submitEmbedded(servicename, new EmbeddedRequest.GetVariable(var));
 		   if(result.rc==0)
 		    {
 		      String value=result.result;